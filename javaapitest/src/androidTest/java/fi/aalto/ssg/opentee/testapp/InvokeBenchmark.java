@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.testapp;
+
+import android.content.Context;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.LargeTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.OTHelper;
+import fi.aalto.ssg.opentee.imps.OTContext;
+import fi.aalto.ssg.opentee.imps.OpenTEE;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Latency benchmark of command round trips against the OmniShare TA. It needs the Open-TEE service
+ * to be installed and running on the device. The results are printed to logcat with the tag InvokeBenchmark.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class InvokeBenchmark {
+    final String TAG = "InvokeBenchmark";
+
+    static final int WARM_UP_ROUNDS = 20;
+    static final int ROUNDS = 512; // a multiple of the batch sizes.
+    static final int CMD_CREATE_ROOT_KEY = 0x00000001;
+    static final int ROOT_KEY_SIZE = 128;
+    // a few stray allocations of the platform are tolerated, but nothing proportional to the calls.
+    static final long MAX_STEADY_STATE_BYTES_PER_CALL = 16;
+
+    ITEEClient mClient;
+    ITEEClient.IContext mCtx;
+    ITEEClient.ISession mSes;
+    ITEEClient.ISharedMemory mSm;
+    ITEEClient.IRegisteredMemoryReference mRmr;
+    ITEEClient.IOperation mOp;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+
+        mClient = OpenTEE.newTEEClient();
+        mCtx = mClient.initializeContext(null, context);
+        assertNotNull(mCtx);
+
+        assertTrue(((OTHelper)mCtx).installTA(Omnishare.OMNISHARE_TA));
+
+        mSes = mCtx.openSession(OmnishareUtils.getOmnishareTaUuid(),
+                ITEEClient.IContext.ConnectionMethod.LoginPublic,
+                null,
+                null);
+
+        mSm = mCtx.registerSharedMemory(new byte[ROOT_KEY_SIZE], ITEEClient.ISharedMemory.TEEC_MEM_OUTPUT);
+        mRmr = mClient.RegisteredMemoryReference(mSm,
+                ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_OUTPUT,
+                0);
+        mOp = mClient.Operation(mRmr);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if(mSm != null) mCtx.releaseSharedMemory(mSm);
+        if(mSes != null) mSes.closeSession();
+        if(mCtx != null) mCtx.finalizeContext();
+    }
+
+    /* average latency of one invokeCommand in microseconds. */
+    private long measureInvokeCommand(int rounds, ITEEClient.IOperation op) throws Exception {
+        long start = SystemClock.elapsedRealtimeNanos();
+        for(int i = 0; i < rounds; i++){
+            mSes.invokeCommand(CMD_CREATE_ROOT_KEY, op);
+        }
+        return (SystemClock.elapsedRealtimeNanos() - start) / rounds / 1000;
+    }
+
+    /* average latency of one command in microseconds when the commands are sent in batches. */
+    private long measureInvokeCommandBatch(int rounds, int batchSize) throws Exception {
+        ITEEClient.ICommandBatch batch = mSes.newCommandBatch();
+        for(int i = 0; i < batchSize; i++){
+            // one operation can only be used once in a batch, so they share the same parameter instead.
+            batch.addCommand(CMD_CREATE_ROOT_KEY, mClient.Operation(mRmr));
+        }
+
+        int batches = Math.max(1, rounds / batchSize);
+        long start = SystemClock.elapsedRealtimeNanos();
+        for(int i = 0; i < batches; i++){
+            batch.invoke();
+        }
+        long avg = (SystemClock.elapsedRealtimeNanos() - start) / (batches * batchSize) / 1000;
+
+        for(int i = 0; i < batchSize; i++){
+            batch.checkResult(i);
+        }
+        return avg;
+    }
+
+    private void report(String name, long avgInUs){
+        Log.i(TAG, name + ": " + avgInUs + " us per call over " + ROUNDS + " rounds");
+    }
+
+    @Test
+    public void invokeCommandDirectDispatch() throws Exception {
+        ((OTContext)mCtx).setWorkerPoolSize(0);
+
+        measureInvokeCommand(WARM_UP_ROUNDS, mOp);
+        report("invokeCommand (direct dispatch)", measureInvokeCommand(ROUNDS, mOp));
+    }
+
+    @Test
+    public void invokeCommandSteadyStateDoesNotAllocate() throws Exception {
+        ((OTContext)mCtx).setWorkerPoolSize(0);
+
+        measureInvokeCommand(WARM_UP_ROUNDS, mOp);
+
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        measureInvokeCommand(ROUNDS, mOp);
+        Debug.stopAllocCounting();
+
+        long bytesPerCall = Debug.getThreadAllocSize() / ROUNDS;
+        Log.i(TAG, "invokeCommand (steady state): " + Debug.getThreadAllocCount() + " allocations, "
+                + bytesPerCall + " bytes per call over " + ROUNDS + " rounds");
+        assertTrue("steady state invokeCommand allocates " + bytesPerCall + " bytes per call",
+                bytesPerCall <= MAX_STEADY_STATE_BYTES_PER_CALL);
+    }
+
+    @Test
+    public void invokeCommandWorkerPool() throws Exception {
+        ((OTContext)mCtx).setWorkerPoolSize(1);
+
+        measureInvokeCommand(WARM_UP_ROUNDS, mOp);
+        report("invokeCommand (worker pool)", measureInvokeCommand(ROUNDS, mOp));
+    }
+
+    @Test
+    public void invokeCommandBatchOf1() throws Exception {
+        measureInvokeCommandBatch(WARM_UP_ROUNDS, 1);
+        report("invokeCommandBatch (batch size 1)", measureInvokeCommandBatch(ROUNDS, 1));
+    }
+
+    @Test
+    public void invokeCommandBatchOf8() throws Exception {
+        measureInvokeCommandBatch(WARM_UP_ROUNDS, 8);
+        report("invokeCommandBatch (batch size 8)", measureInvokeCommandBatch(ROUNDS, 8));
+    }
+
+    @Test
+    public void invokeCommandBatchOf64() throws Exception {
+        measureInvokeCommandBatch(WARM_UP_ROUNDS, 64);
+        report("invokeCommandBatch (batch size 64)", measureInvokeCommandBatch(ROUNDS, 64));
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.testapp;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.LargeTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.OTHelper;
+import fi.aalto.ssg.opentee.imps.OpenTEE;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Throughput benchmark of commands issued from several threads at once, each on a session of its own
+ * to the OmniShare TA. The service serves different sessions in parallel, so the total throughput should
+ * grow with the number of sessions until the TEE is saturated. It needs the Open-TEE service to be
+ * installed and running on the device. The results are printed to logcat with the tag MultiClientBenchmark.
+ * <p>
+ * The service tells the callers apart by their process, so the threads share one context. Separate
+ * contexts in one process would be finalized together.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class MultiClientBenchmark {
+    final String TAG = "MultiClientBenchmark";
+
+    static final int WARM_UP_ROUNDS = 20;
+    static final int ROUNDS = 256; // per session.
+    static final int CMD_CREATE_ROOT_KEY = 0x00000001;
+    static final int ROOT_KEY_SIZE = 128;
+
+    ITEEClient mClient;
+    ITEEClient.IContext mCtx;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+
+        mClient = OpenTEE.newTEEClient();
+        mCtx = mClient.initializeContext(null, context);
+        assertNotNull(mCtx);
+
+        assertTrue(((OTHelper)mCtx).installTA(Omnishare.OMNISHARE_TA));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        // the sessions and shared memory left by a failed run are cleaned up by the service.
+        if(mCtx != null) mCtx.finalizeContext();
+    }
+
+    /* one session with its own output buffer, driven by one thread. */
+    class Client implements Runnable {
+        final CountDownLatch mStart;
+        final CountDownLatch mDone;
+        final AtomicReference<Throwable> mError;
+        final int mRounds;
+
+        ITEEClient.ISession mSes;
+        ITEEClient.ISharedMemory mSm;
+        ITEEClient.IOperation mOp;
+
+        Client(CountDownLatch start, CountDownLatch done, AtomicReference<Throwable> error, int rounds) throws Exception {
+            mStart = start;
+            mDone = done;
+            mError = error;
+            mRounds = rounds;
+
+            mSes = mCtx.openSession(OmnishareUtils.getOmnishareTaUuid(),
+                    ITEEClient.IContext.ConnectionMethod.LoginPublic,
+                    null,
+                    null);
+
+            mSm = mCtx.registerSharedMemory(new byte[ROOT_KEY_SIZE], ITEEClient.ISharedMemory.TEEC_MEM_OUTPUT);
+            mOp = mClient.Operation(mClient.RegisteredMemoryReference(mSm,
+                    ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_OUTPUT,
+                    0));
+        }
+
+        @Override
+        public void run() {
+            try {
+                mStart.await();
+                for(int i = 0; i < mRounds; i++){
+                    mSes.invokeCommand(CMD_CREATE_ROOT_KEY, mOp);
+                }
+            } catch (Throwable e) {
+                mError.compareAndSet(null, e);
+            } finally {
+                mDone.countDown();
+            }
+        }
+
+        void close() throws Exception {
+            mCtx.releaseSharedMemory(mSm);
+            mSes.closeSession();
+        }
+    }
+
+    /* total number of commands per second with one thread per session. */
+    private long measureThroughput(int numOfSessions, int rounds) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(numOfSessions);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        Client[] clients = new Client[numOfSessions];
+        Thread[] threads = new Thread[numOfSessions];
+        for(int i = 0; i < numOfSessions; i++){
+            clients[i] = new Client(start, done, error, rounds);
+            threads[i] = new Thread(clients[i], TAG + "-" + i);
+            threads[i].start();
+        }
+
+        long startTime = SystemClock.elapsedRealtimeNanos();
+        start.countDown();
+        done.await();
+        long elapsed = SystemClock.elapsedRealtimeNanos() - startTime;
+
+        for(int i = 0; i < numOfSessions; i++){
+            threads[i].join();
+            clients[i].close();
+        }
+
+        assertNull("command failed: " + error.get(), error.get());
+
+        return (long)numOfSessions * rounds * 1000000000L / Math.max(1, elapsed);
+    }
+
+    private void report(int numOfSessions) throws Exception {
+        measureThroughput(numOfSessions, WARM_UP_ROUNDS);
+        long callsPerSecond = measureThroughput(numOfSessions, ROUNDS);
+
+        Log.i(TAG, numOfSessions + " sessions in parallel: " + callsPerSecond + " calls per second in total, "
+                + ROUNDS + " rounds per session");
+    }
+
+    @Test
+    public void oneSession() throws Exception {
+        report(1);
+    }
+
+    @Test
+    public void twoSessions() throws Exception {
+        report(2);
+    }
+
+    @Test
+    public void fourSessions() throws Exception {
+        report(4);
+    }
+
+    @Test
+    public void eightSessions() throws Exception {
+        report(8);
+    }
+}
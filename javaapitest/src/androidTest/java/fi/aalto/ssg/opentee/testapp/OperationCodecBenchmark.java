@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.testapp;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.support.test.filters.LargeTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.imps.OTFactoryMethods;
+import fi.aalto.ssg.opentee.imps.OTOperation;
+import fi.aalto.ssg.opentee.imps.OTOperationCodec;
+import fi.aalto.ssg.opentee.imps.OTSharedMemory;
+import fi.aalto.ssg.opentee.imps.OpenTEE;
+import fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes;
+
+/**
+ * Cost of encoding an operation and decoding the returned one with the protobuf and the flat codec, and
+ * for an operation of values only also as int[]. It does not need the Open-TEE service. The results are printed to logcat with the tag OperationCodecBenchmark.
+ * It only measures. The codecs are checked by the JVM unit tests of otclient.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class OperationCodecBenchmark {
+    final String TAG = "OperationCodecBenchmark";
+
+    static final int WARM_UP_ROUNDS = 20;
+    static final int ROUNDS = 256;
+    static final int SM_ID = 1;
+
+    ITEEClient mClient = OpenTEE.newTEEClient();
+    int[] mValues = new int[OTOperationCodec.VALUES_SIZE]; // reused as the client does.
+
+    /* an operation with a value and, if the payload is not empty, an inout reference to the whole of it. */
+    private ITEEClient.IOperation newOperation(int payloadSize) throws Exception {
+        ITEEClient.IValue value = mClient.Value(ITEEClient.IValue.Flag.TEEC_VALUE_INOUT, 1, 2);
+        if(payloadSize == 0) return mClient.Operation(value);
+
+        byte[] payload = new byte[payloadSize];
+        for(int i = 0; i < payloadSize; i++) payload[i] = (byte)i;
+
+        OTSharedMemory sm = new OTSharedMemory(payload,
+                ITEEClient.ISharedMemory.TEEC_MEM_INPUT | ITEEClient.ISharedMemory.TEEC_MEM_OUTPUT,
+                SM_ID);
+        ITEEClient.IRegisteredMemoryReference rmr = mClient.RegisteredMemoryReference(sm,
+                ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_INOUT,
+                0);
+        return mClient.Operation(value, rmr);
+    }
+
+    /* the same work as the client does for the protobuf reply. */
+    private void decodeProtobuf(ITEEClient.IOperation iOperation, byte[] opInBytes) throws Exception {
+        GPDataTypes.TeecOperation op = OTFactoryMethods.transferOpInBytesToOperation(TAG, opInBytes);
+        OTOperation otOperation = (OTOperation)iOperation;
+
+        for(int i = 0; i < op.getMParamsCount(); i++){
+            GPDataTypes.TeecParameter param = op.getMParams(i);
+            if(param.getType() == GPDataTypes.TeecParameter.Type.smr){
+                GPDataTypes.TeecSharedMemoryReference smr = param.getTeecSharedMemoryReference();
+                ITEEClient.IRegisteredMemoryReference rmr = (ITEEClient.IRegisteredMemoryReference)otOperation.getParam(i);
+                OTSharedMemory sm = (OTSharedMemory)rmr.getSharedMemory();
+
+                // the request carries the window as dirty ranges, which stand in for the region written back.
+                for(GPDataTypes.TeecDirtyRange range: smr.getParent().getMDirtyRangesList()){
+                    sm.updateBuffer(range.getMData().toByteArray(),
+                            range.getMOffset(),
+                            smr.getParent().getMReturnSize());
+                }
+            }
+        }
+    }
+
+    private void roundTrip(ITEEClient.IOperation op, int codecVersion) throws Exception {
+        if(codecVersion == OTOperationCodec.CODEC_VALUES){
+            // the array is all that is sent, and the service updates it in place.
+            OTOperationCodec.encodeValues((OTOperation)op, mValues);
+            OTOperationCodec.decodeValuesInto((OTOperation)op, mValues);
+            return;
+        }
+
+        byte[] opInBytes = OTFactoryMethods.encodeOperation(TAG, op, codecVersion);
+
+        if(codecVersion == OTOperationCodec.CODEC_PROTOBUF){
+            decodeProtobuf(op, opInBytes);
+        }else{
+            OTOperationCodec.decodeInto((OTOperation)op, opInBytes);
+        }
+    }
+
+    private void measure(String name, int payloadSize, int codecVersion) throws Exception {
+        ITEEClient.IOperation op = newOperation(payloadSize);
+
+        for(int i = 0; i < WARM_UP_ROUNDS; i++) roundTrip(op, codecVersion);
+
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        long start = SystemClock.elapsedRealtimeNanos();
+        for(int i = 0; i < ROUNDS; i++){
+            roundTrip(op, codecVersion);
+        }
+        long avgInNs = (SystemClock.elapsedRealtimeNanos() - start) / ROUNDS;
+        Debug.stopAllocCounting();
+
+        Log.i(TAG, name + " payload " + payloadSize + " bytes: " + avgInNs / 1000 + " us, "
+                + Debug.getThreadAllocCount() / ROUNDS + " allocations, "
+                + Debug.getThreadAllocSize() / ROUNDS + " bytes allocated per round trip");
+    }
+
+    private void compare(int payloadSize) throws Exception {
+        measure("protobuf", payloadSize, OTOperationCodec.CODEC_PROTOBUF);
+        measure("flat", payloadSize, OTOperationCodec.CODEC_FLAT_V1);
+        if(payloadSize == 0) measure("values", payloadSize, OTOperationCodec.CODEC_VALUES);
+    }
+
+    @Test
+    public void codecPayload0() throws Exception {
+        compare(0);
+    }
+
+    @Test
+    public void codecPayload4K() throws Exception {
+        compare(4 * 1024);
+    }
+
+    @Test
+    public void codecPayload512K() throws Exception {
+        compare(512 * 1024);
+    }
+}
@@ -24,6 +24,8 @@ import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
 
+import fi.aalto.ssg.opentee.imps.OpenTEE;
+
 public class MainActivity extends AppCompatActivity {
     public final String TAG = "Test_APP";
 
@@ -133,6 +135,9 @@ public class MainActivity extends AppCompatActivity {
         /* initialize the UI updater with callback function */
         mUpdateUi = new Handler(updateUiCallBack);
 
+        /* connect to the TEE service in the background so that the first command does not wait for it */
+        OpenTEE.newTEEClient().prewarm(null, getApplicationContext());
+
         /* initialize the mWorker */
         mWorker = new Worker("LOL tough worker", mUpdateUi, getApplicationContext());
         mWorker.start();
@@ -266,85 +266,30 @@ public class Omnishare {
            opCmd == null ||
            des == null || des.length == 0) throw new BadFormatException("incorrect input parameters.");
 
-        ITEEClient.IOperation op = null;
-
-        ITEEClient.IRegisteredMemoryReference srcRmr = null;
-        ITEEClient.IRegisteredMemoryReference desRmr = null;
-        ITEEClient.IRegisteredMemoryReference keyRmr = null;
-
-        ITEEClient.IValue val = client.Value(ITEEClient.IValue.Flag.TEEC_VALUE_INPUT, opCmd.var, 0);
-
-        ITEEClient.ISharedMemory srcSm = null;
+        // the buffers are only needed for this call, so they travel with the operation instead of being
+        // registered and released around it.
+        ITEEClient.ITempMemoryReference srcTmr = null;
         if(opCmd == CRYPTO_OP.CRYPTO_ENC_FILE || opCmd == CRYPTO_OP.CRYPTO_DEC_FILE){
             if (src == null || src.length == 0) throw new BadFormatException("incorrect input parameters of src.");
 
-            try {
-                srcSm = ctx.registerSharedMemory(src, ITEEClient.ISharedMemory.TEEC_MEM_INPUT);
-            } catch (TEEClientException e) {
-                e.printStackTrace();
-                return null;
-            }
-
-            srcRmr = client.RegisteredMemoryReference(srcSm, ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_INPUT, 0);
+            srcTmr = client.TempMemoryReference(src, ITEEClient.ITempMemoryReference.Flag.TEEC_MEMREF_TEMP_INPUT);
         }
 
-        ITEEClient.ISharedMemory keySm = null;
+        ITEEClient.ITempMemoryReference keyTmr = null;
         if(keyChain != null && keyCount >= 0 && keyLen >= 0){
             KeyChainData kcData = new KeyChainData(keyCount, keyLen, keyChain);
-            byte[] keySmBuffer = kcData.asByteArray();
 
-            try {
-                keySm = ctx.registerSharedMemory(keySmBuffer, ITEEClient.ISharedMemory.TEEC_MEM_INPUT);
-            } catch (TEEClientException e) {
-                e.printStackTrace();
-
-                if(srcSm != null){
-                    try {
-                        ctx.releaseSharedMemory(srcSm);
-                    } catch (TEEClientException e1) {
-                        e1.printStackTrace();
-                    }
-                }
-
-                return null;
-            }
-
-            keyRmr = client.RegisteredMemoryReference(keySm,
-                    ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_INPUT,
-                    0);
+            keyTmr = client.TempMemoryReference(kcData.asByteArray(),
+                    ITEEClient.ITempMemoryReference.Flag.TEEC_MEMREF_TEMP_INPUT);
         }
 
         // return buffer
-        ITEEClient.ISharedMemory desSm = null;
-        try {
-            desSm = ctx.registerSharedMemory(des, ITEEClient.ISharedMemory.TEEC_MEM_OUTPUT);
-        } catch (TEEClientException e) {
-            e.printStackTrace();
-
-            if(keySm != null){
-                try {
-                    ctx.releaseSharedMemory(keySm);
-                } catch (TEEClientException e1) {
-                    e1.printStackTrace();
-                }
-            }
+        ITEEClient.ITempMemoryReference desTmr = client.TempMemoryReference(des,
+                ITEEClient.ITempMemoryReference.Flag.TEEC_MEMREF_TEMP_OUTPUT);
 
-            if(srcSm != null){
-                try {
-                    ctx.releaseSharedMemory(srcSm);
-                } catch (TEEClientException e1) {
-                    e1.printStackTrace();
-                }
-            }
-
-            return null;
-        }
-
-        desRmr = client.RegisteredMemoryReference(desSm,
-                ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_OUTPUT,
-                0);
+        ITEEClient.IValue val = client.Value(ITEEClient.IValue.Flag.TEEC_VALUE_INPUT, opCmd.var, 0);
 
-        op = client.Operation(keyRmr, val, srcRmr, desRmr);
+        ITEEClient.IOperation op = client.Operation(keyTmr, val, srcTmr, desTmr);
 
         int CMD_DO_CRYPTO = 0X00000002;
         try {
@@ -353,26 +298,8 @@ public class Omnishare {
             e.printStackTrace();
         }
 
-        if(desRmr.getReturnSize() != des.length){
-            des = Arrays.copyOf(des, desRmr.getReturnSize());
-        }
-
-        try {
-            if(keySm != null) ctx.releaseSharedMemory(keySm);
-        } catch (TEEClientException e) {
-            e.printStackTrace();
-        }
-
-        try {
-            if(srcSm != null) ctx.releaseSharedMemory(srcSm);
-        } catch (TEEClientException e) {
-            e.printStackTrace();
-        }
-
-        try {
-            if(desSm != null) ctx.releaseSharedMemory(desSm);
-        } catch (TEEClientException e) {
-            e.printStackTrace();
+        if(desTmr.getReturnSize() != des.length){
+            des = Arrays.copyOf(des, desTmr.getReturnSize());
         }
 
         return des;
@@ -6,6 +6,7 @@ import android.os.RemoteException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Future;
 
 import fi.aalto.ssg.opentee.exception.BadParametersException;
 import fi.aalto.ssg.opentee.exception.GenericErrorException;
@@ -115,7 +116,11 @@ public interface ITEEClient {
             /**
              * This Parameter is a RegisteredMemoryReference.
              */
-            TEEC_PTYPE_RMR(0x00000002);
+            TEEC_PTYPE_RMR(0x00000002),
+            /**
+             * This Parameter is a TempMemoryReference.
+             */
+            TEEC_PTYPE_TMR(0x00000003);
 
             int id;
             Type(int id){this.id = id;}
@@ -123,7 +128,7 @@ public interface ITEEClient {
 
         /**
          * Get the type of the <code>IParameter</code> interface.
-         * @return an enum value Type which can be either TEEC_PTYPE_VAL or TEEC_PTYPE_RMR.
+         * @return an enum value Type which can be TEEC_PTYPE_VAL, TEEC_PTYPE_RMR or TEEC_PTYPE_TMR.
          */
         Type getType();
     }
@@ -171,6 +176,13 @@ public interface ITEEClient {
          */
         int getOffset();
 
+        /**
+         * Get the size of the referenced window of the shared memory. Only this part of the buffer is passed
+         * to the TEE and back.
+         * @return the size given when it was created, or the size of the rest of the buffer after the offset.
+         */
+        int getSize();
+
         /**
          * Get the size of returned buffer from TEE/TA. This function will return a valid value ( >= 0) only
          * when the following two requirements are met at the same time:
@@ -197,6 +209,71 @@ public interface ITEEClient {
      */
     IRegisteredMemoryReference RegisteredMemoryReference(ISharedMemory sharedMemory, IRegisteredMemoryReference.Flag flag, int offset) throws BadParametersException;
 
+    /**
+     * A method to create a <code>IRegisteredMemoryReference</code> interface which refers to a window of
+     * <code>size</code> bytes from the offset. Only the window is passed to the TEE and back, so one large
+     * shared memory can be worked on in small slices.
+     * @param sharedMemory the shared memory to refer.
+     * @param flag the flag for referenced shared memory.
+     * @param offset the offset from the beginning of the buffer of shared memory.
+     * @param size the size of the window. It must be positive and the window must fit in the buffer.
+     */
+    IRegisteredMemoryReference RegisteredMemoryReference(ISharedMemory sharedMemory, IRegisteredMemoryReference.Flag flag, int offset, int size) throws BadParametersException;
+
+    /**
+     * Interface for temporary memory reference. Unlike <code>IRegisteredMemoryReference</code>, its buffer
+     * does not have to be registered as a shared memory first. The bytes travel with the operation and are
+     * only shared with the TA while the function call lasts, so no <code>registerSharedMemory</code> and
+     * <code>releaseSharedMemory</code> calls are needed around it. It suits buffers which are used once.
+     * It can be only obtained by calling the <code>TempMemoryReference</code> function. An older service which
+     * does not support it fails the function call with a <code>NotSupportedException</code>.
+     */
+    interface ITempMemoryReference extends IParameter{
+        /**
+         * Flag enum indicates the I/O direction of the referenced buffer for TAs.
+         */
+        enum Flag{
+            /**
+             * The I/O direction of the referenced buffer is input for TAs.
+             */
+            TEEC_MEMREF_TEMP_INPUT(0x00000005),
+            /**
+             * The I/O direction of the referenced buffer is output for TAs.
+             */
+            TEEC_MEMREF_TEMP_OUTPUT(0x00000006),
+            /**
+             * The I/O directions of the referenced buffer are both input and output for TAs.
+             */
+            TEEC_MEMREF_TEMP_INOUT(0x00000007);
+
+            int id;
+            Flag(int id){this.id = id;}
+        }
+
+        /**
+         * Get the referenced buffer. The output from the TA is written straight into it.
+         * @return the byte array given when it was created.
+         */
+        byte[] getBuffer();
+
+        /**
+         * Get the size of returned buffer from TEE/TA. It is only valid after a function call with the
+         * TEEC_MEMREF_TEMP_OUTPUT or TEEC_MEMREF_TEMP_INOUT flag. If it is larger than the buffer, the buffer
+         * was too short and only its size is written back.
+         * @return an integer value as the returned size.
+         */
+        int getReturnSize();
+    }
+
+    /**
+     * A method to create a <code>ITempMemoryReference</code> interface to a byte array of the CA.
+     * @param buffer the buffer to refer. It can be empty to ask the TA for the size it needs.
+     * @param flag the I/O direction of the buffer for TAs.
+     * @return an <code>ITempMemoryReference</code> interface.
+     * @throws BadParametersException if the buffer or the flag is null.
+     */
+    ITempMemoryReference TempMemoryReference(byte[] buffer, ITempMemoryReference.Flag flag) throws BadParametersException;
+
     /**
      * Interface to access a pair of two integer values. It can be only obtained by calling the
      * <code>newValue</code> method.
@@ -302,6 +379,72 @@ public interface ITEEClient {
          */
         void invokeCommand(int commandId, IOperation operation) throws TEEClientException;
 
+        /**
+         * Same as <code>invokeCommand</code>, but the caller waits for the TA no longer than the given time.
+         * The command is issued in a worker thread of the context. When the time is up, the cancellation of
+         * the operation is requested in the TEE and this function returns with a <code>DeadlineExceededException</code>.
+         * The referenced <code>IOperation</code> interface stays in use until the remote side is done with it,
+         * and a command without an operation cannot be cancelled.
+         * @param commandId command identifier that is previously agreed with the TA.
+         * @param operation a wrapper of parameters for the action to take. It can be null.
+         * @param timeoutMs the time to wait in milliseconds. If it is 0 or less, it waits without limit.
+         * @throws exception.DeadlineExceededException:
+         * the command did not finish in time.
+         * @throws TEEClientException see the exceptions listed in <code>invokeCommand</code>.
+         */
+        void invokeCommand(int commandId, IOperation operation, long timeoutMs) throws TEEClientException;
+
+        /**
+         * Asynchronous version of <code>invokeCommand</code>. The command is sent to the remote TEE service and
+         * this function returns without waiting for the TA. No thread waits for the command while it is in
+         * flight, its result comes back on one channel which the context keeps for all of its commands. It makes
+         * it possible for one thread to keep multiple commands in flight, also across different sessions of the
+         * same context. The number of commands in flight within one context is limited. When the limit is
+         * reached, this function blocks until one of the ongoing commands finishes.
+         * <p>
+         * The referenced <code>IOperation</code> interface is in use until the returned <code>Future</code> is done.
+         * Its outputs can be read after that. Cancelling the <code>Future</code> requests the cancellation of
+         * the command in the TEE, and the operation stays in use until the TEE is done with it.
+         * @param commandId command identifier that is previously agreed with the TA.
+         * @param operation a wrapper of parameters for the action to take. It can be null.
+         * @return a <code>Future</code> which returns the updated <code>IOperation</code> interface. When the
+         * command fails, its <code>get</code> function throws an <code>ExecutionException</code> whose cause is
+         * one of the exceptions listed in <code>invokeCommand</code>.
+         * @throws exception.BusyException:
+         * the referenced <code>IOperation</code> interface is being used by another thread, or the command
+         * can not be handed over to the context.
+         * @throws exception.BadStateException:
+         * the context of this session is not initialized.
+         * @throws exception.ExternalCancelException:
+         * the calling thread is interrupted while waiting for a free slot.
+         */
+        Future<IOperation> invokeCommandAsync(int commandId, IOperation operation) throws TEEClientException;
+
+        /**
+         * Asynchronous version of <code>invokeCommand</code> which notifies the result through a callback.
+         * It behaves the same as the <code>Future</code> variant.
+         * @param commandId command identifier that is previously agreed with the TA.
+         * @param operation a wrapper of parameters for the action to take. It can be null.
+         * @param callback the callback to receive the result. It is called in the thread which receives the
+         *                 results of the context.
+         * @throws exception.BusyException:
+         * the referenced <code>IOperation</code> interface is being used by another thread, or the command
+         * can not be handed over to the context.
+         * @throws exception.BadStateException:
+         * the context of this session is not initialized.
+         * @throws exception.ExternalCancelException:
+         * the calling thread is interrupted while waiting for a free slot.
+         */
+        void invokeCommandAsync(int commandId, IOperation operation, ICommandCallback callback) throws TEEClientException;
+
+        /**
+         * Create an empty batch of commands which are invoked within this session. It is a shortcut of
+         * <code>newCommandBatch</code> in <code>IContext</code> so that the session can be omitted when
+         * adding commands to the batch.
+         * @return an <code>ICommandBatch</code> interface.
+         */
+        ICommandBatch newCommandBatch();
+
         /**
          * Close the connection to the remote TA. When dealing with multi-threads,
          * this function is recommended to be called with the same thread which opens this session.
@@ -314,6 +457,95 @@ public interface ITEEClient {
     }
 
 
+    /**
+     * Callback interface to receive the result of an asynchronous <code>invokeCommand</code>. The functions are called
+     * in the thread which receives the results of all asynchronous commands of the context one by one, so they
+     * should return quickly.
+     */
+    interface ICommandCallback {
+        /**
+         * The command finished successfully.
+         * @param operation the updated <code>IOperation</code> interface which is passed in. It can be null.
+         */
+        void onCommandCompleted(IOperation operation);
+
+        /**
+         * The command failed.
+         * @param operation the <code>IOperation</code> interface which is passed in. It can be null.
+         * @param exception the exception which <code>invokeCommand</code> would throw.
+         */
+        void onCommandFailed(IOperation operation, TEEClientException exception);
+    }
+
+
+    /**
+     * A batch of commands which are sent to the remote TEE service in one go. The service invokes the commands
+     * in the order they are added and returns all of their results at once, so the whole batch only costs one
+     * round trip to the service. It is useful when a CA issues a long run of small commands.
+     * <p>
+     * The operations are passed to the service when <code>invoke</code> is called and each of them is in use
+     * until <code>invoke</code> returns. Since all operations are sent together, the output of one command is
+     * not visible to the following commands of the same batch through a shared memory. The result of each
+     * command can be checked after <code>invoke</code> returns. A batch can be invoked again and again.
+     */
+    interface ICommandBatch {
+        /**
+         * Add a command to the batch.
+         * @param session the session within which the command is invoked. It must belong to the same context
+         *                as the batch.
+         * @param commandId command identifier that is previously agreed with the TA.
+         * @param operation a wrapper of parameters for the action to take. It can be null.
+         * @return this <code>ICommandBatch</code> interface.
+         * @throws exception.BadParametersException:
+         * the session is null or it belongs to a different context.
+         */
+        ICommandBatch addCommand(ISession session, int commandId, IOperation operation) throws TEEClientException;
+
+        /**
+         * Add a command to the batch within the session which creates this batch.
+         * @param commandId command identifier that is previously agreed with the TA.
+         * @param operation a wrapper of parameters for the action to take. It can be null.
+         * @return this <code>ICommandBatch</code> interface.
+         * @throws exception.BadParametersException:
+         * the batch is not created by a session.
+         */
+        ICommandBatch addCommand(int commandId, IOperation operation) throws TEEClientException;
+
+        /**
+         * @return the number of commands in the batch.
+         */
+        int size();
+
+        /**
+         * Invoke all commands of the batch in order and wait for their results. A command which fails does not
+         * stop the following ones.
+         * @throws exception.BusyException:
+         * one of the referenced <code>IOperation</code> interfaces is being used by another thread or added
+         * twice to the batch.
+         * @throws exception.BadStateException:
+         * the context of this batch is not initialized.
+         * @throws exception.CommunicationErrorException:
+         * Communication with the TEE proxy service failed.
+         */
+        void invoke() throws TEEClientException;
+
+        /**
+         * Get the return code of a command after the batch is invoked.
+         * @param index the position of the command in the batch.
+         * @return <code>TEEC_SUCCESS</code> if the command succeeded.
+         */
+        int getReturnCode(int index);
+
+        /**
+         * Throw the exception that <code>invokeCommand</code> would throw for the command in the given position.
+         * It returns normally if the command succeeded.
+         * @param index the position of the command in the batch.
+         * @throws TEEClientException see the exceptions listed in <code>invokeCommand</code>.
+         */
+        void checkResult(int index) throws TEEClientException;
+    }
+
+
     /**
      * In order to enable data sharing between a CA and TEE/TA, the notation called shared memory has been
      * introduced to avoid expensive memory copies. A shared memory is a block of memory resides in the CA and a TEE/TA can operate on it directly.
@@ -337,6 +569,10 @@ public interface ITEEClient {
      * is not longer needed, developers should release it by calling <code>releaseSharedMemory</code>
      * function. After the shared memory is released, the buffer it holds will not longer used as a
      * shared memory. So, any modification on it will no longer be synced to the remote the TEE/TA.
+     * <p>
+     * A shared memory can also be obtained by calling <code>allocateSharedMemory</code>. Its buffer is allocated
+     * and owned by the TEE, so it is never copied as a whole between the CA and the TEE. The CA accesses it
+     * through <code>read</code> and <code>write</code>, which move only the requested bytes.
      */
     interface ISharedMemory {
         /**
@@ -358,10 +594,59 @@ public interface ITEEClient {
 
         /**
          * Get the content of the shared memory. This function returns a reference to the buffer that the shared memory holds.
-         * @return an byte array reference.
+         * For a shared memory allocated by the TEE, it returns a copy of the whole buffer read from the TEE, which
+         * does not follow later changes. Use <code>read</code> and <code>write</code> instead for such memory.
+         * @return an byte array reference, or null if the content of a shared memory allocated by the TEE can not be read.
          */
         byte[] asByteArray();
 
+        /**
+         * Get the size of the shared memory.
+         * @return the size of the buffer in bytes.
+         */
+        int getSize();
+
+        /**
+         * Copy data out of the shared memory. For a shared memory allocated by the TEE, only the requested
+         * range is fetched from the TEE.
+         * @param offset the position in the shared memory to read from.
+         * @param dst receives the data.
+         * @param dstOffset the start of the data in dst.
+         * @param length the length of the data.
+         * @throws exception.BadParametersException:
+         * the range is out of the shared memory or dst.
+         * @throws exception.CommunicationErrorException:
+         * Communication with remote TEE service failed.
+         */
+        void read(int offset, byte[] dst, int dstOffset, int length) throws TEEClientException;
+
+        /**
+         * Tell that a range of the buffer has been modified by the CA. By default, the whole buffer is synced
+         * to the TEE/TA in each function call which references this shared memory. Once this function is called,
+         * only the ranges modified since the last function call are synced, so that the cost of a call is
+         * proportional to what has changed. From then on, every modification made by the CA must be either
+         * marked by this function or done through <code>write</code>.
+         * @param offset the start of the modified range.
+         * @param length the length of the modified range.
+         * @throws exception.BadParametersException:
+         * the range is out of the buffer.
+         */
+        void markDirty(int offset, int length) throws BadParametersException;
+
+        /**
+         * Copy data into the buffer and mark the written range as modified. See <code>markDirty</code>.
+         * For a shared memory allocated by the TEE, the data is written straight into the TEE.
+         * @param offset the position in the buffer to write to.
+         * @param src the data to write.
+         * @param srcOffset the start of the data in src.
+         * @param length the length of the data.
+         * @throws exception.BadParametersException:
+         * the range is out of the buffer or src.
+         * @throws exception.CommunicationErrorException:
+         * Communication with remote TEE service failed.
+         */
+        void write(int offset, byte[] src, int srcOffset, int length) throws TEEClientException;
+
         /**
          * Get the size of the output from the TA if there is such an output.
          * @return the actual size of the output byte array.
@@ -416,7 +701,10 @@ public interface ITEEClient {
     }
 
     /**
-     * A method which initializes a context to a TEE.
+     * A method which initializes a context to a TEE. It blocks until the remote TEE service is connected
+     * or the connection times out. Since the connection to the service is established through the main thread,
+     * this function can not be called from the main thread unless the service is already connected by
+     * <code>prewarm</code> or another context. Use <code>initializeContextAsync</code> from the main thread instead.
      * @param teeName the name of remote TEE. If teeName is null, a context will be initialized within
      *                a default TEE.
      * @param context Android application context.
@@ -424,13 +712,16 @@ public interface ITEEClient {
      * @throws exception.AccessDeniedException:
      * Unable to initialize a context with the remote TEE due to insufficient privileges of the CA.
      * @throws exception.BadStateException:
-     * TEE is not ready to initialize a context for the CA.
+     * 1. TEE is not ready to initialize a context for the CA;<br>
+     * 2. called from the main thread while the remote TEE service is not connected.
      * @throws exception.BadParametersException:
      * providing an invalid Android context.
      * @throws exception.BusyException:
      * TEE is busy.
      * @throws exception.CommunicationErrorException:
-     * Communication with remote TEE service failed.
+     * Communication with remote TEE service failed or timed out.
+     * @throws exception.ExternalCancelException:
+     * the calling thread is interrupted while waiting for the remote TEE service.
      * @throws exception.GenericErrorException:
      * Non-specific cause exception.
      * @throws exception.TargetDeadException:
@@ -438,6 +729,55 @@ public interface ITEEClient {
      */
     IContext initializeContext(String teeName, Context context) throws TEEClientException;
 
+    /**
+     * Asynchronous version of <code>initializeContext</code>. The context is initialized in a worker thread,
+     * so it is safe to call it from the main thread.
+     * @param teeName the name of remote TEE. If teeName is null, a context will be initialized within
+     *                a default TEE.
+     * @param context Android application context.
+     * @return a <code>Future</code> which returns the <code>IContext</code> interface. When the initialization
+     * fails, its <code>get</code> function throws an <code>ExecutionException</code> whose cause is one of the
+     * exceptions listed in <code>initializeContext</code>.
+     */
+    Future<IContext> initializeContextAsync(String teeName, Context context);
+
+    /**
+     * Asynchronous version of <code>initializeContext</code> which notifies the result through a callback.
+     * @param teeName the name of remote TEE. If teeName is null, a context will be initialized within
+     *                a default TEE.
+     * @param context Android application context.
+     * @param callback the callback to receive the result. It is called in a worker thread.
+     */
+    void initializeContextAsync(String teeName, Context context, IContextCallback callback);
+
+    /**
+     * Connect to the remote TEE service and let it connect to the TEE in the background, so that a following
+     * <code>initializeContext</code> does not have to wait for them. It returns immediately. The connection is
+     * kept and handed over to the next context initialized in this process. It does nothing if the service is
+     * already connected.
+     * @param teeName the name of remote TEE. If teeName is null, the default TEE is used.
+     * @param context Android application context.
+     */
+    void prewarm(String teeName, Context context);
+
+    /**
+     * Callback interface to receive the result of <code>initializeContextAsync</code>. The functions are called
+     * in a worker thread.
+     */
+    interface IContextCallback {
+        /**
+         * The context is initialized.
+         * @param context the <code>IContext</code> interface of the initialized context.
+         */
+        void onContextInitialized(IContext context);
+
+        /**
+         * The initialization failed.
+         * @param exception the exception which <code>initializeContext</code> would throw.
+         */
+        void onContextFailed(TEEClientException exception);
+    }
+
     /**
      * <code>IContext</code> interface provides all the functions to interact with an initialized context in remote TEE.
      * This interface is returned by the <code>initializeContext</code> function call. When a context
@@ -533,10 +873,33 @@ public interface ITEEClient {
         ISharedMemory registerSharedMemory(byte[] buffer, int flags) throws TEEClientException;
 
         /**
-         * Releases the Shared Memory which was previously obtained using <code>registerSharedMemory</code>. As
+         * Allocate a shared memory in the TEE. Unlike <code>registerSharedMemory</code>, the buffer is owned by the
+         * TEE, so it is neither copied in when it is created nor synced as a whole in the function calls which
+         * reference it. The CA moves data in and out of it with <code>read</code> and <code>write</code> of the
+         * returned <code>ISharedMemory</code> interface, and its <code>asByteArray</code> returns a copy read from the
+         * TEE. It suits large buffers which are used for a long time. It must be released by <code>releaseSharedMemory</code>.
+         * @param size the size of the shared memory in bytes.
+         * @param flags indicates I/O direction of this shared memory for TAs.
+         * @return an <code>ISharedMemory</code> interface.
+         * @throws exception.BadParametersException:
+         * 1. the size is not positive;<br>
+         * 2. providing incorrect flag value.
+         * @throws exception.CommunicationErrorException:
+         * Communication with remote TEE service failed.
+         * @throws exception.OutOfMemoryException:
+         * Insufficient memory in TEE.
+         * @throws exception.GenericErrorException:
+         * Non-specific causes error.
+         */
+        ISharedMemory allocateSharedMemory(int size, int flags) throws TEEClientException;
+
+        /**
+         * Releases the Shared Memory which was previously obtained using <code>registerSharedMemory</code> or
+         * <code>allocateSharedMemory</code>. As
          * stated in the description of the <code>ISharedMemory</code> interface, when the shared memory is released, the TEE/TA will no longer
          * be able to read or write data to the shared memory. However, the buffer that this shared memory
-         * holds will still remain valid. When using the same shared memory within multi-threads, it
+         * holds will still remain valid, except for a shared memory allocated by the TEE, whose buffer is freed
+         * along with it. When using the same shared memory within multi-threads, it
          * is recommended to release the shared memory in the same thread which registered it.
          * @param sharedMemory the reference to an <code>ISharedMemory</code> instance.
          * @throws exception.CommunicationErrorException:
@@ -598,6 +961,28 @@ public interface ITEEClient {
                               IOperation operation
                               ) throws TEEClientException;
 
+        /**
+         * Same as <code>openSession</code>, but the caller waits for the TEE no longer than the given time.
+         * The session is opened in a worker thread of this context. When the time is up, the cancellation of
+         * the operation is requested in the TEE and this function returns with a <code>DeadlineExceededException</code>.
+         * A session which is opened after that is closed right away.
+         * @param uuid UUID of the TA.
+         * @param connectionMethod the method of connection to use.
+         * @param connectionData any necessary data for connectionMethod.
+         * @param operation operation to perform. It can be null.
+         * @param timeoutMs the time to wait in milliseconds. If it is 0 or less, it waits without limit.
+         * @return an <code>ISession</code> interface.
+         * @throws exception.DeadlineExceededException:
+         * the session was not opened in time.
+         * @throws TEEClientException see the exceptions listed in <code>openSession</code>.
+         */
+        ISession openSession (final UUID uuid,
+                              ConnectionMethod connectionMethod,
+                              Integer connectionData,
+                              IOperation operation,
+                              long timeoutMs
+                              ) throws TEEClientException;
+
 
         /**
          * Requests the cancellation of a pending open session or a command invocation operation. This can be
@@ -608,5 +993,20 @@ public interface ITEEClient {
          * Communication with remote TEE service failed.
          */
         void requestCancellation(IOperation operation) throws TEEClientException;
+
+        /**
+         * Create an empty batch of commands within this context. Commands of different sessions of this
+         * context can be put in the same batch.
+         * @return an <code>ICommandBatch</code> interface.
+         */
+        ICommandBatch newCommandBatch();
+
+        /**
+         * Get the number of calls with a deadline within this context which did not finish in time, either in
+         * <code>openSession</code> or in <code>invokeCommand</code>. A count which keeps growing means that the
+         * deadlines are too short for the TEE.
+         * @return the number of calls which returned with a <code>DeadlineExceededException</code>.
+         */
+        long getDeadlineExceededCount();
     };
 }
\ No newline at end of file
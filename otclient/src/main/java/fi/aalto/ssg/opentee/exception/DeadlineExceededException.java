@@ -0,0 +1,33 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.exception;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+
+/**
+ * The call did not finish before its deadline. The caller stops waiting and the cancellation of the
+ * operation is requested in the TEE, but the operation stays in use until the remote side is done with
+ * it. It is not defined by the GP specification.
+ */
+public class DeadlineExceededException extends TEEClientException {
+    public DeadlineExceededException(String msg){
+        super(msg);
+    }
+
+    public DeadlineExceededException(String msg, ITEEClient.ReturnOriginCode retOrigin){
+        super(msg, retOrigin);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import android.os.RemoteException;
+
+import fi.aalto.ssg.opentee.exception.CommunicationErrorException;
+
+/**
+ * Task for invoking a batch of commands. The results are written back into the batch by the service.
+ */
+public class InvokeCommandBatchTask implements Runnable {
+    final String TAG = "InvokeCommandBatchTask";
+
+    ProxyApis mProxyApis;
+    OTCommandBatch mBatch;
+
+    Integer mReturnCode = null; // stays null if the remote call failed.
+
+    public InvokeCommandBatchTask(ProxyApis proxyApis, OTCommandBatch batch){
+        this.mProxyApis = proxyApis;
+        this.mBatch = batch;
+    }
+
+    public synchronized Integer getReturnCode(){ return this.mReturnCode; }
+
+    @Override
+    public void run() {
+        try {
+            mReturnCode = mProxyApis.teecInvokeCommandBatch(mBatch);
+        } catch (CommunicationErrorException e) {
+            e.printStackTrace();
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -18,12 +18,11 @@ package fi.aalto.ssg.opentee.imps;
 import android.os.RemoteException;
 import android.util.Log;
 
-import fi.aalto.ssg.opentee.ISyncOperation;
 import fi.aalto.ssg.opentee.exception.CommunicationErrorException;
-import fi.aalto.ssg.opentee.exception.TEEClientException;
 
 /**
- * Task for invokeCommand
+ * Task for invokeCommand. The updated operation comes back in the reply together with the return value.
+ * An operation of values only is sent as int[] instead, and updated in place.
  */
 public class InvokeCommandTask implements Runnable {
     final String TAG = "InvokeCommandTask";
@@ -32,53 +31,86 @@ public class InvokeCommandTask implements Runnable {
     int mSid;
     int mCommandId;
     byte[] mTeecOperation = null;
-    int opHashCode = 0;
+    int[] mValues = null;
+    long mCancelId = 0; // id of the operation to cancel it, 0 if it cannot be cancelled.
 
-    byte[] mNewTeecOperation = null;
-    OTLock mLock;
     ReturnValueWrapper mReturnValue = null;
+    byte[] mNewTeecOperation = null;
 
-    private ISyncOperation mSyncOperationCallBack = new ISyncOperation.Stub(){
-        @Override
-        public void basicTypes(int anInt, long aLong, boolean aBoolean, float aFloat, double aDouble, String aString) throws RemoteException {
-
-        }
-
-        @Override
-        public void syncOperation(byte[] teecOperationInBytes) throws RemoteException {
-            Log.e(TAG, "sync op called");
+    // holders reused when the task is reused.
+    final int[] mResult = new int[ProxyApis.RESULT_SIZE];
+    final ReturnValueWrapper mReturnValueHolder = new ReturnValueWrapper(0, 0);
 
-            mNewTeecOperation = teecOperationInBytes;
-            if (mLock != null) mLock.unlock();
-            else Log.e(TAG, "[Internal error] lock is null");
-        }
-    };
+    public InvokeCommandTask(ProxyApis proxyApis,
+                             int sid,
+                             int commandId,
+                             byte[] teecOperation,
+                             long cancelId){
+        set(proxyApis, sid, commandId, teecOperation, cancelId);
+    }
 
-    public InvokeCommandTask(ProxyApis proxyApis, int sid, int commandId, byte[] teecOperation, OTLock lock, int opHashCode){
+    /**
+     * Reset the task for the next call. The return value of the previous call is overwritten.
+     */
+    public synchronized void set(ProxyApis proxyApis,
+                                 int sid,
+                                 int commandId,
+                                 byte[] teecOperation,
+                                 long cancelId){
         this.mProxyApis = proxyApis;
         this.mSid = sid;
         this.mCommandId = commandId;
         this.mTeecOperation = teecOperation;
-        this.mLock = lock;
-        this.opHashCode = opHashCode;
+        this.mValues = null;
+        this.mCancelId = cancelId;
+        this.mReturnValue = null;
+        this.mNewTeecOperation = null;
     }
 
-    public synchronized byte[] getNewOperationInBytes(){
-        return this.mNewTeecOperation;
+    /**
+     * Reset the task for the next call with an operation of values only.
+     * @param values as in OTOperationCodec. They are updated in place.
+     */
+    public synchronized void setValues(ProxyApis proxyApis,
+                                       int sid,
+                                       int commandId,
+                                       int[] values,
+                                       long cancelId){
+        set(proxyApis, sid, commandId, null, cancelId);
+        this.mValues = values;
     }
 
     public synchronized ReturnValueWrapper getReturnValue(){ return this.mReturnValue; }
 
+    /**
+     * @return the updated operation from the reply, or null if there is none.
+     */
+    public synchronized byte[] getNewTeecOperation(){ return this.mNewTeecOperation; }
+
     @Override
     public void run() {
-        if(mLock != null) mLock.lock();
-
         try {
-            mReturnValue = mProxyApis.teecInvokeCommand(mSid, mCommandId, mTeecOperation, mSyncOperationCallBack, opHashCode);
+            if(mValues != null){
+                mProxyApis.teecInvokeCommandValues(mSid, mCommandId, mValues, mCancelId,
+                        mResult,
+                        mReturnValueHolder);
+                synchronized (this){
+                    mReturnValue = mReturnValueHolder;
+                }
+                return;
+            }
+
+            byte[] newTeecOperation = mProxyApis.teecInvokeCommand(mSid, mCommandId, mTeecOperation, mCancelId,
+                    mResult,
+                    mReturnValueHolder);
+            synchronized (this){
+                mReturnValue = mReturnValueHolder;
+                mNewTeecOperation = newTeecOperation;
+            }
         } catch (CommunicationErrorException e) {
-            e.printStackTrace();
+            Log.e(TAG, "unable to invoke command " + mCommandId + ": " + e);
         } catch (RemoteException e) {
-            e.printStackTrace();
+            Log.e(TAG, "unable to invoke command " + mCommandId + ": " + e);
         }
     }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import android.util.Log;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.BadFormatException;
+import fi.aalto.ssg.opentee.exception.BadParametersException;
+import fi.aalto.ssg.opentee.exception.TEEClientException;
+
+/**
+ * Shared memory allocated by the TEE. The CA keeps no copy of the buffer, so the memory references to it
+ * carry no bytes in the function calls. The CA reads and writes it through the service, which moves only
+ * the requested range.
+ */
+public class OTAllocatedSharedMemory extends OTSharedMemory {
+    final String TAG = "OTAllocatedSharedMemory";
+
+    static final int MAX_TRANSFER_SIZE = 256 * 1024; // per call to the service, well below the binder limit.
+
+    int mSize;
+    OTContext mContext;
+
+    /* chunk buffer kept between the transfers. The service takes the array length as the chunk size. */
+    private byte[] mChunk;
+
+    public OTAllocatedSharedMemory(int size, int flag, int id, OTContext context){
+        super(new byte[0], flag, id);
+        this.mSize = size;
+        this.mContext = context;
+    }
+
+    /**
+     * The buffer is in the TEE, so this reads the whole of it into a new array. Writing into the array does not
+     * change the shared memory. Use <code>read</code> and <code>write</code> to move only the range needed.
+     * @return a copy of the content, or null if it can not be read from the TEE.
+     */
+    @Override
+    public byte[] asByteArray(){
+        byte[] copy = new byte[mSize];
+        try {
+            read(0, copy, 0, mSize);
+        } catch (TEEClientException e) {
+            Log.e(TAG, "unable to read the shared memory " + mId + ": " + e);
+            return null;
+        }
+        return copy;
+    }
+
+    @Override
+    public int getSize(){return mSize;}
+
+    @Override
+    public void markDirty(int offset, int length) throws BadParametersException {
+        // nothing to sync since the buffer is in the TEE. Only the range is checked.
+        checkRange(offset, length);
+    }
+
+    @Override
+    public void write(int offset, byte[] src, int srcOffset, int length) throws TEEClientException {
+        if(src == null || srcOffset < 0 || length < 0 || srcOffset + length > src.length){
+            throw new BadParametersException("source range out of the array", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+        checkRange(offset, length);
+
+        for(int done = 0; done < length; ){
+            int chunk = Math.min(length - done, MAX_TRANSFER_SIZE);
+
+            // the array is sent as it is if it holds exactly the chunk.
+            byte[] data = src;
+            if(srcOffset + done != 0 || chunk != src.length){
+                data = takeChunk(chunk);
+                System.arraycopy(src, srcOffset + done, data, 0, chunk);
+            }
+
+            try{
+                mContext.writeSharedMemory(mId, offset + done, data);
+            }finally {
+                if(data != src) putChunk(data);
+            }
+            done += chunk;
+        }
+    }
+
+    @Override
+    public void read(int offset, byte[] dst, int dstOffset, int length) throws TEEClientException {
+        if(dst == null || dstOffset < 0 || length < 0 || dstOffset + length > dst.length){
+            throw new BadParametersException("destination range out of the array", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+        checkRange(offset, length);
+
+        for(int done = 0; done < length; ){
+            int chunk = Math.min(length - done, MAX_TRANSFER_SIZE);
+
+            // the reply is read straight into dst if it takes the whole array.
+            byte[] data = dst;
+            if(dstOffset + done != 0 || chunk != dst.length){
+                data = takeChunk(chunk);
+            }
+
+            try{
+                mContext.readSharedMemory(mId, offset + done, data);
+                if(data != dst) System.arraycopy(data, 0, dst, dstOffset + done, chunk);
+            }finally {
+                if(data != dst) putChunk(data);
+            }
+            done += chunk;
+        }
+    }
+
+    @Override
+    public synchronized int takeDirtyRanges(int[] dst, int from, int to){
+        // no bytes go inline with the operation.
+        return 0;
+    }
+
+    @Override
+    public void updateBuffer(byte[] src, int srcOffset, int offset, int length, int returnSize) throws BadFormatException {
+        if( offset < 0 || offset > mSize || length != 0 ){
+            throw new BadFormatException("incorrect data for allocated shared memory.\n" +
+                    " [offset       ] = " + offset + "\n" +
+                    " [size of src  ] = " + length + "\n" +
+                    " [size of des  ] = " + mSize);
+        }
+
+        // the TA wrote into the TEE directly. Only the size comes back.
+        this.mReturnSize = returnSize;
+    }
+
+    /* take the kept chunk buffer if it has the size, so that repeated transfers of one size allocate nothing.
+     * A thread which finds it taken or of another size gets a new array. */
+    private synchronized byte[] takeChunk(int size){
+        byte[] chunk = mChunk;
+        if(chunk == null || chunk.length != size) return new byte[size];
+
+        mChunk = null;
+        return chunk;
+    }
+
+    /* keep the chunk buffer for the next transfer. A full chunk is preferred over a shorter tail. */
+    private synchronized void putChunk(byte[] chunk){
+        if(mChunk == null || chunk.length > mChunk.length) mChunk = chunk;
+    }
+
+    private void checkRange(int offset, int length) throws BadParametersException {
+        if(offset < 0 || length < 0 || offset + length > mSize){
+            throw new BadParametersException("range out of the shared memory", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import android.util.Log;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.ExternalCancelException;
+import fi.aalto.ssg.opentee.exception.GenericErrorException;
+import fi.aalto.ssg.opentee.exception.TEEClientException;
+
+/**
+ * A command in flight. It is sent to the service without waiting, and is finished once its result comes
+ * back on the completion channel of its context. It holds one slot of the in-flight window of its context
+ * until then and notifies the callback of the caller if there is one.
+ */
+class OTAsyncCommand extends FutureTask<ITEEClient.IOperation> {
+    final String TAG = "OTAsyncCommand";
+
+    // nothing runs in the future itself, it is finished with the result from the service.
+    static final Callable<ITEEClient.IOperation> NO_WORK = new Callable<ITEEClient.IOperation>() {
+        @Override
+        public ITEEClient.IOperation call() {
+            return null;
+        }
+    };
+
+    final OTContext mContext;
+    final long mOperationId; // to find the command when its result comes back.
+    final OTOperation mOperation;
+    final ITEEClient.ICommandCallback mCallback;
+    final Semaphore mInFlightWindow;
+    final AtomicBoolean mSlotHeld = new AtomicBoolean(true);
+
+    /**
+     * @param operationId the cancel id of the operation, or a new id if there is no operation.
+     * @param inFlightWindow the caller must have acquired a slot from it.
+     */
+    OTAsyncCommand(OTContext context,
+                   long operationId,
+                   OTOperation operation,
+                   ITEEClient.ICommandCallback callback,
+                   Semaphore inFlightWindow){
+        super(NO_WORK);
+        this.mContext = context;
+        this.mOperationId = operationId;
+        this.mOperation = operation;
+        this.mCallback = callback;
+        this.mInFlightWindow = inFlightWindow;
+    }
+
+    void releaseSlot(){
+        if(mSlotHeld.compareAndSet(true, false)) mInFlightWindow.release();
+    }
+
+    /**
+     * The result is back and the operation is updated and released. The slot is freed before the caller is
+     * notified, so that the callback can issue the next command.
+     * @param exception the failure of the command, or null if it succeeded.
+     */
+    void finish(TEEClientException exception){
+        releaseSlot();
+
+        if(exception == null){
+            set(mOperation);
+        }else{
+            setException(exception);
+        }
+    }
+
+    /**
+     * No result comes back for the command, e.g. the service died. The input taken for it is sent again
+     * in full in the next call.
+     */
+    void abort(TEEClientException exception){
+        if(mOperation != null){
+            OTFactoryMethods.markSharedMemoryAllDirty(mOperation);
+            mOperation.setStarted(0);
+        }
+
+        finish(exception);
+    }
+
+    /**
+     * The future ends right away and the TEE is asked to cancel the command. The operation and the slot
+     * stay in use until the result of the command comes back.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning){
+        if(!super.cancel(mayInterruptIfRunning)) return false;
+
+        if(mOperation != null) mContext.requestCancellation(mOperation);
+        return true;
+    }
+
+    @Override
+    protected void done(){
+        if(mCallback == null) return;
+
+        ITEEClient.IOperation operation;
+        try {
+            operation = get();
+        } catch (ExecutionException e) {
+            TEEClientException exception;
+            if(e.getCause() instanceof TEEClientException){
+                exception = (TEEClientException)e.getCause();
+            }else{
+                exception = new GenericErrorException(String.valueOf(e.getCause()));
+            }
+            notifyFailed(exception);
+            return;
+        } catch (InterruptedException | CancellationException e) {
+            notifyFailed(new ExternalCancelException("Command cancelled."));
+            return;
+        }
+
+        // nothing catches what the callback throws in the thread which finishes the command, so it is logged here.
+        try {
+            mCallback.onCommandCompleted(operation);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "callback failed on completion: " + e);
+        }
+    }
+
+    private void notifyFailed(TEEClientException exception){
+        try {
+            mCallback.onCommandFailed(mOperation, exception);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "callback failed on failure: " + e);
+        }
+    }
+}
@@ -18,6 +18,8 @@ package fi.aalto.ssg.opentee.imps;
 import android.content.Context;
 import android.os.RemoteException;
 
+import java.util.concurrent.Future;
+
 import fi.aalto.ssg.opentee.ITEEClient;
 import fi.aalto.ssg.opentee.exception.BadParametersException;
 import fi.aalto.ssg.opentee.exception.TEEClientException;
@@ -26,6 +28,9 @@ import fi.aalto.ssg.opentee.exception.TEEClientException;
  * This class implements the ITEEClient interface.
  */
 public class OTClient implements ITEEClient {
+    // shared by all clients of the process. Its thread is released when idle.
+    static final OTTaskExecutor sInitExecutor = new OTTaskExecutor(1, OTTaskExecutor.DEFAULT_QUEUE_SIZE);
+
     @Override
     public IOperation Operation() {
         return new OTOperation(0);
@@ -53,10 +58,23 @@ public class OTClient implements ITEEClient {
 
     @Override
     public IRegisteredMemoryReference RegisteredMemoryReference(ISharedMemory sharedMemory, IRegisteredMemoryReference.Flag flag, int offset) throws BadParametersException {
-        if(sharedMemory == null || sharedMemory.asByteArray().length < offset) throw new BadParametersException("Incorrect input parameters", ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        if(sharedMemory == null || sharedMemory.getSize() < offset) throw new BadParametersException("Incorrect input parameters", ReturnOriginCode.TEEC_ORIGIN_COMMS);
         return new OTRegisteredMemoryReference(sharedMemory, flag, offset);
     }
 
+    @Override
+    public IRegisteredMemoryReference RegisteredMemoryReference(ISharedMemory sharedMemory, IRegisteredMemoryReference.Flag flag, int offset, int size) throws BadParametersException {
+        if(sharedMemory == null || offset < 0 || size <= 0 ||
+           sharedMemory.getSize() - offset < size) throw new BadParametersException("Incorrect input parameters", ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        return new OTRegisteredMemoryReference(sharedMemory, flag, offset, size);
+    }
+
+    @Override
+    public ITempMemoryReference TempMemoryReference(byte[] buffer, ITempMemoryReference.Flag flag) throws BadParametersException {
+        if(buffer == null || flag == null) throw new BadParametersException("Incorrect input parameters", ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        return new OTTempMemoryReference(buffer, flag);
+    }
+
     @Override
     public IValue Value(IValue.Flag flag, int a, int b) {
         return new OTValue(flag, a, b);
@@ -66,4 +84,21 @@ public class OTClient implements ITEEClient {
     public IContext initializeContext(String teeName, Context context) throws TEEClientException{
         return new OTContext(teeName, context);
     }
+
+    @Override
+    public Future<IContext> initializeContextAsync(String teeName, Context context) {
+        OTInitializeContextTask task = new OTInitializeContextTask(teeName, context, null);
+        sInitExecutor.submit(task);
+        return task;
+    }
+
+    @Override
+    public void initializeContextAsync(String teeName, Context context, IContextCallback callback) {
+        sInitExecutor.submit(new OTInitializeContextTask(teeName, context, callback));
+    }
+
+    @Override
+    public void prewarm(String teeName, Context context) {
+        OTConnectionManager.prewarm(teeName, context);
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.BadParametersException;
+import fi.aalto.ssg.opentee.exception.TEEClientException;
+
+/**
+ * This class implements the ICommandBatch interface. It is also the parcel which carries the commands
+ * to the service and their results back in the reply of the same transaction.
+ */
+public class OTCommandBatch implements ITEEClient.ICommandBatch, Parcelable {
+    final String TAG = "OTCommandBatch";
+
+    static final int NO_SESSION = -1;
+
+    // only in the client side.
+    OTContextCallback mContextCallback = null;
+    int mDefaultSid = NO_SESSION;
+    List<OTOperation> mOperations = new ArrayList<>();
+
+    // sent to the service.
+    List<Integer> mSids = new ArrayList<>();
+    List<Integer> mCommandIds = new ArrayList<>();
+    List<byte[]> mOpsInBytes = new ArrayList<>();
+
+    // sent back from the service.
+    List<Integer> mReturnCodes = new ArrayList<>();
+    List<Integer> mReturnOrigins = new ArrayList<>();
+
+    public OTCommandBatch(OTContextCallback contextCallback, int defaultSid){
+        this.mContextCallback = contextCallback;
+        this.mDefaultSid = defaultSid;
+    }
+
+    public OTCommandBatch(Parcel in){
+        readFromParcel(in);
+    }
+
+    @Override
+    public ITEEClient.ICommandBatch addCommand(ITEEClient.ISession session, int commandId, ITEEClient.IOperation operation) throws TEEClientException {
+        if(session == null || ((OTSession)session).mContextCallback != mContextCallback){
+            throw new BadParametersException("the session does not belong to the context of this batch.",
+                    ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        add(((OTSession)session).getSessionId(), commandId, (OTOperation)operation);
+        return this;
+    }
+
+    @Override
+    public ITEEClient.ICommandBatch addCommand(int commandId, ITEEClient.IOperation operation) throws TEEClientException {
+        if(mDefaultSid == NO_SESSION){
+            throw new BadParametersException("the batch is not created by a session.",
+                    ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        add(mDefaultSid, commandId, (OTOperation)operation);
+        return this;
+    }
+
+    private void add(int sid, int commandId, OTOperation otOperation){
+        mSids.add(sid);
+        mCommandIds.add(commandId);
+        mOperations.add(otOperation);
+        mOpsInBytes.add(null);
+        mReturnCodes.add(OTReturnCode.TEEC_SUCCESS);
+        mReturnOrigins.add(0);
+    }
+
+    @Override
+    public int size() {
+        return mSids.size();
+    }
+
+    @Override
+    public void invoke() throws TEEClientException {
+        mContextCallback.invokeCommandBatch(this);
+    }
+
+    @Override
+    public int getReturnCode(int index) {
+        return mReturnCodes.get(index);
+    }
+
+    public int getReturnOrigin(int index){
+        return mReturnOrigins.get(index);
+    }
+
+    @Override
+    public void checkResult(int index) throws TEEClientException {
+        if(mReturnCodes.get(index) != OTReturnCode.TEEC_SUCCESS){
+            OTFactoryMethods.throwExceptionWithReturnOrigin(TAG, mReturnCodes.get(index), mReturnOrigins.get(index));
+        }
+    }
+
+    public int getSessionId(int index){
+        return mSids.get(index);
+    }
+
+    public int getCommandId(int index){
+        return mCommandIds.get(index);
+    }
+
+    public OTOperation getOperation(int index){
+        return mOperations.get(index);
+    }
+
+    /**
+     * @return the operation of the command in bytes. It is the updated one after the batch is invoked.
+     */
+    public byte[] getOperationInBytes(int index){
+        return mOpsInBytes.get(index);
+    }
+
+    public void setOperationInBytes(int index, byte[] opInBytes){
+        mOpsInBytes.set(index, opInBytes);
+    }
+
+    /**
+     * Set the result of one command. Called by the service.
+     */
+    public void setResult(int index, int returnCode, int returnOrigin, byte[] newOpInBytes){
+        mReturnCodes.set(index, returnCode);
+        mReturnOrigins.set(index, returnOrigin);
+        mOpsInBytes.set(index, newOpInBytes);
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flag) {
+        dest.writeInt(size());
+        for(int i = 0; i < size(); i++){
+            dest.writeInt(mSids.get(i));
+            dest.writeInt(mCommandIds.get(i));
+            dest.writeByteArray(mOpsInBytes.get(i));
+            dest.writeInt(mReturnCodes.get(i));
+            dest.writeInt(mReturnOrigins.get(i));
+        }
+    }
+
+    /**
+     * In the client side, it reads the results into the existing commands so that the operations added
+     * to the batch are kept.
+     */
+    public void readFromParcel(Parcel in){
+        int n = in.readInt();
+
+        mSids.clear();
+        mCommandIds.clear();
+        mOpsInBytes.clear();
+        mReturnCodes.clear();
+        mReturnOrigins.clear();
+
+        for(int i = 0; i < n; i++){
+            mSids.add(in.readInt());
+            mCommandIds.add(in.readInt());
+            mOpsInBytes.add(in.createByteArray());
+            mReturnCodes.add(in.readInt());
+            mReturnOrigins.add(in.readInt());
+        }
+    }
+
+    public static final Parcelable.Creator<OTCommandBatch> CREATOR = new
+            Parcelable.Creator<OTCommandBatch>() {
+                public OTCommandBatch createFromParcel(Parcel in) {
+                    return new OTCommandBatch(in);
+                }
+
+                public OTCommandBatch[] newArray(int size) {
+                    return new OTCommandBatch[size];
+                }
+            };
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import android.os.IBinder;
+import android.util.Log;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import fi.aalto.ssg.opentee.IOTCompletionCallback;
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.CommunicationErrorException;
+import fi.aalto.ssg.opentee.exception.TEEClientException;
+
+/**
+ * The one binder of a context which the results of its asynchronous commands come back on. The commands
+ * are sent without waiting, so no thread of the CA or binder thread of the service is held while the TA
+ * runs them. The results are matched to the commands by their operation ids. The service calls it one way,
+ * so the results are handled one by one on a binder thread of the CA.
+ */
+class OTCompletionChannel extends IOTCompletionCallback.Stub implements IBinder.DeathRecipient {
+    final String TAG = "OTCompletionChannel";
+
+    final OTContext mContext;
+    final ConcurrentHashMap<Long, OTAsyncCommand> mCommands = new ConcurrentHashMap<>(); // <operation id, command>
+
+    OTCompletionChannel(OTContext context){
+        this.mContext = context;
+    }
+
+    /* the command is added before it is sent, since its result can come back before the call returns. */
+    void add(OTAsyncCommand command){
+        mCommands.put(command.mOperationId, command);
+    }
+
+    /* take the command out. Return false if it is not there any more, e.g. it is already aborted. */
+    boolean remove(OTAsyncCommand command){
+        return mCommands.remove(command.mOperationId, command);
+    }
+
+    @Override
+    public void onCommandCompleted(long operationId, int returnCode, int returnOrigin, byte[] teecOperation){
+        OTAsyncCommand command = mCommands.remove(operationId);
+        if(command == null){
+            Log.e(TAG, "result of unknown command " + operationId);
+            return;
+        }
+
+        mContext.finishAsyncCommand(command, returnCode, returnOrigin, teecOperation);
+    }
+
+    @Override
+    public void binderDied(){
+        Log.e(TAG, "remote TEE service died with " + mCommands.size() + " commands in flight");
+
+        abortAll(new CommunicationErrorException("Remote TEE service died.",
+                ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS));
+    }
+
+    /* no result comes back for the commands in flight. */
+    void abortAll(TEEClientException exception){
+        for(Long operationId: mCommands.keySet()){
+            OTAsyncCommand command = mCommands.remove(operationId);
+            if(command != null) command.abort(exception);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import android.app.Service;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.ServiceConnection;
+import android.os.IBinder;
+import android.os.Looper;
+import android.os.RemoteException;
+import android.os.SystemClock;
+import android.util.Log;
+
+import fi.aalto.ssg.opentee.IOTConnectionInterface;
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.BadStateException;
+import fi.aalto.ssg.opentee.exception.CommunicationErrorException;
+import fi.aalto.ssg.opentee.exception.ExternalCancelException;
+import fi.aalto.ssg.opentee.exception.TEEClientException;
+
+/**
+ * Process-wide connection to the TEE proxy service. The service is bound only once and the connection
+ * is shared by all contexts in the process. It is reference counted: the first context binds the
+ * service and the last one to release it unbinds the service. A connection made by <code>prewarm</code>
+ * holds one reference which is handed over to the next context.
+ */
+public class OTConnectionManager {
+    static final String TAG = "OTConnectionManager";
+
+    static final Object sLock = new Object();
+    static int sRefCount = 0;
+    static Context sAppContext = null; // the context which the service is bound with.
+    static volatile IOTConnectionInterface sService = null;
+    static boolean sPrewarmed = false; // one reference is held by prewarm.
+
+    public static final long DEFAULT_CONNECT_TIMEOUT_MS = 10000;
+    static long sConnectTimeoutMs = DEFAULT_CONNECT_TIMEOUT_MS;
+
+    private static final ServiceConnection sServiceConnection = new ServiceConnection() {
+        @Override
+        public void onServiceConnected(ComponentName name, IBinder service) {
+            Log.d(TAG, "Connected");
+
+            synchronized (sLock){
+                sService = IOTConnectionInterface.Stub.asInterface(service);
+                sLock.notifyAll();
+            }
+        }
+
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            Log.d(TAG, "Disconnected");
+
+            // the binding stays, so the service will be connected again once it is restarted.
+            sService = null;
+        }
+    };
+
+    private OTConnectionManager(){}
+
+    /**
+     * Take a reference to the connection and wait until the service is connected. The service is bound
+     * if it is the first reference. Every successful call must be paired with <code>release</code>.
+     * @param context Android context of the caller. Its application context is used for binding.
+     * @return the interface of the service.
+     * @throws BadStateException if it is called from the main thread while the service is not connected,
+     * since the connection can only be established in the main thread.
+     * @throws CommunicationErrorException if the service can not be bound or is not connected in time.
+     * @throws ExternalCancelException if the calling thread is interrupted while waiting.
+     */
+    public static IOTConnectionInterface acquire(Context context) throws TEEClientException {
+        synchronized (sLock){
+            if(sPrewarmed){
+                // take over the reference of prewarm.
+                sPrewarmed = false;
+            }else{
+                if(sRefCount == 0) bind(context);
+                sRefCount++;
+            }
+
+            if(sService == null && Looper.myLooper() == Looper.getMainLooper()){
+                release();
+                throw new BadStateException("Unable to wait for remote TEE service in the main thread.",
+                        ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+            }
+
+            long deadline = SystemClock.uptimeMillis() + sConnectTimeoutMs;
+            try{
+                while(sService == null){
+                    long timeLeft = deadline - SystemClock.uptimeMillis();
+                    if(timeLeft <= 0){
+                        release();
+                        throw new CommunicationErrorException("Timed out connecting to remote TEE service.",
+                                ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+                    }
+                    sLock.wait(timeLeft);
+                }
+            }catch (InterruptedException e){
+                release();
+                Thread.currentThread().interrupt();
+                throw new ExternalCancelException(e.getMessage());
+            }
+
+            return sService;
+        }
+    }
+
+    private static void bind(Context context) throws TEEClientException {
+        Context appContext = context.getApplicationContext();
+        if(appContext == null) appContext = context;
+
+        Intent intent = new Intent();
+        intent.setClassName(TeecConstants.OT_SERVICE_PACK_NAME,
+                TeecConstants.OT_SERVICE_CLASS_NAME);
+
+        Log.d(TAG, "Trying to create connection");
+
+        if(!appContext.bindService(intent, sServiceConnection, Service.BIND_AUTO_CREATE)){
+            // a failed binding must still be unbound.
+            appContext.unbindService(sServiceConnection);
+
+            throw new CommunicationErrorException("Unable to bind remote TEE service",
+                    ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        }
+
+        sAppContext = appContext;
+    }
+
+    /**
+     * Bind the service and initialize the TEE in the service in a background thread. The reference taken by
+     * it is kept for the next <code>acquire</code>. It does nothing if the service is already bound.
+     * @param teeName the name of the TEE to initialize.
+     * @param context Android context of the caller.
+     */
+    public static void prewarm(final String teeName, final Context context){
+        synchronized (sLock){
+            if(sRefCount > 0) return;
+        }
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                IOTConnectionInterface service;
+                try {
+                    service = acquire(context);
+                } catch (TEEClientException e) {
+                    Log.e(TAG, "prewarm failed: " + e.getMessage());
+                    return;
+                }
+
+                // let the service connect to the TEE ahead of time.
+                try {
+                    service.teecInitializeContext(teeName);
+                } catch (RemoteException e) {
+                    Log.e(TAG, "prewarm failed to initialize TEE: " + e.getMessage());
+                }
+
+                synchronized (sLock){
+                    if(sPrewarmed){
+                        // prewarmed twice in a row. Only one reference is kept.
+                        release();
+                    }else{
+                        sPrewarmed = true;
+                    }
+                }
+
+                Log.d(TAG, "prewarmed");
+            }
+        }, "OTPrewarm");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Set how long <code>acquire</code> waits for the service to be connected.
+     * @param timeoutMs the timeout in milliseconds.
+     */
+    public static void setConnectTimeout(long timeoutMs){
+        synchronized (sLock){
+            sConnectTimeoutMs = timeoutMs > 0 ? timeoutMs : DEFAULT_CONNECT_TIMEOUT_MS;
+        }
+    }
+
+    /**
+     * Drop one reference to the connection. The service is unbound when no reference is left.
+     */
+    public static void release(){
+        synchronized (sLock){
+            if(sRefCount == 0){
+                Log.e(TAG, "connection released more times than acquired");
+                return;
+            }
+
+            if(--sRefCount == 0){
+                sAppContext.unbindService(sServiceConnection);
+
+                sAppContext = null;
+                sService = null;
+
+                Log.d(TAG, "Connection terminated");
+            }
+        }
+    }
+
+    /**
+     * @return the interface of the service, or null if it is not connected at the moment.
+     */
+    public static IOTConnectionInterface getService(){
+        return sService;
+    }
+}
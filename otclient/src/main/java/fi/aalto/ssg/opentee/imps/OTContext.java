@@ -23,18 +23,22 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import fi.aalto.ssg.opentee.OTHelper;
 import fi.aalto.ssg.opentee.ITEEClient;
 import fi.aalto.ssg.opentee.exception.BadFormatException;
 import fi.aalto.ssg.opentee.exception.BadParametersException;
+import fi.aalto.ssg.opentee.exception.BadStateException;
 import fi.aalto.ssg.opentee.exception.BusyException;
 import fi.aalto.ssg.opentee.exception.CommunicationErrorException;
+import fi.aalto.ssg.opentee.exception.DeadlineExceededException;
 import fi.aalto.ssg.opentee.exception.ExcessDataException;
 import fi.aalto.ssg.opentee.exception.ExternalCancelException;
 import fi.aalto.ssg.opentee.exception.GenericErrorException;
@@ -49,45 +53,62 @@ public class OTContext implements ITEEClient.IContext, OTContextCallback, OTHelp
 
     String mTeeName = null;
     boolean mInitialized = false;
-    ProxyApis mProxyApis = null; // one service connection per context
-    Random smIdGenerator = null;
+    ProxyApis mProxyApis = null; // reference to the service connection shared by the contexts of this process.
+    volatile OTTaskExecutor mTaskExecutor = new OTTaskExecutor(); // direct dispatch by default.
+
+    // asynchronous commands.
+    static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    volatile OTInFlightWindow mInFlightWindow = new OTInFlightWindow(DEFAULT_MAX_IN_FLIGHT);
+    final OTCompletionChannel mCompletionChannel = new OTCompletionChannel(this); // results of them.
+    final AtomicLong mDeadlinesExceeded = new AtomicLong(0); // calls which did not finish before their deadline.
     Context mContext;
+    int mCodecVersion = OTOperationCodec.CODEC_PROTOBUF; // encoding of operations agreed with the service.
 
-    List<OTSharedMemory> mSharedMemory = new ArrayList<>();
-    HashMap<Integer, Integer> mSessionMap = new HashMap<>(); // <sessionId, placeHolder>
+    // reusable state of the synchronous invoke path, one per calling thread.
+    final ThreadLocal<OTInvokeState> mInvokeState = new ThreadLocal<OTInvokeState>(){
+        @Override
+        protected OTInvokeState initialValue() {
+            return new OTInvokeState();
+        }
+    };
+
+    // written from the workers of the calls with a deadline too, so both are concurrent.
+    final ConcurrentHashMap<Integer, OTSharedMemory> mSharedMemory = new ConcurrentHashMap<>(); // <smId, sharedMemory>
+    final ConcurrentHashMap<Integer, Integer> mSessionMap = new ConcurrentHashMap<>(); // <sessionId, placeHolder>
 
     public OTContext(String teeName, Context context) throws TEEClientException {
         this.mTeeName = teeName;
-        this.smIdGenerator = new Random();
         this.mContext = context;
 
         /**
-         * connect to the IOpenTEE
+         * connect to the IOpenTEE through the connection shared within this process.
          */
-        OTLock lock = new OTLock();
-        ServiceGetterThread serviceGetterThread = new ServiceGetterThread(teeName, context, lock);
-        Thread st = new Thread(serviceGetterThread);
-        st.start();
+        mProxyApis = new ProxyApis(teeName, context);
 
         try {
-            st.join();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            mProxyApis.teecInitializeContext();
+        } catch (TEEClientException e) {
+            mProxyApis.terminateConnection();
+            mProxyApis = null;
+            throw e;
         }
 
-        // wait until service bound.
-        lock.lock();
-        lock.unlock();
-
-        mProxyApis = serviceGetterThread.getProxyApis();
+        try {
+            mCodecVersion = mProxyApis.otNegotiateCodec(OTOperationCodec.CODEC_VERSION);
+        } catch (RemoteException e) {
+            Log.e(TAG, "unable to negotiate the codec, protobuf is used.");
+        }
 
-        if(mProxyApis == null){
-            throw new CommunicationErrorException("Unable to connect to remote TEE service",
-                    ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        // the commands in flight fail if the service dies, instead of waiting for results forever.
+        try {
+            mProxyApis.linkToDeath(mCompletionChannel);
+        } catch (RemoteException e) {
+            Log.e(TAG, "unable to watch the service: " + e);
         }
+
         this.mInitialized = true;
 
-        Log.d(TAG, "Service connected.");
+        Log.d(TAG, "Service connected. Codec version " + mCodecVersion);
     }
 
     @Override
@@ -98,17 +119,22 @@ public class OTContext implements ITEEClient.IContext, OTContextCallback, OTHelp
         }
 
         if ( mProxyApis != null ){
+            mProxyApis.unlinkToDeath(mCompletionChannel);
             try {
                 mProxyApis.teecFinalizeContext();
             } catch (RemoteException e) {
                 throw new CommunicationErrorException("Communication error with remote TEE service.");
+            } finally {
+                mProxyApis.terminateConnection();
             }
-            mProxyApis.terminateConnection();
         }
 
+        mTaskExecutor.shutdown();
+        mInFlightWindow.shutdown();
+        mCompletionChannel.abortAll(new BadStateException("Context is finalized.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API));
+
         mTeeName = null;
         mInitialized = false;
-        smIdGenerator = null;
         mContext = null;
         mProxyApis = null;
 
@@ -130,30 +156,87 @@ public class OTContext implements ITEEClient.IContext, OTContextCallback, OTHelp
             throw new BadParametersException("provided buffer is null", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
         }
 
-        if( flags != ITEEClient.ISharedMemory.TEEC_MEM_INPUT &&
-            flags != ITEEClient.ISharedMemory.TEEC_MEM_OUTPUT &&
-            flags != ( ITEEClient.ISharedMemory.TEEC_MEM_INPUT | ITEEClient.ISharedMemory.TEEC_MEM_OUTPUT)){
-            throw new BadParametersException("incorrect flags.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        checkSharedMemoryFlags(flags);
+
+        // create a shared memory. Its id is issued by the service once it is registered.
+        OTSharedMemory otSharedMemory = new OTSharedMemory(buffer, flags, OTSharedMemory.NO_ID);
+
+        // register the shared memory
+        try {
+            otSharedMemory.setId(mProxyApis.teecRegisterSharedMemory(otSharedMemory));
+        } catch (RemoteException e) {
+            throw new CommunicationErrorException("Communication error with remote TEE service.");
         }
 
-        int smId = generateSmId();
+        // index the registered shared memory by the id issued by the service.
+        mSharedMemory.put(otSharedMemory.getId(), otSharedMemory);
 
-        // create a shared memory
-        OTSharedMemory otSharedMemory = new OTSharedMemory(buffer, flags, smId);
+        return otSharedMemory;
+    }
 
-        // register the shared memory
+    @Override
+    public ITEEClient.ISharedMemory allocateSharedMemory(int size, int flags) throws TEEClientException{
+        if ( !mInitialized || mProxyApis == null ){
+            Log.e(TAG, "Not ready to allocate shared memory");
+            return null;
+        }
+
+        if( size <= 0 ){
+            throw new BadParametersException("size of shared memory must be positive", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        checkSharedMemoryFlags(flags);
+
+        // the buffer is allocated in the TEE, so only the size goes to the service.
+        int smId;
         try {
-            mProxyApis.teecRegisterSharedMemory(otSharedMemory);
+            smId = mProxyApis.teecAllocateSharedMemory(size, flags);
         } catch (RemoteException e) {
             throw new CommunicationErrorException("Communication error with remote TEE service.");
         }
 
-        // add the registered shared memory to mSharedMemory list.
-        mSharedMemory.add(otSharedMemory);
+        OTAllocatedSharedMemory otSharedMemory = new OTAllocatedSharedMemory(size, flags, smId, this);
+        mSharedMemory.put(smId, otSharedMemory);
 
         return otSharedMemory;
     }
 
+    /* copy a range of an allocated shared memory into dst, which is filled from the start to its end. */
+    void readSharedMemory(int smId, int offset, byte[] dst) throws TEEClientException {
+        ProxyApis proxyApis = mProxyApis;
+        if ( !mInitialized || proxyApis == null ){
+            throw new BadStateException("context is not initialized", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        try {
+            proxyApis.otReadSharedMemory(smId, offset, dst);
+        } catch (RemoteException e) {
+            throw new CommunicationErrorException("Communication error with remote TEE service.");
+        }
+    }
+
+    /* copy the whole src into an allocated shared memory from the offset. */
+    void writeSharedMemory(int smId, int offset, byte[] src) throws TEEClientException {
+        ProxyApis proxyApis = mProxyApis;
+        if ( !mInitialized || proxyApis == null ){
+            throw new BadStateException("context is not initialized", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        try {
+            proxyApis.otWriteSharedMemory(smId, offset, src);
+        } catch (RemoteException e) {
+            throw new CommunicationErrorException("Communication error with remote TEE service.");
+        }
+    }
+
+    private void checkSharedMemoryFlags(int flags) throws BadParametersException {
+        if( flags != ITEEClient.ISharedMemory.TEEC_MEM_INPUT &&
+            flags != ITEEClient.ISharedMemory.TEEC_MEM_OUTPUT &&
+            flags != ( ITEEClient.ISharedMemory.TEEC_MEM_INPUT | ITEEClient.ISharedMemory.TEEC_MEM_OUTPUT)){
+            throw new BadParametersException("incorrect flags.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        }
+    }
+
     @Override
     public void releaseSharedMemory(ITEEClient.ISharedMemory sharedMemory) throws TEEClientException{
         if ( !mInitialized || mProxyApis == null ){
@@ -165,21 +248,29 @@ public class OTContext implements ITEEClient.IContext, OTContextCallback, OTHelp
             throw new BadParametersException("input shared memory interface is null", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
         }
 
+        int smId = ((OTSharedMemory)sharedMemory).getId();
+
         // tell remote tee to release the shared memory.
         try {
-            mProxyApis.teecReleaseSharedMemory(((OTSharedMemory)sharedMemory).getId());
+            mProxyApis.teecReleaseSharedMemory(smId);
         } catch (RemoteException e) {
             throw new CommunicationErrorException("Communication error with remote TEE service.");
         }
 
-        // remove it from shared memory list.
-        if (!mSharedMemory.remove(sharedMemory)){
+        // remove it from the shared memory index.
+        if (!mSharedMemory.remove(smId, sharedMemory)){
             throw new BadParametersException("Unable to find the input shared memory.",
                     ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
         }
     }
 
     private void updateOperation(OTOperation otOperation, byte[] opInBytes) throws ExcessDataException, BadFormatException {
+        // the service answers in the encoding of the request.
+        if(OTOperationCodec.isFlat(opInBytes)){
+            OTOperationCodec.decodeInto(otOperation, opInBytes);
+            return;
+        }
+
         GPDataTypes.TeecOperation op = OTFactoryMethods.transferOpInBytesToOperation(TAG, opInBytes);
 
         if(op == null) return;
@@ -202,6 +293,11 @@ public class OTContext implements ITEEClient.IContext, OTContextCallback, OTHelp
 
                 GPDataTypes.TeecSharedMemoryReference teecSmr = param.getTeecSharedMemoryReference();
 
+                if(!otRmr.isOutput()){
+                    Log.d(TAG, "input only, buffer is not synced back.");
+                    continue;
+                }
+
                 Log.d(TAG, "size of returned buffer " + teecSmr.getParent().getMBuffer().toByteArray().length);
 
                 otSm.updateBuffer(teecSmr.getParent().getMBuffer().toByteArray(),
@@ -225,101 +321,154 @@ public class OTContext implements ITEEClient.IContext, OTContextCallback, OTHelp
             return null;
         }
 
-        // sid is used to identify different sessions of one context in the OTGuard.
-        int sid = generateSessionId();
-
-        OpenSessionTask openSessionThread = null;
-        Thread opWorker = null;
+        OpenSessionTask openSessionTask = null;
         ReturnValueWrapper rv = null;
 
         if(connectionData == null) connectionData = 0;
 
         if(teecOperation == null){
-            openSessionThread = new OpenSessionTask(mProxyApis,
-                    sid,
+            openSessionTask = new OpenSessionTask(mProxyApis,
                     uuid,
                     connectionMethod,
                     connectionData,
                     null,   // without operation.
-                    null,
-                    0);  // without lock.
+                    0);
 
-            opWorker = new Thread(openSessionThread);
-            opWorker.start();
-            try {
-                opWorker.join();
-            } catch (InterruptedException e) {
-                throw new GenericErrorException(e.getMessage());
-            }
+            mTaskExecutor.execute(openSessionTask);
+            rv = openSessionTask.getReturnValue();
         }
         else{
-            //teecOperation started field check
-            if(teecOperation.isStarted()){
+            OTOperation otOperation = (OTOperation)teecOperation;
+
+            //check and update started field in one step.
+            if(!otOperation.tryStart()){
                 throw new BusyException("the referenced operation is under usage.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
             }
 
-            OTOperation otOperation = (OTOperation)teecOperation;
+            try{
+                /**
+                 * parse teecOperation into byte array using protocol buffer.
+                 */
+                byte[] opInArray = OTFactoryMethods.encodeOperation(TAG, teecOperation, mCodecVersion);
+
+                openSessionTask = new OpenSessionTask(mProxyApis,
+                        uuid,
+                        connectionMethod,
+                        connectionData,
+                        opInArray,
+                        otOperation.getCancelId());
+
+                mTaskExecutor.execute(openSessionTask);
+
+                rv = openSessionTask.getReturnValue();
+                syncOperationBack(otOperation, openSessionTask.getNewTeecOperation(), rv);
+            }finally {
+                // operation is no longer in use.
+                otOperation.setStarted(0);
+            }
+        }
 
-            //update started field.
-            otOperation.setStarted(1);
+        if(rv == null){
+            // no session id is issued if the remote call did not go through.
+            throw new CommunicationErrorException("Communication error with remote TEE service.",
+                    ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        }
 
-            /**
-             * parse teecOperation into byte array using protocol buffer.
-             */
-            byte[] opInArray = OTFactoryMethods.OperationAsByteArray(TAG, teecOperation);
+        if(rv.getReturnCode() != OTReturnCode.TEEC_SUCCESS){
+            OTFactoryMethods.throwExceptionWithReturnOrigin(TAG, rv.getReturnCode(), rv.getReturnOrigin());
 
-            OTLock otLock = new OTLock();
-            openSessionThread = new OpenSessionTask(mProxyApis,
-                    sid,
-                    uuid,
-                    connectionMethod,
-                    connectionData,
-                    opInArray,
-                    otLock,
-                    otOperation.hashCode());
+        }
 
-            opWorker = new Thread(openSessionThread);
-            opWorker.start();
+        // upon success. The sid is issued by the service to identify the session in the OTGuard.
+        int sid = openSessionTask.getSessionId();
+        OTContextCallback otContextCallback = this;
+        OTSession otSession =  new OTSession(sid, otContextCallback);
+        mSessionMap.put(sid, 0);
+        return otSession;
+    }
 
-            try {
-                opWorker.join();
-            } catch (InterruptedException e) {
-                throw new ExternalCancelException(e.getMessage());
-            }
+    @Override
+    public ITEEClient.ISession openSession(final UUID uuid,
+                                           final ConnectionMethod connectionMethod,
+                                           final Integer connectionData,
+                                           final ITEEClient.IOperation teecOperation,
+                                           long timeoutMs) throws TEEClientException {
+        if(timeoutMs <= 0) return openSession(uuid, connectionMethod, connectionData, teecOperation);
 
-            //test code
-            Log.d(TAG, "Thread id " + Thread.currentThread().getId());
+        if ( !mInitialized || mProxyApis == null ){
+            throw new BadStateException("Context is not initialized.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
 
-            // wait util operation synced back.
-            otLock.lock();
-            otLock.unlock();
+        final long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        OTInFlightWindow window = acquireSlot(deadlineNs);
 
-            byte[] teecOperationInBytes = openSessionThread.getNewOperationInBytes();
+        OTDeadlineCall<ITEEClient.ISession> call = new OTDeadlineCall<ITEEClient.ISession>(new Callable<ITEEClient.ISession>() {
+            @Override
+            public ITEEClient.ISession call() throws TEEClientException {
+                // it may have waited in the queue for too long.
+                OTDeadlineCall.checkDeadline(deadlineNs);
 
-            if(teecOperationInBytes != null &&
-               openSessionThread.getReturnValue().getReturnCode() == OTReturnCode.TEEC_SUCCESS){
-                updateOperation(otOperation, teecOperationInBytes);
+                return openSession(uuid, connectionMethod, connectionData, teecOperation);
             }
-            else{
-                Log.e(TAG, "op is empty or open session failed");
+        }, window.mSlots, deadlineNs){
+            @Override
+            void onAbandoned(ITEEClient.ISession session){
+                // nobody is waiting for the session any more.
+                try {
+                    if(session != null) session.closeSession();
+                } catch (TEEClientException e) {
+                    Log.e(TAG, "unable to close the session opened after its deadline: " + e);
+                }
             }
+        };
 
-            // operation is no longer in use.
-            otOperation.setStarted(0);
+        return runWithDeadline(window, call, (OTOperation)teecOperation);
+    }
+
+    /**
+     * Update the operation with the one which came back in the reply of the remote service.
+     */
+    private void syncOperationBack(OTOperation otOperation,
+                                   byte[] teecOperationInBytes,
+                                   ReturnValueWrapper rv) throws TEEClientException {
+        if(rv == null){
+            // the remote call did not go through, so nothing came back.
+            Log.e(TAG, "remote call failed, operation will not be synced back");
+            OTFactoryMethods.markSharedMemoryAllDirty(otOperation);
+            return;
         }
 
-        rv = openSessionThread.getReturnValue();
+        // rejected before the input was applied, e.g. for an unknown session.
+        OTFactoryMethods.markSharedMemoryAllDirtyIfNotApplied(otOperation, teecOperationInBytes);
 
-        if(rv != null && rv.getReturnCode() != OTReturnCode.TEEC_SUCCESS){
-            OTFactoryMethods.throwExceptionWithReturnOrigin(TAG, rv.getReturnCode(), rv.getReturnOrigin());
+        if(teecOperationInBytes != null &&
+           rv.getReturnCode() == OTReturnCode.TEEC_SUCCESS){
+            updateOperation(otOperation, teecOperationInBytes);
+        }
+        else{
+            Log.e(TAG, "op is empty or remote call failed");
+        }
+    }
 
+    /**
+     * Let the remote calls of this context run in a bounded pool of reusable worker threads instead of
+     * the calling thread. The calling thread still waits for the result.
+     * @param poolSize maximum number of worker threads. If it is 0, the calls are dispatched directly
+     *                 on the calling thread which is the default behaviour.
+     * It can be called while other threads are calling. Their calls finish on the previous pool.
+     */
+    public synchronized void setWorkerPoolSize(int poolSize){
+        OTTaskExecutor oldExecutor = mTaskExecutor;
+
+        if(poolSize <= 0){
+            mTaskExecutor = new OTTaskExecutor();
+        }else{
+            mTaskExecutor = new OTTaskExecutor(poolSize, OTTaskExecutor.DEFAULT_QUEUE_SIZE);
         }
 
-        // upon success
-        OTContextCallback otContextCallback = this;
-        OTSession otSession =  new OTSession(sid, otContextCallback);
-        mSessionMap.put(sid, 0);
-        return otSession;
+        // the old workers end once the calls handed to them are done. A call which picked the old
+        // executor just before the swap runs on its own thread.
+        oldExecutor.shutdown();
     }
 
     @Override
@@ -330,41 +479,12 @@ public class OTContext implements ITEEClient.IContext, OTContextCallback, OTHelp
             return;
         }
 
-        //new thread to cancel operation.
-        Thread rc = new Thread(new RequestCancellationTask(mContext, (OTOperation)iOperation ));
-        rc.start();
+        // the connection is already there, so it is cheap enough to send it from the calling thread.
+        new RequestCancellationTask((OTOperation)iOperation).run();
 
         Log.i(TAG, "sending request cancellation finished");
     }
 
-    private int generateSmId(){
-        int id;
-        do{
-            id = smIdGenerator.nextInt(50000);
-        }while(occupiedSmId(id));
-
-        Log.i(TAG, "generating shared memory id:" + id);
-        return id;
-    }
-
-    private boolean occupiedSmId(int id){
-        for(OTSharedMemory sm: mSharedMemory ){
-            if ( sm.getId() == id ) return true;
-        }
-        return false;
-    }
-
-    private int generateSessionId(){
-        // reuse the random generator of shared memory.
-        int id;
-        do{
-            id = smIdGenerator.nextInt(50000);
-        }while(mSessionMap.containsKey(id));
-
-        Log.i(TAG, "generating session id:" + id);
-        return id;
-    }
-
     @Override
     public void closeSession(int sid) throws RemoteException, CommunicationErrorException {
         Log.i(TAG, "closing session with id " + sid);
@@ -378,83 +498,394 @@ public class OTContext implements ITEEClient.IContext, OTContextCallback, OTHelp
 
     @Override
     public ReturnValueWrapper invokeCommand(int sid, int commandId, ITEEClient.IOperation teecOperation) throws TEEClientException {
-        Log.i(TAG, "invoking command with commandId " + commandId);
-
+        // nothing is logged here on purpose, since building the message allocates on every call.
         if ( !mInitialized || mProxyApis == null ){
             Log.i(TAG, "Not ready to open session");
             return null;
         }
 
-        InvokeCommandTask invokeCommandTask = null;
-        Thread opWorker = null;
-
         //teecOperation started check
         if(teecOperation == null){
-            invokeCommandTask = new InvokeCommandTask(mProxyApis,
+            return runInvokeCommand(mTaskExecutor, sid, commandId, null, null);
+        }
+
+        OTOperation otOperation = (OTOperation)teecOperation;
+
+        //check and update started field in one step.
+        if(!otOperation.tryStart()){
+            throw new BusyException("the referenced operation is under usage.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        try{
+            // only values, so it goes as int[] without any encoding.
+            if(mCodecVersion >= OTOperationCodec.CODEC_VALUES && OTOperationCodec.isValueOnly(otOperation)){
+                return runInvokeCommandValues(mTaskExecutor, sid, commandId, otOperation);
+            }
+
+            /**
+             * encode teecOperation with the encoder of this thread. The array is reused by the next call
+             * of this thread, which is fine since the binder has copied it by then.
+             */
+            byte[] opInArray = mInvokeState.get().mEncoder.encode(TAG, teecOperation, mCodecVersion);
+
+            return runInvokeCommand(mTaskExecutor, sid, commandId, otOperation, opInArray);
+        }finally {
+            // operation is no longer in use.
+            otOperation.setStarted(0);
+        }
+    }
+
+    /**
+     * Issue the command with the given executor and update the operation from the reply. The task of the
+     * calling thread is reused, so the returned value is only valid until the next call of this thread.
+     */
+    private ReturnValueWrapper runInvokeCommand(OTTaskExecutor executor,
+                                                int sid,
+                                                int commandId,
+                                                OTOperation otOperation,
+                                                byte[] opInArray) throws TEEClientException {
+        OTInvokeState invokeState = mInvokeState.get();
+        InvokeCommandTask invokeCommandTask = invokeState.mTask;
+        boolean finished = false;
+
+        if(otOperation == null){
+            invokeCommandTask.set(mProxyApis,
                     sid,
                     commandId,
                     null,   // no operation
-                    null,
-                    0);  // no lock
-
-            opWorker = new Thread(invokeCommandTask);
-            opWorker.start();
-            try {
-                opWorker.join();
-            } catch (InterruptedException e) {
-                throw new ExternalCancelException(e.getMessage());
+                    0);
+
+            try{
+                executor.execute(invokeCommandTask);
+                finished = true;
+            }finally {
+                // a worker may still be running the task.
+                if(!finished) mInvokeState.remove();
             }
+            return invokeCommandTask.getReturnValue();
         }
-        else{
-            if(teecOperation.isStarted()){
-                throw new BusyException("the referenced operation is under usage.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
-            }
 
-            OTOperation otOperation = (OTOperation)teecOperation;
+        try{
+            invokeCommandTask.set(mProxyApis,
+                    sid,
+                    commandId,
+                    opInArray,
+                    otOperation.getCancelId());
 
-            //update started field.
-            otOperation.setStarted(1);
+            executor.execute(invokeCommandTask);
 
-            /**
-             * parse teecOperation into byte array using protocol buffer.
-             */
-            byte[] opInArray = OTFactoryMethods.OperationAsByteArray(TAG, teecOperation);
+            ReturnValueWrapper rv = invokeCommandTask.getReturnValue();
+            syncOperationBack(otOperation, invokeCommandTask.getNewTeecOperation(), rv);
+            finished = true;
+            return rv;
+        }finally {
+            // the abandoned call may still use the state, so the next call starts with a new one.
+            if(!finished) mInvokeState.remove();
+        }
+    }
 
-            OTLock otLock = new OTLock();
-            invokeCommandTask = new InvokeCommandTask(mProxyApis,
+    /**
+     * Same as runInvokeCommand, but for an operation of values only. The values of the calling thread are
+     * reused and the operation is updated from them.
+     */
+    private ReturnValueWrapper runInvokeCommandValues(OTTaskExecutor executor,
+                                                      int sid,
+                                                      int commandId,
+                                                      OTOperation otOperation) throws TEEClientException {
+        OTInvokeState invokeState = mInvokeState.get();
+        InvokeCommandTask invokeCommandTask = invokeState.mTask;
+        boolean finished = false;
+
+        try{
+            OTOperationCodec.encodeValues(otOperation, invokeState.mValues);
+            invokeCommandTask.setValues(mProxyApis,
                     sid,
                     commandId,
-                    opInArray,
-                    otLock,
-                    otOperation.hashCode());
+                    invokeState.mValues,
+                    otOperation.getCancelId());
 
-            opWorker = new Thread(invokeCommandTask);
-            opWorker.start();
-            try {
-                opWorker.join();
-            } catch (InterruptedException e) {
-                throw new ExternalCancelException(e.getMessage());
+            executor.execute(invokeCommandTask);
+
+            ReturnValueWrapper rv = invokeCommandTask.getReturnValue();
+            if(rv != null && rv.getReturnCode() == OTReturnCode.TEEC_SUCCESS){
+                OTOperationCodec.decodeValuesInto(otOperation, invokeState.mValues);
             }
+            finished = true;
+            return rv;
+        }finally {
+            // the abandoned call may still use the state, so the next call starts with a new one.
+            if(!finished) mInvokeState.remove();
+        }
+    }
+
+    @Override
+    public Future<ITEEClient.IOperation> invokeCommandAsync(final int sid,
+                                                            final int commandId,
+                                                            ITEEClient.IOperation teecOperation,
+                                                            ITEEClient.ICommandCallback callback) throws TEEClientException {
+        Log.i(TAG, "invoking command asynchronously with commandId " + commandId);
 
-            //wait operations synced back.
-            otLock.lock();
-            otLock.unlock();
+        if ( !mInitialized || mProxyApis == null ){
+            throw new BadStateException("Context is not initialized.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
 
-            byte[] teecOperationInBytes = invokeCommandTask.getNewOperationInBytes();
+        final OTOperation otOperation = (OTOperation)teecOperation;
+        if(otOperation != null && !otOperation.tryStart()){
+            throw new BusyException("the referenced operation is under usage.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
 
-            if(teecOperationInBytes != null &&
-               invokeCommandTask.getReturnValue().getReturnCode() == OTReturnCode.TEEC_SUCCESS){
-                updateOperation(otOperation, teecOperationInBytes);
+        // apply back pressure once the in-flight window is full. The slot is taken before the operation
+        // is encoded, since encoding takes the dirty ranges of its shared memory.
+        final OTInFlightWindow window = mInFlightWindow;
+        try {
+            window.mSlots.acquire();
+        } catch (InterruptedException e) {
+            if(otOperation != null) otOperation.setStarted(0);
+            Thread.currentThread().interrupt();
+            throw new ExternalCancelException(e.getMessage());
+        }
+
+        // take the snapshot of the operation in the calling thread.
+        final byte[] opInArray;
+        try {
+            opInArray = otOperation == null ? null : OTFactoryMethods.encodeOperation(TAG, otOperation, mCodecVersion);
+        } catch (TEEClientException e) {
+            window.mSlots.release();
+            rollBackAsync(otOperation);
+            throw e;
+        }
+
+        // the result is matched by the cancel id of the run, or by a new id if there is no operation.
+        long operationId = otOperation == null ? OTOperation.sCancelIdGenerator.incrementAndGet() : otOperation.getCancelId();
+        OTAsyncCommand asyncCommand = new OTAsyncCommand(this, operationId, otOperation, callback, window.mSlots);
+
+        // the service takes the command and answers on the completion channel, so nothing waits for the TA.
+        mCompletionChannel.add(asyncCommand);
+        try {
+            mProxyApis.otInvokeCommandAsync(sid, commandId, opInArray, operationId, mCompletionChannel);
+        } catch (CommunicationErrorException | RemoteException e) {
+            // it is not sent, unless the channel has already aborted it.
+            if(mCompletionChannel.remove(asyncCommand)){
+                asyncCommand.releaseSlot();
+                rollBackAsync(otOperation);
+                throw new CommunicationErrorException("Communication error with remote TEE service.",
+                        ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
             }
-            else{
-                Log.e(TAG, "op is empty or invoke command failed");
+        }
+
+        return asyncCommand;
+    }
+
+    /**
+     * The result of the asynchronous command came back on the completion channel. The operation is updated
+     * and released before the command is finished, so that it can be reused from the callback.
+     */
+    void finishAsyncCommand(OTAsyncCommand command, int returnCode, int returnOrigin, byte[] newOpInBytes){
+        OTOperation otOperation = command.mOperation;
+        ReturnValueWrapper rv = new ReturnValueWrapper(returnCode, returnOrigin);
+        TEEClientException exception = null;
+
+        try {
+            if(otOperation != null) syncOperationBack(otOperation, newOpInBytes, rv);
+            throwIfFailed(rv);
+        } catch (TEEClientException e) {
+            exception = e;
+        } catch (RuntimeException e) {
+            // the command must still be finished, or the caller would wait for it forever.
+            Log.e(TAG, "unable to update the operation of command " + command.mOperationId + ": " + e);
+            exception = new GenericErrorException(String.valueOf(e));
+        } finally {
+            if(otOperation != null) otOperation.setStarted(0);
+        }
+
+        command.finish(exception);
+    }
+
+    /* the asynchronous command is not sent. Its shared memory is synced in full in the next call. */
+    private void rollBackAsync(OTOperation otOperation){
+        if(otOperation == null) return;
+
+        OTFactoryMethods.markSharedMemoryAllDirty(otOperation);
+        otOperation.setStarted(0);
+    }
+
+    @Override
+    public void invokeCommand(final int sid,
+                              final int commandId,
+                              final ITEEClient.IOperation teecOperation,
+                              long timeoutMs) throws TEEClientException {
+        if(timeoutMs <= 0){
+            ReturnValueWrapper rv = invokeCommand(sid, commandId, teecOperation);
+            throwIfFailed(rv);
+            return;
+        }
+
+        if ( !mInitialized || mProxyApis == null ){
+            throw new BadStateException("Context is not initialized.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        final long deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        OTInFlightWindow window = acquireSlot(deadlineNs);
+
+        OTDeadlineCall<ITEEClient.IOperation> call = new OTDeadlineCall<>(new Callable<ITEEClient.IOperation>() {
+            @Override
+            public ITEEClient.IOperation call() throws TEEClientException {
+                // it may have waited in the queue for too long.
+                OTDeadlineCall.checkDeadline(deadlineNs);
+
+                // the worker runs the synchronous call with its own reusable state.
+                throwIfFailed(invokeCommand(sid, commandId, teecOperation));
+                return teecOperation;
             }
+        }, window.mSlots, deadlineNs);
 
-            // operation is no longer in use.
-            otOperation.setStarted(0);
+        runWithDeadline(window, call, (OTOperation)teecOperation);
+    }
+
+    private void throwIfFailed(ReturnValueWrapper rv) throws TEEClientException {
+        if(rv == null){
+            throw new CommunicationErrorException("Communication error with remote TEE service.",
+                    ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        }
+
+        if(rv.getReturnCode() != OTReturnCode.TEEC_SUCCESS){
+            OTFactoryMethods.throwExceptionWithReturnOrigin(TAG, rv.getReturnCode(), rv.getReturnOrigin());
+        }
+    }
+
+    /**
+     * Take a slot of the in-flight window for a call with a deadline. It waits no longer than the deadline.
+     * @return the window the slot is taken from. The call runs in it and releases the slot when it is done.
+     */
+    private OTInFlightWindow acquireSlot(long deadlineNs) throws TEEClientException {
+        OTInFlightWindow window = mInFlightWindow;
+        try {
+            if(!window.mSlots.tryAcquire(Math.max(0, deadlineNs - System.nanoTime()), TimeUnit.NANOSECONDS)){
+                mDeadlinesExceeded.incrementAndGet();
+                throw new DeadlineExceededException("No free slot before the deadline.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalCancelException(e.getMessage());
+        }
+        return window;
+    }
+
+    /**
+     * Run the call in a worker thread and wait for it until its deadline. If the deadline passes, the
+     * cancellation of the operation is requested in the TEE, so that the worker of this context and the
+     * binder thread of the service serving it are freed once the TA gives up. The call never runs on the
+     * calling thread, where nothing would bound it.
+     */
+    private <T> T runWithDeadline(OTInFlightWindow window, OTDeadlineCall<T> call, OTOperation otOperation) throws TEEClientException {
+        try {
+            window.mDeadlineExecutor.submit(call);
+        } catch (RejectedExecutionException e) {
+            // it never runs, so its slot is given back here.
+            window.mSlots.release();
+            throw new BusyException("no worker free for the call.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        try {
+            return call.await();
+        } catch (DeadlineExceededException e) {
+            mDeadlinesExceeded.incrementAndGet();
+            Log.e(TAG, "deadline exceeded. " + mDeadlinesExceeded.get() + " calls so far");
+
+            if(otOperation != null) requestCancellation(otOperation);
+            throw e;
+        }
+    }
+
+    @Override
+    public ITEEClient.ICommandBatch newCommandBatch() {
+        return new OTCommandBatch(this, OTCommandBatch.NO_SESSION);
+    }
+
+    @Override
+    public void invokeCommandBatch(OTCommandBatch batch) throws TEEClientException {
+        Log.i(TAG, "invoking a batch of " + batch.size() + " commands");
+
+        if ( !mInitialized || mProxyApis == null ){
+            throw new BadStateException("Context is not initialized.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        if(batch.size() == 0) return;
+
+        // mark all operations as started. Roll back if one of them is in use.
+        int started = 0;
+        try{
+            for(; started < batch.size(); started++){
+                OTOperation otOperation = batch.getOperation(started);
+                if(otOperation == null) continue;
+
+                if(!otOperation.tryStart()){
+                    throw new BusyException("the referenced operation is under usage.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+                }
+            }
+
+            // all are checked before the dirty ranges of any of them are taken.
+            for(int i = 0; i < batch.size(); i++){
+                OTFactoryMethods.checkCodecSupports(batch.getOperation(i), mCodecVersion);
+            }
+            for(int i = 0; i < batch.size(); i++){
+                batch.setOperationInBytes(i, OTFactoryMethods.encodeOperation(TAG, batch.getOperation(i), mCodecVersion));
+            }
+
+            InvokeCommandBatchTask invokeCommandBatchTask = new InvokeCommandBatchTask(mProxyApis, batch);
+            mTaskExecutor.execute(invokeCommandBatchTask);
+
+            Integer rc = invokeCommandBatchTask.getReturnCode();
+            if(rc == null){
+                for(int i = 0; i < batch.size(); i++){
+                    OTFactoryMethods.markSharedMemoryAllDirty(batch.getOperation(i));
+                }
+                throw new CommunicationErrorException("Communication error with remote TEE service.",
+                        ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+            }
+            if(rc != OTReturnCode.TEEC_SUCCESS){
+                for(int i = 0; i < batch.size(); i++){
+                    OTFactoryMethods.markSharedMemoryAllDirty(batch.getOperation(i));
+                }
+                OTFactoryMethods.throwExceptionBasedOnReturnCode(rc);
+            }
+
+            // the updated operations are in the reply.
+            for(int i = 0; i < batch.size(); i++){
+                OTFactoryMethods.markSharedMemoryAllDirtyIfNotApplied(batch.getOperation(i), batch.getOperationInBytes(i));
+
+                if(batch.getOperation(i) != null &&
+                   batch.getOperationInBytes(i) != null &&
+                   batch.getReturnCode(i) == OTReturnCode.TEEC_SUCCESS){
+                    updateOperation(batch.getOperation(i), batch.getOperationInBytes(i));
+                }
+            }
+        }finally {
+            for(int i = 0; i < started; i++){
+                OTOperation otOperation = batch.getOperation(i);
+                if(otOperation != null) otOperation.setStarted(0);
+            }
         }
+    }
+
+    @Override
+    public long getDeadlineExceededCount(){
+        return mDeadlinesExceeded.get();
+    }
 
-        return invokeCommandTask.getReturnValue();
+    /**
+     * Set the maximum number of asynchronous commands in flight within this context. When the window is
+     * full, <code>invokeCommandAsync</code> blocks until one of the commands finishes. The calls with a
+     * deadline take a slot too, but wait for it no longer than their deadline. The commands already in
+     * flight finish within the previous window.
+     * @param maxInFlight the size of the window.
+     */
+    public void setMaxInFlightCommands(int maxInFlight){
+        if(maxInFlight <= 0) maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+        // the slots and the workers are swapped together. The old workers are not shut down, since a
+        // call may have picked the old window just before the swap. They end once idle.
+        mInFlightWindow = new OTInFlightWindow(maxInFlight);
     }
 
     @Override
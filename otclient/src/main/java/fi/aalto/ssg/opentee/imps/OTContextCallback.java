@@ -17,6 +17,8 @@ package fi.aalto.ssg.opentee.imps;
 
 import android.os.RemoteException;
 
+import java.util.concurrent.Future;
+
 import fi.aalto.ssg.opentee.ITEEClient;
 import fi.aalto.ssg.opentee.exception.BadFormatException;
 import fi.aalto.ssg.opentee.exception.BusyException;
@@ -31,4 +33,7 @@ import fi.aalto.ssg.opentee.exception.TEEClientException;
 interface OTContextCallback {
     void closeSession(int sid) throws RemoteException, CommunicationErrorException;
     ReturnValueWrapper invokeCommand(int sid, int commandId, ITEEClient.IOperation iOperation) throws TEEClientException;
+    void invokeCommand(int sid, int commandId, ITEEClient.IOperation iOperation, long timeoutMs) throws TEEClientException;
+    Future<ITEEClient.IOperation> invokeCommandAsync(int sid, int commandId, ITEEClient.IOperation iOperation, ITEEClient.ICommandCallback callback) throws TEEClientException;
+    void invokeCommandBatch(OTCommandBatch batch) throws TEEClientException;
 }
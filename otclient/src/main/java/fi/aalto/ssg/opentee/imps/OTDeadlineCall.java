@@ -0,0 +1,114 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.DeadlineExceededException;
+import fi.aalto.ssg.opentee.exception.ExternalCancelException;
+import fi.aalto.ssg.opentee.exception.GenericErrorException;
+import fi.aalto.ssg.opentee.exception.TEEClientException;
+
+/**
+ * A call which runs in a worker thread while the caller waits for it until a deadline. It holds one slot
+ * of the in-flight window of its context until the worker is done. Whichever of the caller and the worker
+ * gets to the result first owns it, so a result which comes after the caller gave up goes to
+ * <code>onAbandoned</code> instead of being lost.
+ */
+class OTDeadlineCall<T> extends FutureTask<T> {
+    final Semaphore mInFlightWindow;
+    final long mDeadlineNs;
+    final AtomicBoolean mClaimed = new AtomicBoolean(false);
+
+    /**
+     * @param call the work to do. The caller must have acquired a slot from the window.
+     * @param deadlineNs the deadline in terms of System.nanoTime.
+     */
+    OTDeadlineCall(Callable<T> call, Semaphore inFlightWindow, long deadlineNs){
+        super(call);
+        this.mInFlightWindow = inFlightWindow;
+        this.mDeadlineNs = deadlineNs;
+    }
+
+    /**
+     * @throws DeadlineExceededException if the deadline has passed.
+     */
+    static void checkDeadline(long deadlineNs) throws DeadlineExceededException {
+        if(System.nanoTime() - deadlineNs >= 0){
+            throw new DeadlineExceededException("Deadline exceeded.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+    }
+
+    @Override
+    public void run(){
+        try {
+            super.run();
+        } finally {
+            mInFlightWindow.release();
+        }
+    }
+
+    @Override
+    protected void done(){
+        // the caller has given up already.
+        if(!mClaimed.compareAndSet(false, true)){
+            try {
+                onAbandoned(get());
+            } catch (ExecutionException | InterruptedException e) {
+                // the call failed, so there is nothing to clean up.
+            }
+        }
+    }
+
+    /**
+     * Called in the worker thread with the result which came after the caller gave up.
+     */
+    void onAbandoned(T result){}
+
+    /**
+     * Wait for the result until the deadline.
+     * @throws DeadlineExceededException if the deadline passed first.
+     * @throws ExternalCancelException if the calling thread is interrupted while waiting.
+     * @throws TEEClientException the exception which the call threw.
+     */
+    T await() throws TEEClientException {
+        try {
+            try {
+                return get(Math.max(0, mDeadlineNs - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if(mClaimed.compareAndSet(false, true)){
+                    throw new DeadlineExceededException("Deadline exceeded.", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+                }
+
+                // the worker has just finished.
+                return get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalCancelException(e.getMessage());
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof TEEClientException) throw (TEEClientException)e.getCause();
+            throw new GenericErrorException(String.valueOf(e.getCause()));
+        }
+    }
+}
@@ -102,12 +102,51 @@ public class OTFactoryMethods {
         return opBuilder.build();
     }
 
+    /**
+     * Encode the operation with the codec agreed with the service.
+     */
+    public static byte[] encodeOperation(String TAG, ITEEClient.IOperation iOperation, int codecVersion) throws NotSupportedException {
+        if(codecVersion >= OTOperationCodec.CODEC_FLAT_V1) return OTOperationCodec.encode(iOperation);
+
+        return OperationAsByteArray(TAG, iOperation);
+    }
+
 //    public static final GPDataTypes.TeecParameter paramPlaceHolder = GPDataTypes.TeecParameter.newBuilder().build();
 
-    public static byte[] OperationAsByteArray(String TAG, ITEEClient.IOperation iOperation){
+    /**
+     * Check that the operation can be sent with the codec. Temporary memory references only go in the
+     * flat encoding, and a protobuf service would run the command without their buffers.
+     * @throws NotSupportedException the service does not take such an operation.
+     */
+    public static void checkCodecSupports(ITEEClient.IOperation iOperation, int codecVersion) throws NotSupportedException {
+        if(iOperation == null || codecVersion >= OTOperationCodec.CODEC_FLAT_V1) return;
+
+        List<ITEEClient.IParameter> params = ((OTOperation)iOperation).getParams();
+        if(params == null) return;
+
+        for(ITEEClient.IParameter param: params){
+            if(param != null && param.getType() == ITEEClient.IParameter.Type.TEEC_PTYPE_TMR){
+                throw new NotSupportedException("temporary memory reference is not supported by the service",
+                        ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+            }
+        }
+    }
+
+    public static byte[] OperationAsByteArray(String TAG, ITEEClient.IOperation iOperation) throws NotSupportedException {
+        return OperationAsByteArray(TAG, iOperation, null);
+    }
+
+    /**
+     * @param dirtyRanges scratch array for the dirty ranges of each shared memory, which holds at least
+     * 2 * MAX_DIRTY_RANGES ints. A new one is allocated for the call if it is null.
+     */
+    static byte[] OperationAsByteArray(String TAG, ITEEClient.IOperation iOperation, int[] dirtyRanges) throws NotSupportedException {
         if ( iOperation == null )return null;
         OTOperation teecOperation = (OTOperation)iOperation;
 
+        // checked before any dirty range is taken.
+        checkCodecSupports(iOperation, OTOperationCodec.CODEC_PROTOBUF);
+
         GPDataTypes.TeecOperation.Builder toBuilder = GPDataTypes.TeecOperation.newBuilder();
 
         byte[] opInArray = null;
@@ -122,7 +161,6 @@ public class OTFactoryMethods {
                 ITEEClient.IParameter param = parameterList.get(i);
             //for ( ITEEClient.IParameter param: parameterList ){
                 if(param == null){
-                    Log.i(TAG, "Param is null");
                     GPDataTypes.TeecParameter.Builder paramBuilder = GPDataTypes.TeecParameter.newBuilder();
                     paramBuilder.setType(GPDataTypes.TeecParameter.Type.empty);
                     toBuilder.addMParams(paramBuilder.build());
@@ -130,8 +168,6 @@ public class OTFactoryMethods {
                 }
 
                 if( param.getType() == ITEEClient.IParameter.Type.TEEC_PTYPE_VAL){
-                    Log.i(TAG, "Param is " + ITEEClient.IParameter.Type.TEEC_PTYPE_VAL);
-
                     GPDataTypes.TeecValue.Builder builder = GPDataTypes.TeecValue.newBuilder();
                     ITEEClient.IValue iVal = (ITEEClient.IValue)param;
                     OTValue val = (OTValue)iVal;
@@ -147,8 +183,6 @@ public class OTFactoryMethods {
                     toBuilder.addMParams(paramBuilder.build());
                 }
                 else if ( param.getType() == ITEEClient.IParameter.Type.TEEC_PTYPE_RMR ){
-                    Log.i(TAG, "Param is " + ITEEClient.IParameter.Type.TEEC_PTYPE_RMR);
-
                     GPDataTypes.TeecSharedMemoryReference.Builder builder
                             = GPDataTypes.TeecSharedMemoryReference.newBuilder();
                     ITEEClient.IRegisteredMemoryReference iRmr
@@ -161,11 +195,37 @@ public class OTFactoryMethods {
                     gpSMBuilder.setSize(teecSM.getSize());
                     gpSMBuilder.setMID(teecSM.getId());
                     gpSMBuilder.setMFlag(teecSM.getFlags());
-                    gpSMBuilder.setMBuffer(ByteString.copyFrom(teecSM.asByteArray()));
+                    if(!rmr.isInput()){
+                        // the TA only writes to it, so its content is not needed in the TEE. The dirty
+                        // ranges are kept for the next input reference.
+                        gpSMBuilder.setMBuffer(ByteString.EMPTY);
+                    }else{
+                        // only send the window of the reference, or the parts of it the CA changed
+                        // since the last call.
+                        int from = rmr.getOffset();
+                        int to = from + rmr.getSize();
+                        if(dirtyRanges == null) dirtyRanges = new int[2 * OTSharedMemory.MAX_DIRTY_RANGES];
+                        int numOfRanges = teecSM.takeDirtyRanges(dirtyRanges, from, to);
+                        if(numOfRanges < 0){
+                            dirtyRanges[0] = from;
+                            dirtyRanges[1] = to;
+                            numOfRanges = 1;
+                        }
+
+                        gpSMBuilder.setMBuffer(ByteString.EMPTY);
+                        gpSMBuilder.setMDirtyOnly(true);
+                        for(int r = 0; r < numOfRanges; r++){
+                            int start = dirtyRanges[2 * r];
+                            gpSMBuilder.addMDirtyRanges(GPDataTypes.TeecDirtyRange.newBuilder()
+                                    .setMOffset(start)
+                                    .setMData(ByteString.copyFrom(teecSM.asByteArray(), start, dirtyRanges[2 * r + 1] - start)));
+                        }
+                    }
                     gpSMBuilder.setMReturnSize(teecSM.getReturnSize());
 
                     builder.setParent(gpSMBuilder.build());
                     builder.setMOffset(rmr.getOffset());
+                    if(rmr.getExplicitSize() > 0) builder.setMSize(rmr.getExplicitSize());
                     builder.setMFlag(GPDataTypes.TeecSharedMemoryReference.Flag.values()[rmr.getFlag().ordinal()]);
 
                     GPDataTypes.TeecParameter.Builder paramBuilder = GPDataTypes.TeecParameter.newBuilder();
@@ -186,6 +246,30 @@ public class OTFactoryMethods {
         return opInArray;
     }
 
+    /**
+     * Resync the whole buffers of the shared memory referenced by the operation in the next call. It is
+     * called when the operation did not reach the TEE, so that the dirty ranges taken by it are not lost.
+     */
+    public static void markSharedMemoryAllDirty(ITEEClient.IOperation iOperation){
+        if(iOperation == null) return;
+
+        for(ITEEClient.IParameter param: ((OTOperation)iOperation).getParams()){
+            if(param != null && param.getType() == ITEEClient.IParameter.Type.TEEC_PTYPE_RMR){
+                ((OTSharedMemory)((OTRegisteredMemoryReference)param).getSharedMemory()).markAllDirty();
+            }
+        }
+    }
+
+    /**
+     * The service only sends the operation back once it has applied its input. If it did not come back,
+     * the call was rejected or failed before, maybe after only part of the input was applied, so the
+     * ranges taken for it are lost. The shared memory is then synced in full in the next call.
+     * @param newOpInBytes the operation in the reply, null if there is none.
+     */
+    public static void markSharedMemoryAllDirtyIfNotApplied(ITEEClient.IOperation iOperation, byte[] newOpInBytes){
+        if(newOpInBytes == null) markSharedMemoryAllDirty(iOperation);
+    }
+
     //note: switch statement can also apply in here.
     public static void throwExceptionBasedOnReturnCode(int return_code) throws TEEClientException {
         switch (return_code){
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * The in-flight window of a context together with the workers which run the calls with a deadline. The
+ * asynchronous commands hold its slots without a worker until their results come back. It never changes, so a call which picked it takes its slot, runs and gives the slot back within the
+ * same window even if the context has switched to a new one in the meantime.
+ */
+class OTInFlightWindow {
+    final Semaphore mSlots;
+    final OTTaskExecutor mDeadlineExecutor; // calls with a deadline. Never runs them on the caller.
+
+    OTInFlightWindow(int size){
+        this.mSlots = new Semaphore(size);
+        // each call holds a slot while it is in the pool, so the pool is not expected to be full.
+        this.mDeadlineExecutor = new OTTaskExecutor(size, size, false);
+    }
+
+    void shutdown(){
+        mDeadlineExecutor.shutdown();
+    }
+}
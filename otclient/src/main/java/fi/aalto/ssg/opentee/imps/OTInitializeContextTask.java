@@ -0,0 +1,68 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import android.content.Context;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.ExternalCancelException;
+import fi.aalto.ssg.opentee.exception.GenericErrorException;
+import fi.aalto.ssg.opentee.exception.TEEClientException;
+
+/**
+ * Initialization of a context in a worker thread. It notifies the callback of the caller if there is one.
+ */
+class OTInitializeContextTask extends FutureTask<ITEEClient.IContext> {
+    final ITEEClient.IContextCallback mCallback;
+
+    OTInitializeContextTask(final String teeName,
+                            final Context context,
+                            ITEEClient.IContextCallback callback){
+        super(new Callable<ITEEClient.IContext>() {
+            @Override
+            public ITEEClient.IContext call() throws TEEClientException {
+                return new OTContext(teeName, context);
+            }
+        });
+        this.mCallback = callback;
+    }
+
+    @Override
+    protected void done(){
+        if(mCallback == null) return;
+
+        TEEClientException exception;
+        try {
+            mCallback.onContextInitialized(get());
+            return;
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof TEEClientException){
+                exception = (TEEClientException)e.getCause();
+            }else{
+                exception = new GenericErrorException(String.valueOf(e.getCause()));
+            }
+        } catch (InterruptedException | CancellationException e) {
+            exception = new ExternalCancelException("Initialization cancelled.");
+        }
+
+        mCallback.onContextFailed(exception);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+/**
+ * Everything a synchronous invokeCommand needs besides the operation itself. One is kept per calling
+ * thread and context, so that the calls in the steady state do not allocate. It is dropped if a call
+ * does not finish normally, since the remote side may still hold on to it.
+ */
+class OTInvokeState {
+    final OTOperationEncoder mEncoder = new OTOperationEncoder();
+    final InvokeCommandTask mTask = new InvokeCommandTask(null, 0, 0, null, 0);
+    final int[] mValues = new int[OTOperationCodec.VALUES_SIZE];
+}
@@ -17,14 +17,21 @@ package fi.aalto.ssg.opentee.imps;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import fi.aalto.ssg.opentee.ITEEClient;
 
 /**
  * OTOperation implements the ITEEClient.IOperation interface.
+ * Each time it is started, it is given a new id which is sent along with it. The service cancels the
+ * operation by that id, so an id is never reused within the process.
  */
 public class OTOperation implements ITEEClient.IOperation {
+    public static final long NO_CANCEL_ID = 0;
+    static final AtomicLong sCancelIdGenerator = new AtomicLong(NO_CANCEL_ID);
+
     volatile int started = 0;
+    volatile long mCancelId = NO_CANCEL_ID; // id of the current run, NO_CANCEL_ID if it is not started.
     List<ITEEClient.IParameter> params = new ArrayList<>();
 
     /**
@@ -106,8 +113,28 @@ public class OTOperation implements ITEEClient.IOperation {
     }
 
     public synchronized void setStarted(int val){
-        if(val != 0 || val != 1) return;
+        if(val != 0 && val != 1) return;
         this.started = val;
+        this.mCancelId = val == 1 ? sCancelIdGenerator.incrementAndGet() : NO_CANCEL_ID;
+    }
+
+    /**
+     * Start the operation unless it is started already. The check and the start are one step, so two
+     * threads can not both start it and send it under two ids.
+     * @return true if this call started it.
+     */
+    public synchronized boolean tryStart(){
+        if(this.started != 0) return false;
+
+        setStarted(1);
+        return true;
+    }
+
+    /**
+     * @return the id to cancel the current run of the operation, or NO_CANCEL_ID if it is not started.
+     */
+    public long getCancelId(){
+        return this.mCancelId;
     }
 
     public List<ITEEClient.IParameter> getParams(){
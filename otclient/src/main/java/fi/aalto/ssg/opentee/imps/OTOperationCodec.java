@@ -0,0 +1,232 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import java.util.List;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.BadFormatException;
+import fi.aalto.ssg.opentee.exception.ExcessDataException;
+
+/**
+ * Flat binary encoding of operations. It is read in place by the JNI layer of the service, which
+ * answers in the same encoding. All the fields are little-endian int32:
+ * <pre>
+ * header  : magic | version, started
+ * 4 slots : type, flag, a, b, c, d
+ *           value  -> type = TYPE_VALUE, a = a, b = b
+ *           memref -> type = TYPE_MEMREF, a = id of shared memory, b = offset, c = size of the
+ *                     window in the request (0 for the rest of the buffer) and return size in the
+ *                     reply, d = number of ranges in the payload
+ *           tmpref -> type = TYPE_TMPREF, a = size of the buffer, c = return size in the reply,
+ *                     d = number of ranges in the payload, 1 for the whole buffer or 0
+ * payload : for each memref slot in order, d times {offset, length, bytes[length]}
+ * </pre>
+ * The protobuf encoding is still used if the service does not support this one.
+ * <p>
+ * An operation with only values goes as a plain int[] instead, VALUES_SLOT_SIZE ints for each slot:
+ * a, b and the flag, which is 0 for an empty slot. The service updates it in place.
+ */
+public class OTOperationCodec {
+    public static final int CODEC_PROTOBUF = 0;
+    public static final int CODEC_FLAT_V1 = 1;
+    public static final int CODEC_VALUES = 2; // flat, and operations with only values as int[].
+    public static final int CODEC_VERSION = CODEC_VALUES; // the latest one supported.
+
+    static final int MAGIC = 0x4F540000; // "OT" in the upper half, version in the lower half.
+    static final int VERSION_MASK = 0x0000FFFF;
+
+    static final int NUM_OF_SLOTS = 4;
+    static final int SLOT_SIZE = 6 * 4;
+    static final int SLOT_START = 2 * 4;
+    static final int HEADER_SIZE = SLOT_START + NUM_OF_SLOTS * SLOT_SIZE;
+    static final int RANGE_HEADER_SIZE = 2 * 4;
+
+    public static final int VALUES_A = 0;
+    public static final int VALUES_B = 1;
+    public static final int VALUES_FLAG = 2;
+    public static final int VALUES_SLOT_SIZE = 3;
+    public static final int VALUES_SIZE = NUM_OF_SLOTS * VALUES_SLOT_SIZE;
+
+    static final int TYPE_NONE = 0;
+    static final int TYPE_VALUE = 1;
+    static final int TYPE_MEMREF = 2;
+    static final int TYPE_TMPREF = 3;
+
+    // the flags used by the JNI layer, indexed by the ordinal of the flags in the API.
+    static final int[] VALUE_FLAGS = {0x00000001, 0x00000002, 0x00000003};
+    static final int[] MEMREF_FLAGS = {0x0000000D, 0x0000000E, 0x0000000F};
+    static final int[] TMPREF_FLAGS = {0x00000005, 0x00000006, 0x00000007};
+
+    private OTOperationCodec(){}
+
+    /**
+     * @return true if the operation in bytes is in the flat encoding, whatever its version.
+     */
+    public static boolean isFlat(byte[] opInBytes){
+        return opInBytes != null &&
+                opInBytes.length >= HEADER_SIZE &&
+                (getInt(opInBytes, 0) & 0xFFFF0000) == MAGIC;
+    }
+
+    static int getInt(byte[] bytes, int pos){
+        return (bytes[pos] & 0xFF) |
+                (bytes[pos + 1] & 0xFF) << 8 |
+                (bytes[pos + 2] & 0xFF) << 16 |
+                (bytes[pos + 3] & 0xFF) << 24;
+    }
+
+    static int putInt(byte[] bytes, int pos, int val){
+        bytes[pos] = (byte)val;
+        bytes[pos + 1] = (byte)(val >> 8);
+        bytes[pos + 2] = (byte)(val >> 16);
+        bytes[pos + 3] = (byte)(val >> 24);
+        return pos + 4;
+    }
+
+    /**
+     * Encode the operation into a new array.
+     * @param iOperation the operation to encode.
+     * @return the operation in bytes.
+     */
+    public static byte[] encode(ITEEClient.IOperation iOperation){
+        if(iOperation == null) return null;
+
+        return new OTOperationEncoder().encodeFlat((OTOperation)iOperation);
+    }
+
+    /**
+     * @return true if the operation has nothing but values, so it can go as int[].
+     */
+    public static boolean isValueOnly(OTOperation otOperation){
+        List<ITEEClient.IParameter> params = otOperation.getParams();
+        int numOfParams = params == null ? 0 : Math.min(params.size(), NUM_OF_SLOTS);
+
+        for(int i = 0; i < numOfParams; i++){
+            ITEEClient.IParameter param = params.get(i);
+            if(param != null && param.getType() != ITEEClient.IParameter.Type.TEEC_PTYPE_VAL) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Put the values of the operation into values, which has at least VALUES_SIZE elements.
+     */
+    public static void encodeValues(OTOperation otOperation, int[] values){
+        List<ITEEClient.IParameter> params = otOperation.getParams();
+        int numOfParams = params == null ? 0 : Math.min(params.size(), NUM_OF_SLOTS);
+
+        for(int i = 0; i < NUM_OF_SLOTS; i++){
+            int slot = i * VALUES_SLOT_SIZE;
+            ITEEClient.IParameter param = i < numOfParams ? params.get(i) : null;
+
+            if(param instanceof OTValue){
+                OTValue value = (OTValue)param;
+                values[slot + VALUES_A] = value.getA();
+                values[slot + VALUES_B] = value.getB();
+                values[slot + VALUES_FLAG] = VALUE_FLAGS[value.getFlag().ordinal()];
+            }
+            else{
+                values[slot + VALUES_A] = 0;
+                values[slot + VALUES_B] = 0;
+                values[slot + VALUES_FLAG] = 0;
+            }
+        }
+    }
+
+    /**
+     * Update the values of the operation with the ones returned from the service.
+     */
+    public static void decodeValuesInto(OTOperation otOperation, int[] values){
+        List<ITEEClient.IParameter> params = otOperation.getParams();
+        int numOfParams = params == null ? 0 : Math.min(params.size(), NUM_OF_SLOTS);
+
+        for(int i = 0; i < numOfParams; i++){
+            ITEEClient.IParameter param = params.get(i);
+            if(!(param instanceof OTValue)) continue;
+
+            int slot = i * VALUES_SLOT_SIZE;
+            OTValue value = (OTValue)param;
+            value.setA(values[slot + VALUES_A]);
+            value.setB(values[slot + VALUES_B]);
+        }
+    }
+
+    /**
+     * Update the operation with the one returned from the service. The returned regions are copied
+     * from the array into the shared memory or the buffer of the temporary reference directly, so
+     * nothing is allocated.
+     * @param otOperation the operation which was sent.
+     * @param opInBytes the returned operation in the flat encoding.
+     * @throws BadFormatException if the returned operation does not match the layout or its version is unknown.
+     */
+    public static void decodeInto(OTOperation otOperation, byte[] opInBytes) throws BadFormatException, ExcessDataException {
+        if(!isFlat(opInBytes)){
+            throw new BadFormatException("operation is not in the flat encoding", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        }
+        if((getInt(opInBytes, 0) & VERSION_MASK) != CODEC_FLAT_V1){
+            throw new BadFormatException("unknown version " + (getInt(opInBytes, 0) & VERSION_MASK) + " of the flat encoding",
+                    ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+        }
+
+        List<ITEEClient.IParameter> params = otOperation.getParams();
+        int numOfParams = params == null ? 0 : Math.min(params.size(), NUM_OF_SLOTS);
+        int pos = HEADER_SIZE;
+
+        for(int i = 0; i < NUM_OF_SLOTS; i++){
+            int slot = SLOT_START + i * SLOT_SIZE;
+            int type = getInt(opInBytes, slot);
+            ITEEClient.IParameter param = i < numOfParams ? params.get(i) : null;
+
+            if(type == TYPE_VALUE && param instanceof OTValue){
+                OTValue value = (OTValue)param;
+                value.setA(getInt(opInBytes, slot + 8));
+                value.setB(getInt(opInBytes, slot + 12));
+            }
+            else if((type == TYPE_MEMREF && param instanceof OTRegisteredMemoryReference) ||
+                    (type == TYPE_TMPREF && param instanceof OTTempMemoryReference)){
+                int returnSize = getInt(opInBytes, slot + 16);
+                int numOfRanges = getInt(opInBytes, slot + 20);
+
+                for(int r = 0; r < numOfRanges; r++){
+                    if(pos + RANGE_HEADER_SIZE > opInBytes.length){
+                        throw new BadFormatException("truncated operation", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+                    }
+                    int offset = getInt(opInBytes, pos);
+                    int length = getInt(opInBytes, pos + 4);
+                    pos += RANGE_HEADER_SIZE;
+
+                    if(length < 0 || pos + length > opInBytes.length){
+                        throw new BadFormatException("truncated operation", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
+                    }
+
+                    if(param instanceof OTTempMemoryReference){
+                        // the region of a temporary reference always starts from the beginning of it.
+                        OTTempMemoryReference tmr = (OTTempMemoryReference)param;
+                        if(tmr.isOutput()) tmr.updateBuffer(opInBytes, pos, length, returnSize);
+                    }
+                    else{
+                        OTRegisteredMemoryReference rmr = (OTRegisteredMemoryReference)param;
+                        if(rmr.isOutput()){
+                            ((OTSharedMemory)rmr.getSharedMemory()).updateBuffer(opInBytes, pos, offset, length, returnSize);
+                        }
+                    }
+                    pos += length;
+                }
+            }
+        }
+    }
+}
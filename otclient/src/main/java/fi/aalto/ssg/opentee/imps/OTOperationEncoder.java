@@ -0,0 +1,170 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import java.util.List;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.NotSupportedException;
+
+/**
+ * Reusable encoder of operations. The scratch arrays and the last encoded array are kept between the
+ * calls, so encoding the same operation again in the flat encoding allocates nothing. The returned array
+ * is overwritten by the next call, so it must be consumed before that. It is not thread-safe.
+ */
+class OTOperationEncoder {
+    // dirty ranges of each slot as start and end pairs, allocated on first use.
+    final int[][] mRanges = new int[OTOperationCodec.NUM_OF_SLOTS][];
+    final int[] mNumOfRanges = new int[OTOperationCodec.NUM_OF_SLOTS];
+    byte[] mOpInBytes = null;
+
+    /**
+     * Encode the operation with the codec agreed with the service.
+     */
+    byte[] encode(String TAG, ITEEClient.IOperation iOperation, int codecVersion) throws NotSupportedException {
+        if(iOperation == null) return null;
+
+        // protobuf always builds new messages. Only the scratch array of the dirty ranges is reused.
+        if(codecVersion < OTOperationCodec.CODEC_FLAT_V1){
+            if(mRanges[0] == null) mRanges[0] = new int[2 * OTSharedMemory.MAX_DIRTY_RANGES];
+            return OTFactoryMethods.OperationAsByteArray(TAG, iOperation, mRanges[0]);
+        }
+
+        return encodeFlat((OTOperation)iOperation);
+    }
+
+    byte[] encodeFlat(OTOperation otOperation){
+        List<ITEEClient.IParameter> params = otOperation.getParams();
+        int numOfParams = params == null ? 0 : Math.min(params.size(), OTOperationCodec.NUM_OF_SLOTS);
+
+        // the dirty ranges are taken here, so the payload is decided before the size.
+        int size = OTOperationCodec.HEADER_SIZE;
+        for(int i = 0; i < OTOperationCodec.NUM_OF_SLOTS; i++){
+            mNumOfRanges[i] = 0;
+            if(i >= numOfParams) continue;
+
+            ITEEClient.IParameter param = params.get(i);
+            if(param == null) continue;
+
+            if(param.getType() == ITEEClient.IParameter.Type.TEEC_PTYPE_TMR){
+                // the whole buffer goes inline with the operation, as one range.
+                OTTempMemoryReference tmr = (OTTempMemoryReference)param;
+                if(!tmr.isInput()) continue;
+
+                if(mRanges[i] == null) mRanges[i] = new int[2 * OTSharedMemory.MAX_DIRTY_RANGES];
+                mRanges[i][0] = 0;
+                mRanges[i][1] = tmr.getBuffer().length;
+                mNumOfRanges[i] = 1;
+                size += OTOperationCodec.RANGE_HEADER_SIZE + tmr.getBuffer().length;
+                continue;
+            }
+            if(param.getType() != ITEEClient.IParameter.Type.TEEC_PTYPE_RMR) continue;
+
+            OTRegisteredMemoryReference rmr = (OTRegisteredMemoryReference)param;
+            if(!rmr.isInput()) continue; // the TA only writes to it, so no content is sent.
+
+            if(mRanges[i] == null) mRanges[i] = new int[2 * OTSharedMemory.MAX_DIRTY_RANGES];
+
+            // only the window of the reference is sent.
+            OTSharedMemory sm = (OTSharedMemory)rmr.getSharedMemory();
+            int from = rmr.getOffset();
+            int to = from + rmr.getSize();
+            int numOfRanges = sm.takeDirtyRanges(mRanges[i], from, to);
+            if(numOfRanges < 0){
+                mRanges[i][0] = from;
+                mRanges[i][1] = to;
+                numOfRanges = 1;
+            }
+
+            mNumOfRanges[i] = numOfRanges;
+            for(int r = 0; r < numOfRanges; r++){
+                size += OTOperationCodec.RANGE_HEADER_SIZE + mRanges[i][2 * r + 1] - mRanges[i][2 * r];
+            }
+        }
+
+        // the binder sends the whole array, so it is only reused if the size matches.
+        if(mOpInBytes == null || mOpInBytes.length != size) mOpInBytes = new byte[size];
+        byte[] out = mOpInBytes;
+
+        int pos = OTOperationCodec.putInt(out, 0, OTOperationCodec.MAGIC | OTOperationCodec.CODEC_FLAT_V1);
+        pos = OTOperationCodec.putInt(out, pos, otOperation.getStarted());
+
+        for(int i = 0; i < OTOperationCodec.NUM_OF_SLOTS; i++){
+            ITEEClient.IParameter param = i < numOfParams ? params.get(i) : null;
+
+            if(param != null && param.getType() == ITEEClient.IParameter.Type.TEEC_PTYPE_VAL){
+                OTValue value = (OTValue)param;
+                pos = putSlot(out, pos, OTOperationCodec.TYPE_VALUE,
+                        OTOperationCodec.VALUE_FLAGS[value.getFlag().ordinal()],
+                        value.getA(),
+                        value.getB(),
+                        0,
+                        0);
+            }
+            else if(param != null && param.getType() == ITEEClient.IParameter.Type.TEEC_PTYPE_RMR){
+                OTRegisteredMemoryReference rmr = (OTRegisteredMemoryReference)param;
+                OTSharedMemory sm = (OTSharedMemory)rmr.getSharedMemory();
+                pos = putSlot(out, pos, OTOperationCodec.TYPE_MEMREF,
+                        OTOperationCodec.MEMREF_FLAGS[rmr.getFlag().ordinal()],
+                        sm.getId(),
+                        rmr.getOffset(),
+                        rmr.getExplicitSize(),
+                        mNumOfRanges[i]);
+            }
+            else if(param != null && param.getType() == ITEEClient.IParameter.Type.TEEC_PTYPE_TMR){
+                OTTempMemoryReference tmr = (OTTempMemoryReference)param;
+                pos = putSlot(out, pos, OTOperationCodec.TYPE_TMPREF,
+                        OTOperationCodec.TMPREF_FLAGS[tmr.getFlag().ordinal()],
+                        tmr.getBuffer().length,
+                        0,
+                        0,
+                        mNumOfRanges[i]);
+            }
+            else{
+                pos = putSlot(out, pos, OTOperationCodec.TYPE_NONE, 0, 0, 0, 0, 0);
+            }
+        }
+
+        for(int i = 0; i < OTOperationCodec.NUM_OF_SLOTS; i++){
+            if(mNumOfRanges[i] == 0) continue;
+
+            ITEEClient.IParameter param = params.get(i);
+            byte[] buffer = param.getType() == ITEEClient.IParameter.Type.TEEC_PTYPE_TMR ?
+                    ((OTTempMemoryReference)param).getBuffer() :
+                    ((OTRegisteredMemoryReference)param).getSharedMemory().asByteArray();
+            for(int r = 0; r < mNumOfRanges[i]; r++){
+                int start = mRanges[i][2 * r];
+                int length = mRanges[i][2 * r + 1] - start;
+
+                pos = OTOperationCodec.putInt(out, pos, start);
+                pos = OTOperationCodec.putInt(out, pos, length);
+                System.arraycopy(buffer, start, out, pos, length);
+                pos += length;
+            }
+        }
+
+        return out;
+    }
+
+    private static int putSlot(byte[] out, int pos, int type, int flag, int a, int b, int c, int d){
+        pos = OTOperationCodec.putInt(out, pos, type);
+        pos = OTOperationCodec.putInt(out, pos, flag);
+        pos = OTOperationCodec.putInt(out, pos, a);
+        pos = OTOperationCodec.putInt(out, pos, b);
+        pos = OTOperationCodec.putInt(out, pos, c);
+        return OTOperationCodec.putInt(out, pos, d);
+    }
+}
@@ -23,6 +23,7 @@ import fi.aalto.ssg.opentee.ITEEClient;
 public class OTRegisteredMemoryReference implements ITEEClient.IRegisteredMemoryReference {
     ITEEClient.ISharedMemory mSharedMemory;
     int mOffset = 0; // initialized to 0.
+    int mSize = 0; // 0 for the rest of the buffer after the offset.
     Flag mFlag;
 
     /**
@@ -38,6 +39,14 @@ public class OTRegisteredMemoryReference implements ITEEClient.IRegisteredMemory
         this.mOffset = offset;
     }
 
+    /**
+     * Create a registered memory reference to the window of size bytes from the offset.
+     */
+    public OTRegisteredMemoryReference(ITEEClient.ISharedMemory sharedMemory, Flag flag, int offset, int size){
+        this(sharedMemory, flag, offset);
+        this.mSize = size;
+    }
+
     /**
      * Get the referenced registered shared memory.
      * @return ISharedMemory interface for the referenced registered shared memory.
@@ -52,6 +61,47 @@ public class OTRegisteredMemoryReference implements ITEEClient.IRegisteredMemory
     @Override
     public int getOffset(){return this.mOffset;}
 
+    @Override
+    public int getSize(){
+        if(mSize > 0) return mSize;
+        return Math.max(0, mSharedMemory.getSize() - mOffset);
+    }
+
+    /**
+     * @return the size as it was given, 0 if the reference goes to the end of the buffer.
+     */
+    int getExplicitSize(){return this.mSize;}
+
+    /**
+     * @return true if it is passed to the TEE as a reference to the whole memory, which is the case for
+     * an INOUT reference without offset and size. Its direction then comes from the shared memory. An
+     * INPUT or OUTPUT one goes as a partial reference over the whole buffer instead, so that it keeps
+     * its direction.
+     */
+    public boolean isWhole(){
+        return mOffset == 0 && mSize == 0 && mFlag == Flag.TEEC_MEMREF_INOUT;
+    }
+
+    /**
+     * @return true if the TEE needs the content of the buffer. Neither an output only reference nor one
+     * to a shared memory which is not input for the TEE does.
+     */
+    public boolean isInput(){
+        if((mSharedMemory.getFlags() & ITEEClient.ISharedMemory.TEEC_MEM_INPUT) == 0) return false;
+
+        return mFlag != Flag.TEEC_MEMREF_OUTPUT;
+    }
+
+    /**
+     * @return true if the TEE may write back to the buffer. Neither an input only reference nor one to a
+     * shared memory which is not output for the TEE does.
+     */
+    public boolean isOutput(){
+        if((mSharedMemory.getFlags() & ITEEClient.ISharedMemory.TEEC_MEM_OUTPUT) == 0) return false;
+
+        return mFlag != Flag.TEEC_MEMREF_INPUT;
+    }
+
     @Override
     public int getReturnSize() {
         //return this.mSharedMemory.getReturnSize();
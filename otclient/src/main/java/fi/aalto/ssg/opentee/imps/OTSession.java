@@ -17,6 +17,8 @@ package fi.aalto.ssg.opentee.imps;
 
 import android.os.RemoteException;
 
+import java.util.concurrent.Future;
+
 import fi.aalto.ssg.opentee.ITEEClient;
 import fi.aalto.ssg.opentee.exception.CommunicationErrorException;
 import fi.aalto.ssg.opentee.exception.TEEClientException;
@@ -49,6 +51,26 @@ public class OTSession implements ITEEClient.ISession {
         }
     }
 
+    @Override
+    public void invokeCommand(int commandId, ITEEClient.IOperation operation, long timeoutMs) throws TEEClientException {
+        this.mContextCallback.invokeCommand(mSessionId, commandId, operation, timeoutMs);
+    }
+
+    @Override
+    public Future<ITEEClient.IOperation> invokeCommandAsync(int commandId, ITEEClient.IOperation operation) throws TEEClientException {
+        return this.mContextCallback.invokeCommandAsync(mSessionId, commandId, operation, null);
+    }
+
+    @Override
+    public void invokeCommandAsync(int commandId, ITEEClient.IOperation operation, ITEEClient.ICommandCallback callback) throws TEEClientException {
+        this.mContextCallback.invokeCommandAsync(mSessionId, commandId, operation, callback);
+    }
+
+    @Override
+    public ITEEClient.ICommandBatch newCommandBatch() {
+        return new OTCommandBatch(this.mContextCallback, mSessionId);
+    }
+
     @Override
     public void closeSession() throws TEEClientException {
         try {
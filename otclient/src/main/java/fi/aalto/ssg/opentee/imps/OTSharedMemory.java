@@ -19,10 +19,13 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import android.util.Log;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import fi.aalto.ssg.opentee.ITEEClient;
 import fi.aalto.ssg.opentee.exception.BadFormatException;
+import fi.aalto.ssg.opentee.exception.BadParametersException;
 import fi.aalto.ssg.opentee.exception.ExcessDataException;
 import fi.aalto.ssg.opentee.exception.GenericErrorException;
 import fi.aalto.ssg.opentee.exception.TEEClientException;
@@ -33,11 +36,18 @@ import fi.aalto.ssg.opentee.exception.TEEClientException;
 public class OTSharedMemory implements ITEEClient.ISharedMemory, Parcelable {
     final String TAG = "OTSharedMemory";
 
+    static final int NO_ID = -1; // not registered yet.
+
     int mId;
     byte[] mBuffer;
     int mFlag;
     int mReturnSize = 0;    // this is used for output.
 
+    // dirty ranges as {start, end} sorted by start. Only used once the CA marks the buffer dirty.
+    static final int MAX_DIRTY_RANGES = 16;
+    boolean mDirtyTracking = false;
+    List<int[]> mDirtyRanges = new ArrayList<>();
+
     public OTSharedMemory(byte[] buffer, int flag, int id){
         // just keep the handle.
         this.mBuffer = buffer;
@@ -59,6 +69,132 @@ public class OTSharedMemory implements ITEEClient.ISharedMemory, Parcelable {
         return this.mBuffer;
     }
 
+    @Override
+    public synchronized void markDirty(int offset, int length) throws BadParametersException {
+        if(offset < 0 || length < 0 || offset + length > mBuffer.length){
+            throw new BadParametersException("dirty range out of the buffer", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        mDirtyTracking = true;
+        if(length == 0) return;
+
+        // insert the range and merge the ones overlapping or next to it.
+        int start = offset;
+        int end = offset + length;
+        int i = 0;
+        while(i < mDirtyRanges.size()){
+            int[] range = mDirtyRanges.get(i);
+            if(range[1] < start){
+                i++;
+            }else if(range[0] > end){
+                break;
+            }else{
+                start = Math.min(start, range[0]);
+                end = Math.max(end, range[1]);
+                mDirtyRanges.remove(i);
+            }
+        }
+        mDirtyRanges.add(i, new int[]{start, end});
+
+        // too scattered. Sync the span covering all of them instead.
+        if(mDirtyRanges.size() > MAX_DIRTY_RANGES){
+            int[] span = new int[]{mDirtyRanges.get(0)[0], mDirtyRanges.get(mDirtyRanges.size() - 1)[1]};
+            mDirtyRanges.clear();
+            mDirtyRanges.add(span);
+        }
+    }
+
+    @Override
+    public void write(int offset, byte[] src, int srcOffset, int length) throws TEEClientException {
+        if(src == null || srcOffset < 0 || length < 0 || srcOffset + length > src.length){
+            throw new BadParametersException("source range out of the array", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        synchronized (this){
+            markDirty(offset, length);
+            System.arraycopy(src, srcOffset, mBuffer, offset, length);
+        }
+    }
+
+    @Override
+    public void read(int offset, byte[] dst, int dstOffset, int length) throws TEEClientException {
+        if(dst == null || dstOffset < 0 || length < 0 || dstOffset + length > dst.length ||
+           offset < 0 || offset + length > mBuffer.length){
+            throw new BadParametersException("range out of the buffer or the array", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
+        }
+
+        System.arraycopy(mBuffer, offset, dst, dstOffset, length);
+    }
+
+    /**
+     * Take the ranges modified since the last call and clear them. The ranges are copied into dst, so
+     * nothing is allocated.
+     * @param dst receives the ranges as start and end pairs. It holds at least 2 * MAX_DIRTY_RANGES ints.
+     * @return the number of ranges, or -1 if the whole buffer should be synced.
+     */
+    public int takeDirtyRanges(int[] dst){
+        return takeDirtyRanges(dst, 0, mBuffer.length);
+    }
+
+    /**
+     * Take the parts of the dirty ranges within [from, to) and clear them. The parts outside of it stay
+     * dirty until a reference which covers them is sent.
+     * @param dst receives the ranges as start and end pairs. It holds at least 2 * MAX_DIRTY_RANGES ints.
+     * @return the number of ranges, or -1 if the whole window should be synced.
+     */
+    public synchronized int takeDirtyRanges(int[] dst, int from, int to){
+        if(!mDirtyTracking) return -1;
+
+        int numOfRanges = 0;
+        int i = 0;
+        while(i < mDirtyRanges.size()){
+            int[] range = mDirtyRanges.get(i);
+            if(range[1] <= from){
+                i++;
+                continue;
+            }
+            if(range[0] >= to) break;
+
+            dst[2 * numOfRanges] = Math.max(range[0], from);
+            dst[2 * numOfRanges + 1] = Math.min(range[1], to);
+            numOfRanges++;
+
+            // keep what is left out of the window.
+            if(range[0] < from && range[1] > to){
+                mDirtyRanges.add(i + 1, new int[]{to, range[1]});
+                range[1] = from;
+                i += 2;
+            }else if(range[0] < from){
+                range[1] = from;
+                i++;
+            }else if(range[1] > to){
+                range[0] = to;
+                i++;
+            }else{
+                mDirtyRanges.remove(i);
+            }
+        }
+
+        // a split may leave one range too many.
+        if(mDirtyRanges.size() > MAX_DIRTY_RANGES){
+            int[] span = new int[]{mDirtyRanges.get(0)[0], mDirtyRanges.get(mDirtyRanges.size() - 1)[1]};
+            mDirtyRanges.clear();
+            mDirtyRanges.add(span);
+        }
+        return numOfRanges;
+    }
+
+    /**
+     * Sync the whole buffer in the next function call. It is used when the dirty ranges taken could not
+     * reach the TEE.
+     */
+    public synchronized void markAllDirty(){
+        if(!mDirtyTracking) return;
+
+        mDirtyRanges.clear();
+        mDirtyRanges.add(new int[]{0, mBuffer.length});
+    }
+
     public int getReturnSize() {
         return this.mReturnSize;
     }
@@ -69,32 +205,43 @@ public class OTSharedMemory implements ITEEClient.ISharedMemory, Parcelable {
 
     public void setId(int id){this.mId = id;}
 
+    @Override
     public int getSize(){return mBuffer.length;}
 
-    public void updateBuffer(byte[] newBuffer, int offset, int sizeToWrite) throws BadFormatException, ExcessDataException {
-        if(newBuffer == null){
+    /**
+     * Write the region returned from the TEE into the buffer.
+     * @param region the bytes written by the TEE starting from offset. It is no longer than the rest of the buffer.
+     * @param offset the offset of the memory reference.
+     * @param returnSize the size reported by the TEE. It can be bigger than the region if the buffer is too short.
+     */
+    public void updateBuffer(byte[] region, int offset, int returnSize) throws BadFormatException, ExcessDataException {
+        if(region == null){
             throw new BadFormatException("new buffer is null", ITEEClient.ReturnOriginCode.TEEC_ORIGIN_API);
         }
 
+        updateBuffer(region, 0, offset, region.length, returnSize);
+    }
 
-        //TODO: the following code should be changed un-commented.
-        if( (offset + sizeToWrite) > ( mBuffer.length > newBuffer.length? newBuffer.length : mBuffer.length ) ){
+    /**
+     * Write the region returned from the TEE into the buffer, copying it straight from where it is in src.
+     * @param src the array holding the region.
+     * @param srcOffset where the region starts in src.
+     * @param offset the offset of the memory reference.
+     * @param length the length of the region.
+     * @param returnSize the size reported by the TEE.
+     */
+    public void updateBuffer(byte[] src, int srcOffset, int offset, int length, int returnSize) throws BadFormatException, ExcessDataException {
+        if( offset < 0 || (offset + length) > mBuffer.length ){
             throw new BadFormatException("incorrect data, try again.\n" +
-                    " [size to write] = " + sizeToWrite + "\n" +
-                    " [size of src  ] = " + newBuffer.length + "\n" +
+                    " [offset       ] = " + offset + "\n" +
+                    " [size of src  ] = " + length + "\n" +
                     " [size of des  ] = " + this.mBuffer.length);
         }
 
         //set returned size
-        this.mReturnSize = sizeToWrite;
-
+        this.mReturnSize = returnSize;
 
-        ///TODO: delete the following line.
-        //sizeToWrite = sizeToWrite > newBuffer.length? newBuffer.length : sizeToWrite;
-
-        for(int i = 0; i < sizeToWrite; i++){
-            mBuffer[i + offset] = newBuffer[i + offset];
-        }
+        System.arraycopy(src, srcOffset, mBuffer, offset, length);
     }
 
     @Override
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import android.util.Log;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fi.aalto.ssg.opentee.exception.ExternalCancelException;
+import fi.aalto.ssg.opentee.exception.GenericErrorException;
+import fi.aalto.ssg.opentee.exception.TEEClientException;
+
+/**
+ * Executor for the IPC tasks of a context. By default, a task is dispatched directly on the calling
+ * thread so that one remote call costs one binder transaction and no thread creation. When a pool
+ * size is given, the tasks are handed to a bounded pool of reusable worker threads instead, for callers
+ * which must not issue the binder call from their own thread.
+ */
+public class OTTaskExecutor {
+    final String TAG = "OTTaskExecutor";
+
+    public static final int DEFAULT_POOL_SIZE = 2;
+    public static final int DEFAULT_QUEUE_SIZE = 32;
+    static final long KEEP_ALIVE_SECONDS = 30;
+
+    ThreadPoolExecutor mPool = null; // null means direct dispatch.
+
+    /**
+     * Create an executor which runs the tasks on the calling thread.
+     */
+    public OTTaskExecutor(){}
+
+    /**
+     * Create an executor backed by a bounded pool of worker threads. Idle workers are released after
+     * a while. When both the workers and the queue are occupied, or the executor is already shut down,
+     * the task runs on the calling thread.
+     * @param poolSize maximum number of worker threads.
+     * @param queueSize maximum number of queued tasks.
+     */
+    public OTTaskExecutor(int poolSize, int queueSize){
+        this(poolSize, queueSize, true);
+    }
+
+    /**
+     * Create an executor backed by a bounded pool of worker threads.
+     * @param runOnCaller whether a task which finds the pool full or shut down runs on the calling
+     *                    thread. If not, <code>submit</code> throws a RejectedExecutionException.
+     */
+    public OTTaskExecutor(int poolSize, int queueSize, boolean runOnCaller){
+        if(poolSize <= 0) poolSize = DEFAULT_POOL_SIZE;
+        if(queueSize <= 0) queueSize = DEFAULT_QUEUE_SIZE;
+
+        mPool = new ThreadPoolExecutor(poolSize,
+                poolSize,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize),
+                new WorkerFactory(),
+                runOnCaller ? new RunOnCaller() : new ThreadPoolExecutor.AbortPolicy());
+        mPool.allowCoreThreadTimeOut(true);
+    }
+
+    public boolean isDirect(){return mPool == null;}
+
+    /**
+     * Run the task and return once it is finished.
+     * @param task the IPC task.
+     * @throws ExternalCancelException if the calling thread is interrupted while waiting.
+     * @throws GenericErrorException if the task failed with an unexpected error in a worker thread.
+     */
+    public void execute(Runnable task) throws TEEClientException {
+        if(mPool == null){
+            task.run();
+            return;
+        }
+
+        Future<?> future = mPool.submit(task);
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalCancelException(e.getMessage());
+        } catch (ExecutionException e) {
+            Log.e(TAG, "task failed in worker thread: " + e.getCause());
+            throw new GenericErrorException(String.valueOf(e.getCause()));
+        }
+    }
+
+    /**
+     * Hand the task over without waiting for it to finish. With direct dispatch, the task runs on
+     * the calling thread.
+     * @param task the IPC task.
+     * @throws java.util.concurrent.RejectedExecutionException if the pool is full or shut down, and
+     *         does not run the tasks on the calling thread.
+     */
+    public void submit(Runnable task){
+        if(mPool == null){
+            task.run();
+            return;
+        }
+
+        mPool.execute(task);
+    }
+
+    /**
+     * Release the worker threads if there is any. The tasks already handed over still run to the end,
+     * and a task handed over afterwards runs on the calling thread.
+     */
+    public void shutdown(){
+        if(mPool != null) mPool.shutdown();
+    }
+
+    /* unlike CallerRunsPolicy, it does not drop the task once the pool is shut down, since a caller
+     * which picked the executor before it was replaced would otherwise wait for it forever. */
+    static class RunOnCaller implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            r.run();
+        }
+    }
+
+    static class WorkerFactory implements ThreadFactory {
+        final AtomicInteger mCount = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "OTTaskWorker-" + mCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
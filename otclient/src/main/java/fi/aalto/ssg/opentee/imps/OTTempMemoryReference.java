@@ -0,0 +1,80 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.BadFormatException;
+
+/**
+ * OTTempMemoryReference implements ITEEClient.ITempMemoryReference interface. The buffer is sent inline
+ * with the operation, and the service binds it to a native buffer only for the function call.
+ */
+public class OTTempMemoryReference implements ITEEClient.ITempMemoryReference {
+    byte[] mBuffer;
+    Flag mFlag;
+    int mReturnSize = 0;
+
+    public OTTempMemoryReference(byte[] buffer, Flag flag){
+        this.mBuffer = buffer;
+        this.mFlag = flag;
+    }
+
+    @Override
+    public byte[] getBuffer(){return this.mBuffer;}
+
+    public Flag getFlag(){return this.mFlag;}
+
+    @Override
+    public int getReturnSize(){return this.mReturnSize;}
+
+    /**
+     * @return true if the TEE needs the content of the buffer.
+     */
+    public boolean isInput(){
+        return mFlag != Flag.TEEC_MEMREF_TEMP_OUTPUT;
+    }
+
+    /**
+     * @return true if the TEE may write back to the buffer.
+     */
+    public boolean isOutput(){
+        return mFlag != Flag.TEEC_MEMREF_TEMP_INPUT;
+    }
+
+    /**
+     * Write the region returned from the TEE into the beginning of the buffer.
+     * @param src the array holding the region.
+     * @param srcOffset where the region starts in src.
+     * @param length the length of the region.
+     * @param returnSize the size the TA returned, which may be larger than the buffer.
+     */
+    public void updateBuffer(byte[] src, int srcOffset, int length, int returnSize) throws BadFormatException {
+        if(length < 0 || length > mBuffer.length){
+            throw new BadFormatException("incorrect data, try again.\n" +
+                    " [size of src  ] = " + length + "\n" +
+                    " [size of des  ] = " + this.mBuffer.length);
+        }
+
+        this.mReturnSize = returnSize;
+
+        System.arraycopy(src, srcOffset, mBuffer, 0, length);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.TEEC_PTYPE_TMR;
+    }
+}
@@ -20,83 +20,64 @@ import android.util.Log;
 
 import java.util.UUID;
 
-import fi.aalto.ssg.opentee.ISyncOperation;
 import fi.aalto.ssg.opentee.ITEEClient;
 import fi.aalto.ssg.opentee.exception.TEEClientException;
 
 /**
- * Task to open a session.
+ * Task to open a session. The updated operation comes back in the reply together with the return value.
  */
 public class OpenSessionTask implements Runnable {
     final String TAG = "OpenSessionTask";
 
     ProxyApis mProxyApis = null;
-    int mSid;
+    int[] mSid = new int[1]; // issued by the service.
     UUID mUuid;
     ITEEClient.IContext.ConnectionMethod mConnectionMethod;
     int mConnectionData;
 
     byte[] mTeecOperation = null;
-    byte[] mNewTeecOperation = null;
-    OTLock mLock = null;
     ReturnValueWrapper mReturnValue = null;
-    int opHashCode = 0;
-
-    private ISyncOperation mSyncOperationCallBack = new ISyncOperation.Stub(){
-        @Override
-        public void basicTypes(int anInt, long aLong, boolean aBoolean, float aFloat, double aDouble, String aString) throws RemoteException {
-
-        }
-
-        @Override
-        public void syncOperation(byte[] teecOperationInBytes) throws RemoteException {
-            Log.e(TAG, "sync op called in thread with id " + Thread.currentThread().getId());
-
-            mNewTeecOperation = teecOperationInBytes;
-
-            if(mLock != null) mLock.unlock();
-            else{
-                Log.e(TAG, "[internal error] lock is null");
-            }
-        }
-    };
+    byte[] mNewTeecOperation = null;
+    long mCancelId = 0; // id of the operation to cancel it, 0 if it cannot be cancelled.
 
     public OpenSessionTask(ProxyApis proxyApis,
-                           int sid,
                            UUID uuid,
                            ITEEClient.IContext.ConnectionMethod connectionMethod,
                            int connectionData,
                            byte[] teecOperation,
-                           OTLock lock,
-                           int opHashCode){
+                           long cancelId){
         this.mProxyApis = proxyApis;
-        this.mSid = sid;
         this.mUuid = uuid;
         this.mConnectionMethod = connectionMethod;
         this.mConnectionData = connectionData;
         this.mTeecOperation = teecOperation;
-        this.mLock = lock;
-        this.opHashCode = opHashCode;
-    }
-
-    public synchronized byte[] getNewOperationInBytes(){
-        return this.mNewTeecOperation;
+        this.mCancelId = cancelId;
     }
 
     public synchronized ReturnValueWrapper getReturnValue(){ return this.mReturnValue; }
 
+    public synchronized int getSessionId(){ return this.mSid[0]; }
+
+    /**
+     * @return the updated operation from the reply, or null if there is none.
+     */
+    public synchronized byte[] getNewTeecOperation(){ return this.mNewTeecOperation; }
+
     @Override
     public void run() {
-        if (mLock != null) mLock.lock();
-
         try {
-            mReturnValue = mProxyApis.teecOpenSession(mSid,
+            ReturnValueWrapper returnValue = new ReturnValueWrapper(0, 0);
+            byte[] newTeecOperation = mProxyApis.teecOpenSession(mSid,
                     mUuid,
                     mConnectionMethod,
                     mConnectionData,
                     mTeecOperation,
-                    mSyncOperationCallBack,
-                    opHashCode);
+                    mCancelId,
+                    returnValue);
+            synchronized (this){
+                mReturnValue = returnValue;
+                mNewTeecOperation = newTeecOperation;
+            }
         } catch (RemoteException e) {
             Log.e(TAG, "Communication error with remote TEE service.");
         } catch (TEEClientException e) {
@@ -15,11 +15,7 @@
  */
 package fi.aalto.ssg.opentee.imps;
 
-import android.app.Service;
-import android.content.ComponentName;
 import android.content.Context;
-import android.content.Intent;
-import android.content.ServiceConnection;
 import android.os.IBinder;
 import android.os.ParcelUuid;
 import android.os.RemoteException;
@@ -27,8 +23,8 @@ import android.util.Log;
 
 import java.util.UUID;
 
+import fi.aalto.ssg.opentee.IOTCompletionCallback;
 import fi.aalto.ssg.opentee.IOTConnectionInterface;
-import fi.aalto.ssg.opentee.ISyncOperation;
 import fi.aalto.ssg.opentee.ITEEClient;
 import fi.aalto.ssg.opentee.exception.CommunicationErrorException;
 import fi.aalto.ssg.opentee.exception.GenericErrorException;
@@ -42,69 +38,44 @@ import fi.aalto.ssg.opentee.exception.TEEClientException;
 public class ProxyApis {
     static String TAG = "ProxyApis";
 
+    // layout of the result of the calls with an operation, the same as in the service.
+    static final int RESULT_RETURN_CODE = 0;
+    static final int RESULT_RETURN_ORIGIN = 1;
+    static final int RESULT_SIZE = 2;
+
     Context mContext;
-    boolean mConnected;
     String mTeeName;
     IOTConnectionInterface mService;
-    OTLock mLock;
 
-    public ProxyApis(String teeName, Context context, OTLock lock){
+    /**
+     * Take a reference to the shared connection to the service. It blocks until the service is connected.
+     */
+    public ProxyApis(String teeName, Context context) throws TEEClientException {
         this.mContext = context;
         this.mTeeName = teeName;
-        this.mLock = lock;
 
-        mConnected = false;
-        mService = null;
+        mService = OTConnectionManager.acquire(context);
 
-        initConnection();
+        Log.d(TAG, "Connected");
     }
 
-    private final ServiceConnection mServiceConnection = new ServiceConnection() {
-        @Override
-        public void onServiceConnected(ComponentName name, IBinder service) {
-            Log.d(TAG, "Connected");
-
-            mConnected = true;
-            mService = IOTConnectionInterface.Stub.asInterface(service);
-
-            //after connected, call initializeContext.
-            try {
-                teecInitializeContext();
-            } catch (TEEClientException e) {
-                e.printStackTrace();
-            }
-
-            Log.d(TAG, Thread.currentThread().getId() + " try to call unlock");
-
-            mLock.unlock();
-        }
-
-        @Override
-        public void onServiceDisconnected(ComponentName name) {
-            Log.d(TAG, "Disconnected");
-
-            mConnected = false;
+    public void terminateConnection(){
+        if ( mService != null ){
             mService = null;
+            OTConnectionManager.release();
         }
-    };
-
-    private void initConnection(){
-        if ( !mConnected ){
-            Intent intent = new Intent();
-            intent.setClassName(TeecConstants.OT_SERVICE_PACK_NAME,
-                    TeecConstants.OT_SERVICE_CLASS_NAME);
-            this.mContext.bindService(intent, mServiceConnection, Service.BIND_AUTO_CREATE);
+    }
 
-            Log.d(TAG, "Trying to create connection");
-        }else{
-            Log.e(TAG, "Already connected.");
-        }
+    /**
+     * Be told when the service dies.
+     * @throws RemoteException if it is already dead.
+     */
+    public void linkToDeath(IBinder.DeathRecipient recipient) throws RemoteException {
+        if(mService != null) mService.asBinder().linkToDeath(recipient, 0);
     }
 
-    public void terminateConnection(){
-        if ( mService != null ){
-            this.mContext.unbindService(mServiceConnection);
-        }
+    public void unlinkToDeath(IBinder.DeathRecipient recipient){
+        if(mService != null) mService.asBinder().unlinkToDeath(recipient, 0);
     }
 
     public ProxyApis teecInitializeContext() throws TEEClientException {
@@ -114,7 +85,8 @@ public class ProxyApis {
         try {
             return_code = mService.teecInitializeContext(mTeeName);
         } catch (RemoteException e) {
-            e.printStackTrace();
+            throw new CommunicationErrorException("Communication error with remote TEE service.",
+                    ITEEClient.ReturnOriginCode.TEEC_ORIGIN_COMMS);
         }
 
         Log.d(TAG, "Return code from OT: " + Integer.toHexString(return_code));
@@ -126,36 +98,92 @@ public class ProxyApis {
         return this;
     }
 
+    /**
+     * Agree on the encoding of operations with the service.
+     * @param codecVersion the latest version supported by the caller.
+     * @return the version to use. A service which does not know the call answers 0, which is protobuf.
+     */
+    public int otNegotiateCodec(int codecVersion) throws RemoteException {
+        if(mService == null) return OTOperationCodec.CODEC_PROTOBUF;
+
+        return mService.otNegotiateCodec(codecVersion);
+    }
+
     public void teecFinalizeContext() throws RemoteException {
         if ( mService != null ){
             mService.teecFinalizeContext();
         }
     }
 
-    public void teecRegisterSharedMemory(OTSharedMemory otSharedMemory) throws TEEClientException, RemoteException {
+    /**
+     * Register the shared memory in the service.
+     * @return the id issued by the service for the shared memory.
+     */
+    public int teecRegisterSharedMemory(OTSharedMemory otSharedMemory) throws TEEClientException, RemoteException {
         if ( mService == null ){
             throw new GenericErrorException("Service unavailable");
         }
 
-        if(otSharedMemory.asByteArray() == null){
-            Log.e(TAG, "otshared memory is null");
-            return;
-        }else{
-            Log.e(TAG, new String(otSharedMemory.asByteArray()));
-        }
-
         // call IPC
-        int return_code = mService.teecRegisterSharedMemory(otSharedMemory);
+        int[] smId = new int[1];
+        int return_code = mService.teecRegisterSharedMemory(otSharedMemory, smId);
 
         Log.d(TAG, "teecRegisterSharedMemory return code: " + return_code);
 
-        if ( return_code == OTReturnCode.TEEC_SUCCESS ){
-            return;
+        if ( return_code != OTReturnCode.TEEC_SUCCESS ){
+            OTFactoryMethods.throwExceptionBasedOnReturnCode(return_code);
         }
-        else{
+
+        return smId[0];
+    }
+
+    /**
+     * Allocate the shared memory in the service, which allocates the buffer in the TEE.
+     * @return the id issued by the service for the shared memory.
+     */
+    public int teecAllocateSharedMemory(int size, int flags) throws TEEClientException, RemoteException {
+        if ( mService == null ){
+            throw new GenericErrorException("Service unavailable");
+        }
+
+        int[] smId = new int[1];
+        int return_code = mService.teecAllocateSharedMemory(size, flags, smId);
+
+        Log.d(TAG, "teecAllocateSharedMemory return code: " + return_code);
+
+        if ( return_code != OTReturnCode.TEEC_SUCCESS ){
             OTFactoryMethods.throwExceptionBasedOnReturnCode(return_code);
         }
 
+        return smId[0];
+    }
+
+    /**
+     * Read dst.length bytes of an allocated shared memory from the offset. The reply is read straight into dst.
+     */
+    public void otReadSharedMemory(int smId, int offset, byte[] dst) throws TEEClientException, RemoteException {
+        if ( mService == null ){
+            throw new GenericErrorException("Service unavailable");
+        }
+
+        int return_code = mService.otReadSharedMemory(smId, offset, dst);
+        if ( return_code != OTReturnCode.TEEC_SUCCESS ){
+            OTFactoryMethods.throwExceptionBasedOnReturnCode(return_code);
+        }
+    }
+
+    /**
+     * Write src into an allocated shared memory from the offset.
+     */
+    public void otWriteSharedMemory(int smId, int offset, byte[] src) throws TEEClientException, RemoteException {
+        if ( mService == null ){
+            throw new GenericErrorException("Service unavailable");
+        }
+
+        int return_code = mService.otWriteSharedMemory(smId, offset, src);
+        if ( return_code != OTReturnCode.TEEC_SUCCESS ){
+            OTFactoryMethods.throwExceptionBasedOnReturnCode(return_code);
+        }
     }
 
     public void teecReleaseSharedMemory(int smId) throws GenericErrorException, RemoteException {
@@ -166,13 +194,19 @@ public class ProxyApis {
         mService.teecReleaseSharedMemory(smId);
     }
 
-    public ReturnValueWrapper teecOpenSession(int sessionId,
+    /**
+     * Open a session in the service.
+     * @param sessionId receives the id issued by the service for the session upon success.
+     * @param returnValueWrapper receives the return code and return origin.
+     * @return the updated operation from the reply, or null if there is none.
+     */
+    public byte[] teecOpenSession(int[] sessionId,
                                 UUID uuid,
                                 ITEEClient.IContext.ConnectionMethod connectionMethod,
                                 int connectionData,
                                 byte[] opInArray,
-                                ISyncOperation syncOperation,
-                                int opHashCode) throws TEEClientException, RemoteException {
+                                long cancelId,
+                                ReturnValueWrapper returnValueWrapper) throws TEEClientException, RemoteException {
         if ( mService == null ){
             throw new CommunicationErrorException("Service unavailable");
         }
@@ -180,30 +214,30 @@ public class ProxyApis {
         /**
          * IPC open session call.
          */
-        int rc;
-        int[] retOrigin = new int[1];
+        int[] result = new int[RESULT_SIZE];
+        byte[] newOpInArray = null;
         if (opInArray == null){
-            rc = mService.teecOpenSessionWithoutOp(sessionId,
+            int[] retOrigin = new int[1];
+            result[RESULT_RETURN_CODE] = mService.teecOpenSessionWithoutOp(sessionId,
                     new ParcelUuid(uuid),
                     connectionMethod.ordinal(),
                     connectionData,
                     retOrigin);
+            result[RESULT_RETURN_ORIGIN] = retOrigin[0];
         }else{
-            rc = mService.teecOpenSession(sessionId,
+            newOpInArray = mService.teecOpenSession(sessionId,
                     new ParcelUuid(uuid),
                     connectionMethod.ordinal(),
                     connectionData,
                     opInArray,
-                    retOrigin,
-                    syncOperation,
-                    opHashCode);
+                    result,
+                    cancelId);
         }
 
-        Log.d(TAG, "teecOpenSession return code: " + rc);
-
-        ReturnValueWrapper returnValueWrapper = new ReturnValueWrapper(rc, retOrigin[0]);
+        Log.d(TAG, "teecOpenSession return code: " + result[RESULT_RETURN_CODE]);
 
-        return returnValueWrapper;
+        returnValueWrapper.set(result[RESULT_RETURN_CODE], result[RESULT_RETURN_ORIGIN]);
+        return newOpInArray;
     }
 
     public void teecCloseSession(int sessionId) throws RemoteException, CommunicationErrorException {
@@ -214,27 +248,99 @@ public class ProxyApis {
         mService.teecCloseSession(sessionId);
     }
 
-    public ReturnValueWrapper teecInvokeCommand(int sid, int commandId, byte[] opInArray, ISyncOperation iSyncOperation, int opHashCode) throws CommunicationErrorException, RemoteException {
+    /**
+     * Invoke the command in the service. The result is written into the given holders, so that the
+     * caller can reuse them between the calls.
+     * @param result scratch array of length RESULT_SIZE.
+     * @param returnValueWrapper receives the return code and return origin.
+     * @return the updated operation from the reply, or null if there is none.
+     */
+    public byte[] teecInvokeCommand(int sid,
+                                    int commandId,
+                                    byte[] opInArray,
+                                    long cancelId,
+                                    int[] result,
+                                    ReturnValueWrapper returnValueWrapper) throws CommunicationErrorException, RemoteException {
         if ( mService == null ){
             throw new CommunicationErrorException("Service unavailable");
         }
 
-        int rc = -1;
-        int returnOrigin[] = new int[1];
+        byte[] newOpInArray = null;
 
         if(opInArray == null){
-            //no operation
-            rc = mService.teecInvokeCommandWithoutOp(sid, commandId, returnOrigin);
+            //no operation. The return origin comes back in the first element.
+            int rc = mService.teecInvokeCommandWithoutOp(sid, commandId, result);
+            result[RESULT_RETURN_ORIGIN] = result[0];
+            result[RESULT_RETURN_CODE] = rc;
         }
         else{
-            rc = mService.teecInvokeCommand(sid, commandId, opInArray, returnOrigin, iSyncOperation, opHashCode);
+            newOpInArray = mService.teecInvokeCommand(sid, commandId, opInArray, result, cancelId);
+        }
+
+        int rc = result[RESULT_RETURN_CODE];
+
+        // only failures are logged, so a successful call does not build a log message.
+        if(rc != OTReturnCode.TEEC_SUCCESS){
+            Log.d(TAG, "teecInvokeCommand return code: " + Integer.toHexString(rc) );
+        }
+
+        returnValueWrapper.set(rc, result[RESULT_RETURN_ORIGIN]);
+        return newOpInArray;
+    }
+
+    /**
+     * Invoke the command with an operation of values only. The values are updated in place.
+     * @param values VALUES_SLOT_SIZE ints for each slot as in OTOperationCodec.
+     * @param result scratch array of length RESULT_SIZE.
+     * @param returnValueWrapper receives the return code and return origin.
+     */
+    public void teecInvokeCommandValues(int sid,
+                                        int commandId,
+                                        int[] values,
+                                        long cancelId,
+                                        int[] result,
+                                        ReturnValueWrapper returnValueWrapper) throws CommunicationErrorException, RemoteException {
+        if ( mService == null ){
+            throw new CommunicationErrorException("Service unavailable");
+        }
+
+        mService.teecInvokeCommandValues(sid, commandId, values, result, cancelId);
+
+        int rc = result[RESULT_RETURN_CODE];
+        if(rc != OTReturnCode.TEEC_SUCCESS){
+            Log.d(TAG, "teecInvokeCommandValues return code: " + Integer.toHexString(rc) );
+        }
+
+        returnValueWrapper.set(rc, result[RESULT_RETURN_ORIGIN]);
+    }
+
+    /**
+     * Issue the command without waiting for it. The result comes back on the callback with the operation id.
+     * @param opInArray the encoded operation, or null if there is none.
+     * @param operationId the cancel id of the operation, or a new id if there is no operation.
+     */
+    public void otInvokeCommandAsync(int sid,
+                                     int commandId,
+                                     byte[] opInArray,
+                                     long operationId,
+                                     IOTCompletionCallback callback) throws CommunicationErrorException, RemoteException {
+        if ( mService == null ){
+            throw new CommunicationErrorException("Service unavailable");
+        }
+
+        mService.otInvokeCommandAsync(sid, commandId, opInArray, operationId, callback);
+    }
+
+    public int teecInvokeCommandBatch(OTCommandBatch batch) throws CommunicationErrorException, RemoteException {
+        if ( mService == null ){
+            throw new CommunicationErrorException("Service unavailable");
         }
 
-        Log.d(TAG, "teecInvokeCommand return code: " + Integer.toHexString(rc) );
+        int rc = mService.teecInvokeCommandBatch(batch);
 
-        ReturnValueWrapper returnValueWrapper = new ReturnValueWrapper(rc, returnOrigin[0]);
+        Log.d(TAG, "teecInvokeCommandBatch return code: " + Integer.toHexString(rc) );
 
-        return returnValueWrapper;
+        return rc;
     }
 
     public void otInstallTA(String taName, byte[] taInBytes) throws CommunicationErrorException, RemoteException {
@@ -15,69 +15,39 @@
  */
 package fi.aalto.ssg.opentee.imps;
 
-import android.app.Service;
-import android.content.ComponentName;
-import android.content.Context;
-import android.content.Intent;
-import android.content.ServiceConnection;
-import android.os.IBinder;
 import android.os.RemoteException;
 import android.util.Log;
 
 import fi.aalto.ssg.opentee.IOTConnectionInterface;
 
 /**
- * Request cancellation task
+ * Task to request the cancellation of an operation. It uses the connection shared within the process
+ * instead of binding the service again, and the call is oneway, so it does not wait for the service.
  */
 public class RequestCancellationTask implements Runnable {
     final String TAG = "RequestCancellationTask";
 
-    OTOperation mOp;
-    Context mContext;
+    long mCancelId;
 
-    boolean mConnected;
-    IOTConnectionInterface mService;
-
-    private final ServiceConnection mServiceConnection = new ServiceConnection() {
-        @Override
-        public void onServiceConnected(ComponentName name, IBinder service) {
-            Log.d(TAG, "Connected");
-
-            mConnected = true;
-            mService = IOTConnectionInterface.Stub.asInterface(service);
-
-            task();
-        }
+    public RequestCancellationTask(OTOperation op){
+        // the id is taken now. If the operation finishes meanwhile, the service finds nothing to cancel.
+        this.mCancelId = op.getCancelId();
+    }
 
-        @Override
-        public void onServiceDisconnected(ComponentName name) {
-            Log.d(TAG, "Disconnected");
+    @Override
+    public void run() {
+        if(mCancelId == OTOperation.NO_CANCEL_ID) return;
 
-            mConnected = false;
-            mService = null;
+        IOTConnectionInterface service = OTConnectionManager.getService();
+        if(service == null){
+            Log.e(TAG, "Service unavailable. Request cancellation abort!");
+            return;
         }
-    };
 
-    public RequestCancellationTask(Context context, OTOperation op){
-        this.mContext = context;
-        this.mOp = op;
-    }
-
-    public void task(){
         try {
-            mService.teecRequestCancellation(mOp.hashCode());
+            service.teecRequestCancellation(mCancelId);
         } catch (RemoteException e) {
-            e.printStackTrace();
+            Log.e(TAG, "unable to request the cancellation of " + mCancelId + ": " + e);
         }
-
-        mContext.unbindService(mServiceConnection);
-    }
-
-    @Override
-    public void run() {
-        Intent intent = new Intent();
-        intent.setClassName(TeecConstants.OT_SERVICE_PACK_NAME,
-                TeecConstants.OT_SERVICE_CLASS_NAME);
-        mContext.bindService(intent, mServiceConnection, Service.BIND_AUTO_CREATE);
     }
 }
@@ -27,6 +27,11 @@ public class ReturnValueWrapper {
         this.mReturnOrigin = ro;
     }
 
+    void set(int rc, int ro){
+        this.mReturnCode = rc;
+        this.mReturnOrigin = ro;
+    }
+
     public int getReturnCode(){return this.mReturnCode;}
 
     public int getReturnOrigin(){return this.mReturnOrigin;}
@@ -6,11 +6,11 @@ package fi.aalto.ssg.opentee.imps.pbdatatypes;
 public final class GPDataTypes {
   private GPDataTypes() {}
   public static void registerAllExtensions(
-      com.google.protobuf.ExtensionRegistry registry) {
+      com.google.protobuf.ExtensionRegistryLite registry) {
   }
   public interface TeecOperationOrBuilder extends
       // @@protoc_insertion_point(interface_extends:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation)
-      com.google.protobuf.MessageOrBuilder {
+      com.google.protobuf.MessageLiteOrBuilder {
 
     /**
      * <code>required int32 mStarted = 1;</code>
@@ -24,40 +24,30 @@ public final class GPDataTypes {
     /**
      * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
      */
-    java.util.List<TeecParameter>
+    java.util.List<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter> 
         getMParamsList();
     /**
      * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
      */
-    TeecParameter getMParams(int index);
+    fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter getMParams(int index);
     /**
      * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
      */
     int getMParamsCount();
-    /**
-     * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
-     */
-    java.util.List<? extends TeecParameterOrBuilder>
-        getMParamsOrBuilderList();
-    /**
-     * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
-     */
-    TeecParameterOrBuilder getMParamsOrBuilder(
-            int index);
   }
   /**
    * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation}
    */
   public static final class TeecOperation extends
-      com.google.protobuf.GeneratedMessage implements
+      com.google.protobuf.GeneratedMessageLite implements
       // @@protoc_insertion_point(message_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation)
       TeecOperationOrBuilder {
     // Use TeecOperation.newBuilder() to construct.
-    private TeecOperation(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+    private TeecOperation(com.google.protobuf.GeneratedMessageLite.Builder builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private TeecOperation(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private TeecOperation(boolean noInit) { this.unknownFields = com.google.protobuf.ByteString.EMPTY;}
 
     private static final TeecOperation defaultInstance;
     public static TeecOperation getDefaultInstance() {
@@ -68,20 +58,18 @@ public final class GPDataTypes {
       return defaultInstance;
     }
 
-    private final com.google.protobuf.UnknownFieldSet unknownFields;
-    @Override
-    public final com.google.protobuf.UnknownFieldSet
-        getUnknownFields() {
-      return this.unknownFields;
-    }
+    private final com.google.protobuf.ByteString unknownFields;
     private TeecOperation(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       initFields();
       int mutable_bitField0_ = 0;
-      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
-          com.google.protobuf.UnknownFieldSet.newBuilder();
+      com.google.protobuf.ByteString.Output unknownFieldsOutput =
+          com.google.protobuf.ByteString.newOutput();
+      com.google.protobuf.CodedOutputStream unknownFieldsCodedOutput =
+          com.google.protobuf.CodedOutputStream.newInstance(
+              unknownFieldsOutput);
       try {
         boolean done = false;
         while (!done) {
@@ -91,7 +79,7 @@ public final class GPDataTypes {
               done = true;
               break;
             default: {
-              if (!parseUnknownField(input, unknownFields,
+              if (!parseUnknownField(input, unknownFieldsCodedOutput,
                                      extensionRegistry, tag)) {
                 done = true;
               }
@@ -104,10 +92,10 @@ public final class GPDataTypes {
             }
             case 18: {
               if (!((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
-                mParams_ = new java.util.ArrayList<TeecParameter>();
+                mParams_ = new java.util.ArrayList<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter>();
                 mutable_bitField0_ |= 0x00000002;
               }
-              mParams_.add(input.readMessage(TeecParameter.PARSER, extensionRegistry));
+              mParams_.add(input.readMessage(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.PARSER, extensionRegistry));
               break;
             }
           }
@@ -121,22 +109,16 @@ public final class GPDataTypes {
         if (((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
           mParams_ = java.util.Collections.unmodifiableList(mParams_);
         }
-        this.unknownFields = unknownFields.build();
+        try {
+          unknownFieldsCodedOutput.flush();
+        } catch (java.io.IOException e) {
+        // Should not happen
+        } finally {
+          unknownFields = unknownFieldsOutput.toByteString();
+        }
         makeExtensionsImmutable();
       }
     }
-    public static final com.google.protobuf.Descriptors.Descriptor
-        getDescriptor() {
-      return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecOperation_descriptor;
-    }
-
-    protected FieldAccessorTable
-        internalGetFieldAccessorTable() {
-      return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecOperation_fieldAccessorTable
-          .ensureFieldAccessorsInitialized(
-              TeecOperation.class, Builder.class);
-    }
-
     public static com.google.protobuf.Parser<TeecOperation> PARSER =
         new com.google.protobuf.AbstractParser<TeecOperation>() {
       public TeecOperation parsePartialFrom(
@@ -147,7 +129,7 @@ public final class GPDataTypes {
       }
     };
 
-    @Override
+    @java.lang.Override
     public com.google.protobuf.Parser<TeecOperation> getParserForType() {
       return PARSER;
     }
@@ -169,17 +151,17 @@ public final class GPDataTypes {
     }
 
     public static final int MPARAMS_FIELD_NUMBER = 2;
-    private java.util.List<TeecParameter> mParams_;
+    private java.util.List<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter> mParams_;
     /**
      * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
      */
-    public java.util.List<TeecParameter> getMParamsList() {
+    public java.util.List<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter> getMParamsList() {
       return mParams_;
     }
     /**
      * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
      */
-    public java.util.List<? extends TeecParameterOrBuilder>
+    public java.util.List<? extends fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameterOrBuilder> 
         getMParamsOrBuilderList() {
       return mParams_;
     }
@@ -192,13 +174,13 @@ public final class GPDataTypes {
     /**
      * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
      */
-    public TeecParameter getMParams(int index) {
+    public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter getMParams(int index) {
       return mParams_.get(index);
     }
     /**
      * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
      */
-    public TeecParameterOrBuilder getMParamsOrBuilder(
+    public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameterOrBuilder getMParamsOrBuilder(
         int index) {
       return mParams_.get(index);
     }
@@ -236,7 +218,7 @@ public final class GPDataTypes {
       for (int i = 0; i < mParams_.size(); i++) {
         output.writeMessage(2, mParams_.get(i));
       }
-      getUnknownFields().writeTo(output);
+      output.writeRawBytes(unknownFields);
     }
 
     private int memoizedSerializedSize = -1;
@@ -253,65 +235,65 @@ public final class GPDataTypes {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(2, mParams_.get(i));
       }
-      size += getUnknownFields().getSerializedSize();
+      size += unknownFields.size();
       memoizedSerializedSize = size;
       return size;
     }
 
     private static final long serialVersionUID = 0L;
-    @Override
-    protected Object writeReplace()
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
         throws java.io.ObjectStreamException {
       return super.writeReplace();
     }
 
-    public static TeecOperation parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static TeecOperation parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static TeecOperation parseFrom(byte[] data)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static TeecOperation parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static TeecOperation parseFrom(java.io.InputStream input)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static TeecOperation parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static TeecOperation parseDelimitedFrom(java.io.InputStream input)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static TeecOperation parseDelimitedFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static TeecOperation parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static TeecOperation parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -320,50 +302,26 @@ public final class GPDataTypes {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(TeecOperation prototype) {
+    public static Builder newBuilder(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
 
-    @Override
-    protected Builder newBuilderForType(
-        BuilderParent parent) {
-      Builder builder = new Builder(parent);
-      return builder;
-    }
     /**
      * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation}
      */
     public static final class Builder extends
-        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation, Builder>
+        implements
         // @@protoc_insertion_point(builder_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation)
-        TeecOperationOrBuilder {
-      public static final com.google.protobuf.Descriptors.Descriptor
-          getDescriptor() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecOperation_descriptor;
-      }
-
-      protected FieldAccessorTable
-          internalGetFieldAccessorTable() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecOperation_fieldAccessorTable
-            .ensureFieldAccessorsInitialized(
-                TeecOperation.class, Builder.class);
-      }
-
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperationOrBuilder {
       // Construct using fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
 
-      private Builder(
-          BuilderParent parent) {
-        super(parent);
-        maybeForceBuilderInitialization();
-      }
       private void maybeForceBuilderInitialization() {
-        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
-          getMParamsFieldBuilder();
-        }
       }
       private static Builder create() {
         return new Builder();
@@ -373,12 +331,8 @@ public final class GPDataTypes {
         super.clear();
         mStarted_ = 0;
         bitField0_ = (bitField0_ & ~0x00000001);
-        if (mParamsBuilder_ == null) {
-          mParams_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000002);
-        } else {
-          mParamsBuilder_.clear();
-        }
+        mParams_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
         return this;
       }
 
@@ -386,86 +340,52 @@ public final class GPDataTypes {
         return create().mergeFrom(buildPartial());
       }
 
-      public com.google.protobuf.Descriptors.Descriptor
-          getDescriptorForType() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecOperation_descriptor;
-      }
-
-      public TeecOperation getDefaultInstanceForType() {
-        return TeecOperation.getDefaultInstance();
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation getDefaultInstanceForType() {
+        return fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation.getDefaultInstance();
       }
 
-      public TeecOperation build() {
-        TeecOperation result = buildPartial();
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation build() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public TeecOperation buildPartial() {
-        TeecOperation result = new TeecOperation(this);
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation buildPartial() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation result = new fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
           to_bitField0_ |= 0x00000001;
         }
         result.mStarted_ = mStarted_;
-        if (mParamsBuilder_ == null) {
-          if (((bitField0_ & 0x00000002) == 0x00000002)) {
-            mParams_ = java.util.Collections.unmodifiableList(mParams_);
-            bitField0_ = (bitField0_ & ~0x00000002);
-          }
-          result.mParams_ = mParams_;
-        } else {
-          result.mParams_ = mParamsBuilder_.build();
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          mParams_ = java.util.Collections.unmodifiableList(mParams_);
+          bitField0_ = (bitField0_ & ~0x00000002);
         }
+        result.mParams_ = mParams_;
         result.bitField0_ = to_bitField0_;
-        onBuilt();
         return result;
       }
 
-      public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof TeecOperation) {
-          return mergeFrom((TeecOperation)other);
-        } else {
-          super.mergeFrom(other);
-          return this;
-        }
-      }
-
-      public Builder mergeFrom(TeecOperation other) {
-        if (other == TeecOperation.getDefaultInstance()) return this;
+      public Builder mergeFrom(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation other) {
+        if (other == fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation.getDefaultInstance()) return this;
         if (other.hasMStarted()) {
           setMStarted(other.getMStarted());
         }
-        if (mParamsBuilder_ == null) {
-          if (!other.mParams_.isEmpty()) {
-            if (mParams_.isEmpty()) {
-              mParams_ = other.mParams_;
-              bitField0_ = (bitField0_ & ~0x00000002);
-            } else {
-              ensureMParamsIsMutable();
-              mParams_.addAll(other.mParams_);
-            }
-            onChanged();
-          }
-        } else {
-          if (!other.mParams_.isEmpty()) {
-            if (mParamsBuilder_.isEmpty()) {
-              mParamsBuilder_.dispose();
-              mParamsBuilder_ = null;
-              mParams_ = other.mParams_;
-              bitField0_ = (bitField0_ & ~0x00000002);
-              mParamsBuilder_ = 
-                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
-                   getMParamsFieldBuilder() : null;
-            } else {
-              mParamsBuilder_.addAllMessages(other.mParams_);
-            }
+        if (!other.mParams_.isEmpty()) {
+          if (mParams_.isEmpty()) {
+            mParams_ = other.mParams_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureMParamsIsMutable();
+            mParams_.addAll(other.mParams_);
           }
+          
         }
-        this.mergeUnknownFields(other.getUnknownFields());
+        setUnknownFields(
+            getUnknownFields().concat(other.unknownFields));
         return this;
       }
 
@@ -487,11 +407,11 @@ public final class GPDataTypes {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        TeecOperation parsedMessage = null;
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (TeecOperation) e.getUnfinishedMessage();
+          parsedMessage = (fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecOperation) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -521,7 +441,7 @@ public final class GPDataTypes {
       public Builder setMStarted(int value) {
         bitField0_ |= 0x00000001;
         mStarted_ = value;
-        onChanged();
+        
         return this;
       }
       /**
@@ -530,249 +450,134 @@ public final class GPDataTypes {
       public Builder clearMStarted() {
         bitField0_ = (bitField0_ & ~0x00000001);
         mStarted_ = 0;
-        onChanged();
+        
         return this;
       }
 
-      private java.util.List<TeecParameter> mParams_ =
+      private java.util.List<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter> mParams_ =
         java.util.Collections.emptyList();
       private void ensureMParamsIsMutable() {
         if (!((bitField0_ & 0x00000002) == 0x00000002)) {
-          mParams_ = new java.util.ArrayList<TeecParameter>(mParams_);
+          mParams_ = new java.util.ArrayList<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter>(mParams_);
           bitField0_ |= 0x00000002;
          }
       }
 
-      private com.google.protobuf.RepeatedFieldBuilder<
-          TeecParameter, TeecParameter.Builder, TeecParameterOrBuilder> mParamsBuilder_;
-
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
-      public java.util.List<TeecParameter> getMParamsList() {
-        if (mParamsBuilder_ == null) {
-          return java.util.Collections.unmodifiableList(mParams_);
-        } else {
-          return mParamsBuilder_.getMessageList();
-        }
+      public java.util.List<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter> getMParamsList() {
+        return java.util.Collections.unmodifiableList(mParams_);
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
       public int getMParamsCount() {
-        if (mParamsBuilder_ == null) {
-          return mParams_.size();
-        } else {
-          return mParamsBuilder_.getCount();
-        }
+        return mParams_.size();
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
-      public TeecParameter getMParams(int index) {
-        if (mParamsBuilder_ == null) {
-          return mParams_.get(index);
-        } else {
-          return mParamsBuilder_.getMessage(index);
-        }
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter getMParams(int index) {
+        return mParams_.get(index);
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
       public Builder setMParams(
-          int index, TeecParameter value) {
-        if (mParamsBuilder_ == null) {
-          if (value == null) {
-            throw new NullPointerException();
-          }
-          ensureMParamsIsMutable();
-          mParams_.set(index, value);
-          onChanged();
-        } else {
-          mParamsBuilder_.setMessage(index, value);
+          int index, fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter value) {
+        if (value == null) {
+          throw new NullPointerException();
         }
+        ensureMParamsIsMutable();
+        mParams_.set(index, value);
+
         return this;
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
       public Builder setMParams(
-          int index, TeecParameter.Builder builderForValue) {
-        if (mParamsBuilder_ == null) {
-          ensureMParamsIsMutable();
-          mParams_.set(index, builderForValue.build());
-          onChanged();
-        } else {
-          mParamsBuilder_.setMessage(index, builderForValue.build());
-        }
+          int index, fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Builder builderForValue) {
+        ensureMParamsIsMutable();
+        mParams_.set(index, builderForValue.build());
+
         return this;
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
-      public Builder addMParams(TeecParameter value) {
-        if (mParamsBuilder_ == null) {
-          if (value == null) {
-            throw new NullPointerException();
-          }
-          ensureMParamsIsMutable();
-          mParams_.add(value);
-          onChanged();
-        } else {
-          mParamsBuilder_.addMessage(value);
+      public Builder addMParams(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter value) {
+        if (value == null) {
+          throw new NullPointerException();
         }
+        ensureMParamsIsMutable();
+        mParams_.add(value);
+
         return this;
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
       public Builder addMParams(
-          int index, TeecParameter value) {
-        if (mParamsBuilder_ == null) {
-          if (value == null) {
-            throw new NullPointerException();
-          }
-          ensureMParamsIsMutable();
-          mParams_.add(index, value);
-          onChanged();
-        } else {
-          mParamsBuilder_.addMessage(index, value);
+          int index, fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter value) {
+        if (value == null) {
+          throw new NullPointerException();
         }
+        ensureMParamsIsMutable();
+        mParams_.add(index, value);
+
         return this;
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
       public Builder addMParams(
-          TeecParameter.Builder builderForValue) {
-        if (mParamsBuilder_ == null) {
-          ensureMParamsIsMutable();
-          mParams_.add(builderForValue.build());
-          onChanged();
-        } else {
-          mParamsBuilder_.addMessage(builderForValue.build());
-        }
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Builder builderForValue) {
+        ensureMParamsIsMutable();
+        mParams_.add(builderForValue.build());
+
         return this;
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
       public Builder addMParams(
-          int index, TeecParameter.Builder builderForValue) {
-        if (mParamsBuilder_ == null) {
-          ensureMParamsIsMutable();
-          mParams_.add(index, builderForValue.build());
-          onChanged();
-        } else {
-          mParamsBuilder_.addMessage(index, builderForValue.build());
-        }
+          int index, fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Builder builderForValue) {
+        ensureMParamsIsMutable();
+        mParams_.add(index, builderForValue.build());
+
         return this;
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
       public Builder addAllMParams(
-          Iterable<? extends TeecParameter> values) {
-        if (mParamsBuilder_ == null) {
-          ensureMParamsIsMutable();
-          com.google.protobuf.AbstractMessageLite.Builder.addAll(
-              values, mParams_);
-          onChanged();
-        } else {
-          mParamsBuilder_.addAllMessages(values);
-        }
+          java.lang.Iterable<? extends fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter> values) {
+        ensureMParamsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, mParams_);
+
         return this;
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
       public Builder clearMParams() {
-        if (mParamsBuilder_ == null) {
-          mParams_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000002);
-          onChanged();
-        } else {
-          mParamsBuilder_.clear();
-        }
+        mParams_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+
         return this;
       }
       /**
        * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
        */
       public Builder removeMParams(int index) {
-        if (mParamsBuilder_ == null) {
-          ensureMParamsIsMutable();
-          mParams_.remove(index);
-          onChanged();
-        } else {
-          mParamsBuilder_.remove(index);
-        }
+        ensureMParamsIsMutable();
+        mParams_.remove(index);
+
         return this;
       }
-      /**
-       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
-       */
-      public TeecParameter.Builder getMParamsBuilder(
-          int index) {
-        return getMParamsFieldBuilder().getBuilder(index);
-      }
-      /**
-       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
-       */
-      public TeecParameterOrBuilder getMParamsOrBuilder(
-          int index) {
-        if (mParamsBuilder_ == null) {
-          return mParams_.get(index);  } else {
-          return mParamsBuilder_.getMessageOrBuilder(index);
-        }
-      }
-      /**
-       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
-       */
-      public java.util.List<? extends TeecParameterOrBuilder>
-           getMParamsOrBuilderList() {
-        if (mParamsBuilder_ != null) {
-          return mParamsBuilder_.getMessageOrBuilderList();
-        } else {
-          return java.util.Collections.unmodifiableList(mParams_);
-        }
-      }
-      /**
-       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
-       */
-      public TeecParameter.Builder addMParamsBuilder() {
-        return getMParamsFieldBuilder().addBuilder(
-            TeecParameter.getDefaultInstance());
-      }
-      /**
-       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
-       */
-      public TeecParameter.Builder addMParamsBuilder(
-          int index) {
-        return getMParamsFieldBuilder().addBuilder(
-            index, TeecParameter.getDefaultInstance());
-      }
-      /**
-       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;</code>
-       */
-      public java.util.List<TeecParameter.Builder>
-           getMParamsBuilderList() {
-        return getMParamsFieldBuilder().getBuilderList();
-      }
-      private com.google.protobuf.RepeatedFieldBuilder<
-          TeecParameter, TeecParameter.Builder, TeecParameterOrBuilder>
-          getMParamsFieldBuilder() {
-        if (mParamsBuilder_ == null) {
-          mParamsBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
-              TeecParameter, TeecParameter.Builder, TeecParameterOrBuilder>(
-                  mParams_,
-                  ((bitField0_ & 0x00000002) == 0x00000002),
-                  getParentForChildren(),
-                  isClean());
-          mParams_ = null;
-        }
-        return mParamsBuilder_;
-      }
 
       // @@protoc_insertion_point(builder_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation)
     }
@@ -787,7 +592,7 @@ public final class GPDataTypes {
 
   public interface TeecParameterOrBuilder extends
       // @@protoc_insertion_point(interface_extends:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter)
-      com.google.protobuf.MessageOrBuilder {
+      com.google.protobuf.MessageLiteOrBuilder {
 
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.Type type = 1;</code>
@@ -796,7 +601,7 @@ public final class GPDataTypes {
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.Type type = 1;</code>
      */
-    TeecParameter.Type getType();
+    fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type getType();
 
     /**
      * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
@@ -805,11 +610,7 @@ public final class GPDataTypes {
     /**
      * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
      */
-    TeecSharedMemoryReference getTeecSharedMemoryReference();
-    /**
-     * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
-     */
-    TeecSharedMemoryReferenceOrBuilder getTeecSharedMemoryReferenceOrBuilder();
+    fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference getTeecSharedMemoryReference();
 
     /**
      * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
@@ -818,11 +619,7 @@ public final class GPDataTypes {
     /**
      * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
      */
-    TeecValue getTeecValue();
-    /**
-     * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
-     */
-    TeecValueOrBuilder getTeecValueOrBuilder();
+    fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue getTeecValue();
 
     /**
      * <code>optional int32 placeHolder = 4;</code>
@@ -837,15 +634,15 @@ public final class GPDataTypes {
    * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter}
    */
   public static final class TeecParameter extends
-      com.google.protobuf.GeneratedMessage implements
+      com.google.protobuf.GeneratedMessageLite implements
       // @@protoc_insertion_point(message_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter)
       TeecParameterOrBuilder {
     // Use TeecParameter.newBuilder() to construct.
-    private TeecParameter(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+    private TeecParameter(com.google.protobuf.GeneratedMessageLite.Builder builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private TeecParameter(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private TeecParameter(boolean noInit) { this.unknownFields = com.google.protobuf.ByteString.EMPTY;}
 
     private static final TeecParameter defaultInstance;
     public static TeecParameter getDefaultInstance() {
@@ -856,20 +653,18 @@ public final class GPDataTypes {
       return defaultInstance;
     }
 
-    private final com.google.protobuf.UnknownFieldSet unknownFields;
-    @Override
-    public final com.google.protobuf.UnknownFieldSet
-        getUnknownFields() {
-      return this.unknownFields;
-    }
+    private final com.google.protobuf.ByteString unknownFields;
     private TeecParameter(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       initFields();
       int mutable_bitField0_ = 0;
-      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
-          com.google.protobuf.UnknownFieldSet.newBuilder();
+      com.google.protobuf.ByteString.Output unknownFieldsOutput =
+          com.google.protobuf.ByteString.newOutput();
+      com.google.protobuf.CodedOutputStream unknownFieldsCodedOutput =
+          com.google.protobuf.CodedOutputStream.newInstance(
+              unknownFieldsOutput);
       try {
         boolean done = false;
         while (!done) {
@@ -879,7 +674,7 @@ public final class GPDataTypes {
               done = true;
               break;
             default: {
-              if (!parseUnknownField(input, unknownFields,
+              if (!parseUnknownField(input, unknownFieldsCodedOutput,
                                      extensionRegistry, tag)) {
                 done = true;
               }
@@ -887,9 +682,10 @@ public final class GPDataTypes {
             }
             case 8: {
               int rawValue = input.readEnum();
-              Type value = Type.valueOf(rawValue);
+              fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type value = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type.valueOf(rawValue);
               if (value == null) {
-                unknownFields.mergeVarintField(1, rawValue);
+                unknownFieldsCodedOutput.writeRawVarint32(tag);
+                unknownFieldsCodedOutput.writeRawVarint32(rawValue);
               } else {
                 bitField0_ |= 0x00000001;
                 type_ = value;
@@ -897,11 +693,11 @@ public final class GPDataTypes {
               break;
             }
             case 18: {
-              TeecSharedMemoryReference.Builder subBuilder = null;
+              fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Builder subBuilder = null;
               if (((bitField0_ & 0x00000002) == 0x00000002)) {
                 subBuilder = teecSharedMemoryReference_.toBuilder();
               }
-              teecSharedMemoryReference_ = input.readMessage(TeecSharedMemoryReference.PARSER, extensionRegistry);
+              teecSharedMemoryReference_ = input.readMessage(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.PARSER, extensionRegistry);
               if (subBuilder != null) {
                 subBuilder.mergeFrom(teecSharedMemoryReference_);
                 teecSharedMemoryReference_ = subBuilder.buildPartial();
@@ -910,11 +706,11 @@ public final class GPDataTypes {
               break;
             }
             case 26: {
-              TeecValue.Builder subBuilder = null;
+              fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Builder subBuilder = null;
               if (((bitField0_ & 0x00000004) == 0x00000004)) {
                 subBuilder = teecValue_.toBuilder();
               }
-              teecValue_ = input.readMessage(TeecValue.PARSER, extensionRegistry);
+              teecValue_ = input.readMessage(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.PARSER, extensionRegistry);
               if (subBuilder != null) {
                 subBuilder.mergeFrom(teecValue_);
                 teecValue_ = subBuilder.buildPartial();
@@ -935,22 +731,16 @@ public final class GPDataTypes {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
-        this.unknownFields = unknownFields.build();
+        try {
+          unknownFieldsCodedOutput.flush();
+        } catch (java.io.IOException e) {
+        // Should not happen
+        } finally {
+          unknownFields = unknownFieldsOutput.toByteString();
+        }
         makeExtensionsImmutable();
       }
     }
-    public static final com.google.protobuf.Descriptors.Descriptor
-        getDescriptor() {
-      return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecParameter_descriptor;
-    }
-
-    protected FieldAccessorTable
-        internalGetFieldAccessorTable() {
-      return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecParameter_fieldAccessorTable
-          .ensureFieldAccessorsInitialized(
-              TeecParameter.class, Builder.class);
-    }
-
     public static com.google.protobuf.Parser<TeecParameter> PARSER =
         new com.google.protobuf.AbstractParser<TeecParameter>() {
       public TeecParameter parsePartialFrom(
@@ -961,7 +751,7 @@ public final class GPDataTypes {
       }
     };
 
-    @Override
+    @java.lang.Override
     public com.google.protobuf.Parser<TeecParameter> getParserForType() {
       return PARSER;
     }
@@ -970,7 +760,7 @@ public final class GPDataTypes {
      * Protobuf enum {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.Type}
      */
     public enum Type
-        implements com.google.protobuf.ProtocolMessageEnum {
+        implements com.google.protobuf.Internal.EnumLite {
       /**
        * <code>smr = 1;</code>
        */
@@ -1022,35 +812,9 @@ public final class GPDataTypes {
               }
             };
 
-      public final com.google.protobuf.Descriptors.EnumValueDescriptor
-          getValueDescriptor() {
-        return getDescriptor().getValues().get(index);
-      }
-      public final com.google.protobuf.Descriptors.EnumDescriptor
-          getDescriptorForType() {
-        return getDescriptor();
-      }
-      public static final com.google.protobuf.Descriptors.EnumDescriptor
-          getDescriptor() {
-        return TeecParameter.getDescriptor().getEnumTypes().get(0);
-      }
-
-      private static final Type[] VALUES = values();
-
-      public static Type valueOf(
-          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
-        if (desc.getType() != getDescriptor()) {
-          throw new IllegalArgumentException(
-            "EnumValueDescriptor is not for this type.");
-        }
-        return VALUES[desc.getIndex()];
-      }
-
-      private final int index;
       private final int value;
 
       private Type(int index, int value) {
-        this.index = index;
         this.value = value;
       }
 
@@ -1059,7 +823,7 @@ public final class GPDataTypes {
 
     private int bitField0_;
     public static final int TYPE_FIELD_NUMBER = 1;
-    private Type type_;
+    private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type type_;
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.Type type = 1;</code>
      */
@@ -1069,12 +833,12 @@ public final class GPDataTypes {
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.Type type = 1;</code>
      */
-    public Type getType() {
+    public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type getType() {
       return type_;
     }
 
     public static final int TEECSHAREDMEMORYREFERENCE_FIELD_NUMBER = 2;
-    private TeecSharedMemoryReference teecSharedMemoryReference_;
+    private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference teecSharedMemoryReference_;
     /**
      * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
      */
@@ -1084,18 +848,12 @@ public final class GPDataTypes {
     /**
      * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
      */
-    public TeecSharedMemoryReference getTeecSharedMemoryReference() {
-      return teecSharedMemoryReference_;
-    }
-    /**
-     * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
-     */
-    public TeecSharedMemoryReferenceOrBuilder getTeecSharedMemoryReferenceOrBuilder() {
+    public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference getTeecSharedMemoryReference() {
       return teecSharedMemoryReference_;
     }
 
     public static final int TEECVALUE_FIELD_NUMBER = 3;
-    private TeecValue teecValue_;
+    private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue teecValue_;
     /**
      * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
      */
@@ -1105,13 +863,7 @@ public final class GPDataTypes {
     /**
      * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
      */
-    public TeecValue getTeecValue() {
-      return teecValue_;
-    }
-    /**
-     * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
-     */
-    public TeecValueOrBuilder getTeecValueOrBuilder() {
+    public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue getTeecValue() {
       return teecValue_;
     }
 
@@ -1131,9 +883,9 @@ public final class GPDataTypes {
     }
 
     private void initFields() {
-      type_ = Type.smr;
-      teecSharedMemoryReference_ = TeecSharedMemoryReference.getDefaultInstance();
-      teecValue_ = TeecValue.getDefaultInstance();
+      type_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type.smr;
+      teecSharedMemoryReference_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.getDefaultInstance();
+      teecValue_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.getDefaultInstance();
       placeHolder_ = 0;
     }
     private byte memoizedIsInitialized = -1;
@@ -1177,7 +929,7 @@ public final class GPDataTypes {
       if (((bitField0_ & 0x00000008) == 0x00000008)) {
         output.writeInt32(4, placeHolder_);
       }
-      getUnknownFields().writeTo(output);
+      output.writeRawBytes(unknownFields);
     }
 
     private int memoizedSerializedSize = -1;
@@ -1202,65 +954,65 @@ public final class GPDataTypes {
         size += com.google.protobuf.CodedOutputStream
           .computeInt32Size(4, placeHolder_);
       }
-      size += getUnknownFields().getSerializedSize();
+      size += unknownFields.size();
       memoizedSerializedSize = size;
       return size;
     }
 
     private static final long serialVersionUID = 0L;
-    @Override
-    protected Object writeReplace()
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
         throws java.io.ObjectStreamException {
       return super.writeReplace();
     }
 
-    public static TeecParameter parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static TeecParameter parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static TeecParameter parseFrom(byte[] data)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static TeecParameter parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static TeecParameter parseFrom(java.io.InputStream input)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static TeecParameter parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static TeecParameter parseDelimitedFrom(java.io.InputStream input)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static TeecParameter parseDelimitedFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static TeecParameter parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static TeecParameter parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -1269,51 +1021,26 @@ public final class GPDataTypes {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(TeecParameter prototype) {
+    public static Builder newBuilder(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
 
-    @Override
-    protected Builder newBuilderForType(
-        BuilderParent parent) {
-      Builder builder = new Builder(parent);
-      return builder;
-    }
     /**
      * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter}
      */
     public static final class Builder extends
-        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter, Builder>
+        implements
         // @@protoc_insertion_point(builder_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter)
-        TeecParameterOrBuilder {
-      public static final com.google.protobuf.Descriptors.Descriptor
-          getDescriptor() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecParameter_descriptor;
-      }
-
-      protected FieldAccessorTable
-          internalGetFieldAccessorTable() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecParameter_fieldAccessorTable
-            .ensureFieldAccessorsInitialized(
-                TeecParameter.class, Builder.class);
-      }
-
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameterOrBuilder {
       // Construct using fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
 
-      private Builder(
-          BuilderParent parent) {
-        super(parent);
-        maybeForceBuilderInitialization();
-      }
       private void maybeForceBuilderInitialization() {
-        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
-          getTeecSharedMemoryReferenceFieldBuilder();
-          getTeecValueFieldBuilder();
-        }
       }
       private static Builder create() {
         return new Builder();
@@ -1321,19 +1048,11 @@ public final class GPDataTypes {
 
       public Builder clear() {
         super.clear();
-        type_ = Type.smr;
+        type_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type.smr;
         bitField0_ = (bitField0_ & ~0x00000001);
-        if (teecSharedMemoryReferenceBuilder_ == null) {
-          teecSharedMemoryReference_ = TeecSharedMemoryReference.getDefaultInstance();
-        } else {
-          teecSharedMemoryReferenceBuilder_.clear();
-        }
+        teecSharedMemoryReference_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.getDefaultInstance();
         bitField0_ = (bitField0_ & ~0x00000002);
-        if (teecValueBuilder_ == null) {
-          teecValue_ = TeecValue.getDefaultInstance();
-        } else {
-          teecValueBuilder_.clear();
-        }
+        teecValue_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.getDefaultInstance();
         bitField0_ = (bitField0_ & ~0x00000004);
         placeHolder_ = 0;
         bitField0_ = (bitField0_ & ~0x00000008);
@@ -1344,25 +1063,20 @@ public final class GPDataTypes {
         return create().mergeFrom(buildPartial());
       }
 
-      public com.google.protobuf.Descriptors.Descriptor
-          getDescriptorForType() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecParameter_descriptor;
-      }
-
-      public TeecParameter getDefaultInstanceForType() {
-        return TeecParameter.getDefaultInstance();
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter getDefaultInstanceForType() {
+        return fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.getDefaultInstance();
       }
 
-      public TeecParameter build() {
-        TeecParameter result = buildPartial();
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter build() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public TeecParameter buildPartial() {
-        TeecParameter result = new TeecParameter(this);
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter buildPartial() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter result = new fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
@@ -1372,39 +1086,21 @@ public final class GPDataTypes {
         if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
           to_bitField0_ |= 0x00000002;
         }
-        if (teecSharedMemoryReferenceBuilder_ == null) {
-          result.teecSharedMemoryReference_ = teecSharedMemoryReference_;
-        } else {
-          result.teecSharedMemoryReference_ = teecSharedMemoryReferenceBuilder_.build();
-        }
+        result.teecSharedMemoryReference_ = teecSharedMemoryReference_;
         if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
           to_bitField0_ |= 0x00000004;
         }
-        if (teecValueBuilder_ == null) {
-          result.teecValue_ = teecValue_;
-        } else {
-          result.teecValue_ = teecValueBuilder_.build();
-        }
+        result.teecValue_ = teecValue_;
         if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
           to_bitField0_ |= 0x00000008;
         }
         result.placeHolder_ = placeHolder_;
         result.bitField0_ = to_bitField0_;
-        onBuilt();
         return result;
       }
 
-      public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof TeecParameter) {
-          return mergeFrom((TeecParameter)other);
-        } else {
-          super.mergeFrom(other);
-          return this;
-        }
-      }
-
-      public Builder mergeFrom(TeecParameter other) {
-        if (other == TeecParameter.getDefaultInstance()) return this;
+      public Builder mergeFrom(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter other) {
+        if (other == fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.getDefaultInstance()) return this;
         if (other.hasType()) {
           setType(other.getType());
         }
@@ -1417,7 +1113,8 @@ public final class GPDataTypes {
         if (other.hasPlaceHolder()) {
           setPlaceHolder(other.getPlaceHolder());
         }
-        this.mergeUnknownFields(other.getUnknownFields());
+        setUnknownFields(
+            getUnknownFields().concat(other.unknownFields));
         return this;
       }
 
@@ -1445,11 +1142,11 @@ public final class GPDataTypes {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        TeecParameter parsedMessage = null;
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (TeecParameter) e.getUnfinishedMessage();
+          parsedMessage = (fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -1460,7 +1157,7 @@ public final class GPDataTypes {
       }
       private int bitField0_;
 
-      private Type type_ = Type.smr;
+      private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type type_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type.smr;
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.Type type = 1;</code>
        */
@@ -1470,19 +1167,19 @@ public final class GPDataTypes {
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.Type type = 1;</code>
        */
-      public Type getType() {
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type getType() {
         return type_;
       }
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.Type type = 1;</code>
        */
-      public Builder setType(Type value) {
+      public Builder setType(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type value) {
         if (value == null) {
           throw new NullPointerException();
         }
         bitField0_ |= 0x00000001;
         type_ = value;
-        onChanged();
+        
         return this;
       }
       /**
@@ -1490,14 +1187,12 @@ public final class GPDataTypes {
        */
       public Builder clearType() {
         bitField0_ = (bitField0_ & ~0x00000001);
-        type_ = Type.smr;
-        onChanged();
+        type_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecParameter.Type.smr;
+        
         return this;
       }
 
-      private TeecSharedMemoryReference teecSharedMemoryReference_ = TeecSharedMemoryReference.getDefaultInstance();
-      private com.google.protobuf.SingleFieldBuilder<
-          TeecSharedMemoryReference, TeecSharedMemoryReference.Builder, TeecSharedMemoryReferenceOrBuilder> teecSharedMemoryReferenceBuilder_;
+      private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference teecSharedMemoryReference_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.getDefaultInstance();
       /**
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
        */
@@ -1507,26 +1202,18 @@ public final class GPDataTypes {
       /**
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
        */
-      public TeecSharedMemoryReference getTeecSharedMemoryReference() {
-        if (teecSharedMemoryReferenceBuilder_ == null) {
-          return teecSharedMemoryReference_;
-        } else {
-          return teecSharedMemoryReferenceBuilder_.getMessage();
-        }
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference getTeecSharedMemoryReference() {
+        return teecSharedMemoryReference_;
       }
       /**
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
        */
-      public Builder setTeecSharedMemoryReference(TeecSharedMemoryReference value) {
-        if (teecSharedMemoryReferenceBuilder_ == null) {
-          if (value == null) {
-            throw new NullPointerException();
-          }
-          teecSharedMemoryReference_ = value;
-          onChanged();
-        } else {
-          teecSharedMemoryReferenceBuilder_.setMessage(value);
+      public Builder setTeecSharedMemoryReference(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference value) {
+        if (value == null) {
+          throw new NullPointerException();
         }
+        teecSharedMemoryReference_ = value;
+
         bitField0_ |= 0x00000002;
         return this;
       }
@@ -1534,32 +1221,24 @@ public final class GPDataTypes {
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
        */
       public Builder setTeecSharedMemoryReference(
-          TeecSharedMemoryReference.Builder builderForValue) {
-        if (teecSharedMemoryReferenceBuilder_ == null) {
-          teecSharedMemoryReference_ = builderForValue.build();
-          onChanged();
-        } else {
-          teecSharedMemoryReferenceBuilder_.setMessage(builderForValue.build());
-        }
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Builder builderForValue) {
+        teecSharedMemoryReference_ = builderForValue.build();
+
         bitField0_ |= 0x00000002;
         return this;
       }
       /**
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
        */
-      public Builder mergeTeecSharedMemoryReference(TeecSharedMemoryReference value) {
-        if (teecSharedMemoryReferenceBuilder_ == null) {
-          if (((bitField0_ & 0x00000002) == 0x00000002) &&
-              teecSharedMemoryReference_ != TeecSharedMemoryReference.getDefaultInstance()) {
-            teecSharedMemoryReference_ =
-              TeecSharedMemoryReference.newBuilder(teecSharedMemoryReference_).mergeFrom(value).buildPartial();
-          } else {
-            teecSharedMemoryReference_ = value;
-          }
-          onChanged();
+      public Builder mergeTeecSharedMemoryReference(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference value) {
+        if (((bitField0_ & 0x00000002) == 0x00000002) &&
+            teecSharedMemoryReference_ != fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.getDefaultInstance()) {
+          teecSharedMemoryReference_ =
+            fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.newBuilder(teecSharedMemoryReference_).mergeFrom(value).buildPartial();
         } else {
-          teecSharedMemoryReferenceBuilder_.mergeFrom(value);
+          teecSharedMemoryReference_ = value;
         }
+
         bitField0_ |= 0x00000002;
         return this;
       }
@@ -1567,53 +1246,13 @@ public final class GPDataTypes {
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
        */
       public Builder clearTeecSharedMemoryReference() {
-        if (teecSharedMemoryReferenceBuilder_ == null) {
-          teecSharedMemoryReference_ = TeecSharedMemoryReference.getDefaultInstance();
-          onChanged();
-        } else {
-          teecSharedMemoryReferenceBuilder_.clear();
-        }
+        teecSharedMemoryReference_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.getDefaultInstance();
+
         bitField0_ = (bitField0_ & ~0x00000002);
         return this;
       }
-      /**
-       * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
-       */
-      public TeecSharedMemoryReference.Builder getTeecSharedMemoryReferenceBuilder() {
-        bitField0_ |= 0x00000002;
-        onChanged();
-        return getTeecSharedMemoryReferenceFieldBuilder().getBuilder();
-      }
-      /**
-       * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
-       */
-      public TeecSharedMemoryReferenceOrBuilder getTeecSharedMemoryReferenceOrBuilder() {
-        if (teecSharedMemoryReferenceBuilder_ != null) {
-          return teecSharedMemoryReferenceBuilder_.getMessageOrBuilder();
-        } else {
-          return teecSharedMemoryReference_;
-        }
-      }
-      /**
-       * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;</code>
-       */
-      private com.google.protobuf.SingleFieldBuilder<
-          TeecSharedMemoryReference, TeecSharedMemoryReference.Builder, TeecSharedMemoryReferenceOrBuilder>
-          getTeecSharedMemoryReferenceFieldBuilder() {
-        if (teecSharedMemoryReferenceBuilder_ == null) {
-          teecSharedMemoryReferenceBuilder_ = new com.google.protobuf.SingleFieldBuilder<
-              TeecSharedMemoryReference, TeecSharedMemoryReference.Builder, TeecSharedMemoryReferenceOrBuilder>(
-                  getTeecSharedMemoryReference(),
-                  getParentForChildren(),
-                  isClean());
-          teecSharedMemoryReference_ = null;
-        }
-        return teecSharedMemoryReferenceBuilder_;
-      }
 
-      private TeecValue teecValue_ = TeecValue.getDefaultInstance();
-      private com.google.protobuf.SingleFieldBuilder<
-          TeecValue, TeecValue.Builder, TeecValueOrBuilder> teecValueBuilder_;
+      private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue teecValue_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.getDefaultInstance();
       /**
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
        */
@@ -1623,26 +1262,18 @@ public final class GPDataTypes {
       /**
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
        */
-      public TeecValue getTeecValue() {
-        if (teecValueBuilder_ == null) {
-          return teecValue_;
-        } else {
-          return teecValueBuilder_.getMessage();
-        }
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue getTeecValue() {
+        return teecValue_;
       }
       /**
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
        */
-      public Builder setTeecValue(TeecValue value) {
-        if (teecValueBuilder_ == null) {
-          if (value == null) {
-            throw new NullPointerException();
-          }
-          teecValue_ = value;
-          onChanged();
-        } else {
-          teecValueBuilder_.setMessage(value);
+      public Builder setTeecValue(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue value) {
+        if (value == null) {
+          throw new NullPointerException();
         }
+        teecValue_ = value;
+
         bitField0_ |= 0x00000004;
         return this;
       }
@@ -1650,32 +1281,24 @@ public final class GPDataTypes {
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
        */
       public Builder setTeecValue(
-          TeecValue.Builder builderForValue) {
-        if (teecValueBuilder_ == null) {
-          teecValue_ = builderForValue.build();
-          onChanged();
-        } else {
-          teecValueBuilder_.setMessage(builderForValue.build());
-        }
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Builder builderForValue) {
+        teecValue_ = builderForValue.build();
+
         bitField0_ |= 0x00000004;
         return this;
       }
       /**
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
        */
-      public Builder mergeTeecValue(TeecValue value) {
-        if (teecValueBuilder_ == null) {
-          if (((bitField0_ & 0x00000004) == 0x00000004) &&
-              teecValue_ != TeecValue.getDefaultInstance()) {
-            teecValue_ =
-              TeecValue.newBuilder(teecValue_).mergeFrom(value).buildPartial();
-          } else {
-            teecValue_ = value;
-          }
-          onChanged();
+      public Builder mergeTeecValue(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue value) {
+        if (((bitField0_ & 0x00000004) == 0x00000004) &&
+            teecValue_ != fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.getDefaultInstance()) {
+          teecValue_ =
+            fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.newBuilder(teecValue_).mergeFrom(value).buildPartial();
         } else {
-          teecValueBuilder_.mergeFrom(value);
+          teecValue_ = value;
         }
+
         bitField0_ |= 0x00000004;
         return this;
       }
@@ -1683,49 +1306,11 @@ public final class GPDataTypes {
        * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
        */
       public Builder clearTeecValue() {
-        if (teecValueBuilder_ == null) {
-          teecValue_ = TeecValue.getDefaultInstance();
-          onChanged();
-        } else {
-          teecValueBuilder_.clear();
-        }
+        teecValue_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.getDefaultInstance();
+
         bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
-      /**
-       * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
-       */
-      public TeecValue.Builder getTeecValueBuilder() {
-        bitField0_ |= 0x00000004;
-        onChanged();
-        return getTeecValueFieldBuilder().getBuilder();
-      }
-      /**
-       * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
-       */
-      public TeecValueOrBuilder getTeecValueOrBuilder() {
-        if (teecValueBuilder_ != null) {
-          return teecValueBuilder_.getMessageOrBuilder();
-        } else {
-          return teecValue_;
-        }
-      }
-      /**
-       * <code>optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;</code>
-       */
-      private com.google.protobuf.SingleFieldBuilder<
-          TeecValue, TeecValue.Builder, TeecValueOrBuilder>
-          getTeecValueFieldBuilder() {
-        if (teecValueBuilder_ == null) {
-          teecValueBuilder_ = new com.google.protobuf.SingleFieldBuilder<
-              TeecValue, TeecValue.Builder, TeecValueOrBuilder>(
-                  getTeecValue(),
-                  getParentForChildren(),
-                  isClean());
-          teecValue_ = null;
-        }
-        return teecValueBuilder_;
-      }
 
       private int placeHolder_ ;
       /**
@@ -1746,7 +1331,7 @@ public final class GPDataTypes {
       public Builder setPlaceHolder(int value) {
         bitField0_ |= 0x00000008;
         placeHolder_ = value;
-        onChanged();
+        
         return this;
       }
       /**
@@ -1755,7 +1340,7 @@ public final class GPDataTypes {
       public Builder clearPlaceHolder() {
         bitField0_ = (bitField0_ & ~0x00000008);
         placeHolder_ = 0;
-        onChanged();
+        
         return this;
       }
 
@@ -1772,7 +1357,7 @@ public final class GPDataTypes {
 
   public interface TeecSharedMemoryOrBuilder extends
       // @@protoc_insertion_point(interface_extends:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
-      com.google.protobuf.MessageOrBuilder {
+      com.google.protobuf.MessageLiteOrBuilder {
 
     /**
      * <code>required bytes mBuffer = 1;</code>
@@ -1818,20 +1403,51 @@ public final class GPDataTypes {
      * <code>optional int32 mID = 5;</code>
      */
     int getMID();
+
+    /**
+     * <code>optional bool mDirtyOnly = 6;</code>
+     *
+     * <pre>
+     * if set, mBuffer is empty and only the ranges modified since the last sync are carried.
+     * </pre>
+     */
+    boolean hasMDirtyOnly();
+    /**
+     * <code>optional bool mDirtyOnly = 6;</code>
+     *
+     * <pre>
+     * if set, mBuffer is empty and only the ranges modified since the last sync are carried.
+     * </pre>
+     */
+    boolean getMDirtyOnly();
+
+    /**
+     * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+     */
+    java.util.List<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange> 
+        getMDirtyRangesList();
+    /**
+     * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+     */
+    fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange getMDirtyRanges(int index);
+    /**
+     * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+     */
+    int getMDirtyRangesCount();
   }
   /**
    * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory}
    */
   public static final class TeecSharedMemory extends
-      com.google.protobuf.GeneratedMessage implements
+      com.google.protobuf.GeneratedMessageLite implements
       // @@protoc_insertion_point(message_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
       TeecSharedMemoryOrBuilder {
     // Use TeecSharedMemory.newBuilder() to construct.
-    private TeecSharedMemory(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+    private TeecSharedMemory(com.google.protobuf.GeneratedMessageLite.Builder builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private TeecSharedMemory(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private TeecSharedMemory(boolean noInit) { this.unknownFields = com.google.protobuf.ByteString.EMPTY;}
 
     private static final TeecSharedMemory defaultInstance;
     public static TeecSharedMemory getDefaultInstance() {
@@ -1842,20 +1458,18 @@ public final class GPDataTypes {
       return defaultInstance;
     }
 
-    private final com.google.protobuf.UnknownFieldSet unknownFields;
-    @Override
-    public final com.google.protobuf.UnknownFieldSet
-        getUnknownFields() {
-      return this.unknownFields;
-    }
+    private final com.google.protobuf.ByteString unknownFields;
     private TeecSharedMemory(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       initFields();
       int mutable_bitField0_ = 0;
-      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
-          com.google.protobuf.UnknownFieldSet.newBuilder();
+      com.google.protobuf.ByteString.Output unknownFieldsOutput =
+          com.google.protobuf.ByteString.newOutput();
+      com.google.protobuf.CodedOutputStream unknownFieldsCodedOutput =
+          com.google.protobuf.CodedOutputStream.newInstance(
+              unknownFieldsOutput);
       try {
         boolean done = false;
         while (!done) {
@@ -1865,7 +1479,7 @@ public final class GPDataTypes {
               done = true;
               break;
             default: {
-              if (!parseUnknownField(input, unknownFields,
+              if (!parseUnknownField(input, unknownFieldsCodedOutput,
                                      extensionRegistry, tag)) {
                 done = true;
               }
@@ -1896,6 +1510,19 @@ public final class GPDataTypes {
               mID_ = input.readInt32();
               break;
             }
+            case 48: {
+              bitField0_ |= 0x00000020;
+              mDirtyOnly_ = input.readBool();
+              break;
+            }
+            case 58: {
+              if (!((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
+                mDirtyRanges_ = new java.util.ArrayList<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange>();
+                mutable_bitField0_ |= 0x00000040;
+              }
+              mDirtyRanges_.add(input.readMessage(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange.PARSER, extensionRegistry));
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -1904,22 +1531,19 @@ public final class GPDataTypes {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
-        this.unknownFields = unknownFields.build();
-        makeExtensionsImmutable();
+        if (((mutable_bitField0_ & 0x00000040) == 0x00000040)) {
+          mDirtyRanges_ = java.util.Collections.unmodifiableList(mDirtyRanges_);
+        }
+        try {
+          unknownFieldsCodedOutput.flush();
+        } catch (java.io.IOException e) {
+        // Should not happen
+        } finally {
+          unknownFields = unknownFieldsOutput.toByteString();
+        }
+        makeExtensionsImmutable();
       }
     }
-    public static final com.google.protobuf.Descriptors.Descriptor
-        getDescriptor() {
-      return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemory_descriptor;
-    }
-
-    protected FieldAccessorTable
-        internalGetFieldAccessorTable() {
-      return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemory_fieldAccessorTable
-          .ensureFieldAccessorsInitialized(
-              TeecSharedMemory.class, Builder.class);
-    }
-
     public static com.google.protobuf.Parser<TeecSharedMemory> PARSER =
         new com.google.protobuf.AbstractParser<TeecSharedMemory>() {
       public TeecSharedMemory parsePartialFrom(
@@ -1930,7 +1554,7 @@ public final class GPDataTypes {
       }
     };
 
-    @Override
+    @java.lang.Override
     public com.google.protobuf.Parser<TeecSharedMemory> getParserForType() {
       return PARSER;
     }
@@ -2011,12 +1635,72 @@ public final class GPDataTypes {
       return mID_;
     }
 
+    public static final int MDIRTYONLY_FIELD_NUMBER = 6;
+    private boolean mDirtyOnly_;
+    /**
+     * <code>optional bool mDirtyOnly = 6;</code>
+     *
+     * <pre>
+     * if set, mBuffer is empty and only the ranges modified since the last sync are carried.
+     * </pre>
+     */
+    public boolean hasMDirtyOnly() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <code>optional bool mDirtyOnly = 6;</code>
+     *
+     * <pre>
+     * if set, mBuffer is empty and only the ranges modified since the last sync are carried.
+     * </pre>
+     */
+    public boolean getMDirtyOnly() {
+      return mDirtyOnly_;
+    }
+
+    public static final int MDIRTYRANGES_FIELD_NUMBER = 7;
+    private java.util.List<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange> mDirtyRanges_;
+    /**
+     * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+     */
+    public java.util.List<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange> getMDirtyRangesList() {
+      return mDirtyRanges_;
+    }
+    /**
+     * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+     */
+    public java.util.List<? extends fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRangeOrBuilder> 
+        getMDirtyRangesOrBuilderList() {
+      return mDirtyRanges_;
+    }
+    /**
+     * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+     */
+    public int getMDirtyRangesCount() {
+      return mDirtyRanges_.size();
+    }
+    /**
+     * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+     */
+    public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange getMDirtyRanges(int index) {
+      return mDirtyRanges_.get(index);
+    }
+    /**
+     * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+     */
+    public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRangeOrBuilder getMDirtyRangesOrBuilder(
+        int index) {
+      return mDirtyRanges_.get(index);
+    }
+
     private void initFields() {
       mBuffer_ = com.google.protobuf.ByteString.EMPTY;
       mFlag_ = 0;
       size_ = 0;
       mReturnSize_ = 0;
       mID_ = 0;
+      mDirtyOnly_ = false;
+      mDirtyRanges_ = java.util.Collections.emptyList();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -2036,6 +1720,12 @@ public final class GPDataTypes {
         memoizedIsInitialized = 0;
         return false;
       }
+      for (int i = 0; i < getMDirtyRangesCount(); i++) {
+        if (!getMDirtyRanges(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
       memoizedIsInitialized = 1;
       return true;
     }
@@ -2058,7 +1748,13 @@ public final class GPDataTypes {
       if (((bitField0_ & 0x00000010) == 0x00000010)) {
         output.writeInt32(5, mID_);
       }
-      getUnknownFields().writeTo(output);
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeBool(6, mDirtyOnly_);
+      }
+      for (int i = 0; i < mDirtyRanges_.size(); i++) {
+        output.writeMessage(7, mDirtyRanges_.get(i));
+      }
+      output.writeRawBytes(unknownFields);
     }
 
     private int memoizedSerializedSize = -1;
@@ -2087,65 +1783,73 @@ public final class GPDataTypes {
         size += com.google.protobuf.CodedOutputStream
           .computeInt32Size(5, mID_);
       }
-      size += getUnknownFields().getSerializedSize();
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(6, mDirtyOnly_);
+      }
+      for (int i = 0; i < mDirtyRanges_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(7, mDirtyRanges_.get(i));
+      }
+      size += unknownFields.size();
       memoizedSerializedSize = size;
       return size;
     }
 
     private static final long serialVersionUID = 0L;
-    @Override
-    protected Object writeReplace()
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
         throws java.io.ObjectStreamException {
       return super.writeReplace();
     }
 
-    public static TeecSharedMemory parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static TeecSharedMemory parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static TeecSharedMemory parseFrom(byte[] data)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static TeecSharedMemory parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static TeecSharedMemory parseFrom(java.io.InputStream input)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static TeecSharedMemory parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static TeecSharedMemory parseDelimitedFrom(java.io.InputStream input)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static TeecSharedMemory parseDelimitedFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static TeecSharedMemory parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static TeecSharedMemory parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -2154,49 +1858,26 @@ public final class GPDataTypes {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(TeecSharedMemory prototype) {
+    public static Builder newBuilder(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
 
-    @Override
-    protected Builder newBuilderForType(
-        BuilderParent parent) {
-      Builder builder = new Builder(parent);
-      return builder;
-    }
     /**
      * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory}
      */
     public static final class Builder extends
-        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory, Builder>
+        implements
         // @@protoc_insertion_point(builder_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
-        TeecSharedMemoryOrBuilder {
-      public static final com.google.protobuf.Descriptors.Descriptor
-          getDescriptor() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemory_descriptor;
-      }
-
-      protected FieldAccessorTable
-          internalGetFieldAccessorTable() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemory_fieldAccessorTable
-            .ensureFieldAccessorsInitialized(
-                TeecSharedMemory.class, Builder.class);
-      }
-
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryOrBuilder {
       // Construct using fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
 
-      private Builder(
-          BuilderParent parent) {
-        super(parent);
-        maybeForceBuilderInitialization();
-      }
       private void maybeForceBuilderInitialization() {
-        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
-        }
       }
       private static Builder create() {
         return new Builder();
@@ -2214,6 +1895,10 @@ public final class GPDataTypes {
         bitField0_ = (bitField0_ & ~0x00000008);
         mID_ = 0;
         bitField0_ = (bitField0_ & ~0x00000010);
+        mDirtyOnly_ = false;
+        bitField0_ = (bitField0_ & ~0x00000020);
+        mDirtyRanges_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000040);
         return this;
       }
 
@@ -2221,25 +1906,20 @@ public final class GPDataTypes {
         return create().mergeFrom(buildPartial());
       }
 
-      public com.google.protobuf.Descriptors.Descriptor
-          getDescriptorForType() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemory_descriptor;
-      }
-
-      public TeecSharedMemory getDefaultInstanceForType() {
-        return TeecSharedMemory.getDefaultInstance();
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory getDefaultInstanceForType() {
+        return fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.getDefaultInstance();
       }
 
-      public TeecSharedMemory build() {
-        TeecSharedMemory result = buildPartial();
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory build() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public TeecSharedMemory buildPartial() {
-        TeecSharedMemory result = new TeecSharedMemory(this);
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory buildPartial() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory result = new fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
@@ -2262,22 +1942,21 @@ public final class GPDataTypes {
           to_bitField0_ |= 0x00000010;
         }
         result.mID_ = mID_;
+        if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.mDirtyOnly_ = mDirtyOnly_;
+        if (((bitField0_ & 0x00000040) == 0x00000040)) {
+          mDirtyRanges_ = java.util.Collections.unmodifiableList(mDirtyRanges_);
+          bitField0_ = (bitField0_ & ~0x00000040);
+        }
+        result.mDirtyRanges_ = mDirtyRanges_;
         result.bitField0_ = to_bitField0_;
-        onBuilt();
         return result;
       }
 
-      public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof TeecSharedMemory) {
-          return mergeFrom((TeecSharedMemory)other);
-        } else {
-          super.mergeFrom(other);
-          return this;
-        }
-      }
-
-      public Builder mergeFrom(TeecSharedMemory other) {
-        if (other == TeecSharedMemory.getDefaultInstance()) return this;
+      public Builder mergeFrom(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory other) {
+        if (other == fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.getDefaultInstance()) return this;
         if (other.hasMBuffer()) {
           setMBuffer(other.getMBuffer());
         }
@@ -2293,7 +1972,21 @@ public final class GPDataTypes {
         if (other.hasMID()) {
           setMID(other.getMID());
         }
-        this.mergeUnknownFields(other.getUnknownFields());
+        if (other.hasMDirtyOnly()) {
+          setMDirtyOnly(other.getMDirtyOnly());
+        }
+        if (!other.mDirtyRanges_.isEmpty()) {
+          if (mDirtyRanges_.isEmpty()) {
+            mDirtyRanges_ = other.mDirtyRanges_;
+            bitField0_ = (bitField0_ & ~0x00000040);
+          } else {
+            ensureMDirtyRangesIsMutable();
+            mDirtyRanges_.addAll(other.mDirtyRanges_);
+          }
+          
+        }
+        setUnknownFields(
+            getUnknownFields().concat(other.unknownFields));
         return this;
       }
 
@@ -2310,6 +2003,12 @@ public final class GPDataTypes {
           
           return false;
         }
+        for (int i = 0; i < getMDirtyRangesCount(); i++) {
+          if (!getMDirtyRanges(i).isInitialized()) {
+            
+            return false;
+          }
+        }
         return true;
       }
 
@@ -2317,11 +2016,11 @@ public final class GPDataTypes {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        TeecSharedMemory parsedMessage = null;
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (TeecSharedMemory) e.getUnfinishedMessage();
+          parsedMessage = (fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -2354,7 +2053,7 @@ public final class GPDataTypes {
   }
   bitField0_ |= 0x00000001;
         mBuffer_ = value;
-        onChanged();
+        
         return this;
       }
       /**
@@ -2363,7 +2062,7 @@ public final class GPDataTypes {
       public Builder clearMBuffer() {
         bitField0_ = (bitField0_ & ~0x00000001);
         mBuffer_ = getDefaultInstance().getMBuffer();
-        onChanged();
+        
         return this;
       }
 
@@ -2386,7 +2085,7 @@ public final class GPDataTypes {
       public Builder setMFlag(int value) {
         bitField0_ |= 0x00000002;
         mFlag_ = value;
-        onChanged();
+        
         return this;
       }
       /**
@@ -2395,120 +2094,742 @@ public final class GPDataTypes {
       public Builder clearMFlag() {
         bitField0_ = (bitField0_ & ~0x00000002);
         mFlag_ = 0;
-        onChanged();
+        
+        return this;
+      }
+
+      private int size_ ;
+      /**
+       * <code>required int32 size = 3;</code>
+       */
+      public boolean hasSize() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>required int32 size = 3;</code>
+       */
+      public int getSize() {
+        return size_;
+      }
+      /**
+       * <code>required int32 size = 3;</code>
+       */
+      public Builder setSize(int value) {
+        bitField0_ |= 0x00000004;
+        size_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>required int32 size = 3;</code>
+       */
+      public Builder clearSize() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        size_ = 0;
+        
+        return this;
+      }
+
+      private int mReturnSize_ ;
+      /**
+       * <code>optional int32 mReturnSize = 4;</code>
+       */
+      public boolean hasMReturnSize() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional int32 mReturnSize = 4;</code>
+       */
+      public int getMReturnSize() {
+        return mReturnSize_;
+      }
+      /**
+       * <code>optional int32 mReturnSize = 4;</code>
+       */
+      public Builder setMReturnSize(int value) {
+        bitField0_ |= 0x00000008;
+        mReturnSize_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional int32 mReturnSize = 4;</code>
+       */
+      public Builder clearMReturnSize() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        mReturnSize_ = 0;
+        
+        return this;
+      }
+
+      private int mID_ ;
+      /**
+       * <code>optional int32 mID = 5;</code>
+       */
+      public boolean hasMID() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional int32 mID = 5;</code>
+       */
+      public int getMID() {
+        return mID_;
+      }
+      /**
+       * <code>optional int32 mID = 5;</code>
+       */
+      public Builder setMID(int value) {
+        bitField0_ |= 0x00000010;
+        mID_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional int32 mID = 5;</code>
+       */
+      public Builder clearMID() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        mID_ = 0;
+        
+        return this;
+      }
+
+      private boolean mDirtyOnly_ ;
+      /**
+       * <code>optional bool mDirtyOnly = 6;</code>
+       *
+       * <pre>
+       * if set, mBuffer is empty and only the ranges modified since the last sync are carried.
+       * </pre>
+       */
+      public boolean hasMDirtyOnly() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <code>optional bool mDirtyOnly = 6;</code>
+       *
+       * <pre>
+       * if set, mBuffer is empty and only the ranges modified since the last sync are carried.
+       * </pre>
+       */
+      public boolean getMDirtyOnly() {
+        return mDirtyOnly_;
+      }
+      /**
+       * <code>optional bool mDirtyOnly = 6;</code>
+       *
+       * <pre>
+       * if set, mBuffer is empty and only the ranges modified since the last sync are carried.
+       * </pre>
+       */
+      public Builder setMDirtyOnly(boolean value) {
+        bitField0_ |= 0x00000020;
+        mDirtyOnly_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional bool mDirtyOnly = 6;</code>
+       *
+       * <pre>
+       * if set, mBuffer is empty and only the ranges modified since the last sync are carried.
+       * </pre>
+       */
+      public Builder clearMDirtyOnly() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        mDirtyOnly_ = false;
+        
+        return this;
+      }
+
+      private java.util.List<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange> mDirtyRanges_ =
+        java.util.Collections.emptyList();
+      private void ensureMDirtyRangesIsMutable() {
+        if (!((bitField0_ & 0x00000040) == 0x00000040)) {
+          mDirtyRanges_ = new java.util.ArrayList<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange>(mDirtyRanges_);
+          bitField0_ |= 0x00000040;
+         }
+      }
+
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public java.util.List<fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange> getMDirtyRangesList() {
+        return java.util.Collections.unmodifiableList(mDirtyRanges_);
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public int getMDirtyRangesCount() {
+        return mDirtyRanges_.size();
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange getMDirtyRanges(int index) {
+        return mDirtyRanges_.get(index);
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public Builder setMDirtyRanges(
+          int index, fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureMDirtyRangesIsMutable();
+        mDirtyRanges_.set(index, value);
+
+        return this;
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public Builder setMDirtyRanges(
+          int index, fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange.Builder builderForValue) {
+        ensureMDirtyRangesIsMutable();
+        mDirtyRanges_.set(index, builderForValue.build());
+
+        return this;
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public Builder addMDirtyRanges(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureMDirtyRangesIsMutable();
+        mDirtyRanges_.add(value);
+
+        return this;
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public Builder addMDirtyRanges(
+          int index, fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        ensureMDirtyRangesIsMutable();
+        mDirtyRanges_.add(index, value);
+
+        return this;
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public Builder addMDirtyRanges(
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange.Builder builderForValue) {
+        ensureMDirtyRangesIsMutable();
+        mDirtyRanges_.add(builderForValue.build());
+
+        return this;
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public Builder addMDirtyRanges(
+          int index, fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange.Builder builderForValue) {
+        ensureMDirtyRangesIsMutable();
+        mDirtyRanges_.add(index, builderForValue.build());
+
+        return this;
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public Builder addAllMDirtyRanges(
+          java.lang.Iterable<? extends fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange> values) {
+        ensureMDirtyRangesIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, mDirtyRanges_);
+
+        return this;
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public Builder clearMDirtyRanges() {
+        mDirtyRanges_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000040);
+
+        return this;
+      }
+      /**
+       * <code>repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;</code>
+       */
+      public Builder removeMDirtyRanges(int index) {
+        ensureMDirtyRangesIsMutable();
+        mDirtyRanges_.remove(index);
+
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
+    }
+
+    static {
+      defaultInstance = new TeecSharedMemory(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
+  }
+
+  public interface TeecDirtyRangeOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+      com.google.protobuf.MessageLiteOrBuilder {
+
+    /**
+     * <code>required int32 mOffset = 1;</code>
+     */
+    boolean hasMOffset();
+    /**
+     * <code>required int32 mOffset = 1;</code>
+     */
+    int getMOffset();
+
+    /**
+     * <code>required bytes mData = 2;</code>
+     */
+    boolean hasMData();
+    /**
+     * <code>required bytes mData = 2;</code>
+     */
+    com.google.protobuf.ByteString getMData();
+  }
+  /**
+   * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange}
+   */
+  public static final class TeecDirtyRange extends
+      com.google.protobuf.GeneratedMessageLite implements
+      // @@protoc_insertion_point(message_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+      TeecDirtyRangeOrBuilder {
+    // Use TeecDirtyRange.newBuilder() to construct.
+    private TeecDirtyRange(com.google.protobuf.GeneratedMessageLite.Builder builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private TeecDirtyRange(boolean noInit) { this.unknownFields = com.google.protobuf.ByteString.EMPTY;}
+
+    private static final TeecDirtyRange defaultInstance;
+    public static TeecDirtyRange getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public TeecDirtyRange getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.ByteString unknownFields;
+    private TeecDirtyRange(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.ByteString.Output unknownFieldsOutput =
+          com.google.protobuf.ByteString.newOutput();
+      com.google.protobuf.CodedOutputStream unknownFieldsCodedOutput =
+          com.google.protobuf.CodedOutputStream.newInstance(
+              unknownFieldsOutput);
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFieldsCodedOutput,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              bitField0_ |= 0x00000001;
+              mOffset_ = input.readInt32();
+              break;
+            }
+            case 18: {
+              bitField0_ |= 0x00000002;
+              mData_ = input.readBytes();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        try {
+          unknownFieldsCodedOutput.flush();
+        } catch (java.io.IOException e) {
+        // Should not happen
+        } finally {
+          unknownFields = unknownFieldsOutput.toByteString();
+        }
+        makeExtensionsImmutable();
+      }
+    }
+    public static com.google.protobuf.Parser<TeecDirtyRange> PARSER =
+        new com.google.protobuf.AbstractParser<TeecDirtyRange>() {
+      public TeecDirtyRange parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new TeecDirtyRange(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<TeecDirtyRange> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    public static final int MOFFSET_FIELD_NUMBER = 1;
+    private int mOffset_;
+    /**
+     * <code>required int32 mOffset = 1;</code>
+     */
+    public boolean hasMOffset() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required int32 mOffset = 1;</code>
+     */
+    public int getMOffset() {
+      return mOffset_;
+    }
+
+    public static final int MDATA_FIELD_NUMBER = 2;
+    private com.google.protobuf.ByteString mData_;
+    /**
+     * <code>required bytes mData = 2;</code>
+     */
+    public boolean hasMData() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required bytes mData = 2;</code>
+     */
+    public com.google.protobuf.ByteString getMData() {
+      return mData_;
+    }
+
+    private void initFields() {
+      mOffset_ = 0;
+      mData_ = com.google.protobuf.ByteString.EMPTY;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasMOffset()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasMData()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeInt32(1, mOffset_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, mData_);
+      }
+      output.writeRawBytes(unknownFields);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(1, mOffset_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(2, mData_);
+      }
+      size += unknownFields.size();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    /**
+     * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange, Builder>
+        implements
+        // @@protoc_insertion_point(builder_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRangeOrBuilder {
+      // Construct using fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private void maybeForceBuilderInitialization() {
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        mOffset_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        mData_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange getDefaultInstanceForType() {
+        return fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange.getDefaultInstance();
+      }
+
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange build() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange buildPartial() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange result = new fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.mOffset_ = mOffset_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.mData_ = mData_;
+        result.bitField0_ = to_bitField0_;
+        return result;
+      }
+
+      public Builder mergeFrom(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange other) {
+        if (other == fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange.getDefaultInstance()) return this;
+        if (other.hasMOffset()) {
+          setMOffset(other.getMOffset());
+        }
+        if (other.hasMData()) {
+          setMData(other.getMData());
+        }
+        setUnknownFields(
+            getUnknownFields().concat(other.unknownFields));
         return this;
       }
 
-      private int size_ ;
-      /**
-       * <code>required int32 size = 3;</code>
-       */
-      public boolean hasSize() {
-        return ((bitField0_ & 0x00000004) == 0x00000004);
-      }
-      /**
-       * <code>required int32 size = 3;</code>
-       */
-      public int getSize() {
-        return size_;
-      }
-      /**
-       * <code>required int32 size = 3;</code>
-       */
-      public Builder setSize(int value) {
-        bitField0_ |= 0x00000004;
-        size_ = value;
-        onChanged();
-        return this;
+      public final boolean isInitialized() {
+        if (!hasMOffset()) {
+          
+          return false;
+        }
+        if (!hasMData()) {
+          
+          return false;
+        }
+        return true;
       }
-      /**
-       * <code>required int32 size = 3;</code>
-       */
-      public Builder clearSize() {
-        bitField0_ = (bitField0_ & ~0x00000004);
-        size_ = 0;
-        onChanged();
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecDirtyRange) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
         return this;
       }
+      private int bitField0_;
 
-      private int mReturnSize_ ;
+      private int mOffset_ ;
       /**
-       * <code>optional int32 mReturnSize = 4;</code>
+       * <code>required int32 mOffset = 1;</code>
        */
-      public boolean hasMReturnSize() {
-        return ((bitField0_ & 0x00000008) == 0x00000008);
+      public boolean hasMOffset() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
       }
       /**
-       * <code>optional int32 mReturnSize = 4;</code>
+       * <code>required int32 mOffset = 1;</code>
        */
-      public int getMReturnSize() {
-        return mReturnSize_;
+      public int getMOffset() {
+        return mOffset_;
       }
       /**
-       * <code>optional int32 mReturnSize = 4;</code>
+       * <code>required int32 mOffset = 1;</code>
        */
-      public Builder setMReturnSize(int value) {
-        bitField0_ |= 0x00000008;
-        mReturnSize_ = value;
-        onChanged();
+      public Builder setMOffset(int value) {
+        bitField0_ |= 0x00000001;
+        mOffset_ = value;
+        
         return this;
       }
       /**
-       * <code>optional int32 mReturnSize = 4;</code>
+       * <code>required int32 mOffset = 1;</code>
        */
-      public Builder clearMReturnSize() {
-        bitField0_ = (bitField0_ & ~0x00000008);
-        mReturnSize_ = 0;
-        onChanged();
+      public Builder clearMOffset() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        mOffset_ = 0;
+        
         return this;
       }
 
-      private int mID_ ;
+      private com.google.protobuf.ByteString mData_ = com.google.protobuf.ByteString.EMPTY;
       /**
-       * <code>optional int32 mID = 5;</code>
+       * <code>required bytes mData = 2;</code>
        */
-      public boolean hasMID() {
-        return ((bitField0_ & 0x00000010) == 0x00000010);
+      public boolean hasMData() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
       }
       /**
-       * <code>optional int32 mID = 5;</code>
+       * <code>required bytes mData = 2;</code>
        */
-      public int getMID() {
-        return mID_;
+      public com.google.protobuf.ByteString getMData() {
+        return mData_;
       }
       /**
-       * <code>optional int32 mID = 5;</code>
+       * <code>required bytes mData = 2;</code>
        */
-      public Builder setMID(int value) {
-        bitField0_ |= 0x00000010;
-        mID_ = value;
-        onChanged();
+      public Builder setMData(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        mData_ = value;
+        
         return this;
       }
       /**
-       * <code>optional int32 mID = 5;</code>
+       * <code>required bytes mData = 2;</code>
        */
-      public Builder clearMID() {
-        bitField0_ = (bitField0_ & ~0x00000010);
-        mID_ = 0;
-        onChanged();
+      public Builder clearMData() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        mData_ = getDefaultInstance().getMData();
+        
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
+      // @@protoc_insertion_point(builder_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
     }
 
     static {
-      defaultInstance = new TeecSharedMemory(true);
+      defaultInstance = new TeecDirtyRange(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
+    // @@protoc_insertion_point(class_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
   }
 
   public interface TeecSharedMemoryReferenceOrBuilder extends
       // @@protoc_insertion_point(interface_extends:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
-      com.google.protobuf.MessageOrBuilder {
+      com.google.protobuf.MessageLiteOrBuilder {
 
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
@@ -2517,11 +2838,7 @@ public final class GPDataTypes {
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
      */
-    TeecSharedMemory getParent();
-    /**
-     * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
-     */
-    TeecSharedMemoryOrBuilder getParentOrBuilder();
+    fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory getParent();
 
     /**
      * <code>required int32 mOffset = 2;</code>
@@ -2539,21 +2856,30 @@ public final class GPDataTypes {
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.Flag mFlag = 3;</code>
      */
-    TeecSharedMemoryReference.Flag getMFlag();
+    fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag getMFlag();
+
+    /**
+     * <code>optional int32 mSize = 4;</code>
+     */
+    boolean hasMSize();
+    /**
+     * <code>optional int32 mSize = 4;</code>
+     */
+    int getMSize();
   }
   /**
    * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference}
    */
   public static final class TeecSharedMemoryReference extends
-      com.google.protobuf.GeneratedMessage implements
+      com.google.protobuf.GeneratedMessageLite implements
       // @@protoc_insertion_point(message_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
       TeecSharedMemoryReferenceOrBuilder {
     // Use TeecSharedMemoryReference.newBuilder() to construct.
-    private TeecSharedMemoryReference(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+    private TeecSharedMemoryReference(com.google.protobuf.GeneratedMessageLite.Builder builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private TeecSharedMemoryReference(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private TeecSharedMemoryReference(boolean noInit) { this.unknownFields = com.google.protobuf.ByteString.EMPTY;}
 
     private static final TeecSharedMemoryReference defaultInstance;
     public static TeecSharedMemoryReference getDefaultInstance() {
@@ -2564,20 +2890,18 @@ public final class GPDataTypes {
       return defaultInstance;
     }
 
-    private final com.google.protobuf.UnknownFieldSet unknownFields;
-    @Override
-    public final com.google.protobuf.UnknownFieldSet
-        getUnknownFields() {
-      return this.unknownFields;
-    }
+    private final com.google.protobuf.ByteString unknownFields;
     private TeecSharedMemoryReference(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       initFields();
       int mutable_bitField0_ = 0;
-      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
-          com.google.protobuf.UnknownFieldSet.newBuilder();
+      com.google.protobuf.ByteString.Output unknownFieldsOutput =
+          com.google.protobuf.ByteString.newOutput();
+      com.google.protobuf.CodedOutputStream unknownFieldsCodedOutput =
+          com.google.protobuf.CodedOutputStream.newInstance(
+              unknownFieldsOutput);
       try {
         boolean done = false;
         while (!done) {
@@ -2587,18 +2911,18 @@ public final class GPDataTypes {
               done = true;
               break;
             default: {
-              if (!parseUnknownField(input, unknownFields,
+              if (!parseUnknownField(input, unknownFieldsCodedOutput,
                                      extensionRegistry, tag)) {
                 done = true;
               }
               break;
             }
             case 10: {
-              TeecSharedMemory.Builder subBuilder = null;
+              fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.Builder subBuilder = null;
               if (((bitField0_ & 0x00000001) == 0x00000001)) {
                 subBuilder = parent_.toBuilder();
               }
-              parent_ = input.readMessage(TeecSharedMemory.PARSER, extensionRegistry);
+              parent_ = input.readMessage(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.PARSER, extensionRegistry);
               if (subBuilder != null) {
                 subBuilder.mergeFrom(parent_);
                 parent_ = subBuilder.buildPartial();
@@ -2613,15 +2937,21 @@ public final class GPDataTypes {
             }
             case 24: {
               int rawValue = input.readEnum();
-              Flag value = Flag.valueOf(rawValue);
+              fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag value = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag.valueOf(rawValue);
               if (value == null) {
-                unknownFields.mergeVarintField(3, rawValue);
+                unknownFieldsCodedOutput.writeRawVarint32(tag);
+                unknownFieldsCodedOutput.writeRawVarint32(rawValue);
               } else {
                 bitField0_ |= 0x00000004;
                 mFlag_ = value;
               }
               break;
             }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              mSize_ = input.readInt32();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -2630,22 +2960,16 @@ public final class GPDataTypes {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
-        this.unknownFields = unknownFields.build();
+        try {
+          unknownFieldsCodedOutput.flush();
+        } catch (java.io.IOException e) {
+        // Should not happen
+        } finally {
+          unknownFields = unknownFieldsOutput.toByteString();
+        }
         makeExtensionsImmutable();
       }
     }
-    public static final com.google.protobuf.Descriptors.Descriptor
-        getDescriptor() {
-      return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemoryReference_descriptor;
-    }
-
-    protected FieldAccessorTable
-        internalGetFieldAccessorTable() {
-      return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemoryReference_fieldAccessorTable
-          .ensureFieldAccessorsInitialized(
-              TeecSharedMemoryReference.class, Builder.class);
-    }
-
     public static com.google.protobuf.Parser<TeecSharedMemoryReference> PARSER =
         new com.google.protobuf.AbstractParser<TeecSharedMemoryReference>() {
       public TeecSharedMemoryReference parsePartialFrom(
@@ -2656,7 +2980,7 @@ public final class GPDataTypes {
       }
     };
 
-    @Override
+    @java.lang.Override
     public com.google.protobuf.Parser<TeecSharedMemoryReference> getParserForType() {
       return PARSER;
     }
@@ -2665,7 +2989,7 @@ public final class GPDataTypes {
      * Protobuf enum {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.Flag}
      */
     public enum Flag
-        implements com.google.protobuf.ProtocolMessageEnum {
+        implements com.google.protobuf.Internal.EnumLite {
       /**
        * <code>TEEC_MEMREF_INPUT = 13;</code>
        */
@@ -2717,35 +3041,9 @@ public final class GPDataTypes {
               }
             };
 
-      public final com.google.protobuf.Descriptors.EnumValueDescriptor
-          getValueDescriptor() {
-        return getDescriptor().getValues().get(index);
-      }
-      public final com.google.protobuf.Descriptors.EnumDescriptor
-          getDescriptorForType() {
-        return getDescriptor();
-      }
-      public static final com.google.protobuf.Descriptors.EnumDescriptor
-          getDescriptor() {
-        return TeecSharedMemoryReference.getDescriptor().getEnumTypes().get(0);
-      }
-
-      private static final Flag[] VALUES = values();
-
-      public static Flag valueOf(
-          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
-        if (desc.getType() != getDescriptor()) {
-          throw new IllegalArgumentException(
-            "EnumValueDescriptor is not for this type.");
-        }
-        return VALUES[desc.getIndex()];
-      }
-
-      private final int index;
       private final int value;
 
       private Flag(int index, int value) {
-        this.index = index;
         this.value = value;
       }
 
@@ -2754,7 +3052,7 @@ public final class GPDataTypes {
 
     private int bitField0_;
     public static final int PARENT_FIELD_NUMBER = 1;
-    private TeecSharedMemory parent_;
+    private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parent_;
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
      */
@@ -2764,13 +3062,7 @@ public final class GPDataTypes {
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
      */
-    public TeecSharedMemory getParent() {
-      return parent_;
-    }
-    /**
-     * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
-     */
-    public TeecSharedMemoryOrBuilder getParentOrBuilder() {
+    public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory getParent() {
       return parent_;
     }
 
@@ -2790,7 +3082,7 @@ public final class GPDataTypes {
     }
 
     public static final int MFLAG_FIELD_NUMBER = 3;
-    private Flag mFlag_;
+    private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag mFlag_;
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.Flag mFlag = 3;</code>
      */
@@ -2800,14 +3092,30 @@ public final class GPDataTypes {
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.Flag mFlag = 3;</code>
      */
-    public Flag getMFlag() {
+    public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag getMFlag() {
       return mFlag_;
     }
 
+    public static final int MSIZE_FIELD_NUMBER = 4;
+    private int mSize_;
+    /**
+     * <code>optional int32 mSize = 4;</code>
+     */
+    public boolean hasMSize() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional int32 mSize = 4;</code>
+     */
+    public int getMSize() {
+      return mSize_;
+    }
+
     private void initFields() {
-      parent_ = TeecSharedMemory.getDefaultInstance();
+      parent_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.getDefaultInstance();
       mOffset_ = 0;
-      mFlag_ = Flag.TEEC_MEMREF_INPUT;
+      mFlag_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag.TEEC_MEMREF_INPUT;
+      mSize_ = 0;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -2847,7 +3155,10 @@ public final class GPDataTypes {
       if (((bitField0_ & 0x00000004) == 0x00000004)) {
         output.writeEnum(3, mFlag_.getNumber());
       }
-      getUnknownFields().writeTo(output);
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeInt32(4, mSize_);
+      }
+      output.writeRawBytes(unknownFields);
     }
 
     private int memoizedSerializedSize = -1;
@@ -2868,65 +3179,69 @@ public final class GPDataTypes {
         size += com.google.protobuf.CodedOutputStream
           .computeEnumSize(3, mFlag_.getNumber());
       }
-      size += getUnknownFields().getSerializedSize();
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(4, mSize_);
+      }
+      size += unknownFields.size();
       memoizedSerializedSize = size;
       return size;
     }
 
     private static final long serialVersionUID = 0L;
-    @Override
-    protected Object writeReplace()
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
         throws java.io.ObjectStreamException {
       return super.writeReplace();
     }
 
-    public static TeecSharedMemoryReference parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static TeecSharedMemoryReference parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static TeecSharedMemoryReference parseFrom(byte[] data)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static TeecSharedMemoryReference parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static TeecSharedMemoryReference parseFrom(java.io.InputStream input)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static TeecSharedMemoryReference parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static TeecSharedMemoryReference parseDelimitedFrom(java.io.InputStream input)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static TeecSharedMemoryReference parseDelimitedFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static TeecSharedMemoryReference parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static TeecSharedMemoryReference parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -2935,50 +3250,26 @@ public final class GPDataTypes {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(TeecSharedMemoryReference prototype) {
+    public static Builder newBuilder(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
 
-    @Override
-    protected Builder newBuilderForType(
-        BuilderParent parent) {
-      Builder builder = new Builder(parent);
-      return builder;
-    }
     /**
      * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference}
      */
     public static final class Builder extends
-        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference, Builder>
+        implements
         // @@protoc_insertion_point(builder_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
-        TeecSharedMemoryReferenceOrBuilder {
-      public static final com.google.protobuf.Descriptors.Descriptor
-          getDescriptor() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemoryReference_descriptor;
-      }
-
-      protected FieldAccessorTable
-          internalGetFieldAccessorTable() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemoryReference_fieldAccessorTable
-            .ensureFieldAccessorsInitialized(
-                TeecSharedMemoryReference.class, Builder.class);
-      }
-
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReferenceOrBuilder {
       // Construct using fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
 
-      private Builder(
-          BuilderParent parent) {
-        super(parent);
-        maybeForceBuilderInitialization();
-      }
       private void maybeForceBuilderInitialization() {
-        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
-          getParentFieldBuilder();
-        }
       }
       private static Builder create() {
         return new Builder();
@@ -2986,16 +3277,14 @@ public final class GPDataTypes {
 
       public Builder clear() {
         super.clear();
-        if (parentBuilder_ == null) {
-          parent_ = TeecSharedMemory.getDefaultInstance();
-        } else {
-          parentBuilder_.clear();
-        }
+        parent_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.getDefaultInstance();
         bitField0_ = (bitField0_ & ~0x00000001);
         mOffset_ = 0;
         bitField0_ = (bitField0_ & ~0x00000002);
-        mFlag_ = Flag.TEEC_MEMREF_INPUT;
+        mFlag_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag.TEEC_MEMREF_INPUT;
         bitField0_ = (bitField0_ & ~0x00000004);
+        mSize_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
 
@@ -3003,35 +3292,26 @@ public final class GPDataTypes {
         return create().mergeFrom(buildPartial());
       }
 
-      public com.google.protobuf.Descriptors.Descriptor
-          getDescriptorForType() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemoryReference_descriptor;
-      }
-
-      public TeecSharedMemoryReference getDefaultInstanceForType() {
-        return TeecSharedMemoryReference.getDefaultInstance();
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference getDefaultInstanceForType() {
+        return fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.getDefaultInstance();
       }
 
-      public TeecSharedMemoryReference build() {
-        TeecSharedMemoryReference result = buildPartial();
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference build() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public TeecSharedMemoryReference buildPartial() {
-        TeecSharedMemoryReference result = new TeecSharedMemoryReference(this);
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference buildPartial() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference result = new fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
           to_bitField0_ |= 0x00000001;
         }
-        if (parentBuilder_ == null) {
-          result.parent_ = parent_;
-        } else {
-          result.parent_ = parentBuilder_.build();
-        }
+        result.parent_ = parent_;
         if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
           to_bitField0_ |= 0x00000002;
         }
@@ -3040,22 +3320,16 @@ public final class GPDataTypes {
           to_bitField0_ |= 0x00000004;
         }
         result.mFlag_ = mFlag_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.mSize_ = mSize_;
         result.bitField0_ = to_bitField0_;
-        onBuilt();
         return result;
       }
 
-      public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof TeecSharedMemoryReference) {
-          return mergeFrom((TeecSharedMemoryReference)other);
-        } else {
-          super.mergeFrom(other);
-          return this;
-        }
-      }
-
-      public Builder mergeFrom(TeecSharedMemoryReference other) {
-        if (other == TeecSharedMemoryReference.getDefaultInstance()) return this;
+      public Builder mergeFrom(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference other) {
+        if (other == fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.getDefaultInstance()) return this;
         if (other.hasParent()) {
           mergeParent(other.getParent());
         }
@@ -3065,7 +3339,11 @@ public final class GPDataTypes {
         if (other.hasMFlag()) {
           setMFlag(other.getMFlag());
         }
-        this.mergeUnknownFields(other.getUnknownFields());
+        if (other.hasMSize()) {
+          setMSize(other.getMSize());
+        }
+        setUnknownFields(
+            getUnknownFields().concat(other.unknownFields));
         return this;
       }
 
@@ -3093,11 +3371,11 @@ public final class GPDataTypes {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        TeecSharedMemoryReference parsedMessage = null;
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (TeecSharedMemoryReference) e.getUnfinishedMessage();
+          parsedMessage = (fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -3108,9 +3386,7 @@ public final class GPDataTypes {
       }
       private int bitField0_;
 
-      private TeecSharedMemory parent_ = TeecSharedMemory.getDefaultInstance();
-      private com.google.protobuf.SingleFieldBuilder<
-          TeecSharedMemory, TeecSharedMemory.Builder, TeecSharedMemoryOrBuilder> parentBuilder_;
+      private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory parent_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.getDefaultInstance();
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
        */
@@ -3120,26 +3396,18 @@ public final class GPDataTypes {
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
        */
-      public TeecSharedMemory getParent() {
-        if (parentBuilder_ == null) {
-          return parent_;
-        } else {
-          return parentBuilder_.getMessage();
-        }
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory getParent() {
+        return parent_;
       }
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
        */
-      public Builder setParent(TeecSharedMemory value) {
-        if (parentBuilder_ == null) {
-          if (value == null) {
-            throw new NullPointerException();
-          }
-          parent_ = value;
-          onChanged();
-        } else {
-          parentBuilder_.setMessage(value);
+      public Builder setParent(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory value) {
+        if (value == null) {
+          throw new NullPointerException();
         }
+        parent_ = value;
+
         bitField0_ |= 0x00000001;
         return this;
       }
@@ -3147,32 +3415,24 @@ public final class GPDataTypes {
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
        */
       public Builder setParent(
-          TeecSharedMemory.Builder builderForValue) {
-        if (parentBuilder_ == null) {
-          parent_ = builderForValue.build();
-          onChanged();
-        } else {
-          parentBuilder_.setMessage(builderForValue.build());
-        }
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.Builder builderForValue) {
+        parent_ = builderForValue.build();
+
         bitField0_ |= 0x00000001;
         return this;
       }
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
        */
-      public Builder mergeParent(TeecSharedMemory value) {
-        if (parentBuilder_ == null) {
-          if (((bitField0_ & 0x00000001) == 0x00000001) &&
-              parent_ != TeecSharedMemory.getDefaultInstance()) {
-            parent_ =
-              TeecSharedMemory.newBuilder(parent_).mergeFrom(value).buildPartial();
-          } else {
-            parent_ = value;
-          }
-          onChanged();
+      public Builder mergeParent(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory value) {
+        if (((bitField0_ & 0x00000001) == 0x00000001) &&
+            parent_ != fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.getDefaultInstance()) {
+          parent_ =
+            fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.newBuilder(parent_).mergeFrom(value).buildPartial();
         } else {
-          parentBuilder_.mergeFrom(value);
+          parent_ = value;
         }
+
         bitField0_ |= 0x00000001;
         return this;
       }
@@ -3180,49 +3440,11 @@ public final class GPDataTypes {
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
        */
       public Builder clearParent() {
-        if (parentBuilder_ == null) {
-          parent_ = TeecSharedMemory.getDefaultInstance();
-          onChanged();
-        } else {
-          parentBuilder_.clear();
-        }
+        parent_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemory.getDefaultInstance();
+
         bitField0_ = (bitField0_ & ~0x00000001);
         return this;
       }
-      /**
-       * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
-       */
-      public TeecSharedMemory.Builder getParentBuilder() {
-        bitField0_ |= 0x00000001;
-        onChanged();
-        return getParentFieldBuilder().getBuilder();
-      }
-      /**
-       * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
-       */
-      public TeecSharedMemoryOrBuilder getParentOrBuilder() {
-        if (parentBuilder_ != null) {
-          return parentBuilder_.getMessageOrBuilder();
-        } else {
-          return parent_;
-        }
-      }
-      /**
-       * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;</code>
-       */
-      private com.google.protobuf.SingleFieldBuilder<
-          TeecSharedMemory, TeecSharedMemory.Builder, TeecSharedMemoryOrBuilder>
-          getParentFieldBuilder() {
-        if (parentBuilder_ == null) {
-          parentBuilder_ = new com.google.protobuf.SingleFieldBuilder<
-              TeecSharedMemory, TeecSharedMemory.Builder, TeecSharedMemoryOrBuilder>(
-                  getParent(),
-                  getParentForChildren(),
-                  isClean());
-          parent_ = null;
-        }
-        return parentBuilder_;
-      }
 
       private int mOffset_ ;
       /**
@@ -3243,7 +3465,7 @@ public final class GPDataTypes {
       public Builder setMOffset(int value) {
         bitField0_ |= 0x00000002;
         mOffset_ = value;
-        onChanged();
+        
         return this;
       }
       /**
@@ -3252,11 +3474,11 @@ public final class GPDataTypes {
       public Builder clearMOffset() {
         bitField0_ = (bitField0_ & ~0x00000002);
         mOffset_ = 0;
-        onChanged();
+        
         return this;
       }
 
-      private Flag mFlag_ = Flag.TEEC_MEMREF_INPUT;
+      private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag mFlag_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag.TEEC_MEMREF_INPUT;
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.Flag mFlag = 3;</code>
        */
@@ -3266,19 +3488,19 @@ public final class GPDataTypes {
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.Flag mFlag = 3;</code>
        */
-      public Flag getMFlag() {
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag getMFlag() {
         return mFlag_;
       }
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.Flag mFlag = 3;</code>
        */
-      public Builder setMFlag(Flag value) {
+      public Builder setMFlag(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag value) {
         if (value == null) {
           throw new NullPointerException();
         }
         bitField0_ |= 0x00000004;
         mFlag_ = value;
-        onChanged();
+        
         return this;
       }
       /**
@@ -3286,8 +3508,40 @@ public final class GPDataTypes {
        */
       public Builder clearMFlag() {
         bitField0_ = (bitField0_ & ~0x00000004);
-        mFlag_ = Flag.TEEC_MEMREF_INPUT;
-        onChanged();
+        mFlag_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecSharedMemoryReference.Flag.TEEC_MEMREF_INPUT;
+        
+        return this;
+      }
+
+      private int mSize_ ;
+      /**
+       * <code>optional int32 mSize = 4;</code>
+       */
+      public boolean hasMSize() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional int32 mSize = 4;</code>
+       */
+      public int getMSize() {
+        return mSize_;
+      }
+      /**
+       * <code>optional int32 mSize = 4;</code>
+       */
+      public Builder setMSize(int value) {
+        bitField0_ |= 0x00000008;
+        mSize_ = value;
+        
+        return this;
+      }
+      /**
+       * <code>optional int32 mSize = 4;</code>
+       */
+      public Builder clearMSize() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        mSize_ = 0;
+        
         return this;
       }
 
@@ -3304,7 +3558,7 @@ public final class GPDataTypes {
 
   public interface TeecValueOrBuilder extends
       // @@protoc_insertion_point(interface_extends:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue)
-      com.google.protobuf.MessageOrBuilder {
+      com.google.protobuf.MessageLiteOrBuilder {
 
     /**
      * <code>required int32 a = 1;</code>
@@ -3331,21 +3585,21 @@ public final class GPDataTypes {
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue.Flag mFlag = 3;</code>
      */
-    TeecValue.Flag getMFlag();
+    fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag getMFlag();
   }
   /**
    * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue}
    */
   public static final class TeecValue extends
-      com.google.protobuf.GeneratedMessage implements
+      com.google.protobuf.GeneratedMessageLite implements
       // @@protoc_insertion_point(message_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue)
       TeecValueOrBuilder {
     // Use TeecValue.newBuilder() to construct.
-    private TeecValue(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+    private TeecValue(com.google.protobuf.GeneratedMessageLite.Builder builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private TeecValue(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private TeecValue(boolean noInit) { this.unknownFields = com.google.protobuf.ByteString.EMPTY;}
 
     private static final TeecValue defaultInstance;
     public static TeecValue getDefaultInstance() {
@@ -3356,20 +3610,18 @@ public final class GPDataTypes {
       return defaultInstance;
     }
 
-    private final com.google.protobuf.UnknownFieldSet unknownFields;
-    @Override
-    public final com.google.protobuf.UnknownFieldSet
-        getUnknownFields() {
-      return this.unknownFields;
-    }
+    private final com.google.protobuf.ByteString unknownFields;
     private TeecValue(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       initFields();
       int mutable_bitField0_ = 0;
-      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
-          com.google.protobuf.UnknownFieldSet.newBuilder();
+      com.google.protobuf.ByteString.Output unknownFieldsOutput =
+          com.google.protobuf.ByteString.newOutput();
+      com.google.protobuf.CodedOutputStream unknownFieldsCodedOutput =
+          com.google.protobuf.CodedOutputStream.newInstance(
+              unknownFieldsOutput);
       try {
         boolean done = false;
         while (!done) {
@@ -3379,7 +3631,7 @@ public final class GPDataTypes {
               done = true;
               break;
             default: {
-              if (!parseUnknownField(input, unknownFields,
+              if (!parseUnknownField(input, unknownFieldsCodedOutput,
                                      extensionRegistry, tag)) {
                 done = true;
               }
@@ -3397,9 +3649,10 @@ public final class GPDataTypes {
             }
             case 24: {
               int rawValue = input.readEnum();
-              Flag value = Flag.valueOf(rawValue);
+              fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag value = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag.valueOf(rawValue);
               if (value == null) {
-                unknownFields.mergeVarintField(3, rawValue);
+                unknownFieldsCodedOutput.writeRawVarint32(tag);
+                unknownFieldsCodedOutput.writeRawVarint32(rawValue);
               } else {
                 bitField0_ |= 0x00000004;
                 mFlag_ = value;
@@ -3414,22 +3667,16 @@ public final class GPDataTypes {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
-        this.unknownFields = unknownFields.build();
+        try {
+          unknownFieldsCodedOutput.flush();
+        } catch (java.io.IOException e) {
+        // Should not happen
+        } finally {
+          unknownFields = unknownFieldsOutput.toByteString();
+        }
         makeExtensionsImmutable();
       }
     }
-    public static final com.google.protobuf.Descriptors.Descriptor
-        getDescriptor() {
-      return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecValue_descriptor;
-    }
-
-    protected FieldAccessorTable
-        internalGetFieldAccessorTable() {
-      return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecValue_fieldAccessorTable
-          .ensureFieldAccessorsInitialized(
-              TeecValue.class, Builder.class);
-    }
-
     public static com.google.protobuf.Parser<TeecValue> PARSER =
         new com.google.protobuf.AbstractParser<TeecValue>() {
       public TeecValue parsePartialFrom(
@@ -3440,7 +3687,7 @@ public final class GPDataTypes {
       }
     };
 
-    @Override
+    @java.lang.Override
     public com.google.protobuf.Parser<TeecValue> getParserForType() {
       return PARSER;
     }
@@ -3449,7 +3696,7 @@ public final class GPDataTypes {
      * Protobuf enum {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue.Flag}
      */
     public enum Flag
-        implements com.google.protobuf.ProtocolMessageEnum {
+        implements com.google.protobuf.Internal.EnumLite {
       /**
        * <code>TEEC_VALUE_INPUT = 1;</code>
        */
@@ -3501,35 +3748,9 @@ public final class GPDataTypes {
               }
             };
 
-      public final com.google.protobuf.Descriptors.EnumValueDescriptor
-          getValueDescriptor() {
-        return getDescriptor().getValues().get(index);
-      }
-      public final com.google.protobuf.Descriptors.EnumDescriptor
-          getDescriptorForType() {
-        return getDescriptor();
-      }
-      public static final com.google.protobuf.Descriptors.EnumDescriptor
-          getDescriptor() {
-        return TeecValue.getDescriptor().getEnumTypes().get(0);
-      }
-
-      private static final Flag[] VALUES = values();
-
-      public static Flag valueOf(
-          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
-        if (desc.getType() != getDescriptor()) {
-          throw new IllegalArgumentException(
-            "EnumValueDescriptor is not for this type.");
-        }
-        return VALUES[desc.getIndex()];
-      }
-
-      private final int index;
       private final int value;
 
       private Flag(int index, int value) {
-        this.index = index;
         this.value = value;
       }
 
@@ -3568,7 +3789,7 @@ public final class GPDataTypes {
     }
 
     public static final int MFLAG_FIELD_NUMBER = 3;
-    private Flag mFlag_;
+    private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag mFlag_;
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue.Flag mFlag = 3;</code>
      */
@@ -3578,14 +3799,14 @@ public final class GPDataTypes {
     /**
      * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue.Flag mFlag = 3;</code>
      */
-    public Flag getMFlag() {
+    public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag getMFlag() {
       return mFlag_;
     }
 
     private void initFields() {
       a_ = 0;
       b_ = 0;
-      mFlag_ = Flag.TEEC_VALUE_INPUT;
+      mFlag_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag.TEEC_VALUE_INPUT;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -3621,7 +3842,7 @@ public final class GPDataTypes {
       if (((bitField0_ & 0x00000004) == 0x00000004)) {
         output.writeEnum(3, mFlag_.getNumber());
       }
-      getUnknownFields().writeTo(output);
+      output.writeRawBytes(unknownFields);
     }
 
     private int memoizedSerializedSize = -1;
@@ -3642,65 +3863,65 @@ public final class GPDataTypes {
         size += com.google.protobuf.CodedOutputStream
           .computeEnumSize(3, mFlag_.getNumber());
       }
-      size += getUnknownFields().getSerializedSize();
+      size += unknownFields.size();
       memoizedSerializedSize = size;
       return size;
     }
 
     private static final long serialVersionUID = 0L;
-    @Override
-    protected Object writeReplace()
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
         throws java.io.ObjectStreamException {
       return super.writeReplace();
     }
 
-    public static TeecValue parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static TeecValue parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static TeecValue parseFrom(byte[] data)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static TeecValue parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static TeecValue parseFrom(java.io.InputStream input)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static TeecValue parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static TeecValue parseDelimitedFrom(java.io.InputStream input)
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static TeecValue parseDelimitedFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static TeecValue parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static TeecValue parseFrom(
+    public static fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -3709,49 +3930,26 @@ public final class GPDataTypes {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(TeecValue prototype) {
+    public static Builder newBuilder(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
 
-    @Override
-    protected Builder newBuilderForType(
-        BuilderParent parent) {
-      Builder builder = new Builder(parent);
-      return builder;
-    }
     /**
      * Protobuf type {@code fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue}
      */
     public static final class Builder extends
-        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        com.google.protobuf.GeneratedMessageLite.Builder<
+          fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue, Builder>
+        implements
         // @@protoc_insertion_point(builder_implements:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue)
-        TeecValueOrBuilder {
-      public static final com.google.protobuf.Descriptors.Descriptor
-          getDescriptor() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecValue_descriptor;
-      }
-
-      protected FieldAccessorTable
-          internalGetFieldAccessorTable() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecValue_fieldAccessorTable
-            .ensureFieldAccessorsInitialized(
-                TeecValue.class, Builder.class);
-      }
-
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValueOrBuilder {
       // Construct using fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
 
-      private Builder(
-          BuilderParent parent) {
-        super(parent);
-        maybeForceBuilderInitialization();
-      }
       private void maybeForceBuilderInitialization() {
-        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
-        }
       }
       private static Builder create() {
         return new Builder();
@@ -3763,7 +3961,7 @@ public final class GPDataTypes {
         bitField0_ = (bitField0_ & ~0x00000001);
         b_ = 0;
         bitField0_ = (bitField0_ & ~0x00000002);
-        mFlag_ = Flag.TEEC_VALUE_INPUT;
+        mFlag_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag.TEEC_VALUE_INPUT;
         bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
@@ -3772,25 +3970,20 @@ public final class GPDataTypes {
         return create().mergeFrom(buildPartial());
       }
 
-      public com.google.protobuf.Descriptors.Descriptor
-          getDescriptorForType() {
-        return GPDataTypes.internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecValue_descriptor;
-      }
-
-      public TeecValue getDefaultInstanceForType() {
-        return TeecValue.getDefaultInstance();
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue getDefaultInstanceForType() {
+        return fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.getDefaultInstance();
       }
 
-      public TeecValue build() {
-        TeecValue result = buildPartial();
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue build() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public TeecValue buildPartial() {
-        TeecValue result = new TeecValue(this);
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue buildPartial() {
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue result = new fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
@@ -3806,21 +3999,11 @@ public final class GPDataTypes {
         }
         result.mFlag_ = mFlag_;
         result.bitField0_ = to_bitField0_;
-        onBuilt();
         return result;
       }
 
-      public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof TeecValue) {
-          return mergeFrom((TeecValue)other);
-        } else {
-          super.mergeFrom(other);
-          return this;
-        }
-      }
-
-      public Builder mergeFrom(TeecValue other) {
-        if (other == TeecValue.getDefaultInstance()) return this;
+      public Builder mergeFrom(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue other) {
+        if (other == fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.getDefaultInstance()) return this;
         if (other.hasA()) {
           setA(other.getA());
         }
@@ -3830,7 +4013,8 @@ public final class GPDataTypes {
         if (other.hasMFlag()) {
           setMFlag(other.getMFlag());
         }
-        this.mergeUnknownFields(other.getUnknownFields());
+        setUnknownFields(
+            getUnknownFields().concat(other.unknownFields));
         return this;
       }
 
@@ -3854,11 +4038,11 @@ public final class GPDataTypes {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        TeecValue parsedMessage = null;
+        fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (TeecValue) e.getUnfinishedMessage();
+          parsedMessage = (fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -3888,7 +4072,7 @@ public final class GPDataTypes {
       public Builder setA(int value) {
         bitField0_ |= 0x00000001;
         a_ = value;
-        onChanged();
+        
         return this;
       }
       /**
@@ -3897,7 +4081,7 @@ public final class GPDataTypes {
       public Builder clearA() {
         bitField0_ = (bitField0_ & ~0x00000001);
         a_ = 0;
-        onChanged();
+        
         return this;
       }
 
@@ -3920,7 +4104,7 @@ public final class GPDataTypes {
       public Builder setB(int value) {
         bitField0_ |= 0x00000002;
         b_ = value;
-        onChanged();
+        
         return this;
       }
       /**
@@ -3929,11 +4113,11 @@ public final class GPDataTypes {
       public Builder clearB() {
         bitField0_ = (bitField0_ & ~0x00000002);
         b_ = 0;
-        onChanged();
+        
         return this;
       }
 
-      private Flag mFlag_ = Flag.TEEC_VALUE_INPUT;
+      private fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag mFlag_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag.TEEC_VALUE_INPUT;
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue.Flag mFlag = 3;</code>
        */
@@ -3943,19 +4127,19 @@ public final class GPDataTypes {
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue.Flag mFlag = 3;</code>
        */
-      public Flag getMFlag() {
+      public fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag getMFlag() {
         return mFlag_;
       }
       /**
        * <code>required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue.Flag mFlag = 3;</code>
        */
-      public Builder setMFlag(Flag value) {
+      public Builder setMFlag(fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag value) {
         if (value == null) {
           throw new NullPointerException();
         }
         bitField0_ |= 0x00000004;
         mFlag_ = value;
-        onChanged();
+        
         return this;
       }
       /**
@@ -3963,8 +4147,8 @@ public final class GPDataTypes {
        */
       public Builder clearMFlag() {
         bitField0_ = (bitField0_ & ~0x00000004);
-        mFlag_ = Flag.TEEC_VALUE_INPUT;
-        onChanged();
+        mFlag_ = fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes.TeecValue.Flag.TEEC_VALUE_INPUT;
+        
         return this;
       }
 
@@ -3979,110 +4163,8 @@ public final class GPDataTypes {
     // @@protoc_insertion_point(class_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue)
   }
 
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecOperation_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecOperation_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecParameter_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecParameter_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemory_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemory_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemoryReference_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemoryReference_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecValue_descriptor;
-  private static
-    com.google.protobuf.GeneratedMessage.FieldAccessorTable
-      internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecValue_fieldAccessorTable;
-
-  public static com.google.protobuf.Descriptors.FileDescriptor
-      getDescriptor() {
-    return descriptor;
-  }
-  private static com.google.protobuf.Descriptors.FileDescriptor
-      descriptor;
+
   static {
-    String[] descriptorData = {
-      "\n\021GPDataTypes.proto\022%fi.aalto.ssg.opente" +
-      "e.imps.pbdatatypes\"h\n\rTeecOperation\022\020\n\010m" +
-      "Started\030\001 \002(\005\022E\n\007mParams\030\002 \003(\01324.fi.aalt" +
-      "o.ssg.opentee.imps.pbdatatypes.TeecParam" +
-      "eter\"\274\002\n\rTeecParameter\022G\n\004type\030\001 \002(\01629.f" +
-      "i.aalto.ssg.opentee.imps.pbdatatypes.Tee" +
-      "cParameter.Type\022c\n\031teecSharedMemoryRefer" +
-      "ence\030\002 \001(\0132@.fi.aalto.ssg.opentee.imps.p" +
-      "bdatatypes.TeecSharedMemoryReference\022C\n\t" +
-      "teecValue\030\003 \001(\01320.fi.aalto.ssg.opentee.i",
-      "mps.pbdatatypes.TeecValue\022\023\n\013placeHolder" +
-      "\030\004 \001(\005\"#\n\004Type\022\007\n\003smr\020\001\022\007\n\003val\020\002\022\t\n\005empt" +
-      "y\020\003\"b\n\020TeecSharedMemory\022\017\n\007mBuffer\030\001 \002(\014" +
-      "\022\r\n\005mFlag\030\002 \002(\005\022\014\n\004size\030\003 \002(\005\022\023\n\013mReturn" +
-      "Size\030\004 \001(\005\022\013\n\003mID\030\005 \001(\005\"\231\002\n\031TeecSharedMe" +
-      "moryReference\022G\n\006parent\030\001 \002(\01327.fi.aalto" +
-      ".ssg.opentee.imps.pbdatatypes.TeecShared" +
-      "Memory\022\017\n\007mOffset\030\002 \002(\005\022T\n\005mFlag\030\003 \002(\0162E" +
-      ".fi.aalto.ssg.opentee.imps.pbdatatypes.T" +
-      "eecSharedMemoryReference.Flag\"L\n\004Flag\022\025\n",
-      "\021TEEC_MEMREF_INPUT\020\r\022\026\n\022TEEC_MEMREF_OUTP" +
-      "UT\020\016\022\025\n\021TEEC_MEMREF_INOUT\020\017\"\262\001\n\tTeecValu" +
-      "e\022\t\n\001a\030\001 \002(\005\022\t\n\001b\030\002 \002(\005\022D\n\005mFlag\030\003 \002(\01625" +
-      ".fi.aalto.ssg.opentee.imps.pbdatatypes.T" +
-      "eecValue.Flag\"I\n\004Flag\022\024\n\020TEEC_VALUE_INPU" +
-      "T\020\001\022\025\n\021TEEC_VALUE_OUTPUT\020\002\022\024\n\020TEEC_VALUE" +
-      "_INOUT\020\003"
-    };
-    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
-        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
-          public com.google.protobuf.ExtensionRegistry assignDescriptors(
-              com.google.protobuf.Descriptors.FileDescriptor root) {
-            descriptor = root;
-            return null;
-          }
-        };
-    com.google.protobuf.Descriptors.FileDescriptor
-      .internalBuildGeneratedFileFrom(descriptorData,
-        new com.google.protobuf.Descriptors.FileDescriptor[] {
-        }, assigner);
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecOperation_descriptor =
-      getDescriptor().getMessageTypes().get(0);
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecOperation_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
-        internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecOperation_descriptor,
-        new String[] { "MStarted", "MParams", });
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecParameter_descriptor =
-      getDescriptor().getMessageTypes().get(1);
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecParameter_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
-        internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecParameter_descriptor,
-        new String[] { "Type", "TeecSharedMemoryReference", "TeecValue", "PlaceHolder", });
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemory_descriptor =
-      getDescriptor().getMessageTypes().get(2);
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemory_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
-        internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemory_descriptor,
-        new String[] { "MBuffer", "MFlag", "Size", "MReturnSize", "MID", });
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemoryReference_descriptor =
-      getDescriptor().getMessageTypes().get(3);
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemoryReference_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
-        internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecSharedMemoryReference_descriptor,
-        new String[] { "Parent", "MOffset", "MFlag", });
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecValue_descriptor =
-      getDescriptor().getMessageTypes().get(4);
-    internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecValue_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
-        internal_static_fi_aalto_ssg_opentee_imps_pbdatatypes_TeecValue_descriptor,
-        new String[] { "A", "B", "MFlag", });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
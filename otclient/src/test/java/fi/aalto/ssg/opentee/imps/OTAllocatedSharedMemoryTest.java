@@ -0,0 +1,85 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import org.junit.Test;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.BadParametersException;
+import fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Shared memory allocated by the TEE, whose buffer never goes with the operations.
+ */
+public class OTAllocatedSharedMemoryTest {
+    static final ITEEClient CLIENT = OTOperationFixture.CLIENT;
+
+    @Test
+    public void allocatedMemoryCarriesNoBytes() throws Exception {
+        OTAllocatedSharedMemory sm = new OTAllocatedSharedMemory(1024 * 1024, OTOperationFixture.INOUT,
+                OTOperationFixture.SM_ID, null);
+        ITEEClient.IOperation op = CLIENT.Operation(OTOperationFixture.newValue(), CLIENT.RegisteredMemoryReference(sm,
+                ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_INOUT,
+                4096,
+                8192));
+
+        // the reference only takes its slot in the header, however big the buffer is.
+        byte[] withReference = OTOperationFixture.encodeFlat(op);
+        assertEquals(OTOperationFixture.flatSizeOfValue(), withReference.length);
+
+        GPDataTypes.TeecOperation pbOp = GPDataTypes.TeecOperation.parseFrom(
+                OTFactoryMethods.encodeOperation(OTOperationFixture.TAG, op, OTOperationCodec.CODEC_PROTOBUF));
+        assertEquals(0, pbOp.getMParams(1).getTeecSharedMemoryReference().getParent().getMDirtyRangesCount());
+
+        OTOperationCodec.decodeInto((OTOperation)op, withReference);
+    }
+
+    @Test
+    public void allocatedMemoryIsCopiedOut() throws Exception {
+        // the content comes from read, which goes to the service.
+        OTAllocatedSharedMemory sm = new OTAllocatedSharedMemory(16, ITEEClient.ISharedMemory.TEEC_MEM_INPUT,
+                OTOperationFixture.SM_ID, null){
+            @Override
+            public void read(int offset, byte[] dst, int dstOffset, int length){
+                for(int i = 0; i < length; i++) dst[dstOffset + i] = (byte)(offset + i);
+            }
+        };
+
+        byte[] copy = sm.asByteArray();
+        assertEquals(16, copy.length);
+        assertEquals(15, copy[15]);
+
+        // every call reads a new copy.
+        copy[15] = 0;
+        assertEquals(15, sm.asByteArray()[15]);
+    }
+
+    @Test
+    public void rangeOutOfTheMemoryIsRejected() throws Exception {
+        OTAllocatedSharedMemory sm = new OTAllocatedSharedMemory(16, ITEEClient.ISharedMemory.TEEC_MEM_INPUT,
+                OTOperationFixture.SM_ID, null);
+
+        try {
+            sm.read(8, new byte[16], 0, 16);
+            fail("a range out of the shared memory must not be read");
+        } catch (BadParametersException e) {
+            // expected, before anything goes to the service.
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import org.junit.Test;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.NotSupportedException;
+import fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Choice of the codec and the protobuf encoding of operations, and what is resent after a failed call.
+ */
+public class OTFactoryMethodsTest {
+    static final ITEEClient CLIENT = OTOperationFixture.CLIENT;
+
+    @Test
+    public void rejectedCallResendsInput() throws Exception {
+        OTSharedMemory sm = OTOperationFixture.newSharedMemory(4096);
+        ITEEClient.IOperation op = CLIENT.Operation(OTOperationFixture.newValue(), CLIENT.RegisteredMemoryReference(sm,
+                ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_INOUT,
+                0));
+        int headerSize = OTOperationFixture.flatSizeOfValue();
+
+        sm.write(100, new byte[16], 0, 16);
+        assertEquals(headerSize + 2 * 4 + 16, OTOperationFixture.encodeFlat(op).length);
+
+        // the service rejected the call, so no operation came back. The next call sends the whole buffer.
+        OTFactoryMethods.markSharedMemoryAllDirtyIfNotApplied(op, null);
+        assertEquals(headerSize + 2 * 4 + sm.getSize(), OTOperationFixture.encodeFlat(op).length);
+
+        // once it was applied, nothing is left to send.
+        OTFactoryMethods.markSharedMemoryAllDirtyIfNotApplied(op, new byte[0]);
+        assertEquals(headerSize, OTOperationFixture.encodeFlat(op).length);
+    }
+
+    @Test
+    public void tempReferenceIsNotTruncatedForProtobuf() throws Exception {
+        ITEEClient.ITempMemoryReference tmr = CLIENT.TempMemoryReference(new byte[64],
+                ITEEClient.ITempMemoryReference.Flag.TEEC_MEMREF_TEMP_INOUT);
+
+        try {
+            OTFactoryMethods.encodeOperation(OTOperationFixture.TAG, CLIENT.Operation(tmr), OTOperationCodec.CODEC_PROTOBUF);
+            fail("the operation must not be sent without its buffer");
+        } catch (NotSupportedException e) {
+            // expected.
+        }
+    }
+
+    @Test
+    public void protobufSendsOnlyDirtyRanges() throws Exception {
+        OTSharedMemory sm = OTOperationFixture.newSharedMemory(4096);
+        ITEEClient.IOperation op = CLIENT.Operation(CLIENT.RegisteredMemoryReference(sm,
+                ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_INOUT,
+                0));
+
+        sm.write(100, new byte[16], 0, 16);
+        GPDataTypes.TeecSharedMemory parent = GPDataTypes.TeecOperation.parseFrom(
+                OTFactoryMethods.encodeOperation(OTOperationFixture.TAG, op, OTOperationCodec.CODEC_PROTOBUF))
+                .getMParams(0).getTeecSharedMemoryReference().getParent();
+
+        assertEquals(1, parent.getMDirtyRangesCount());
+        assertEquals(100, parent.getMDirtyRanges(0).getMOffset());
+        assertEquals(16, parent.getMDirtyRanges(0).getMData().size());
+        assertEquals(0, parent.getMBuffer().size());
+    }
+}
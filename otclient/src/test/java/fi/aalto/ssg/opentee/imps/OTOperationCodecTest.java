@@ -0,0 +1,129 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import org.junit.Test;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+import fi.aalto.ssg.opentee.exception.BadFormatException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Round trips of operations in the flat encoding and as values only.
+ */
+public class OTOperationCodecTest {
+    static final ITEEClient CLIENT = OTOperationFixture.CLIENT;
+
+    @Test
+    public void valuesRoundTripKeepsContent() throws Exception {
+        OTOperation op = OTOperationFixture.newOperation(0);
+        assertTrue(OTOperationCodec.isValueOnly(op));
+
+        int[] values = new int[OTOperationCodec.VALUES_SIZE];
+        OTOperationCodec.encodeValues(op, values);
+        values[OTOperationCodec.VALUES_A] = 3; // as written by the TA.
+        OTOperationCodec.decodeValuesInto(op, values);
+
+        ITEEClient.IValue value = (ITEEClient.IValue)op.getParam(0);
+        assertEquals(3, value.getA());
+        assertEquals(2, value.getB());
+        assertFalse(OTOperationCodec.isValueOnly(OTOperationFixture.newOperation(16)));
+    }
+
+    @Test
+    public void flatRoundTripKeepsContent() throws Exception {
+        OTOperation op = OTOperationFixture.newOperation(4096);
+        OTSharedMemory sm = OTOperationFixture.sharedMemoryOf(op, 1);
+        byte[] expected = sm.asByteArray().clone();
+
+        OTOperationCodec.decodeInto(op, OTOperationFixture.encodeFlat(op));
+
+        assertArrayEquals(expected, sm.asByteArray());
+    }
+
+    @Test
+    public void unknownFlatVersionIsRejected() throws Exception {
+        OTOperation op = OTOperationFixture.newOperation(16);
+        byte[] reply = OTOperationFixture.encodeFlat(op);
+        reply[0]++; // the version is in the low bytes of the header.
+
+        assertTrue(OTOperationCodec.isFlat(reply));
+        try {
+            OTOperationCodec.decodeInto(op, reply);
+            fail("an operation of an unknown version must not be decoded");
+        } catch (BadFormatException e) {
+            // expected.
+        }
+    }
+
+    @Test
+    public void partialReferenceSendsOnlyWindow() throws Exception {
+        ITEEClient.IRegisteredMemoryReference rmr = CLIENT.RegisteredMemoryReference(
+                OTOperationFixture.newSharedMemory(4096),
+                ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_INOUT,
+                1024,
+                256);
+        assertEquals(256, rmr.getSize());
+
+        byte[] withWindow = OTOperationFixture.encodeFlat(CLIENT.Operation(OTOperationFixture.newValue(), rmr));
+
+        // one range header of two ints and the bytes of the window.
+        assertEquals(2 * 4 + 256, withWindow.length - OTOperationFixture.flatSizeOfValue());
+    }
+
+    @Test
+    public void inputReferenceGetsNoBytesBack() throws Exception {
+        OTSharedMemory sm = OTOperationFixture.newSharedMemory(256);
+        OTRegisteredMemoryReference rmr = (OTRegisteredMemoryReference)CLIENT.RegisteredMemoryReference(sm,
+                ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_INPUT,
+                0);
+        ITEEClient.IOperation op = CLIENT.Operation(rmr);
+
+        // it keeps its direction over the whole buffer, although the shared memory is also output.
+        assertFalse(rmr.isWhole());
+        assertTrue(rmr.isInput());
+        assertFalse(rmr.isOutput());
+
+        // a reply carrying the old content of the buffer does not touch it.
+        byte[] reply = OTOperationFixture.encodeFlat(op);
+        sm.asByteArray()[0] = 1;
+        OTOperationCodec.decodeInto((OTOperation)op, reply);
+        assertEquals(1, sm.asByteArray()[0]);
+    }
+
+    @Test
+    public void tempReferenceGoesInline() throws Exception {
+        byte[] buffer = new byte[512];
+        for(int i = 0; i < buffer.length; i++) buffer[i] = (byte)i;
+        byte[] expected = buffer.clone();
+
+        ITEEClient.ITempMemoryReference tmr = CLIENT.TempMemoryReference(buffer,
+                ITEEClient.ITempMemoryReference.Flag.TEEC_MEMREF_TEMP_INOUT);
+        ITEEClient.IOperation op = CLIENT.Operation(OTOperationFixture.newValue(), tmr);
+
+        byte[] withBuffer = OTOperationFixture.encodeFlat(op);
+        assertEquals(2 * 4 + buffer.length, withBuffer.length - OTOperationFixture.flatSizeOfValue());
+
+        // the returned range is written back into the buffer of the CA.
+        OTOperationCodec.decodeInto((OTOperation)op, withBuffer);
+        assertArrayEquals(expected, buffer);
+    }
+}
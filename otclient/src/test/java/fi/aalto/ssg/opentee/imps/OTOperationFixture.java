@@ -0,0 +1,63 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import fi.aalto.ssg.opentee.ITEEClient;
+
+/**
+ * Operations and shared memory shared by the codec tests. Nothing here needs the Open-TEE service.
+ */
+class OTOperationFixture {
+    static final String TAG = "OTOperationFixture";
+    static final int SM_ID = 1;
+    static final int INOUT = ITEEClient.ISharedMemory.TEEC_MEM_INPUT | ITEEClient.ISharedMemory.TEEC_MEM_OUTPUT;
+
+    static final ITEEClient CLIENT = OpenTEE.newTEEClient();
+
+    static ITEEClient.IValue newValue() {
+        return CLIENT.Value(ITEEClient.IValue.Flag.TEEC_VALUE_INOUT, 1, 2);
+    }
+
+    /* shared memory of the size filled with the low byte of the index. */
+    static OTSharedMemory newSharedMemory(int size) {
+        byte[] buffer = new byte[size];
+        for(int i = 0; i < size; i++) buffer[i] = (byte)i;
+        return new OTSharedMemory(buffer, INOUT, SM_ID);
+    }
+
+    /* an operation with a value and, if the payload is not empty, an inout reference to the whole of it. */
+    static OTOperation newOperation(int payloadSize) throws Exception {
+        if(payloadSize == 0) return (OTOperation)CLIENT.Operation(newValue());
+
+        ITEEClient.IRegisteredMemoryReference rmr = CLIENT.RegisteredMemoryReference(newSharedMemory(payloadSize),
+                ITEEClient.IRegisteredMemoryReference.Flag.TEEC_MEMREF_INOUT,
+                0);
+        return (OTOperation)CLIENT.Operation(newValue(), rmr);
+    }
+
+    static OTSharedMemory sharedMemoryOf(ITEEClient.IOperation op, int index) {
+        return (OTSharedMemory)((ITEEClient.IRegisteredMemoryReference)((OTOperation)op).getParam(index)).getSharedMemory();
+    }
+
+    /* size of an operation of one value in the flat encoding. */
+    static int flatSizeOfValue() throws Exception {
+        return OTFactoryMethods.encodeOperation(TAG, CLIENT.Operation(newValue()), OTOperationCodec.CODEC_FLAT_V1).length;
+    }
+
+    static byte[] encodeFlat(ITEEClient.IOperation op) throws Exception {
+        return OTFactoryMethods.encodeOperation(TAG, op, OTOperationCodec.CODEC_FLAT_V1);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c ) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.imps;
+
+import org.junit.Test;
+
+import fi.aalto.ssg.opentee.exception.BadParametersException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Dirty range tracking of shared memory registered by the CA.
+ */
+public class OTSharedMemoryTest {
+    int[] mRanges = new int[2 * OTSharedMemory.MAX_DIRTY_RANGES];
+
+    @Test
+    public void untrackedMemoryIsSyncedWhole() throws Exception {
+        OTSharedMemory sm = OTOperationFixture.newSharedMemory(256);
+
+        assertEquals(-1, sm.takeDirtyRanges(mRanges));
+    }
+
+    @Test
+    public void adjacentRangesAreMerged() throws Exception {
+        OTSharedMemory sm = OTOperationFixture.newSharedMemory(256);
+
+        sm.markDirty(10, 10);
+        sm.markDirty(20, 10);
+        sm.markDirty(100, 4);
+        sm.markDirty(15, 2);
+
+        assertEquals(2, sm.takeDirtyRanges(mRanges));
+        assertEquals(10, mRanges[0]);
+        assertEquals(30, mRanges[1]);
+        assertEquals(100, mRanges[2]);
+        assertEquals(104, mRanges[3]);
+
+        // taken ranges are cleared.
+        assertEquals(0, sm.takeDirtyRanges(mRanges));
+    }
+
+    @Test
+    public void scatteredRangesBecomeOneSpan() throws Exception {
+        OTSharedMemory sm = OTOperationFixture.newSharedMemory(1024);
+
+        for(int i = 0; i <= OTSharedMemory.MAX_DIRTY_RANGES; i++) sm.markDirty(i * 10, 1);
+
+        assertEquals(1, sm.takeDirtyRanges(mRanges));
+        assertEquals(0, mRanges[0]);
+        assertEquals(OTSharedMemory.MAX_DIRTY_RANGES * 10 + 1, mRanges[1]);
+    }
+
+    @Test
+    public void rangesOutOfTheWindowStayDirty() throws Exception {
+        OTSharedMemory sm = OTOperationFixture.newSharedMemory(256);
+
+        sm.markDirty(0, 200);
+
+        assertEquals(1, sm.takeDirtyRanges(mRanges, 50, 100));
+        assertEquals(50, mRanges[0]);
+        assertEquals(100, mRanges[1]);
+
+        assertEquals(2, sm.takeDirtyRanges(mRanges));
+        assertEquals(0, mRanges[0]);
+        assertEquals(50, mRanges[1]);
+        assertEquals(100, mRanges[2]);
+        assertEquals(200, mRanges[3]);
+    }
+
+    @Test
+    public void writeMarksDirty() throws Exception {
+        OTSharedMemory sm = OTOperationFixture.newSharedMemory(256);
+
+        sm.write(8, new byte[]{42, 43}, 0, 2);
+
+        assertEquals(42, sm.asByteArray()[8]);
+        assertEquals(1, sm.takeDirtyRanges(mRanges));
+        assertEquals(8, mRanges[0]);
+        assertEquals(10, mRanges[1]);
+    }
+
+    @Test
+    public void allDirtyCoversTheBuffer() throws Exception {
+        OTSharedMemory sm = OTOperationFixture.newSharedMemory(256);
+
+        sm.markDirty(4, 4);
+        sm.takeDirtyRanges(mRanges);
+        sm.markAllDirty();
+
+        assertEquals(1, sm.takeDirtyRanges(mRanges));
+        assertEquals(0, mRanges[0]);
+        assertEquals(256, mRanges[1]);
+    }
+
+    @Test
+    public void rangeOutOfTheBufferIsRejected() throws Exception {
+        OTSharedMemory sm = OTOperationFixture.newSharedMemory(256);
+
+        try {
+            sm.markDirty(250, 10);
+            fail("a range out of the buffer must not be marked");
+        } catch (BadParametersException e) {
+            // expected.
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.openteeandroid;
+
+import android.util.Log;
+
+import junit.framework.TestCase;
+
+import java.util.UUID;
+
+import fi.aalto.ssg.opentee.imps.OTReturnCode;
+
+/**
+ * Microbenchmark of the JNI overhead of one call, without the TEE. The calls go to an unknown session or
+ * caller, so the native layer returns right after the arguments are taken in. The results are printed
+ * to logcat with the tag NativeLibteeBenchmark. To compare with the calls taking IntWrappers and the UUID
+ * object, run the version of this benchmark from before they were removed.
+ */
+public class NativeLibteeBenchmark extends TestCase {
+    final String TAG = "NativeLibteeBenchmark";
+
+    static final int WARM_UP_ROUNDS = 1000;
+    static final int ROUNDS = 20000;
+    static final int UNKNOWN_ID = -1;
+    static final UUID TA_UUID = UUID.fromString("12345678-8765-4321-1234-567812345678");
+
+    public void testInvokeCommand() throws Exception {
+        int[] result = new int[NativeLibtee.RESULT_SIZE];
+
+        for(int i = 0; i < WARM_UP_ROUNDS; i++){
+            NativeLibtee.teecInvokeCommandDirect(UNKNOWN_ID, 0, null, 0, result, 0, UNKNOWN_ID);
+        }
+
+        long start = System.nanoTime();
+        for(int i = 0; i < ROUNDS; i++){
+            NativeLibtee.teecInvokeCommandDirect(UNKNOWN_ID, 0, null, 0, result, 0, UNKNOWN_ID);
+        }
+        long packedNs = (System.nanoTime() - start) / ROUNDS;
+
+        // the unknown session is reported as the failure.
+        assertTrue(result[NativeLibtee.RESULT_RETURN_CODE] != OTReturnCode.TEEC_SUCCESS);
+
+        Log.i(TAG, "teecInvokeCommandDirect: " + packedNs + " ns per call with the result holder");
+    }
+
+    public void testOpenSession() throws Exception {
+        int[] result = new int[NativeLibtee.RESULT_SIZE];
+
+        for(int i = 0; i < WARM_UP_ROUNDS; i++){
+            openSessionDirect(result);
+        }
+
+        long start = System.nanoTime();
+        for(int i = 0; i < ROUNDS; i++){
+            openSessionDirect(result);
+        }
+        long packedNs = (System.nanoTime() - start) / ROUNDS;
+
+        assertTrue(result[NativeLibtee.RESULT_RETURN_CODE] != OTReturnCode.TEEC_SUCCESS);
+
+        Log.i(TAG, "teecOpenSessionDirect: " + packedNs + " ns per call with two longs and the result holder");
+    }
+
+    private void openSessionDirect(int[] result){
+        NativeLibtee.teecOpenSessionDirect(UNKNOWN_ID,
+                TA_UUID.getMostSignificantBits(),
+                TA_UUID.getLeastSignificantBits(),
+                0,
+                0,
+                null,
+                0,
+                result,
+                0,
+                UNKNOWN_ID);
+    }
+}
@@ -15,7 +15,7 @@
  */
 package fi.aalto.ssg.opentee.openteeandroid;
 
-import java.util.UUID;
+import java.nio.ByteBuffer;
 
 /**
  * wrapper class for libtee
@@ -27,35 +27,101 @@ public class NativeLibtee {
         System.loadLibrary(OTJniConstants.LIBTEE_WRAPPER_MODULE_NAME);
     }
 
+    /**
+     * layout of the result holder of the calls, which receives the return code and the return origin
+     * in one go.
+     */
+    public static final int RESULT_RETURN_CODE = 0;
+    public static final int RESULT_RETURN_ORIGIN = 1;
+    public static final int RESULT_SIZE = 2;
+
     /**
      * native functions section
+     * The native layer keeps a TEEC_Context for each caller and the state of each session apart, so the
+     * calls of different callers and on different sessions run in parallel.
+     */
+    public static native int teecInitializeContext(String teeName,
+                                                   String otSocketFilePath,
+                                                   int callerId);
+    public static native void teecFinalizeContext(int callerId);
+
+    /**
+     * Register shared memory backed by a direct buffer. The buffer itself is registered, so it is not
+     * copied, and it must not be used elsewhere until the shared memory is released.
+     */
+    public static native int teecRegisterSharedMemoryDirect(ByteBuffer buffer,
+                                                            int size,
+                                                            int flags,
+                                                            int smId,
+                                                            int callerId);
+    /**
+     * Allocate shared memory with TEEC_AllocateSharedMemory. The buffer is owned by libtee and is only
+     * reached through otReadSharedMemory and otWriteSharedMemory.
+     */
+    public static native int teecAllocateSharedMemory(int size,
+                                                      int flags,
+                                                      int smId,
+                                                      int callerId);
+    /**
+     * Copy data.length bytes between the allocated shared memory from the offset and data.
+     */
+    public static native int otReadSharedMemory(int smId,
+                                                int offset,
+                                                byte[] data,
+                                                int callerId);
+    public static native int otWriteSharedMemory(int smId,
+                                                 int offset,
+                                                 byte[] data,
+                                                 int callerId);
+    public static native void teecReleaseSharedMemory(int sharedMemoryID);
+
+    /**
+     * Open a session. The first opLength bytes of the direct buffer op hold the operation. They are read
+     * in place. op is null if there is no operation. The UUID is given as its two halves, and the return
+     * code and origin are written into result, which has at least RESULT_SIZE elements.
+     */
+    public static native byte[] teecOpenSessionDirect(int sidInJni,
+                                                      long uuidMostSigBits,
+                                                      long uuidLeastSigBits,
+                                                      int connMethod,
+                                                      int connData,
+                                                      ByteBuffer op,
+                                                      int opLength,
+                                                      int[] result,
+                                                      long cancelId,
+                                                      int callerId);
+
+    public static native void teecCloseSession(int sidInJni);
+
+    /**
+     * Invoke a command. The first opLength bytes of the direct buffer op hold the operation. They are
+     * read in place. op is null if there is no operation. The return code and origin are written into
+     * result, which has at least RESULT_SIZE elements.
+     */
+    public static native byte[] teecInvokeCommandDirect(int sidInJni,
+                                                        int commandId,
+                                                        ByteBuffer op,
+                                                        int opLength,
+                                                        int[] result,
+                                                        long cancelId,
+                                                        int callerId);
+
+    /**
+     * Invoke command with an operation of values only, laid out as in OTOperationCodec with
+     * VALUES_SLOT_SIZE ints for each of the four slots. The values are updated in place, and the return
+     * code and origin are written into result, which has at least RESULT_SIZE elements.
+     */
+    public static native void teecInvokeCommandValues(int sidInJni,
+                                                      int commandId,
+                                                      int[] values,
+                                                      int[] result,
+                                                      long cancelId);
+
+    /**
+     * Cancel the operation with cancelId if it is still running on the session. cancelId is the id which
+     * was given to teecOpenSessionDirect or teecInvokeCommandDirect, and 0 means the operation cannot be
+     * cancelled.
      */
-    public static synchronized native int teecInitializeContext(String teeName,
-                                                                String otSocketFilePath);
-    public static synchronized native void teecFinalizeContext();
-
-    public static synchronized native int teecRegisterSharedMemory(byte[] otSharedMemory,
-                                                                   int smId);
-    public static synchronized native void teecReleaseSharedMemory(int sharedMemoryID);
-
-    public static synchronized native byte[] teecOpenSession(int sidInJni,
-                                                          UUID uuid,
-                                                          int connMethod,
-                                                          int connData,
-                                                          byte[] opsInBytes,
-                                                          IntWrapper retOriginWrapper,
-                                                          IntWrapper returnCode,
-                                                          int opHashCodeWithPid);
-
-    public static synchronized native void teecCloseSession(int sidInJni);
-
-    public static synchronized native byte[] teecInvokeCommand(int sidInJni,
-                                                               int commandId,
-                                                               byte[] opsInBytes,
-                                                               IntWrapper retOriginWrapper,
-                                                               IntWrapper returnCode,
-                                                               int opHashCodeWithPid);
-
-    public static synchronized native void teecRequestCancellation(int opId);
+    public static native void teecRequestCancellation(int sidInJni, long cancelId);
 
 }
\ No newline at end of file
@@ -17,100 +17,107 @@ package fi.aalto.ssg.opentee.openteeandroid;
 
 import android.util.Log;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-import fi.aalto.ssg.opentee.imps.OTSharedMemory;
+import fi.aalto.ssg.opentee.imps.OTOperation;
 
 /**
  * Caller resource container. Each CA will have a caller instance corresponding to it.
+ * The ids of shared memory and sessions are issued from the handle tables of the OTGuard and used by the
+ * CA as they are, so they are the same in the CA, the OTGuard and the JNI layer. This class is the view
+ * of one caller on those tables.
+ * The calls of the caller share its read lock and run in parallel, while finalizing takes the write lock,
+ * so nothing is freed under a call still using it. Releasing shared memory takes the read lock only, since
+ * the JNI layer keeps the shared memory for the calls referring to it. The calls on one session are
+ * serialized with the lock object of the session.
+ * The operations running on the sessions are kept by the ids the CA issued for them, so that they can be
+ * cancelled without taking any of the locks above.
  */
 public class OTCaller {
     String TAG = "OTCaller";
 
     int mID;
-    Map<Integer, OTSharedMemory> mSharedMemoryList; // <smidInJni, sharedMemory> reuse the OTSharedMemory class.
-    Map<Integer, Integer> mSessionList; // <sidInJni, session>
+    OTHandleTable<Integer> mSharedMemoryTable; // flags of each shared memory.
+    OTHandleTable<Object> mSessionTable; // lock object of each session.
+    final ReentrantReadWriteLock mLock = new ReentrantReadWriteLock();
+    final ConcurrentHashMap<Long, Integer> mRunningOperations = new ConcurrentHashMap<>(); // <cancel id, sid>
 
-    public OTCaller(int id){
+    public OTCaller(int id, OTHandleTable<Integer> sharedMemoryTable, OTHandleTable<Object> sessionTable){
         this.mID = id;
-        this.mSharedMemoryList = new HashMap<>();
-        this.mSessionList = new HashMap<>();
+        this.mSharedMemoryTable = sharedMemoryTable;
+        this.mSessionTable = sessionTable;
     }
 
-    public Map<Integer, OTSharedMemory> getSharedMemoryList(){return this.mSharedMemoryList;}
-    public Map<Integer, Integer> getSessionList(){return this.mSessionList;}
+    public int getId(){return this.mID;}
 
-    public synchronized void addSharedMemory(int smIdInJni, OTSharedMemory sharedMemory){
-        if ( sharedMemory != null ){
-            Log.d(TAG, this.mID + " added SharedMemory");
+    /* most recent shared memory or session of the caller, or OTHandleTable.NO_ID if there is none. */
+    public int getFirstSharedMemoryId(){return mSharedMemoryTable.firstIdOf(mID);}
+    public int getFirstSessionId(){return mSessionTable.firstIdOf(mID);}
 
-            mSharedMemoryList.put(smIdInJni, sharedMemory);
-        }
-    }
+    public int getSharedMemoryCount(){return mSharedMemoryTable.countOf(mID);}
+    public int getSessionCount(){return mSessionTable.countOf(mID);}
 
-    public synchronized void addSession(int sidInJni, int session){
-        mSessionList.put(sidInJni, session);
-    }
+    /* issue the id for the shared memory with its flags. Return OTHandleTable.NO_ID if no more can be added. */
+    public int addSharedMemory(int flags){
+        int smId = mSharedMemoryTable.add(mID, flags);
 
-    /* remove shared memory by its ID in JNI layer */
-    public synchronized void removeSharedMemoryBySmIdInJni(int smIdInJni){
-        if ( mSharedMemoryList.size() == 0 ) {
-            Log.e(TAG, "SharedMemoryList empty, nothing to remove.");
-            return;
-        }
-
-        mSharedMemoryList.remove(smIdInJni);
-
-        Log.i(TAG, mID + "'s shared memory:" + smIdInJni + " removed.");
+        Log.d(TAG, this.mID + " added SharedMemory " + smId);
+        return smId;
     }
 
-    /* remove session by its ID in Java layer */
-    public synchronized int removeSessionBySid(int sid){
-        for(Map.Entry<Integer, Integer> entry: mSessionList.entrySet()){
-            if( entry.getValue() == sid ){
-                Log.i(TAG, mID + "'s session:" + sid + " with sidInJni: " + entry.getKey() + " removed.");
+    /* issue the id for the session with its lock object. Return OTHandleTable.NO_ID if no more can be added. */
+    public int addSession(Object sessionLock){
+        return mSessionTable.add(mID, sessionLock);
+    }
 
-                int sidInJni =  entry.getKey();
-                mSessionList.remove(entry.getKey());
-                return sidInJni;
-            }
-        }
+    /* lock object of the session, or null if it does not belong to this caller. */
+    public Object getSessionLock(int sid){
+        return mSessionTable.get(sid, mID);
+    }
 
-        Log.i(TAG, mID + "'s session:" + sid + " not found.");
-        return -1;
+    /* keep the operation running on the session, so it can be cancelled by its id. */
+    public void addRunningOperation(long cancelId, int sid){
+        if(cancelId != OTOperation.NO_CANCEL_ID) mRunningOperations.put(cancelId, sid);
     }
 
-    public synchronized void removeSessionBySidInJni(int sidInJni){
-        this.mSessionList.remove(sidInJni);
+    public void removeRunningOperation(long cancelId){
+        if(cancelId != OTOperation.NO_CANCEL_ID) mRunningOperations.remove(cancelId);
     }
 
-    /* get the ID of shared memory in JNI layer using its ID in Java layer */
-    public synchronized int getSmIdInJniBySmid(int smid){
-        for( Map.Entry<Integer, OTSharedMemory> entry: mSharedMemoryList.entrySet() ){
-            if( entry.getValue().getId() == smid ) return entry.getKey();
-        }
+    /* session the operation is running on, or OTHandleTable.NO_ID if it is not running. */
+    public int getSessionOfOperation(long cancelId){
+        Integer sid = mRunningOperations.get(cancelId);
+        return sid == null ? OTHandleTable.NO_ID : sid;
+    }
 
-        // not found.
-        return -1;
+    public boolean hasSharedMemory(int smId){
+        return mSharedMemoryTable.isOwnedBy(smId, mID);
     }
 
-    /* get the ID of shared memory in Java layer using its ID in JNI layer */
-    public synchronized int getSmIdBySmIdInJni(int smidInJni){
-        return mSharedMemoryList.get(smidInJni).getId();
+    public boolean hasSession(int sid){
+        return mSessionTable.isOwnedBy(sid, mID);
     }
 
-    /* get session ID in JNI layer using its ID in Java Layer */
-    public synchronized int getSidInJniBySid(int sid){
-        for( Map.Entry<Integer, Integer> entry: mSessionList.entrySet()){
-            if(entry.getValue() == sid) return entry.getKey();
+    /* remove shared memory by its ID. Return false if it does not belong to this caller. */
+    public boolean removeSharedMemory(int smId){
+        if ( !mSharedMemoryTable.remove(smId, mID) ) {
+            Log.e(TAG, mID + "'s shared memory:" + smId + " not found.");
+            return false;
         }
 
-        //not found
-        return -1;
+        Log.i(TAG, mID + "'s shared memory:" + smId + " removed.");
+        return true;
     }
 
-    public synchronized int getSidBySidInJni(int sidInJni){
-        return mSessionList.get(sidInJni);
+    /* remove session by its ID. Return false if it does not belong to this caller. */
+    public boolean removeSession(int sid){
+        if ( !mSessionTable.remove(sid, mID) ){
+            Log.i(TAG, mID + "'s session:" + sid + " not found.");
+            return false;
+        }
+
+        Log.i(TAG, mID + "'s session:" + sid + " removed.");
+        return true;
     }
 }
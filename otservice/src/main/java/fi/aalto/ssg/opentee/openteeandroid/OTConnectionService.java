@@ -23,8 +23,17 @@ import android.os.ParcelUuid;
 import android.os.RemoteException;
 import android.util.Log;
 
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import fi.aalto.ssg.opentee.IOTCompletionCallback;
 import fi.aalto.ssg.opentee.IOTConnectionInterface;
-import fi.aalto.ssg.opentee.ISyncOperation;
+import fi.aalto.ssg.opentee.imps.OTCommandBatch;
+import fi.aalto.ssg.opentee.imps.OTOperation;
+import fi.aalto.ssg.opentee.imps.OTOperationCodec;
+import fi.aalto.ssg.opentee.imps.OTReturnCode;
 import fi.aalto.ssg.opentee.imps.OTSharedMemory;
 
 /* This class runs as an Android service. It is started automatically when the application is launched */
@@ -34,12 +43,22 @@ public class OTConnectionService extends Service {
     final String mQuote = "You Shall Not Pass!";
     static OTGuard mOTGuard = null; // only need one OTGuard.
 
+    // the asynchronous commands run here. Their calls are one way, and the one way calls to the service
+    // are delivered one by one, so each is handed over at once instead of running on the binder thread.
+    static final int ASYNC_WORKERS = 8;
+    final ThreadPoolExecutor mAsyncWorkers = new ThreadPoolExecutor(ASYNC_WORKERS,
+            ASYNC_WORKERS,
+            30,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>());
+
     public OTConnectionService() {
         super();
 
         Log.d(TAG, "creating OTConnectionService");
 
         this.mOTGuard = new OTGuard(this.mQuote, this);
+        this.mAsyncWorkers.allowCoreThreadTimeOut(true);
     }
 
 
@@ -51,29 +70,51 @@ public class OTConnectionService extends Service {
         }
 
         @Override
-        public synchronized int teecInitializeContext(String teeName) throws RemoteException {
+        public int teecInitializeContext(String teeName) throws RemoteException {
             Log.d(TAG, Binder.getCallingPid() + " is calling me to initialize context.");
 
             return mOTGuard.initializeContext(Binder.getCallingPid(), teeName);
         }
 
         @Override
-        public synchronized void teecFinalizeContext() throws RemoteException {
+        public int otNegotiateCodec(int codecVersion){
+            // the JNI layer reads every version up to the latest one.
+            return Math.min(codecVersion, OTOperationCodec.CODEC_VERSION);
+        }
+
+        @Override
+        public void teecFinalizeContext() throws RemoteException {
             Log.d(TAG, Binder.getCallingPid() + " is calling me to finalize context.");
 
             mOTGuard.teecFinalizeContext(Binder.getCallingPid());
         }
 
         @Override
-        public synchronized int teecRegisterSharedMemory(OTSharedMemory sharedMemory) throws RemoteException {
+        public int teecRegisterSharedMemory(OTSharedMemory sharedMemory, int[] smId) throws RemoteException {
             Log.d(TAG, Binder.getCallingPid() + " is calling me to register shared memory.");
 
-            return mOTGuard.teecRegisterSharedMemory(Binder.getCallingPid(), sharedMemory);
-            //return 0;
+            return mOTGuard.teecRegisterSharedMemory(Binder.getCallingPid(), sharedMemory, smId);
+        }
+
+        @Override
+        public int teecAllocateSharedMemory(int size, int flags, int[] smId) throws RemoteException {
+            Log.d(TAG, Binder.getCallingPid() + " is calling me to allocate shared memory.");
+
+            return mOTGuard.teecAllocateSharedMemory(Binder.getCallingPid(), size, flags, smId);
         }
 
         @Override
-        public synchronized void teecReleaseSharedMemory(int smId){
+        public int otReadSharedMemory(int smId, int offset, byte[] data) throws RemoteException {
+            return mOTGuard.otReadSharedMemory(Binder.getCallingPid(), smId, offset, data);
+        }
+
+        @Override
+        public int otWriteSharedMemory(int smId, int offset, byte[] data) throws RemoteException {
+            return mOTGuard.otWriteSharedMemory(Binder.getCallingPid(), smId, offset, data);
+        }
+
+        @Override
+        public void teecReleaseSharedMemory(int smId){
             Log.d(TAG, Binder.getCallingPid()
                     + " is calling me to release shared memory with id:"
                     + smId);
@@ -83,25 +124,28 @@ public class OTConnectionService extends Service {
         }
 
         @Override
-        public synchronized int teecOpenSessionWithoutOp(int sid, ParcelUuid parcelUuid, int connMethod, int connData, int[] retOrigin) throws RemoteException {
+        public int teecOpenSessionWithoutOp(int[] sid, ParcelUuid parcelUuid, int connMethod, int connData, int[] retOrigin) throws RemoteException {
             Log.d(TAG, Binder.getCallingPid()
                     + " is calling me to open session without operation.");
 
-            return mOTGuard.teecOpenSession(Binder.getCallingPid(),
+            int[] result = mOTGuard.resultHolder();
+            mOTGuard.teecOpenSession(Binder.getCallingPid(),
                     sid,
                     parcelUuid.getUuid(),
                     connMethod,
                     connData,
                     null,
-                    retOrigin,
-                    null,
+                    result,
                     0);
+
+            retOrigin[0] = result[NativeLibtee.RESULT_RETURN_ORIGIN];
+            return result[NativeLibtee.RESULT_RETURN_CODE];
         }
 
         @Override
-        public synchronized int teecOpenSession(int sid, ParcelUuid parcelUuid, int connMethod, int connData, byte[] teecOperation, int[] retOrigin, ISyncOperation iSyncOperation, int opHashcode) throws RemoteException {
+        public byte[] teecOpenSession(int[] sid, ParcelUuid parcelUuid, int connMethod, int connData, byte[] teecOperation, int[] result, long cancelId) throws RemoteException {
             Log.d(TAG, Binder.getCallingPid()
-                    + " is calling me to open session with operations " + opHashcode);
+                    + " is calling me to open session with operation " + cancelId);
 
             Log.d(TAG, "OTGuard hash code " + mOTGuard.hashCode());
 
@@ -111,13 +155,12 @@ public class OTConnectionService extends Service {
                     connMethod,
                     connData,
                     teecOperation,
-                    retOrigin,
-                    iSyncOperation,
-                    opHashcode);
+                    result,
+                    cancelId);
         }
 
         @Override
-        public synchronized void teecCloseSession(int sid){
+        public void teecCloseSession(int sid){
             Log.d(TAG, Binder.getCallingPid()
                     + " is calling me to close session.");
 
@@ -125,42 +168,105 @@ public class OTConnectionService extends Service {
         }
 
         @Override
-        public synchronized int teecInvokeCommandWithoutOp(int sid, int commandId, int[] returnOrigin){
+        public int teecInvokeCommandWithoutOp(int sid, int commandId, int[] returnOrigin){
             Log.d(TAG, Binder.getCallingPid()
                     + " is calling me to invoke command without operation.");
 
-            return mOTGuard.teecInvokeCommand(Binder.getCallingPid(),
+            int[] result = mOTGuard.resultHolder();
+            mOTGuard.teecInvokeCommand(Binder.getCallingPid(),
                     sid,
                     commandId,
-                    returnOrigin,
-                    null,
                     null,
+                    result,
                     0);
+
+            returnOrigin[0] = result[NativeLibtee.RESULT_RETURN_ORIGIN];
+            return result[NativeLibtee.RESULT_RETURN_CODE];
         }
 
         @Override
-        public synchronized int teecInvokeCommand(int sid, int commandId, byte[] teecOperation, int[] returnOrigin, ISyncOperation syncOperation, int opHashCode){
+        public byte[] teecInvokeCommand(int sid, int commandId, byte[] teecOperation, int[] result, long cancelId){
             Log.d(TAG, Binder.getCallingPid()
-                    + " is calling me to invoke command with operations " + opHashCode);
+                    + " is calling me to invoke command with operation " + cancelId);
 
             return mOTGuard.teecInvokeCommand(Binder.getCallingPid(),
                     sid,
                     commandId,
-                    returnOrigin,
                     teecOperation,
-                    syncOperation,
-                    opHashCode);
+                    result,
+                    cancelId);
+        }
+
+        @Override
+        public void teecInvokeCommandValues(int sid, int commandId, int[] values, int[] result, long cancelId){
+            // nothing is logged, this is the path for small and frequent commands.
+            mOTGuard.teecInvokeCommandValues(Binder.getCallingPid(),
+                    sid,
+                    commandId,
+                    values,
+                    result,
+                    cancelId);
         }
 
         @Override
-        public void teecRequestCancellation(int opId){
+        public void otInvokeCommandAsync(final int sid,
+                                         final int commandId,
+                                         final byte[] teecOperation,
+                                         final long operationId,
+                                         final IOTCompletionCallback callback){
+            // the caller is only known on the binder thread.
+            final int callerId = Binder.getCallingPid();
+            final OTGuard guard = mOTGuard;
+
+            Runnable command = new Runnable() {
+                @Override
+                public void run() {
+                    int[] result = guard.resultHolder();
+                    byte[] newTeecOperation = guard.teecInvokeCommand(callerId,
+                            sid,
+                            commandId,
+                            teecOperation,
+                            result,
+                            teecOperation == null ? OTOperation.NO_CANCEL_ID : operationId);
+
+                    try {
+                        callback.onCommandCompleted(operationId,
+                                result[NativeLibtee.RESULT_RETURN_CODE],
+                                result[NativeLibtee.RESULT_RETURN_ORIGIN],
+                                newTeecOperation);
+                    } catch (RemoteException e) {
+                        Log.e(TAG, "unable to send the result of command " + operationId + " to " + callerId + ": " + e);
+                    }
+                }
+            };
+
+            try {
+                mAsyncWorkers.execute(command);
+            } catch (RejectedExecutionException e) {
+                // the service is being destroyed. The caller still gets an answer.
+                try {
+                    callback.onCommandCompleted(operationId, OTReturnCode.TEEC_ERROR_BUSY, 0, null);
+                } catch (RemoteException re) {
+                    Log.e(TAG, "unable to reject command " + operationId + " of " + callerId + ": " + re);
+                }
+            }
+        }
+
+        @Override
+        public int teecInvokeCommandBatch(OTCommandBatch batch){
             Log.d(TAG, Binder.getCallingPid()
-                    + " is calling me to request cancellation operation with id " + opId);
+                    + " is calling me to invoke a batch of " + batch.size() + " commands");
 
-            Log.d(TAG, "OTGuard hash code " + mOTGuard.hashCode());
+            return mOTGuard.teecInvokeCommandBatch(Binder.getCallingPid(), batch);
+        }
+
+        @Override
+        public void teecRequestCancellation(long cancelId){
+            Log.d(TAG, Binder.getCallingPid()
+                    + " is calling me to request cancellation operation with id " + cancelId);
 
             mOTGuard.teecRequestCancellation(Binder.getCallingPid(),
-                    opId);
+                    cancelId);
         }
 
         @Override
@@ -192,6 +298,8 @@ public class OTConnectionService extends Service {
 
     @Override
     public void onDestroy(){
+        // the commands already handed over still run and send their results.
+        mAsyncWorkers.shutdown();
         mOTGuard = null;
 
         Log.i(TAG, "OTGuard destroyed");
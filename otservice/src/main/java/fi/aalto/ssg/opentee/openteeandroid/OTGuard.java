@@ -19,27 +19,23 @@ import android.app.Application;
 import android.content.Context;
 import android.os.Handler;
 import android.os.HandlerThread;
-import android.os.RemoteException;
 import android.util.Log;
 
-import com.google.protobuf.ByteString;
-import com.google.protobuf.InvalidProtocolBufferException;
-
-import fi.aalto.ssg.opentee.ISyncOperation;
 import fi.aalto.ssg.opentee.OT;
 import fi.aalto.ssg.opentee.OTInstallTA;
 import fi.aalto.ssg.opentee.OTUtils;
-import fi.aalto.ssg.opentee.imps.OTFactoryMethods;
-import fi.aalto.ssg.opentee.imps.pbdatatypes.GPDataTypes;
+import fi.aalto.ssg.opentee.imps.OTCommandBatch;
+import fi.aalto.ssg.opentee.imps.OTOperation;
+import fi.aalto.ssg.opentee.imps.OTOperationCodec;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 import fi.aalto.ssg.opentee.ITEEClient;
 import fi.aalto.ssg.opentee.imps.OTReturnCode;
@@ -49,28 +45,36 @@ import fi.aalto.ssg.opentee.imps.OTSharedMemory;
 /**
  * This class implements the multiplexing in the service side. It controls and monitors IPC calls
  * from remote clients.
- * Note: OTGuard keeps three global HashMaps. One for sessions, another one for shared memory and the third one for the callers..
+ * Note: OTGuard keeps the callers in a global ConcurrentHashMap, and the sessions and shared memory issued
+ * to all of them in two handle tables. There is no global lock for the calls. Each call takes the lock of
+ * its caller and the calls on one session are serialized, so different callers and different sessions are
+ * served in parallel. Each caller has a context of its own in the JNI layer, so a caller connecting to or
+ * disconnecting from Open-TEE does not disturb the others. Only adding and removing callers is serialized
+ * with mContextLock.
  */
 public class OTGuard {
     final String TAG = "OTGuard";
     String mQuote;
-    boolean mConnectedToOT = false;
     Context mContext;
-    String mTeeName;
+    final Object mContextLock = new Object(); // guards adding or removing callers.
+
+    static final int MIN_OP_BUFFER_SIZE = 1024;
+    // direct buffer of each binder thread to hand the operations to the JNI layer without a copy there.
+    final ThreadLocal<ByteBuffer> mOpBuffer = new ThreadLocal<>();
+    // holder of each binder thread for the return code and origin of the direct calls.
+    final ThreadLocal<int[]> mResult = new ThreadLocal<>();
 
     Map<Integer, OTCaller> mOTCallerList; // <pid, caller>
-    Map<Integer, Integer> smIDMap; // <smIdInJni, placeHolder>
-    Map<Integer, Integer> sessionIdMap; // <sessionIdInJni, sessionIdForCaller>
-    Random smIdGenerator;
+    OTHandleTable<Integer> mSharedMemoryTable; // flags of the shared memory issued to all callers.
+    OTHandleTable<Object> mSessionTable; // sessions issued to all callers.
 
     public OTGuard(String quote, Context context){
         this.mQuote = quote;
         this.mContext = context;
 
-        this.mOTCallerList = new HashMap<>();
-        this.smIDMap = new HashMap<>();
-        this.sessionIdMap = new HashMap<>();
-        this.smIdGenerator = new Random();
+        this.mOTCallerList = new ConcurrentHashMap<>();
+        this.mSharedMemoryTable = new OTHandleTable<>();
+        this.mSessionTable = new OTHandleTable<>();
 
         Log.i(TAG, "Guard created in service side with quote: " + this.mQuote);
     }
@@ -81,48 +85,45 @@ public class OTGuard {
     }
 
     public int initializeContext(int callerId, String teeName){
-        int return_code = OTReturnCode.TEEC_SUCCESS;
-
-        /* connect to open-tee if not connected. */
-        if ( !mConnectedToOT ){
-            String otSocketFilePath = null;
-            try {
-                otSocketFilePath = getOtSocketFilePath();
-            } catch (IOException e) {
-                e.printStackTrace();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-
-            if ( otSocketFilePath == null ){
-                Log.e(TAG, "try to get OPENTEE_SOCKET_FILE_PATH failed");
-                return OTReturnCode.TEEC_ERROR_GENERIC;
-            }
+        synchronized (mContextLock){
+            return initializeContextLocked(callerId, teeName);
+        }
+    }
 
-            Log.i(TAG, "initialize a context to the TEE: " + (teeName == null? "default": teeName) +
-                       ". And OT_SOCKET_FILE_PATH:" + otSocketFilePath);
+    private int initializeContextLocked(int callerId, String teeName){
+        if ( findCallerById(callerId) != null ){
+            Log.i(TAG, "Caller existed. Will not create a new one");
+            return OTReturnCode.TEEC_SUCCESS;
+        }
 
-            return_code = NativeLibtee.teecInitializeContext(teeName, otSocketFilePath);
+        /* connect the caller to open-tee. */
+        String otSocketFilePath = null;
+        try {
+            otSocketFilePath = getOtSocketFilePath();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
 
-            Log.i(TAG, " return code " + Integer.toHexString(return_code));
+        if ( otSocketFilePath == null ){
+            Log.e(TAG, "try to get OPENTEE_SOCKET_FILE_PATH failed");
+            return OTReturnCode.TEEC_ERROR_GENERIC;
+        }
 
-            if ( return_code == ITEEClient.TEEC_SUCCESS){
-                mConnectedToOT = true;
-                mTeeName = teeName;
+        Log.i(TAG, "initialize a context for " + callerId + " to the TEE: " + (teeName == null? "default": teeName) +
+                   ". And OT_SOCKET_FILE_PATH:" + otSocketFilePath);
 
-                Log.i(TAG, "Connected to open-tee.");
-            }
+        int return_code = NativeLibtee.teecInitializeContext(teeName, otSocketFilePath, callerId);
 
-        }
+        Log.i(TAG, " return code " + Integer.toHexString(return_code));
 
-        if ( findCallerById(callerId) == null ) {
-            /* create new caller identity if not exist. */
-            Log.i(TAG, "Caller not existed. Create one.");
+        if ( return_code == ITEEClient.TEEC_SUCCESS){
+            /* create new caller identity once its context is connected. */
+            Log.i(TAG, "Connected to open-tee. Create the caller.");
 
-            OTCaller caller = new OTCaller(callerId);
+            OTCaller caller = new OTCaller(callerId, mSharedMemoryTable, mSessionTable);
             this.mOTCallerList.put(callerId, caller);
-        }else{
-            Log.i(TAG, "Caller existed. Will not create a new one");
         }
 
         return return_code;
@@ -135,322 +136,461 @@ public class OTGuard {
             return;
         }
 
-        OTCaller caller = findCallerById(callerId);
+        // wait for the calls of the caller in flight.
+        OTCaller caller = lockCaller(callerId, true);
         if (caller == null){
             Log.e(TAG, "Unknown caller callerId:" + callerId);
             return;
         }
 
-        /* release all of its shared memory */
-        if(!caller.getSharedMemoryList().isEmpty()){
-            Log.e(TAG, "Still have " + caller.getSharedMemoryList().size() + " shared memory not released yet! TEE Proxy service will release it now.");
-        }
-
-        Iterator smIt = caller.getSharedMemoryList().entrySet().iterator();
-        while(smIt.hasNext()){
-            Map.Entry entry = (Map.Entry)smIt.next();
-            teecReleaseSharedMemory(callerId, (int)entry.getKey());
-            smIt.remove();
-        }
+        try {
+            /* release all of its shared memory, the most recent first. */
+            int numOfSharedMemory = caller.getSharedMemoryCount();
+            if(numOfSharedMemory > 0){
+                Log.e(TAG, "Still have " + numOfSharedMemory + " shared memory not released yet! TEE Proxy service will release it now.");
+            }
 
-        /* close all of its sessions */
-        if(!caller.getSessionList().isEmpty()){
-            Log.e(TAG, "Still have " + caller.getSessionList().size() + " sessions not closed! TEE Proxy service will close it now.");
-        }
+            for(int i = 0; i < numOfSharedMemory; i++){
+                releaseSharedMemory(caller, caller.getFirstSharedMemoryId());
+            }
 
-        Iterator sIt = caller.getSessionList().entrySet().iterator();
-        while(sIt.hasNext()){
-            Map.Entry entry = (Map.Entry)sIt.next();
-            teecCloseSession(callerId, (int)entry.getKey());
-            sIt.remove();
-        }
+            /* close all of its sessions, the most recent first. */
+            int numOfSessions = caller.getSessionCount();
+            if(numOfSessions > 0){
+                Log.e(TAG, "Still have " + numOfSessions + " sessions not closed! TEE Proxy service will close it now.");
+            }
 
-        /* remove the caller */
-        mOTCallerList.remove(callerId);
+            for(int i = 0; i < numOfSessions; i++){
+                closeSession(caller, caller.getFirstSessionId());
+            }
 
-        Log.i(TAG, "context for " + callerId + " is finalized");
+            synchronized (mContextLock){
+                /* remove the caller and finalize its own context in opentee */
+                mOTCallerList.remove(callerId);
 
-        if ( mOTCallerList.size() == 0 ){
-            Log.i(TAG, "caller list empty now, finalize the context in opentee");
+                NativeLibtee.teecFinalizeContext(callerId);
 
-            NativeLibtee.teecFinalizeContext();
+                Log.i(TAG, "context for " + callerId + " is finalized");
+            }
+        } finally {
+            unlockCaller(caller, true);
         }
 
     }
 
-    public int teecRegisterSharedMemory(int callerId, OTSharedMemory otSharedMemory){
-        OTCaller caller = findCallerById(callerId);
+    /**
+     * Register the shared memory of the caller. The id of the shared memory is issued here and handed back
+     * through smId. The CA refers to the shared memory with it afterwards, so that the operations are
+     * forwarded to the JNI layer as they are.
+     */
+    public int teecRegisterSharedMemory(int callerId, OTSharedMemory otSharedMemory, int[] smId){
+        OTCaller caller = lockCaller(callerId, false);
 
         if (caller == null) return OTReturnCode.TEEC_ERROR_ACCESS_DENIED;
 
-        /* serialize the otSharedMemory into byte array.*/
-        GPDataTypes.TeecSharedMemory.Builder smBuilder = GPDataTypes.TeecSharedMemory.newBuilder();
+        try {
+            return registerSharedMemory(caller, otSharedMemory, smId);
+        } finally {
+            unlockCaller(caller, false);
+        }
+    }
+
+    private int registerSharedMemory(OTCaller caller, OTSharedMemory otSharedMemory, int[] smId){
+        int callerId = caller.getId();
+        int flags = otSharedMemory == null ? 0 : otSharedMemory.getFlags();
 
-        int tmpSmIDInJni = generateSharedMemoryId();
+        /* only the flags are kept with the id. The client's array is not held once it is copied below. */
+        int smIdIssued = caller.addSharedMemory(flags);
+        if (smIdIssued == OTHandleTable.NO_ID) return OTReturnCode.TEEC_ERROR_OUT_OF_MEMORY;
 
+        /* the content is copied once into a direct buffer, which the JNI layer registers as it is. */
+        ByteBuffer buffer = null;
+        int size = 0;
         if(otSharedMemory != null){
-            smBuilder.setMBuffer( ByteString.copyFrom( otSharedMemory.asByteArray()) );
-            smBuilder.setMReturnSize(otSharedMemory.getReturnSize());
-            smBuilder.setSize(otSharedMemory.getSize());
-            smBuilder.setMID(otSharedMemory.getId());
-            smBuilder.setMFlag(otSharedMemory.getFlags());
+            size = otSharedMemory.getSize();
+            buffer = ByteBuffer.allocateDirect(size);
+            buffer.put(otSharedMemory.asByteArray(), 0, size);
         }
 
         /* call TEEC_RegisterSharedMemory in JNI layer */
-        int return_code = NativeLibtee.teecRegisterSharedMemory(smBuilder.build().toByteArray(),
-                tmpSmIDInJni);
+        int return_code = NativeLibtee.teecRegisterSharedMemoryDirect(buffer,
+                size,
+                flags,
+                smIdIssued,
+                callerId);
 
         if ( return_code == ITEEClient.TEEC_SUCCESS ){
-            /* add the OTSharedMemory to the caller */
-            caller.addSharedMemory(tmpSmIDInJni, otSharedMemory);
-
-            /* add the ID of OTSharedMemory in JNI to smIDMap to keep track of shared memory between OTGuard and JNI layer. */
-            smIDMap.put(tmpSmIDInJni, 0);
+            smId[0] = smIdIssued;
+        }else{
+            caller.removeSharedMemory(smIdIssued);
         }
 
         return return_code;
     }
 
-    public void teecReleaseSharedMemory(int callerId, int smId){
-        OTCaller caller = findCallerById(callerId);
-
-        if (caller == null) return;
-
-        /* release shared memory in JNI layer. */
-        int smIdInJni = caller.getSmIdInJniBySmid(smId);
+    /**
+     * Allocate shared memory in the TEE for the caller. The id is issued as in teecRegisterSharedMemory,
+     * but the service keeps no copy of the buffer.
+     */
+    public int teecAllocateSharedMemory(int callerId, int size, int flags, int[] smId){
+        OTCaller caller = lockCaller(callerId, false);
 
-        if ( smIdInJni != -1 ){
-            // found the id in jni.
-            Log.d(TAG, smId + " found in jni with id:" + smIdInJni);
-            NativeLibtee.teecReleaseSharedMemory(smIdInJni);
+        if (caller == null) return OTReturnCode.TEEC_ERROR_ACCESS_DENIED;
 
-            // remove the shared memory in current context.
-            smIDMap.remove(smIdInJni);
-        }
+        try {
+            int smIdIssued = caller.addSharedMemory(flags);
+            if (smIdIssued == OTHandleTable.NO_ID) return OTReturnCode.TEEC_ERROR_OUT_OF_MEMORY;
 
-        // remove shared memory from caller.
-        caller.removeSharedMemoryBySmIdInJni(smIdInJni);
-    }
+            int return_code = NativeLibtee.teecAllocateSharedMemory(size, flags, smIdIssued, callerId);
 
-    /*
-    * recreate the shared memory reference by replacing the memory reference id with the id in
-    * JNI if the operation is referencing registered memory.
-    * If reversed is true, then it replaces smid with smidInJni. Otherwise, it replaces smidInJni
-    * with smid.
-    * */
-    private byte[] replaceSMId(OTCaller caller, byte[] opsInBytes, boolean reversed){
-        if ( opsInBytes == null ) return null;
-
-        GPDataTypes.TeecOperation.Builder opBuilder = GPDataTypes.TeecOperation.newBuilder();
-        try {
-            opBuilder.mergeFrom(opsInBytes);
-        } catch (InvalidProtocolBufferException e) {
-            e.printStackTrace();
+            if ( return_code == ITEEClient.TEEC_SUCCESS ){
+                smId[0] = smIdIssued;
+            }else{
+                caller.removeSharedMemory(smIdIssued);
+            }
 
-            Log.e(TAG, "Internal error.");
+            return return_code;
+        } finally {
+            unlockCaller(caller, false);
         }
+    }
 
-        GPDataTypes.TeecOperation op = opBuilder.build();
-
-        GPDataTypes.TeecOperation.Builder toBuilder = opBuilder;
+    /**
+     * Copy a range of the allocated shared memory of the caller into data. The JNI layer checks the owner
+     * and the bounds.
+     */
+    public int otReadSharedMemory(int callerId, int smId, int offset, byte[] data){
+        OTCaller caller = lockCaller(callerId, false);
 
-        boolean modified = false;
-        int i = 0;
-        for(GPDataTypes.TeecParameter para: op.getMParamsList()){
-            Log.d(TAG, "param type:" + op.getMParams(i).getType());
+        if (caller == null) return OTReturnCode.TEEC_ERROR_ACCESS_DENIED;
 
-            if (op.getMParams(i).getType() == GPDataTypes.TeecParameter.Type.smr) {
-                Log.d(TAG, "Param is smr");
+        try {
+            return NativeLibtee.otReadSharedMemory(smId, offset, data, callerId);
+        } finally {
+            unlockCaller(caller, false);
+        }
+    }
 
-                // the parameter is shared memory reference. Replace the id of shared memory from
-                // to the corresponding shared memory id in JNI.
-                GPDataTypes.TeecSharedMemoryReference smrPara = para.getTeecSharedMemoryReference();
+    /**
+     * Copy data into the allocated shared memory of the caller.
+     */
+    public int otWriteSharedMemory(int callerId, int smId, int offset, byte[] data){
+        OTCaller caller = lockCaller(callerId, false);
 
-                int smid;
-                if(reversed){
-                    Log.i(TAG, "smid to smidInJni");
+        if (caller == null) return OTReturnCode.TEEC_ERROR_ACCESS_DENIED;
 
-                    // find the id in JNI
-                    smid = caller.getSmIdInJniBySmid(smrPara.getParent().getMID());
-                }else{
-                    Log.i(TAG, "smidInJni to smid");
+        try {
+            return NativeLibtee.otWriteSharedMemory(smId, offset, data, callerId);
+        } finally {
+            unlockCaller(caller, false);
+        }
+    }
 
-                    smid = caller.getSmIdBySmIdInJni(smrPara.getParent().getMID());
-                }
+    public void teecReleaseSharedMemory(int callerId, int smId){
+        // it does not wait for the calls in flight. The JNI layer keeps the shared memory for the calls
+        // still referring to it, and frees it once they are done.
+        OTCaller caller = lockCaller(callerId, false);
 
-                /**
-                 * replace the id in here. Since the id is changed, a new GP shared memory will
-                 * be created.
-                 */
-                GPDataTypes.TeecSharedMemoryReference.Builder smrParaWithReplacedIdBuilder =
-                        GPDataTypes.TeecSharedMemoryReference.newBuilder(smrPara);
+        if (caller == null) return;
 
-                GPDataTypes.TeecSharedMemory.Builder gpSMBuilder = GPDataTypes.TeecSharedMemory.newBuilder(smrPara.getParent());
-                gpSMBuilder.setMID(smid);
+        try {
+            releaseSharedMemory(caller, smId);
+        } finally {
+            unlockCaller(caller, false);
+        }
+    }
 
-                // replace the share memory in smr
-                smrParaWithReplacedIdBuilder.setParent(gpSMBuilder.build());
+    private void releaseSharedMemory(OTCaller caller, int smId){
+        // only the owner can release it, and only once, since the table gives the id up only once.
+        if ( caller.removeSharedMemory(smId) ){
+            NativeLibtee.teecReleaseSharedMemory(smId);
+        }
+    }
 
-                GPDataTypes.TeecParameter.Builder tpBuilder = GPDataTypes.TeecParameter.newBuilder(para);
-                tpBuilder.setTeecSharedMemoryReference(smrParaWithReplacedIdBuilder.build());
+    /**
+     * Open a session with the operation.
+     * @param result receives the return code and the return origin. It holds at least RESULT_SIZE ints.
+     * @return the updated operation, which goes back to the caller in the reply. It is null if the call failed.
+     */
+    public byte[] teecOpenSession(int callerId, int[] sid, UUID uuid, int connMethod, int connData, byte[] opsInBytes, int[] result, long cancelId){
+        checkResultHolder(result);
 
+        // known caller?
+        OTCaller caller = lockCaller(callerId, false);
+        if ( caller == null ){
+            result[NativeLibtee.RESULT_RETURN_CODE] = OTReturnCode.TEEC_ERROR_ACCESS_DENIED;
+            return null;
+        }
 
-                GPDataTypes.TeecParameter tmpParam = tpBuilder.build();
-                toBuilder.setMParams(i, tmpParam);
+        byte[] newOpInBytes;
 
-                Log.d(TAG,
-                        "Using shared memory reference in operation. Replace the id "
-                                + smrPara.getParent().getMID()
-                                + " of shared memory to the id "
-                                + tmpParam.getTeecSharedMemoryReference().getParent().getMID()
-                                + " in jni.");
-                modified = true;
-            }
-            i++;
+        // the jni layer writes the return code and origin straight into result.
+        try {
+            newOpInBytes = openSession(caller, sid, uuid, connMethod, connData, opsInBytes, result, cancelId);
+        } finally {
+            unlockCaller(caller, false);
         }
 
-        if(modified) {
-            // recreate TeecOperation after pid changed.
-            GPDataTypes.TeecOperation newOp = toBuilder.build();
-            opsInBytes = newOp.toByteArray();
-        }
+        return newOpInBytes;
+    } // end of openSession.
 
-        return opsInBytes;
-    } // end of replaceSMId.
+    private byte[] openSession(OTCaller caller, int[] sid, UUID uuid, int connMethod, int connData, byte[] opsInBytes, int[] result, long cancelId){
+        int callerId = caller.getId();
 
-    public int teecOpenSession(int callerId, int sid, UUID uuid, int connMethod, int connData, byte[] opsInBytes, int[] retOrigin, ISyncOperation iSyncOperation, int opHashCode){
-        // known caller?
-        if ( !mOTCallerList.containsKey(callerId) ) return OTReturnCode.TEEC_ERROR_ACCESS_DENIED;
+        byte[] newOpInByte;
 
-        OTCaller caller = findCallerById(callerId);
+        // the session is locked before its id is issued, so nothing runs on it until it is opened.
+        Object sessionLock = new Object();
+        synchronized (sessionLock){
+            // the sid is issued here and used by the CA, OTGuard and JNI layer.
+            int sidIssued = caller.addSession(sessionLock);
+            if ( sidIssued == OTHandleTable.NO_ID ){
+                result[NativeLibtee.RESULT_RETURN_CODE] = OTReturnCode.TEEC_ERROR_OUT_OF_MEMORY;
+                result[NativeLibtee.RESULT_RETURN_ORIGIN] = 0;
+                return null;
+            }
 
-        opsInBytes = replaceSMId(caller, opsInBytes, true);
+            // call the teecOpenSession in native libtee. It can be cancelled while it runs.
+            caller.addRunningOperation(cancelId, sidIssued);
+            try {
+                newOpInByte = NativeLibtee.teecOpenSessionDirect(sidIssued,
+                        uuid.getMostSignificantBits(),
+                        uuid.getLeastSignificantBits(),
+                        connMethod,
+                        connData,
+                        toDirectBuffer(opsInBytes),
+                        opsInBytes == null ? 0 : opsInBytes.length,
+                        result,
+                        cancelId,
+                        callerId);
+            } finally {
+                caller.removeRunningOperation(cancelId);
+            }
 
-        //test code
-        OTFactoryMethods.print_op_in_bytes(TAG, opsInBytes);
+            // upon success, the session is kept for that caller.
+            if(result[NativeLibtee.RESULT_RETURN_CODE] == OTReturnCode.TEEC_SUCCESS) {
+                sid[0] = sidIssued;
+            }else{
+                caller.removeSession(sidIssued);
+                newOpInByte = null; // only sync ops if succeed.
+            }
+        }
 
-        // generate sid for JNI layer.
-        int sidForJni = generateSessionId();
-        IntWrapper retOriginFromJni = new IntWrapper(-1); // to receive the return origin from jni layer.
-        IntWrapper returnCode = new IntWrapper(-1); // to receive the return code from jni layer.
+        return newOpInByte;
+    }
 
-        // call the teecOpenSession in native libtee.
-        byte[] newOpInByte = NativeLibtee.teecOpenSession(sidForJni,
-                uuid,
-                connMethod,
-                connData,
-                opsInBytes,
-                retOriginFromJni,
-                returnCode,
-                opHashCode + callerId);
+    public void teecCloseSession(int callerId, int sid){
+        OTCaller caller = lockCaller(callerId, false);
 
-        retOrigin[0] = retOriginFromJni.getValue();
+        if(caller == null){
+            Log.e(TAG, "Incorrect callerId:" + callerId);
+            return;
+        }
 
-        // upon success, add session to that caller.
-        if(returnCode.getValue() == OTReturnCode.TEEC_SUCCESS) {
-            caller.addSession(sidForJni, sid);
-            sessionIdMap.put(sidForJni, sid);
+        try {
+            closeSession(caller, sid);
+        } finally {
+            unlockCaller(caller, false);
         }
+    }
 
-        if(iSyncOperation != null){
-            byte[] newOpInBytes = {' '};
+    private void closeSession(OTCaller caller, int sid){
+        // only the owner can close it.
+        Object sessionLock = caller.getSessionLock(sid);
+        if(sessionLock == null) return;
 
-            // only sync ops if succeed.
-            if(returnCode.getValue() == OTReturnCode.TEEC_SUCCESS) newOpInBytes = newOpInByte.clone();
+        // wait for the command running on the session.
+        synchronized (sessionLock){
+            if(!caller.removeSession(sid)) return;
 
-            // sync operation back.
-            try {
-                Log.d(TAG, "Operation sync back using callback function.");
+            NativeLibtee.teecCloseSession(sid);
+        }
+    }
 
-                //test code, wait for 1000ms: worked
+    /**
+     * Invoke the command with the operation.
+     * @param result receives the return code and the return origin. It holds at least RESULT_SIZE ints.
+     * @return the updated operation, which goes back to the caller in the reply.
+     */
+    public byte[] teecInvokeCommand(int callerId, int sid, int commandId, byte[] opsInBytes, int[] result, long cancelId){
+        checkResultHolder(result);
 
-                iSyncOperation.syncOperation(newOpInBytes);
-            } catch (RemoteException e) {
-                e.printStackTrace();
-            }
+        // known caller?
+        OTCaller caller = lockCaller(callerId, false);
+        if ( caller == null ){
+            result[NativeLibtee.RESULT_RETURN_CODE] = OTReturnCode.TEEC_ERROR_ACCESS_DENIED;
+            return null;
         }
 
-        return returnCode.getValue();
-    } // end of openSession.
+        byte[] newOpInBytes;
 
-    public void teecCloseSession(int callerId, int sid){
-        if ( !mOTCallerList.containsKey(callerId) ) Log.e(TAG, "Incorrect callerId:" + callerId);
+        // the jni layer writes the return code and origin straight into result.
+        try {
+            newOpInBytes = invokeCommandInJni(caller,
+                    sid,
+                    commandId,
+                    opsInBytes,
+                    result,
+                    cancelId);
+        } finally {
+            unlockCaller(caller, false);
+        }
 
-        OTCaller caller = findCallerById(callerId);
+        return newOpInBytes;
+    }
 
-        if(caller == null) return;
+    /**
+     * Invoke the command with an operation of values only. Neither protobuf nor the flat encoding is
+     * involved, the values go to the JNI layer as they are and are updated in place.
+     * @param values VALUES_SLOT_SIZE ints for each slot as in OTOperationCodec.
+     * @param result receives the return code and the return origin. It holds at least RESULT_SIZE ints.
+     */
+    public void teecInvokeCommandValues(int callerId, int sid, int commandId, int[] values, int[] result, long cancelId){
+        checkResultHolder(result);
+
+        if(values == null || values.length < OTOperationCodec.VALUES_SIZE){
+            result[NativeLibtee.RESULT_RETURN_CODE] = OTReturnCode.TEEC_ERROR_BAD_PARAMETERS;
+            return;
+        }
 
-        // remove session id from caller.
-        int sidInJni = caller.removeSessionBySid(sid);
+        // known caller?
+        OTCaller caller = lockCaller(callerId, false);
+        if ( caller == null ){
+            result[NativeLibtee.RESULT_RETURN_CODE] = OTReturnCode.TEEC_ERROR_ACCESS_DENIED;
+            return;
+        }
 
-        if(sidInJni == -1) return;
+        int[] jniResult = resultHolder(); // to receive the return code and origin from jni layer.
+        jniResult[NativeLibtee.RESULT_RETURN_CODE] = OTReturnCode.TEEC_ERROR_BAD_PARAMETERS;
+        jniResult[NativeLibtee.RESULT_RETURN_ORIGIN] = 0;
 
-        // remove sidInJni from global var.
-        sessionIdMap.remove(sidInJni);
+        try {
+            Object sessionLock = caller.getSessionLock(sid);
+            if(sessionLock != null){
+                synchronized (sessionLock){
+                    // closed while waiting for the lock?
+                    if(caller.hasSession(sid)){
+                        caller.addRunningOperation(cancelId, sid);
+                        try {
+                            NativeLibtee.teecInvokeCommandValues(sid, commandId, values, jniResult, cancelId);
+                        } finally {
+                            caller.removeRunningOperation(cancelId);
+                        }
+                    }
+                }
+            }
+        } finally {
+            unlockCaller(caller, false);
+        }
 
-        NativeLibtee.teecCloseSession(sidInJni);
+        result[NativeLibtee.RESULT_RETURN_CODE] = jniResult[NativeLibtee.RESULT_RETURN_CODE];
+        result[NativeLibtee.RESULT_RETURN_ORIGIN] = jniResult[NativeLibtee.RESULT_RETURN_ORIGIN];
     }
 
-    public int teecInvokeCommand(int callerId, int sid, int commandId, int[] returnOrigin, byte[] opsInBytes, ISyncOperation iSyncOperation, int opHashCode){
+    /**
+     * Invoke the commands of the batch one by one in order. The result and the updated operation of each
+     * command are written back into the batch, which goes back to the caller in the reply.
+     */
+    public int teecInvokeCommandBatch(int callerId, OTCommandBatch batch){
         // known caller?
-        if ( !mOTCallerList.containsKey(callerId) ) return OTReturnCode.TEEC_ERROR_ACCESS_DENIED;
+        OTCaller caller = lockCaller(callerId, false);
+        if ( caller == null ) return OTReturnCode.TEEC_ERROR_ACCESS_DENIED;
 
-        OTCaller caller = findCallerById(callerId);
+        int[] jniResult = resultHolder(); // to receive the return code and origin from jni layer.
 
-        opsInBytes = replaceSMId(caller, opsInBytes, true);
+        try {
+            // each command takes the lock of its own session.
+            for(int i = 0; i < batch.size(); i++){
+                byte[] newOpInBytes = invokeCommandInJni(caller,
+                        batch.getSessionId(i),
+                        batch.getCommandId(i),
+                        batch.getOperationInBytes(i),
+                        jniResult,
+                        OTOperation.NO_CANCEL_ID);
+
+                batch.setResult(i,
+                        jniResult[NativeLibtee.RESULT_RETURN_CODE],
+                        jniResult[NativeLibtee.RESULT_RETURN_ORIGIN],
+                        newOpInBytes);
+            }
+        } finally {
+            unlockCaller(caller, false);
+        }
 
-        //get sid
-        int sidInJni = caller.getSidInJniBySid(sid);
-        if(sidInJni == -1){
-            Log.e(TAG, "session with id " + sid + " not found in jni");
+        return OTReturnCode.TEEC_SUCCESS;
+    }
 
-            return OTReturnCode.TEEC_ERROR_BAD_PARAMETERS;
+    /*
+     * invoke one command of a known caller in native libtee. It returns the updated operation, and the
+     * return code and origin go into result, which holds RESULT_SIZE ints. The caller must be locked, and
+     * the command holds the lock of the session while it runs.
+     */
+    private byte[] invokeCommandInJni(OTCaller caller,
+                                      int sid,
+                                      int commandId,
+                                      byte[] opsInBytes,
+                                      int[] result,
+                                      long cancelId){
+        // the operation goes to the JNI layer as it is. The JNI layer checks that the shared memory
+        // referenced in it belongs to the caller.
+        Object sessionLock = caller.getSessionLock(sid);
+        if(sessionLock == null){
+            Log.e(TAG, "session with id " + sid + " not found for caller " + caller.getId());
+
+            result[NativeLibtee.RESULT_RETURN_CODE] = OTReturnCode.TEEC_ERROR_BAD_PARAMETERS;
+            result[NativeLibtee.RESULT_RETURN_ORIGIN] = 0;
+            return null;
         }
 
-        IntWrapper retOriginFromJni = new IntWrapper(-1); // to receive the return origin from jni layer.
-        IntWrapper returnCode = new IntWrapper(-1); // to receive the return code from jni layer.
+        byte[] newOpInBytes;
 
-        // call the teecInvokeCommand in native libtee.
-        byte[] newOpInBytes = NativeLibtee.teecInvokeCommand(sidInJni,
-                commandId,
-                opsInBytes,
-                retOriginFromJni,
-                returnCode,
-                opHashCode + callerId);
+        synchronized (sessionLock){
+            // closed while waiting for the lock?
+            if(!caller.hasSession(sid)){
+                Log.e(TAG, "session with id " + sid + " closed for caller " + caller.getId());
 
-        returnOrigin[0] = retOriginFromJni.getValue();
+                result[NativeLibtee.RESULT_RETURN_CODE] = OTReturnCode.TEEC_ERROR_BAD_PARAMETERS;
+                result[NativeLibtee.RESULT_RETURN_ORIGIN] = 0;
+                return null;
+            }
 
-        if(iSyncOperation != null){
-            // sync operation back.
+            // call the teecInvokeCommand in native libtee. It can be cancelled while it runs.
+            caller.addRunningOperation(cancelId, sid);
             try {
-                Log.d(TAG, "Operation sync back using callback function with return code " + returnCode.getValue());
-
-                Log.i(TAG, "len of op to sync back = " + newOpInBytes.length);
-
-                iSyncOperation.syncOperation(newOpInBytes);
-            } catch (RemoteException e) {
-                e.printStackTrace();
+                newOpInBytes = NativeLibtee.teecInvokeCommandDirect(sid,
+                        commandId,
+                        toDirectBuffer(opsInBytes),
+                        opsInBytes == null ? 0 : opsInBytes.length,
+                        result,
+                        cancelId,
+                        caller.getId());
+            } finally {
+                caller.removeRunningOperation(cancelId);
             }
         }
 
-        return returnCode.getValue();
+        return newOpInBytes;
     }
 
-    public void teecRequestCancellation(final int callerId, final int opId){
-        if(findCallerById(callerId) == null){
+    /**
+     * Cancel the running operation of the caller with the id issued by the caller. It does nothing if the
+     * operation is not running. Neither the caller nor the session is locked, so it is sent right away
+     * from the binder thread even while the operation holds the session.
+     */
+    public void teecRequestCancellation(int callerId, long cancelId){
+        OTCaller caller = findCallerById(callerId);
+        if(caller == null){
             Log.e(TAG, "unknown caller. Request cancellation abort!");
             return;
         }
 
-        // needed to be dealing within another thread.
-        Thread t = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                NativeLibtee.teecRequestCancellation(opId + callerId);
-            }
-        });
+        int sid = caller.getSessionOfOperation(cancelId);
+        if(sid == OTHandleTable.NO_ID){
+            Log.i(TAG, "operation " + cancelId + " of " + callerId + " is not running. Maybe it is already finished");
+            return;
+        }
 
-        t.start();
+        NativeLibtee.teecRequestCancellation(sid, cancelId);
     }
 
     public void otInstallTa(Context context, int callerId, String taName, byte[] taInBytes){
@@ -468,40 +608,66 @@ public class OTGuard {
         workerHandler.post(installTA.installTATask);
     }
 
-    private OTCaller findCallerById(int callerId){
-        return mOTCallerList.get(callerId);
+    /* the array of the caller must take the whole result before anything runs. */
+    private void checkResultHolder(int[] result){
+        if(result == null || result.length < NativeLibtee.RESULT_SIZE){
+            throw new IllegalArgumentException("result must hold " + NativeLibtee.RESULT_SIZE + " ints");
+        }
     }
 
-    /*  there is need to regenerate the id for the shared memory since different applications may
-        send the shared memory with the same id which is identical in ther context while not in OTGuard.
-        the same principle also apply to the Session. */
-    private int generateSharedMemoryId(){
-        int id;
-        do{
-            id = smIdGenerator.nextInt(500000); // assume the maximum allowed  num of this generator is 500000.
-        }while(occupiedSmId(id));
+    /* result holder of this thread for the direct calls. */
+    int[] resultHolder(){
+        int[] result = mResult.get();
+        if(result == null){
+            result = new int[NativeLibtee.RESULT_SIZE];
+            mResult.set(result);
+        }
+        return result;
+    }
 
-        Log.d(TAG, "Generating memory id for both OTGuard and JNI:" + id);
+    /* copy the operation into the direct buffer of this thread. Return null if there is no operation. */
+    private ByteBuffer toDirectBuffer(byte[] opsInBytes){
+        if(opsInBytes == null) return null;
+
+        ByteBuffer buffer = mOpBuffer.get();
+        if(buffer == null || buffer.capacity() < opsInBytes.length){
+            buffer = ByteBuffer.allocateDirect(Math.max(opsInBytes.length, MIN_OP_BUFFER_SIZE));
+            mOpBuffer.set(buffer);
+        }
 
-        return id;
+        buffer.clear();
+        buffer.put(opsInBytes);
+        return buffer;
     }
 
-    private boolean occupiedSmId(int id){
-        return smIDMap.containsKey(id);
+    private OTCaller findCallerById(int callerId){
+        return mOTCallerList.get(callerId);
     }
 
-    private int generateSessionId(){
-        int id;
-        do{
-            id = smIdGenerator.nextInt(500000); // reuse the shared memory id random number generator.
-        }while(occupiedSid(id));
+    /*
+     * find the caller and take its lock, shared for the calls or exclusive for freeing its resources.
+     * Return null if the caller is unknown or was finalized while waiting for the lock.
+     */
+    private OTCaller lockCaller(int callerId, boolean exclusive){
+        OTCaller caller = findCallerById(callerId);
+        if(caller == null) return null;
+
+        Lock lock = exclusive ? caller.mLock.writeLock() : caller.mLock.readLock();
+        lock.lock();
 
-        Log.d(TAG, "Generating session id for both OTGuard and JNI:" + id);
+        if(findCallerById(callerId) != caller){
+            lock.unlock();
+            return null;
+        }
 
-        return id;
+        return caller;
     }
 
-    private boolean occupiedSid(int id){
-        return sessionIdMap.containsKey(id);
+    private void unlockCaller(OTCaller caller, boolean exclusive){
+        if(exclusive){
+            caller.mLock.writeLock().unlock();
+        }else{
+            caller.mLock.readLock().unlock();
+        }
     }
 }
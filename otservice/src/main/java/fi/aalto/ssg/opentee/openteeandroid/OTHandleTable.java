@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.openteeandroid;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Handle table for one kind of resource issued to the callers, such as shared memory or sessions.
+ * <p>
+ * An id is the index of its slot in the lower bits and the generation of the slot in the upper bits.
+ * The generation is bumped when the slot is freed, so a stale id of a released resource never matches
+ * the resource which reuses the slot. Each slot in use holds an immutable entry with the id, the owner
+ * and the resource, so looking one up reads the slot of the id and compares the id without any lock.
+ * Adding and removing take the lock of the table and use the free list. The slots of each owner are also
+ * linked to each other, and the owners are kept in a small hash table with their first slot and the number
+ * of their slots, so the ids of an owner are found without going through the slots of the others. Only
+ * adding a resource and growing the table allocate.
+ */
+public class OTHandleTable<T> {
+    public static final int NO_ID = -1;
+    static final int NONE = -1;
+
+    static final int INDEX_BITS = 20;
+    static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    static final int MAX_CAPACITY = 1 << INDEX_BITS;
+    static final int GENERATION_MASK = 0x7FF; // 11 bits, so that the ids stay positive.
+    static final int DEFAULT_CAPACITY = 64;
+
+    static final class Entry {
+        final int mId;
+        final int mOwner;
+        final Object mValue;
+
+        Entry(int id, int owner, Object value){
+            this.mId = id;
+            this.mOwner = owner;
+            this.mValue = value;
+        }
+    }
+
+    /* read without the lock. It is replaced by a bigger copy when the table grows. */
+    volatile AtomicReferenceArray<Entry> mEntries;
+
+    // the rest is only used with the lock of the table held.
+    int[] mGenerations; // generation of each slot, never 0.
+    int[] mNext;        // next free slot, or next slot of the same owner.
+    int[] mPrev;        // previous slot of the same owner.
+    int mFreeHead = NONE;
+    int mUsed = 0;      // slots below it have been used at least once.
+    int mSize = 0;
+
+    // open addressing table of the owners with the first of their slots and the number of them.
+    int[] mOwnerIds = newOwnerIds(8); // NONE if the entry is empty.
+    int[] mOwnerHeads = new int[8];
+    int[] mOwnerCounts = new int[8];
+    int mNumOfOwners = 0;
+
+    public OTHandleTable(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OTHandleTable(int capacity){
+        capacity = Math.max(1, Math.min(capacity, MAX_CAPACITY));
+
+        mEntries = new AtomicReferenceArray<>(capacity);
+        mGenerations = new int[capacity];
+        mNext = new int[capacity];
+        mPrev = new int[capacity];
+        Arrays.fill(mGenerations, 1);
+    }
+
+    /**
+     * Add the resource of the owner.
+     * @param owner the id of the caller which owns it. It must not be negative.
+     * @param value the resource. It can be null if only the id is of interest.
+     * @return the id issued for it, or NO_ID if the table is full.
+     */
+    public synchronized int add(int owner, T value){
+        int slot;
+        if(mFreeHead != NONE){
+            slot = mFreeHead;
+            mFreeHead = mNext[slot];
+        }else{
+            if(mUsed == mGenerations.length && !grow()) return NO_ID;
+            slot = mUsed++;
+        }
+
+        // put it in front of the slots of the owner.
+        int o = findOwner(owner);
+        if(o == NONE) o = addOwner(owner);
+        int head = mOwnerHeads[o];
+        mPrev[slot] = NONE;
+        mNext[slot] = head;
+        if(head != NONE) mPrev[head] = slot;
+        mOwnerHeads[o] = slot;
+        mOwnerCounts[o]++;
+
+        int id = mGenerations[slot] << INDEX_BITS | slot;
+        mEntries.set(slot, new Entry(id, owner, value));
+
+        mSize++;
+        return id;
+    }
+
+    /* entry of the id if it is in use, null otherwise. */
+    private Entry entryOf(int id){
+        if(id < 0) return null;
+
+        AtomicReferenceArray<Entry> entries = mEntries;
+        int slot = id & INDEX_MASK;
+        if(slot >= entries.length()) return null;
+
+        Entry entry = entries.get(slot);
+        return entry != null && entry.mId == id ? entry : null;
+    }
+
+    /**
+     * @return the resource of the id, or null if the id is not in use.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int id){
+        Entry entry = entryOf(id);
+        return entry == null ? null : (T)entry.mValue;
+    }
+
+    /**
+     * @return the resource of the id, or null if the id is not in use or belongs to someone else.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int id, int owner){
+        Entry entry = entryOf(id);
+        return entry == null || entry.mOwner != owner ? null : (T)entry.mValue;
+    }
+
+    /**
+     * @return the owner of the id, or -1 if the id is not in use.
+     */
+    public int ownerOf(int id){
+        Entry entry = entryOf(id);
+        return entry == null ? NONE : entry.mOwner;
+    }
+
+    public boolean isOwnedBy(int id, int owner){
+        Entry entry = entryOf(id);
+        return entry != null && entry.mOwner == owner;
+    }
+
+    /**
+     * Remove the resource of the id. The id is not valid afterwards.
+     * @param owner only the owner can remove it.
+     * @return false if the id is not in use or belongs to someone else.
+     */
+    public synchronized boolean remove(int id, int owner){
+        Entry entry = entryOf(id);
+        if(entry == null || entry.mOwner != owner) return false;
+
+        int slot = id & INDEX_MASK;
+        mEntries.set(slot, null);
+
+        // unlink it from the slots of the owner.
+        int o = findOwner(owner);
+        if(mPrev[slot] != NONE){
+            mNext[mPrev[slot]] = mNext[slot];
+        }else{
+            mOwnerHeads[o] = mNext[slot];
+        }
+        if(mNext[slot] != NONE) mPrev[mNext[slot]] = mPrev[slot];
+        if(--mOwnerCounts[o] == 0) removeOwner(o);
+
+        mGenerations[slot] = (mGenerations[slot] & GENERATION_MASK) + 1;
+        if(mGenerations[slot] > GENERATION_MASK) mGenerations[slot] = 1;
+
+        mNext[slot] = mFreeHead;
+        mFreeHead = slot;
+
+        mSize--;
+        return true;
+    }
+
+    /**
+     * @return the most recent id of the owner, or NO_ID if it has none. Removing it and asking again
+     * goes through all the ids of the owner.
+     */
+    public synchronized int firstIdOf(int owner){
+        int o = findOwner(owner);
+        if(o == NONE) return NO_ID;
+
+        int slot = mOwnerHeads[o];
+        return mGenerations[slot] << INDEX_BITS | slot;
+    }
+
+    /**
+     * @return the number of the ids of the owner.
+     */
+    public synchronized int countOf(int owner){
+        int o = findOwner(owner);
+        return o == NONE ? 0 : mOwnerCounts[o];
+    }
+
+    public synchronized int size(){
+        return mSize;
+    }
+
+    private boolean grow(){
+        int capacity = mGenerations.length;
+        if(capacity >= MAX_CAPACITY) return false;
+
+        int newCapacity = Math.min(capacity * 2, MAX_CAPACITY);
+        AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(newCapacity);
+        for(int slot = 0; slot < capacity; slot++) entries.set(slot, mEntries.get(slot));
+        mGenerations = Arrays.copyOf(mGenerations, newCapacity);
+        mNext = Arrays.copyOf(mNext, newCapacity);
+        mPrev = Arrays.copyOf(mPrev, newCapacity);
+        Arrays.fill(mGenerations, capacity, newCapacity, 1);
+
+        // the lookups still reading the old array see the same entries.
+        mEntries = entries;
+        return true;
+    }
+
+    private static int[] newOwnerIds(int capacity){
+        int[] ownerIds = new int[capacity];
+        Arrays.fill(ownerIds, NONE);
+        return ownerIds;
+    }
+
+    /* home entry of the owner in an owner table of the given capacity, which is a power of two. */
+    private static int homeOf(int owner, int capacity){
+        int hash = owner * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (capacity - 1);
+    }
+
+    private int findOwner(int owner){
+        int mask = mOwnerIds.length - 1;
+        for(int o = homeOf(owner, mOwnerIds.length); mOwnerIds[o] != NONE; o = (o + 1) & mask){
+            if(mOwnerIds[o] == owner) return o;
+        }
+        return NONE;
+    }
+
+    private int addOwner(int owner){
+        // keep at least half of the entries empty, so that the probes stay short.
+        if((mNumOfOwners + 1) * 2 > mOwnerIds.length) growOwners();
+
+        int mask = mOwnerIds.length - 1;
+        int o = homeOf(owner, mOwnerIds.length);
+        while(mOwnerIds[o] != NONE) o = (o + 1) & mask;
+
+        mOwnerIds[o] = owner;
+        mOwnerHeads[o] = NONE;
+        mOwnerCounts[o] = 0;
+        mNumOfOwners++;
+        return o;
+    }
+
+    private void growOwners(){
+        int[] ownerIds = mOwnerIds;
+        int[] ownerHeads = mOwnerHeads;
+        int[] ownerCounts = mOwnerCounts;
+
+        int capacity = ownerIds.length * 2;
+        mOwnerIds = newOwnerIds(capacity);
+        mOwnerHeads = new int[capacity];
+        mOwnerCounts = new int[capacity];
+
+        for(int i = 0; i < ownerIds.length; i++){
+            if(ownerIds[i] == NONE) continue;
+
+            int o = homeOf(ownerIds[i], capacity);
+            while(mOwnerIds[o] != NONE) o = (o + 1) & (capacity - 1);
+            mOwnerIds[o] = ownerIds[i];
+            mOwnerHeads[o] = ownerHeads[i];
+            mOwnerCounts[o] = ownerCounts[i];
+        }
+    }
+
+    private void removeOwner(int o){
+        int mask = mOwnerIds.length - 1;
+        mOwnerIds[o] = NONE;
+        mNumOfOwners--;
+
+        // move back the owners after it which could not get their home entry, so that no probe stops early.
+        for(int next = (o + 1) & mask; mOwnerIds[next] != NONE; next = (next + 1) & mask){
+            int home = homeOf(mOwnerIds[next], mOwnerIds.length);
+            if(((next - home) & mask) < ((next - o) & mask)) continue;
+
+            mOwnerIds[o] = mOwnerIds[next];
+            mOwnerHeads[o] = mOwnerHeads[next];
+            mOwnerCounts[o] = mOwnerCounts[next];
+            mOwnerIds[next] = NONE;
+            o = next;
+        }
+    }
+}
@@ -11,7 +11,7 @@ include $(CLEAR_VARS)
 LOCAL_PATH := $(MY_PATH)
 
 local_shared_libraries := libtee libgpdatatypes
-LOCAL_STATIC_LIBRARIES += libprotobuf
+LOCAL_STATIC_LIBRARIES += libprotobuf-lite
 local_cflags := -DANDROID_NDK
 
 ifeq ($(TARGET_ARCH),arm)
@@ -19,13 +19,16 @@
 #include "gpdatatypes/GPDataTypes.pb.h"
 
 #include <pthread.h>
+#include <sched.h>
 #include <stdbool.h>
 #include <android/log.h>
 
-#include <google/protobuf/message.h>
+#include <google/protobuf/message_lite.h>
 #include <string>
 #include <vector>
 #include <unordered_map>
+#include <memory>
+#include <atomic>
 #include <sstream>
 
 #ifdef ANDROID
@@ -48,15 +51,115 @@ extern "C" {
  * Global Var. All contexts and sessions should be kept record in here.
  * SharedMemory should kept record in the 'OTGuard.java' and it can be passed in and out.
  * */
-static TEEC_Context g_contextRecord = {0};
 
-static unordered_map<int, TEEC_SharedMemory*> sharedmemory_map;
-static unordered_map<int, TEEC_Session*> sessions_map;
-static unordered_map<int, TEEC_Operation*> operations_map; // <hashcodeWithPid, TEEC_Operation>
+/*
+ * Context of one caller. Each caller connects to the engine on its own, so initializing or finalizing
+ * the context of one caller does not touch the work of the others. The sessions opened in the context
+ * share it, so it stays allocated until the last of them is gone.
+ */
+struct ContextRecord{
+    TEEC_Context context;
+
+    ContextRecord() : context(){}
+};
+
+static unordered_map<int, shared_ptr<ContextRecord>> contexts_map; // <callerId, context>
+
+/*
+ * Native state of one shared memory. A call holds the record of each shared memory its operation refers
+ * to until the reply is encoded, so releasing it while the call runs only takes the record out of the
+ * map. The memory is released in libtee and its buffer let go with the last reference to the record.
+ */
+struct SharedMemoryRecord{
+    shared_ptr<ContextRecord> context; // the context the memory is registered in.
+    TEEC_SharedMemory sm;
+    int owner; // callerId
+    jobject direct_buffer; // global ref to the direct buffer backing it, or NULL if it is allocated by libtee.
+    bool allocated; // the CA keeps no copy of the buffer owned by libtee.
+    bool registered; // TEEC_RegisterSharedMemory or TEEC_AllocateSharedMemory succeeded.
+
+    SharedMemoryRecord(shared_ptr<ContextRecord> ctx, int callerId) : context(ctx), sm(), owner(callerId),
+                                                                       direct_buffer(NULL), allocated(false),
+                                                                       registered(false){}
+    ~SharedMemoryRecord();
+};
+
+static unordered_map<int, shared_ptr<SharedMemoryRecord>> sharedmemory_map; // <smid, shared memory>
+
+#define NO_CANCEL_ID 0
+
+/*
+ * Native state of one session. Each session has its own TEEC_Session and lock, so the commands on
+ * different sessions run in the engine at the same time. The record is shared, so a command still
+ * holding it after the session was closed finds it closed instead of freed.
+ * The operation of the running call is kept here too, so a cancellation never points into the stack
+ * of a call.
+ */
+struct SessionRecord{
+    shared_ptr<ContextRecord> context; // the context the session is opened in.
+    TEEC_Session session;
+    pthread_mutex_t lock; // serializes the calls on the session.
+    bool open;
+
+    TEEC_Operation operation; // operation of the running call.
+    atomic<int64_t> running_op; // id of the operation while it can be cancelled, NO_CANCEL_ID otherwise.
+    atomic<int> cancellers; // cancellations looking at the operation right now.
+
+    SessionRecord(shared_ptr<ContextRecord> ctx) : context(ctx), session(), open(false), operation(),
+                                                   running_op(NO_CANCEL_ID), cancellers(0){ pthread_mutex_init(&lock, NULL); }
+    ~SessionRecord(){ pthread_mutex_destroy(&lock); }
+};
+
+class SessionLock{
+public:
+    SessionLock(SessionRecord* record) : mRecord(record){ pthread_mutex_lock(&mRecord->lock); }
+    ~SessionLock(){ pthread_mutex_unlock(&mRecord->lock); }
+private:
+    SessionRecord* mRecord;
+};
+
+/*
+ * A call publishes the id of its operation while it can be cancelled. A cancellation announces itself in
+ * cancellers before it compares the id, and the call waits for the announced ones once it has withdrawn
+ * the id, so the operation is not reused under TEEC_RequestCancellation. Neither side takes a lock.
+ */
+__inline void begin_cancellable(SessionRecord* record, jlong cancelId){
+    if(cancelId != NO_CANCEL_ID) record->running_op.store(cancelId);
+}
+
+__inline void end_cancellable(SessionRecord* record){
+    record->running_op.store(NO_CANCEL_ID);
+    while(record->cancellers.load() > 0) sched_yield();
+}
+
+static unordered_map<int, shared_ptr<SessionRecord>> sessions_map;
+
+/*
+ * The calls from the service run in parallel, so the maps above are only touched with registry_lock
+ * held. It is never held across the TEEC calls.
+ */
+static pthread_mutex_t registry_lock = PTHREAD_MUTEX_INITIALIZER;
+
+class RegistryLock{
+public:
+    RegistryLock(){ pthread_mutex_lock(&registry_lock); }
+    ~RegistryLock(){ pthread_mutex_unlock(&registry_lock); }
+};
 
 static int open_tee_socket_env_set = 0;
 
 //test code
+__inline void print_sharedmemory(const TEEC_SharedMemory* sm){
+    if(sm == NULL) return;
+    LOGI("flags:%d, size:%d", sm->flags, sm->size);
+}
+
+/*
+ * Dumps of the content of shared memory. They read buffers which TAs and other binder threads may be
+ * writing, hold registry_lock for the whole dump and log the data of every caller, so they are only
+ * built with OT_DEBUG_DUMP defined.
+ */
+#ifdef OT_DEBUG_DUMP
 __inline void hex_dump(void* buffer, int size){
     ostringstream ss;
     ss <<hex;
@@ -73,35 +176,37 @@ __inline void hex_dump(void* buffer, int size){
     ss.clear();
 }
 
-//test code
-__inline void print_sharedmemory(const TEEC_SharedMemory* sm){
-    if(sm == NULL) return;
-    LOGI("flags:%d, size:%d", sm->flags, sm->size);
-}
-
 //test code
 void print_sharedmemory_map(){
     LOGD("[start]%s", __FUNCTION__);
 
+    RegistryLock lock;
+
     if ( sharedmemory_map.empty() ){
         LOGI("\tshared memory map is empty");
     }
 
-    for(unordered_map<int, TEEC_SharedMemory*>::iterator sm = sharedmemory_map.begin(); sm != sharedmemory_map.end(); sm++){
+    for(auto it = sharedmemory_map.begin(); it != sharedmemory_map.end(); it++){
+        const TEEC_SharedMemory* sm = &it->second->sm;
         LOGI("\t[%p] shared memory id:%d, size:%d, flag:%d, buffer_addr:%p, buffer:%.*s",
-                     sm->second,
-                     sm->first,
-                     sm->second->size,
-                     sm->second->flags,
-                     sm->second->buffer,
-                     sm->second->size,
-                     sm->second->buffer);
-
-        hex_dump(sm->second->buffer, sm->second->size);
+                     sm,
+                     it->first,
+                     sm->size,
+                     sm->flags,
+                     sm->buffer,
+                     sm->size,
+                     (char*)sm->buffer);
+
+        hex_dump(sm->buffer, sm->size);
     }
     LOGD("[end  ]%s\n\r", __FUNCTION__);
 }
 
+#  define DUMP_SHAREDMEMORY_MAP() print_sharedmemory_map()
+#else
+#  define DUMP_SHAREDMEMORY_MAP()
+#endif
+
 //test code
 void print_bytearray(uint8_t* buffer, int len){
     LOGD("[start]%s", __FUNCTION__);
@@ -115,41 +220,39 @@ void print_bytearray(uint8_t* buffer, int len){
 
 /*
     find shared memory instance by id.
-    If found, return a pointer to the shared memory.
-    Else, return a NULL pointer.
+    If found, return the record of the shared memory, which keeps it until the last reference is gone.
+    Else, return an empty pointer.
 */
-TEEC_SharedMemory* find_sharedmemory_by_id(int smid){
-    LOGD("[start]%s", __FUNCTION__);
+shared_ptr<SharedMemoryRecord> find_sharedmemory_by_id(int smid){
+    RegistryLock lock;
 
-    unordered_map<int, TEEC_SharedMemory*>::iterator sm = sharedmemory_map.find(smid);
-    if(sm == sharedmemory_map.end()){
+    auto it = sharedmemory_map.find(smid);
+    if(it == sharedmemory_map.end()){
         LOGE("\tunable to find shared memory with id %d", smid);
-        return NULL;
+        return shared_ptr<SharedMemoryRecord>();
     }
 
-    LOGD("[end  ]%s\n\r", __FUNCTION__);
-
-    return sm->second;
+    return it->second;
 }
 
 /*
-    remove the shared memory with id.
-    return true if succeed. Otherwise return false.
+    take the shared memory with id out of the map. It is freed once no call refers to it any more.
+    return false if there is no such shared memory.
 */
 bool remove_sharedmemory_by_id(int smid){
-    LOGD("[start]%s", __FUNCTION__);
+    shared_ptr<SharedMemoryRecord> record;
+    {
+        RegistryLock lock;
 
-    TEEC_SharedMemory* sm = find_sharedmemory_by_id(smid);
-    if ( sm != NULL ){
-        free(sm->buffer);
-        free(sm);
-        sharedmemory_map.erase(smid);
+        auto it = sharedmemory_map.find(smid);
+        if(it == sharedmemory_map.end()) return false;
 
-        LOGD("[end  ]%s\n\r", __FUNCTION__);
-        return true;
+        record = it->second;
+        sharedmemory_map.erase(it);
     }
 
-    return false;
+    // the record is freed here, after the lock, unless a call still holds it.
+    return true;
 }
 
 /*
@@ -191,131 +294,236 @@ void preparationFunc(JNIEnv *env, jstring otSocketFilePathInJava) {
     LOGD("[end  ]%s\n\r", __FUNCTION__);
 }
 
+/*
+    find the context of the caller.
+    If found, return the record of the context. Else, return an empty pointer.
+*/
+shared_ptr<ContextRecord> find_context_of_caller(int callerId){
+    RegistryLock lock;
+
+    unordered_map<int, shared_ptr<ContextRecord>>::iterator ctx = contexts_map.find(callerId);
+    if(ctx == contexts_map.end()){
+        LOGE("\tno context for caller %d", callerId);
+        return shared_ptr<ContextRecord>();
+    }
+
+    return ctx->second;
+}
+
 /**
- * Initialize Context.
+ * Initialize Context of the caller. It is kept until the caller finalizes it.
  */
 JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecInitializeContext
-        (JNIEnv *env, jclass jc, jstring teeName, jstring otSocketFilePathInJava) {
+        (JNIEnv *env, jclass jc, jstring teeName, jstring otSocketFilePathInJava, jint callerId) {
     LOGD("[start]%s", __FUNCTION__);
 
+    {
+        RegistryLock lock;
+
+        // Is the environment variable for the path of open_tee_socket set?
+        if (0 == open_tee_socket_env_set)
+            preparationFunc(env, otSocketFilePathInJava);
 
-    // Is the environment variable for the path of open_tee_socket set?
-    if (0 == open_tee_socket_env_set)
-        preparationFunc(env, otSocketFilePathInJava);
+        if (contexts_map.find(callerId) != contexts_map.end()) {
+            LOGI("\tcontext of caller %d already initialized.", callerId);
+            return TEEC_SUCCESS;
+        }
+    }
 
+    shared_ptr<ContextRecord> record = make_shared<ContextRecord>();
     TEEC_Result tmpResult;
 
     if (teeName == NULL) {
         // initialize context with default TEE.
-        tmpResult = TEEC_InitializeContext(NULL, &g_contextRecord);
+        tmpResult = TEEC_InitializeContext(NULL, &record->context);
     }
     else {
         // get the name of the TEE.
         const char *teeNameInC = env->GetStringUTFChars(teeName, 0);
 
         // initialize context with specific TEE.
-        tmpResult = TEEC_InitializeContext(teeNameInC, &g_contextRecord);
+        tmpResult = TEEC_InitializeContext(teeNameInC, &record->context);
 
         // release the string
         env->ReleaseStringUTFChars(teeName, teeNameInC);
     }
 
+    if (tmpResult == TEEC_SUCCESS) {
+        RegistryLock lock;
+        contexts_map[callerId] = record;
+    }
+
     LOGD("[end  ]%s\n\r", __FUNCTION__);
 
     return tmpResult;
 }
 
 /*
-    clean all the shared memory.
-*/
-void clean_sharedmemory_buffer(){
-    LOGD("[start]%s", __FUNCTION__);
+ * Finalize Context of the caller. The shared memory and sessions the caller left behind are released
+ * first. Those of the other callers are not touched.
+ */
+JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecFinalizeContext
+        (JNIEnv *env, jclass jc, jint callerId) {
+    LOGI("%s: Finalize Context of caller %d", __FUNCTION__, callerId);
 
-    for(unordered_map<int, TEEC_SharedMemory*>::iterator sm = sharedmemory_map.begin(); sm != sharedmemory_map.end(); sm++){
-        free(sm->second->buffer);
-        free(sm->second);
-    }
+    shared_ptr<ContextRecord> record;
+    vector<shared_ptr<SharedMemoryRecord>> sharedmemory_left;
+    vector<shared_ptr<SessionRecord>> sessions_left;
 
-    LOGD("[end  ]%s\n\r", __FUNCTION__);
-}
+    //take the resources of the caller out of the maps.
+    {
+        RegistryLock lock;
 
-/*
- * Finalize Context.
- */
-JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecFinalizeContext
-        (JNIEnv *env, jclass jc) {
-    LOGI("%s: Shutdown libprotobuf lib and Finalize Context", __FUNCTION__);
+        unordered_map<int, shared_ptr<ContextRecord>>::iterator ctx = contexts_map.find(callerId);
+        if(ctx == contexts_map.end()){
+            LOGE("\tno context for caller %d", callerId);
+            return;
+        }
+        record = ctx->second;
+        contexts_map.erase(ctx);
+
+        for(auto sm = sharedmemory_map.begin(); sm != sharedmemory_map.end(); ){
+            if(sm->second->owner == callerId){
+                sharedmemory_left.push_back(sm->second);
+                sm = sharedmemory_map.erase(sm);
+            }else{
+                sm++;
+            }
+        }
 
-    //clean resources
-    clean_sharedmemory_buffer();
-    sharedmemory_map.clear();
+        for(auto session = sessions_map.begin(); session != sessions_map.end(); ){
+            if(session->second->context == record){
+                sessions_left.push_back(session->second);
+                session = sessions_map.erase(session);
+            }else{
+                session++;
+            }
+        }
+    }
+
+    //clean resources. No call of the caller is running, so the shared memory is freed right away.
+    size_t sharedmemory_count = sharedmemory_left.size();
+    sharedmemory_left.clear();
+
+    for(shared_ptr<SessionRecord>& session: sessions_left){
+        SessionLock sessionLock(session.get());
+        if(session->open) TEEC_CloseSession(&session->session);
+        session->open = false;
+    }
 
-    sessions_map.clear();
+    if(sharedmemory_count > 0 || !sessions_left.empty()){
+        LOGE("\t%d shared memory and %d sessions of caller %d released.",
+             (int)sharedmemory_count, (int)sessions_left.size(), callerId);
+    }
 
-    TEEC_FinalizeContext(&g_contextRecord);
-    g_contextRecord = {0};
+    TEEC_FinalizeContext(&record->context);
 
-    // Optional:  Delete all global objects allocated by libprotobuf.
-    google::protobuf::ShutdownProtobufLibrary();
+    // libprotobuf is not shut down in here since it can not be used again afterwards, while the
+    // context may be initialized again.
 
     LOGI("%s: done", __FUNCTION__);
 }
 
 /*
-    Register shared memory.
+    Register shared memory backed by a direct buffer. The buffer is registered where it is, so its content
+    is not copied, and it is held until the shared memory is released.
 */
-JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecRegisterSharedMemory
-        (JNIEnv *env, jclass jc, jbyteArray jOTSharedMemory, jint jSmId) {
+JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecRegisterSharedMemoryDirect
+        (JNIEnv *env, jclass jc, jobject buffer, jint size, jint flags, jint jSmId, jint callerId) {
     LOGD("[start]%s", __FUNCTION__);
 
-    if(jOTSharedMemory == NULL){
+    if(buffer == NULL){
         return TEEC_ERROR_NO_DATA;
     }
 
-    int l = env->GetArrayLength(jOTSharedMemory);
-    uint8_t otSharedMemory[l];
-    env->GetByteArrayRegion(jOTSharedMemory, 0, l, (jbyte* )otSharedMemory);
+    void* address = env->GetDirectBufferAddress(buffer);
+    if(address == NULL || size < 0 || size > env->GetDirectBufferCapacity(buffer)){
+        LOGE("\tnot a direct buffer of %d bytes", size);
+        return TEEC_ERROR_BAD_PARAMETERS;
+    }
 
-    // transfer java type shared memory into c type.
-    string data(otSharedMemory, otSharedMemory + l);
+    shared_ptr<ContextRecord> context = find_context_of_caller(callerId);
+    if( !context ){
+        return TEEC_ERROR_BAD_STATE;
+    }
 
-    // parse shard memory from string.
-    TeecSharedMemory pbsm;
-    pbsm.ParseFromString(data);
+    shared_ptr<SharedMemoryRecord> record = make_shared<SharedMemoryRecord>(context, callerId);
+    TEEC_SharedMemory* cOTSharedMemory = &record->sm;
 
-    uint32_t mFlag = pbsm.mflag();
-    string mBuffer = pbsm.mbuffer();
+    cOTSharedMemory->buffer = address;
+    cOTSharedMemory->size = size;
+    cOTSharedMemory->flags = flags;
 
-    TEEC_SharedMemory* cOTSharedMemory;
-    if( (cOTSharedMemory = (TEEC_SharedMemory*)malloc(sizeof(TEEC_SharedMemory)) ) == NULL){
-        LOGE("Unable to malloc for shared memory");
-        return TEEC_ERROR_OUT_OF_MEMORY;
+    TEEC_Result return_code = TEEC_RegisterSharedMemory(&context->context, cOTSharedMemory);
+
+    LOGI("\t flag: %x, size:%d, return_code:%x",
+         cOTSharedMemory->flags,
+         cOTSharedMemory->size,
+         return_code);
+
+    if ( return_code != TEEC_SUCCESS ){
+        return return_code;
     }
+    record->registered = true;
 
-    cOTSharedMemory->size = mBuffer.length();
-    if( ( cOTSharedMemory->buffer = (void*)malloc(cOTSharedMemory->size * sizeof(uint8_t)) ) == NULL){
-        LOGE("Unable to malloc for shared memory buffer");
+    record->direct_buffer = env->NewGlobalRef(buffer);
+    if ( record->direct_buffer == NULL ){
         return TEEC_ERROR_OUT_OF_MEMORY;
     }
 
-    memcpy(cOTSharedMemory->buffer, mBuffer.c_str(), cOTSharedMemory->size);
-    cOTSharedMemory->flags = mFlag;
+    {
+        RegistryLock lock;
+
+        sharedmemory_map.emplace(jSmId, record);
+    }
+
+    LOGD("[end  ]%s\n\r", __FUNCTION__);
+
+    return return_code;
+}
+
+/*
+    Allocate shared memory with a buffer owned by libtee. The CA keeps no copy of it, and reaches it
+    through otReadSharedMemory and otWriteSharedMemory.
+*/
+JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecAllocateSharedMemory
+        (JNIEnv *env, jclass jc, jint size, jint flags, jint jSmId, jint callerId) {
+    LOGD("[start]%s", __FUNCTION__);
+
+    if(size <= 0){
+        return TEEC_ERROR_BAD_PARAMETERS;
+    }
+
+    shared_ptr<ContextRecord> context = find_context_of_caller(callerId);
+    if( !context ){
+        return TEEC_ERROR_BAD_STATE;
+    }
+
+    shared_ptr<SharedMemoryRecord> record = make_shared<SharedMemoryRecord>(context, callerId);
+    TEEC_SharedMemory* cOTSharedMemory = &record->sm;
 
-    TEEC_Result return_code = TEEC_RegisterSharedMemory(&g_contextRecord, cOTSharedMemory);
+    cOTSharedMemory->buffer = NULL;
+    cOTSharedMemory->size = size;
+    cOTSharedMemory->flags = flags;
 
-    LOGI("\t flag: %x, buffer:%s, size:%d, return_code:%x",
+    TEEC_Result return_code = TEEC_AllocateSharedMemory(&context->context, cOTSharedMemory);
+
+    LOGI("	 flag: %x, size:%d, return_code:%x",
          cOTSharedMemory->flags,
-         cOTSharedMemory->buffer,
          cOTSharedMemory->size,
          return_code);
 
-    // if register shared memory succeed, add it to the global shared memory array.
-    if ( return_code == TEEC_SUCCESS ){
-        sharedmemory_map.emplace(jSmId, cOTSharedMemory);
+    if ( return_code != TEEC_SUCCESS ){
+        return return_code;
     }
+    record->registered = true;
+    record->allocated = true;
+
+    {
+        RegistryLock lock;
 
-    // test code
-    print_sharedmemory_map();
+        sharedmemory_map.emplace(jSmId, record);
+    }
 
     LOGD("[end  ]%s\n\r", __FUNCTION__);
 
@@ -323,25 +531,18 @@ JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_tee
 }
 
 /*
-    Release shared memory.
+    Release shared memory. A call still using it keeps it until the call is done, so the release does not
+    wait for the call.
 */
 JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecReleaseSharedMemory
         (JNIEnv* env, jclass jc, jint jsmId){
     LOGD("[start]%s", __FUNCTION__);
 
-    TEEC_SharedMemory* sm = find_sharedmemory_by_id(jsmId);
-    if(sm == NULL) return;
-
-    LOGI("\t%s is to be released.", sm->buffer);
-
-    TEEC_ReleaseSharedMemory(sm);
+    if(!remove_sharedmemory_by_id(jsmId)) return;
 
     LOGI("\t%d is released.", jsmId);
 
-    remove_sharedmemory_by_id(jsmId);
-
-    //test code.
-    print_sharedmemory_map();
+    DUMP_SHAREDMEMORY_MAP();
 
     LOGD("[end  ]%s\n\r", __FUNCTION__);
 }
@@ -349,7 +550,7 @@ JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_tee
 //test code
 void printSharedMemory(const TEEC_SharedMemory* sm){
     if(sm == NULL) return;
-    LOGI("\t\t[%p]buffer:%s, flag:%x, size:%d", sm->buffer, sm->buffer, sm->flags, sm->size);
+    LOGI("\t\t[%p]flag:%x, size:%d", sm->buffer, sm->flags, sm->size);
 }
 
 //test code
@@ -378,6 +579,11 @@ void print_TEEC_Operation(const TEEC_Operation* op){
             LOGD("\t\t Param is memory reference. memref.size:%d", op->params[i].memref.size);
             printSharedMemory(sm);
         }
+        else if(type == TEEC_MEMREF_TEMP_INPUT ||
+                type == TEEC_MEMREF_TEMP_OUTPUT ||
+                type == TEEC_MEMREF_TEMP_INOUT){
+            LOGD("\t\t Param is temporary memory reference. tmpref.size:%d", op->params[i].tmpref.size);
+        }
     }
 
     LOGD("[end  ]%s\n\r", __FUNCTION__);
@@ -388,30 +594,391 @@ __inline void print_clock_seq_and_node(uint8_t vars[8]){
 }
 
 /*
-    set return origin.
+ * The VM is kept when the library is loaded, so the last holder of a shared memory record can let go of
+ * the direct buffer backing it from whichever call that is.
+ */
+static JavaVM* java_vm = NULL;
+
+JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM* vm, void* reserved){
+    java_vm = vm;
+    return JNI_VERSION_1_6;
+}
+
+SharedMemoryRecord::~SharedMemoryRecord(){
+    if(registered) TEEC_ReleaseSharedMemory(&sm);
+
+    JNIEnv* env;
+    if(direct_buffer != NULL && java_vm->GetEnv((void**)&env, JNI_VERSION_1_6) == JNI_OK){
+        env->DeleteGlobalRef(direct_buffer);
+    }
+}
+
+/*
+    set return code and return origin into the result holder of the caller in one go.
+    The layout is the one of NativeLibtee.RESULT_RETURN_CODE and RESULT_RETURN_ORIGIN.
+*/
+__inline void set_packed_results(JNIEnv* env, jintArray result, TEEC_Result ret, uint32_t ret_origin){
+    jint packed[2] = {(jint)ret, (jint)ret_origin};
+    env->SetIntArrayRegion(result, 0, 2, packed);
+}
+
+/*
+    update the copy of the shared memory in here with the content from CA. Either the whole buffer
+    or only the ranges modified by CA since the last call are carried.
+*/
+bool sync_sharedmemory_from_CA(TEEC_SharedMemory* sm, const TeecSharedMemory& pbsm){
+    if(pbsm.mdirtyonly()){
+        for(int i = 0; i < pbsm.mdirtyranges_size(); i++){
+            const TeecDirtyRange& range = pbsm.mdirtyranges(i);
+
+            if(range.moffset() < 0 || range.moffset() + range.mdata().length() > sm->size){
+                LOGE("\t\tdirty range [%d, +%d) out of shared memory with size %d",
+                     range.moffset(),
+                     range.mdata().length(),
+                     sm->size);
+                return false;
+            }
+
+            memcpy((uint8_t*)sm->buffer + range.moffset(), range.mdata().c_str(), range.mdata().length());
+        }
+
+        LOGD("\t\tpatched %d dirty ranges", pbsm.mdirtyranges_size());
+        return true;
+    }
+
+    size_t len = pbsm.mbuffer().length() < sm->size ? pbsm.mbuffer().length() : sm->size;
+    memcpy(sm->buffer, pbsm.mbuffer().c_str(), len);
+
+    return true;
+}
+
+/*
+    find the shared memory referenced in an operation. It must belong to the caller and the offset
+    must be within it. Otherwise, return an empty pointer. The record returned keeps the shared memory
+    while it is held.
+*/
+shared_ptr<SharedMemoryRecord> find_sharedmemory_of_caller(int smId, int offset, int callerId){
+    shared_ptr<SharedMemoryRecord> record = find_sharedmemory_by_id(smId);
+
+    if(!record){
+        LOGE("\t\tinternal error -- unable to find shared memory with id %d.", smId);
+        return record;
+    }
+
+    // the id is issued by the service, so only the caller registered it may refer to it.
+    if(record->owner != callerId){
+        LOGE("\t\tshared memory with id %d does not belong to caller %d", smId, callerId);
+        return shared_ptr<SharedMemoryRecord>();
+    }
+
+    if(offset < 0 || (uint32_t)offset > record->sm.size){
+        LOGE("\t\toffset %d out of shared memory with size %d", offset, record->sm.size);
+        return shared_ptr<SharedMemoryRecord>();
+    }
+
+    return record;
+}
+
+/*
+    find the allocated shared memory of the caller which holds length bytes from the offset. Otherwise,
+    return an empty pointer.
+*/
+shared_ptr<SharedMemoryRecord> find_allocated_sharedmemory_of_caller(int smId, int offset, jsize length, int callerId){
+    shared_ptr<SharedMemoryRecord> record = find_sharedmemory_of_caller(smId, offset, callerId);
+    if(!record) return record;
+
+    // the buffer of registered shared memory is synced with the operations instead.
+    if(!record->allocated){
+        LOGE("\t\tshared memory with id %d is not allocated by libtee", smId);
+        return shared_ptr<SharedMemoryRecord>();
+    }
+
+    if(length < 0 || (uint32_t)length > record->sm.size - offset){
+        LOGE("\t\t%d bytes from offset %d out of shared memory with size %d", length, offset, record->sm.size);
+        return shared_ptr<SharedMemoryRecord>();
+    }
+
+    return record;
+}
+
+/*
+    Copy the bytes of the allocated shared memory from the offset into data, up to its length.
+*/
+JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_otReadSharedMemory
+        (JNIEnv *env, jclass jc, jint smId, jint offset, jbyteArray data, jint callerId) {
+    if(data == NULL){
+        return TEEC_ERROR_BAD_PARAMETERS;
+    }
+
+    jsize length = env->GetArrayLength(data);
+    shared_ptr<SharedMemoryRecord> record = find_allocated_sharedmemory_of_caller(smId, offset, length, callerId);
+    if(!record){
+        return TEEC_ERROR_BAD_PARAMETERS;
+    }
+
+    if(length > 0){
+        env->SetByteArrayRegion(data, 0, length, (const jbyte*)record->sm.buffer + offset);
+    }
+
+    return TEEC_SUCCESS;
+}
+
+/*
+    Copy data into the allocated shared memory from the offset.
 */
-__inline void set_return_origin(JNIEnv* env, jobject returnOrigin, int var){
-    jclass jcRetOrigin = env->GetObjectClass(returnOrigin);
-    jfieldID jfROC = env->GetFieldID(jcRetOrigin, "mValue", "I");
-    env->SetIntField(returnOrigin, jfROC, var);
+JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_otWriteSharedMemory
+        (JNIEnv *env, jclass jc, jint smId, jint offset, jbyteArray data, jint callerId) {
+    if(data == NULL){
+        return TEEC_ERROR_BAD_PARAMETERS;
+    }
+
+    jsize length = env->GetArrayLength(data);
+    shared_ptr<SharedMemoryRecord> record = find_allocated_sharedmemory_of_caller(smId, offset, length, callerId);
+    if(!record){
+        return TEEC_ERROR_BAD_PARAMETERS;
+    }
+
+    if(length > 0){
+        env->GetByteArrayRegion(data, 0, length, (jbyte*)record->sm.buffer + offset);
+    }
+
+    return TEEC_SUCCESS;
 }
 
 /*
-    set return code.
+    size of the window of a registered memory reference: the size given by CA, or the rest of the
+    shared memory after the offset if it is 0. Return -1 if the window does not fit in the shared memory.
 */
-__inline void set_return_code(JNIEnv* env, jobject returnCode, int var){
-    set_return_origin(env, returnCode, var);
+int32_t memref_window_size(const TEEC_SharedMemory* sm, int32_t offset, int32_t size){
+    uint32_t available = sm->size - offset;
+
+    if(size == 0) return available;
+
+    if(size < 0 || (uint32_t)size > available){
+        LOGE("\t\twindow [%d, +%d) out of shared memory with size %d", offset, size, sm->size);
+        return -1;
+    }
+
+    return size;
 }
 
 /*
-    transfer operation in the format of c++ string to TEEC_Operation.
+    param type of TEEC_Value based on the flag value from java layer.
 */
-bool transfer_opString_to_TEEC_Operation(JNIEnv* env, const string opsInString, TEEC_Operation* teec_operation){
+uint32_t value_param_type(int flag){
+    switch ( flag ){
+        case JavaConstants::VALUE_INPUT:
+            return TEEC_VALUE_INPUT;
+        case JavaConstants::VALUE_OUTPUT:
+            return TEEC_VALUE_OUTPUT;
+        case JavaConstants::VALUE_INOUT:
+            return TEEC_VALUE_INOUT;
+        default:
+            LOGE("\t\t\tunaccepted flag for Value %x", flag);
+            return TEEC_NONE;
+    }
+}
+
+/*
+    param type of registered memory reference based on the flag value from java layer. The direction of
+    a whole memory reference comes from the shared memory only, so it is used just for INOUT. An INPUT or
+    OUTPUT reference without offset and size is passed as a partial one over the whole buffer, which
+    keeps its direction.
+*/
+uint32_t memref_param_type(int flag, int offset, int size){
+    if(offset == 0 && size == 0 && flag == JavaConstants::MEMREF_INOUT){
+        // using whole memory.
+        return TEEC_MEMREF_WHOLE;
+    }
+
+    // using part of the memory.
+    switch(flag){
+        case JavaConstants::MEMREF_INPUT:
+            return TEEC_MEMREF_PARTIAL_INPUT;
+        case JavaConstants::MEMREF_OUTPUT:
+            return TEEC_MEMREF_PARTIAL_OUTPUT;
+        case JavaConstants::MEMREF_INOUT:
+            return TEEC_MEMREF_PARTIAL_INOUT;
+        default:
+            return TEEC_NONE;
+    }
+}
+
+/*
+    param type of temporary memory reference based on the flag value from java layer.
+*/
+uint32_t tmpref_param_type(int flag){
+    switch(flag){
+        case JavaConstants::TMPREF_INPUT:
+            return TEEC_MEMREF_TEMP_INPUT;
+        case JavaConstants::TMPREF_OUTPUT:
+            return TEEC_MEMREF_TEMP_OUTPUT;
+        case JavaConstants::TMPREF_INOUT:
+            return TEEC_MEMREF_TEMP_INOUT;
+        default:
+            LOGE("\t\t\tunaccepted flag for temporary memory reference %x", flag);
+            return TEEC_NONE;
+    }
+}
+
+/*
+    fields of the flat encoding are little-endian int32 which may not be aligned.
+*/
+__inline int32_t flat_get(const uint8_t* p){
+    int32_t v;
+    memcpy(&v, p, sizeof(v));
+    return v;
+}
+
+__inline void flat_put(uint8_t* p, int32_t v){
+    memcpy(p, &v, sizeof(v));
+}
+
+bool is_flat_op(const uint8_t* data, int len){
+    return len >= FlatCodec::HEADER_SIZE &&
+           (flat_get(data) & FlatCodec::MAGIC_MASK) == FlatCodec::MAGIC;
+}
+
+/*
+    the version in the header of a flat operation. Only VERSION_1 is understood.
+*/
+__inline bool is_known_flat_version(const uint8_t* data){
+    return (flat_get(data) & ~FlatCodec::MAGIC_MASK) == FlatCodec::VERSION_1;
+}
+
+/*
+    copy the ranges of one slot from the payload at pos into dst, which has dst_size bytes. pos is moved
+    past them. The ranges are only checked if copy is false.
+*/
+bool copy_flat_ranges(const uint8_t* data, int len, int* pos, int num_of_ranges, uint8_t* dst, uint32_t dst_size, bool copy){
+    for(int r = 0; r < num_of_ranges; r++){
+        if(*pos + FlatCodec::RANGE_HEADER_SIZE > len){
+            LOGE("\t\ttruncated operation");
+            return false;
+        }
+
+        int32_t range_offset = flat_get(data + *pos);
+        int32_t range_len = flat_get(data + *pos + 4);
+        *pos += FlatCodec::RANGE_HEADER_SIZE;
+
+        if(range_len < 0 || range_len > len - *pos ||
+           range_offset < 0 || (uint32_t)range_offset + range_len > dst_size){
+            LOGE("\t\trange [%d, +%d) out of buffer with size %d", range_offset, range_len, dst_size);
+            return false;
+        }
+
+        if(copy){
+            memcpy(dst + range_offset, data + *pos, range_len);
+        }
+        *pos += range_len;
+    }
+
+    return true;
+}
+
+/*
+    transfer operation in the flat encoding to TEEC_Operation. It is read in place and the ranges
+    carried for the shared memory are copied straight into it. The buffers of temporary memory references
+    are allocated into temp_buffers, which the caller frees after the call. The shared memory referenced
+    is held in memories until then.
+*/
+bool transfer_flat_op_to_TEEC_Operation(const uint8_t* data, int len, TEEC_Operation* teec_operation, uint8_t** temp_buffers, shared_ptr<SharedMemoryRecord>* memories, int callerId){
     LOGD("[start]%s", __FUNCTION__);
 
-    TeecOperation op;
+    teec_operation->started = flat_get(data + 4);
 
-    op.ParseFromString(opsInString);
+    uint32_t paramTypesArray[] = {TEEC_NONE, TEEC_NONE, TEEC_NONE, TEEC_NONE};
+    int pos = FlatCodec::HEADER_SIZE;
+    int32_t tmpref_size = 0; // of all the temporary memory references so far.
+
+    for(int i = 0; i < FlatCodec::NUM_OF_SLOTS; i++){
+        const uint8_t* slot = data + FlatCodec::SLOT_START + i * FlatCodec::SLOT_SIZE;
+        int32_t type = flat_get(slot + FlatCodec::TYPE);
+        int32_t flag = flat_get(slot + FlatCodec::FLAG);
+
+        if(type == FlatCodec::TYPE_VALUE){
+            teec_operation->params[i].value.a = flat_get(slot + FlatCodec::A);
+            teec_operation->params[i].value.b = flat_get(slot + FlatCodec::B);
+            paramTypesArray[i] = value_param_type(flag);
+        }
+        else if(type == FlatCodec::TYPE_MEMREF){
+            int32_t offset = flat_get(slot + FlatCodec::B);
+            int32_t size = flat_get(slot + FlatCodec::C);
+            int32_t num_of_ranges = flat_get(slot + FlatCodec::D);
+
+            memories[i] = find_sharedmemory_of_caller(flat_get(slot + FlatCodec::A), offset, callerId);
+            if(!memories[i]) return false;
+            TEEC_SharedMemory* sm = &memories[i]->sm;
+
+            int32_t window = memref_window_size(sm, offset, size);
+            if(window < 0) return false;
+
+            // an output only reference does not carry the content of the buffer.
+            if(!copy_flat_ranges(data, len, &pos, num_of_ranges,
+                                 (uint8_t*)sm->buffer, sm->size, flag != JavaConstants::MEMREF_OUTPUT)){
+                return false;
+            }
+
+            // only the window is passed to the TA.
+            teec_operation->params[i].memref.parent = sm;
+            teec_operation->params[i].memref.size = window;
+            teec_operation->params[i].memref.offset = offset;
+            paramTypesArray[i] = memref_param_type(flag, offset, size);
+        }
+        else if(type == FlatCodec::TYPE_TMPREF){
+            int32_t size = flat_get(slot + FlatCodec::A);
+            int32_t num_of_ranges = flat_get(slot + FlatCodec::D);
+
+            uint32_t param_type = tmpref_param_type(flag);
+            if(param_type == TEEC_NONE || size < 0){
+                LOGE("\t\tincorrect temporary memory reference with size %d", size);
+                return false;
+            }
+
+            // the size comes from the client as it is, so it is checked before anything is allocated for it.
+            if(size > FlatCodec::MAX_TMPREF_SIZE - tmpref_size){
+                LOGE("\t\ttemporary memory reference with size %d over the limit of %d",
+                     size, FlatCodec::MAX_TMPREF_SIZE);
+                return false;
+            }
+            tmpref_size += size;
+
+            // bound to a native buffer only for this call. It is zeroed, so that nothing left in the
+            // heap is shown to the TA through an output only reference.
+            if(size > 0){
+                temp_buffers[i] = (uint8_t*)calloc(size, 1);
+                if(temp_buffers[i] == NULL){
+                    LOGE("\t\tunable to allocate temporary memory with size %d", size);
+                    return false;
+                }
+            }
+
+            if(!copy_flat_ranges(data, len, &pos, num_of_ranges,
+                                 temp_buffers[i], size, flag != JavaConstants::TMPREF_OUTPUT)){
+                return false;
+            }
+
+            teec_operation->params[i].tmpref.buffer = temp_buffers[i];
+            teec_operation->params[i].tmpref.size = size;
+            paramTypesArray[i] = param_type;
+        }
+    }
+
+    teec_operation->paramTypes = TEEC_PARAM_TYPES(paramTypesArray[0],
+                                                 paramTypesArray[1],
+                                                 paramTypesArray[2],
+                                                 paramTypesArray[3]);
+
+    LOGD("[end  ]%s\n\r", __FUNCTION__);
+
+    return true;
+}
+
+/*
+    transfer operation parsed from protobuf to TEEC_Operation.
+*/
+bool transfer_pb_op_to_TEEC_Operation(const TeecOperation& op, TEEC_Operation* teec_operation, shared_ptr<SharedMemoryRecord>* memories, int callerId){
+    LOGD("[start]%s", __FUNCTION__);
 
     LOGI("\tstarted %d. num of params:%d",
           op.mstarted(),
@@ -419,88 +986,56 @@ bool transfer_opString_to_TEEC_Operation(JNIEnv* env, const string opsInString,
 
     teec_operation->started = op.mstarted();
 
+    if(op.mparams_size() > FlatCodec::NUM_OF_SLOTS){
+        LOGE("\ttoo many params");
+        return false;
+    }
+
     uint32_t paramTypesArray[] = {TEEC_NONE, TEEC_NONE, TEEC_NONE, TEEC_NONE};
 
     for(int i = 0; i < op.mparams_size(); i++){
 
-        const TeecParameter param = op.mparams(i);
+        const TeecParameter& param = op.mparams(i);
 
         if( param.has_teecsharedmemoryreference() ){
             // param is TEEC_RegisteredMemoryReference.
             LOGI("\t\tparam is TEEC_RMR.");
-            const TeecSharedMemoryReference rmr = param.teecsharedmemoryreference();
+            const TeecSharedMemoryReference& rmr = param.teecsharedmemoryreference();
 
-            int smId = rmr.parent().mid();
+            memories[i] = find_sharedmemory_of_caller(rmr.parent().mid(), rmr.moffset(), callerId);
+            if(!memories[i]) return false;
+            TEEC_SharedMemory* sm = &memories[i]->sm;
 
-            TEEC_SharedMemory* sm = find_sharedmemory_by_id(smId);
+            int32_t window = memref_window_size(sm, rmr.moffset(), rmr.msize());
+            if(window < 0) return false;
 
-            if(sm == NULL){
-                LOGE("\t\tinternal error -- unable to find shared memory with id.", smId);
-                return false;
-            }
-
-            LOGD("\t\told buffer with flag:%x", sm->flags);
-            hex_dump(sm->buffer, sm->size);
+            LOGD("\t\tbuffer with flag:%x", sm->flags);
 
-            //the share memory is not only output for TA. So sync it back to CA.
-            if(rmr.parent().mflag() != JavaConstants::MEMREF_OUTPUT){
-                int8_t * smBuffer = (int8_t*)rmr.parent().mbuffer().c_str();
-
-                memcpy(sm->buffer, smBuffer, sizeof(smBuffer));
-
-                LOGE("\t\tnew buffer:");
-                hex_dump(sm->buffer, sm->size);
+            // an output only reference does not carry the content of the buffer.
+            if(rmr.mflag() != JavaConstants::MEMREF_OUTPUT){
+                if(!sync_sharedmemory_from_CA(sm, rmr.parent())){
+                    return false;
+                }
             }
 
+            // only the window is passed to the TA.
             teec_operation->params[i].memref.parent = sm;
-            teec_operation->params[i].memref.size = sm->size;
+            teec_operation->params[i].memref.size = window;
             teec_operation->params[i].memref.offset = rmr.moffset();
 
             // set flag for shared memory.
-            if(rmr.moffset() > 0){
-                // using part of the memory.
-                switch(rmr.mflag()){
-                    case JavaConstants::MEMREF_INPUT:
-                        paramTypesArray[i] = TEEC_MEMREF_PARTIAL_INPUT;
-                        break;
-                    case JavaConstants::MEMREF_OUTPUT:
-                        paramTypesArray[i] = TEEC_MEMREF_PARTIAL_OUTPUT;
-                        break;
-                    case JavaConstants::MEMREF_INOUT:
-                        paramTypesArray[i] = TEEC_MEMREF_PARTIAL_INOUT;
-                        break;
-                    default:
-                        break;
-                }
-            }
-            else{
-                // using whole memory.
-                paramTypesArray[i] = TEEC_MEMREF_WHOLE;
-            }
+            paramTypesArray[i] = memref_param_type(rmr.mflag(), rmr.moffset(), rmr.msize());
         }
         else if(param.has_teecvalue()){
             // param is TEEC_Value.
             LOGI("\t\tparam is TEEC_VALUE");
 
-            const TeecValue value = param.teecvalue();
+            const TeecValue& value = param.teecvalue();
             teec_operation->params[i].value.a = value.a();
             teec_operation->params[i].value.b = value.b();
 
             // set the flag based on the flag value from java layer.
-            switch ( value.mflag() ){
-                case JavaConstants::VALUE_INPUT:
-                    paramTypesArray[i] = TEEC_VALUE_INPUT;
-                    break;
-                case JavaConstants::VALUE_OUTPUT:
-                    paramTypesArray[i] = TEEC_VALUE_OUTPUT;
-                    break;
-                case JavaConstants::VALUE_INOUT:
-                    paramTypesArray[i] = TEEC_VALUE_INOUT;
-                    break;
-                default:
-                    LOGE("\t\t\tunaccepted flag for Value %x", value.mflag());
-                    break;
-            }
+            paramTypesArray[i] = value_param_type(value.mflag());
 
         }else{
             LOGE("\t\tIncorrect param or null.");
@@ -517,60 +1052,170 @@ bool transfer_opString_to_TEEC_Operation(JNIEnv* env, const string opsInString,
     LOGD("[end  ]%s\n\r", __FUNCTION__);
 
     return true;
-} // end of transfer_opString_to_TEEC_Operation.
+} // end of transfer_pb_op_to_TEEC_Operation.
 
-/**
- * transfer the operation in jbyteArray into TEEC_Operation.
+/*
+ * operation of one call. It is decoded once, and what is needed for the reply is kept here: the header
+ * of the flat encoding, or the message parsed from protobuf.
  */
-void transfer_op_to_TEEC_Operation(JNIEnv* env, const jbyteArray opInBytes, TEEC_Operation* teec_operation){
-    LOGD("[start]%s", __FUNCTION__);
-
-    if(opInBytes == NULL){
-        LOGI("\top is null");
-        return;
+struct DecodedOp{
+    bool flat;
+    uint8_t header[FlatCodec::HEADER_SIZE];
+    TeecOperation pb;
+    uint8_t* temp_buffers[FlatCodec::NUM_OF_SLOTS]; // native buffers of the temporary memory references.
+    shared_ptr<SharedMemoryRecord> memories[FlatCodec::NUM_OF_SLOTS]; // shared memory referenced, held until the reply.
+
+    DecodedOp() : flat(false){
+        memset(temp_buffers, 0, sizeof(temp_buffers));
     }
 
-    int l = env->GetArrayLength(opInBytes);
+    ~DecodedOp(){
+        for(int i = 0; i < FlatCodec::NUM_OF_SLOTS; i++) free(temp_buffers[i]);
+    }
+};
 
-    uint8_t* opInBytesBuffer = (uint8_t *)malloc(l*sizeof(uint8_t));
+/**
+ * decode the operation read in place from data into TEEC_Operation.
+ * return TEEC_ERROR_BAD_FORMAT for a flat operation of an unknown version, TEEC_ERROR_BAD_PARAMETERS
+ * if the operation is not acceptable, otherwise TEEC_SUCCESS.
+ */
+TEEC_Result decode_op(const uint8_t* data, int len, DecodedOp* decoded, TEEC_Operation* teec_operation, int callerId){
+    LOGD("[start]%s", __FUNCTION__);
 
-    env->GetByteArrayRegion(opInBytes, 0, l, (jbyte*)opInBytesBuffer);
+    bool ret;
+    if(is_flat_op(data, len)){
+        if(!is_known_flat_version(data)){
+            LOGE("	unknown version %d of the flat encoding", flat_get(data) & ~FlatCodec::MAGIC_MASK);
+            return TEEC_ERROR_BAD_FORMAT;
+        }
 
-    // create a string to store this buffer.
-    string opsInString(opInBytesBuffer, opInBytesBuffer + l);
+        decoded->flat = true;
+        memcpy(decoded->header, data, FlatCodec::HEADER_SIZE);
 
-    free(opInBytesBuffer);
+        ret = transfer_flat_op_to_TEEC_Operation(data, len, teec_operation, decoded->temp_buffers, decoded->memories, callerId);
+    }
+    else{
+        decoded->flat = false;
+        if(!decoded->pb.ParseFromArray(data, len)){
+            LOGE("\tincomplete operation");
+        }
 
-    transfer_opString_to_TEEC_Operation(env, opsInString, teec_operation);
+        ret = transfer_pb_op_to_TEEC_Operation(decoded->pb, teec_operation, decoded->memories, callerId);
+    }
 
     LOGD("[end  ]%s\n\r", __FUNCTION__);
+
+    return ret ? TEEC_SUCCESS : TEEC_ERROR_BAD_PARAMETERS;
 }
 
 /**
- * transfer TEEC_Operation to jbyteArray.
+ * transfer TEEC_Operation to the flat encoding. The header of the request is reused and only the
+ * regions written by the TA follow it.
  */
-jbyteArray transfer_TEEC_Operation_to_op(JNIEnv* env, const TEEC_Operation* teec_operation, jbyteArray opInBytes){
+jbyteArray transfer_TEEC_Operation_to_flat_op(JNIEnv* env, const TEEC_Operation* teec_operation, uint8_t* header, const shared_ptr<SharedMemoryRecord>* memories){
     LOGD("\n[start]%s", __FUNCTION__);
 
-    if(opInBytes == NULL){
-        LOGE("incorrect operation.");
+    flat_put(header + 4, teec_operation->started);
+
+    int size = FlatCodec::HEADER_SIZE;
+    uint32_t region_offset[FlatCodec::NUM_OF_SLOTS] = {0};
+    uint32_t region_len[FlatCodec::NUM_OF_SLOTS] = {0};
+    const uint8_t* region_src[FlatCodec::NUM_OF_SLOTS] = {NULL};
+    bool has_region[FlatCodec::NUM_OF_SLOTS] = {false};
+
+    for(int i = 0; i < FlatCodec::NUM_OF_SLOTS; i++){
+        uint8_t* slot = header + FlatCodec::SLOT_START + i * FlatCodec::SLOT_SIZE;
+        uint32_t type = TEEC_PARAM_TYPE_GET(teec_operation->paramTypes, i);
+
+        // the input is already applied. No need to send it back.
+        int32_t slot_type = flat_get(slot + FlatCodec::TYPE);
+        if(slot_type == FlatCodec::TYPE_MEMREF || slot_type == FlatCodec::TYPE_TMPREF){
+            flat_put(slot + FlatCodec::D, 0);
+        }
+
+        if(type == TEEC_VALUE_OUTPUT ||
+           type == TEEC_VALUE_INOUT){
+            flat_put(slot + FlatCodec::A, teec_operation->params[i].value.a);
+            flat_put(slot + FlatCodec::B, teec_operation->params[i].value.b);
+        }
+        else if(type == TEEC_MEMREF_WHOLE ||
+                type == TEEC_MEMREF_PARTIAL_OUTPUT ||
+                type == TEEC_MEMREF_PARTIAL_INOUT){
+            const TEEC_SharedMemory* shared_memory = teec_operation->params[i].memref.parent;
+            if(!(shared_memory->flags & TEEC_MEM_OUTPUT)) continue;
+
+            // only the region written by the TA is sent back, which starts from the offset and stays
+            // within the window. C still holds the size of the window from the request.
+            uint32_t offset = teec_operation->params[i].memref.offset;
+            uint32_t return_size = teec_operation->params[i].memref.size;
+            uint32_t available = memref_window_size(shared_memory, offset, flat_get(slot + FlatCodec::C));
+
+            // the CA keeps no copy of allocated shared memory, so only the size goes back.
+            if(memories[i] && memories[i]->allocated) available = 0;
+
+            region_offset[i] = offset;
+            region_len[i] = return_size < available ? return_size : available;
+            region_src[i] = (const uint8_t*)shared_memory->buffer + offset;
+            has_region[i] = true;
+
+            flat_put(slot + FlatCodec::C, return_size);
+            flat_put(slot + FlatCodec::D, 1);
+            size += FlatCodec::RANGE_HEADER_SIZE + region_len[i];
+        }
+        else if(type == TEEC_MEMREF_TEMP_OUTPUT ||
+                type == TEEC_MEMREF_TEMP_INOUT){
+            // the TA writes from the beginning of the buffer. If it is too short, the TA only tells the
+            // size it needs, which goes back in C.
+            uint32_t return_size = teec_operation->params[i].tmpref.size;
+            uint32_t available = flat_get(slot + FlatCodec::A);
+
+            region_offset[i] = 0;
+            region_len[i] = return_size < available ? return_size : available;
+            region_src[i] = (const uint8_t*)teec_operation->params[i].tmpref.buffer;
+            has_region[i] = true;
+
+            flat_put(slot + FlatCodec::C, return_size);
+            flat_put(slot + FlatCodec::D, 1);
+            size += FlatCodec::RANGE_HEADER_SIZE + region_len[i];
+        }
+    }
+
+    jbyteArray new_op_in_bytes = env->NewByteArray(size);
+    if(new_op_in_bytes == NULL){
+        LOGE("\tunable to allocate the operation with size %d", size);
         return NULL;
     }
 
-    int l = env->GetArrayLength(opInBytes);
+    env->SetByteArrayRegion(new_op_in_bytes, 0, FlatCodec::HEADER_SIZE, (jbyte*)header);
 
-    uint8_t* opInBytesBuffer = (uint8_t *)malloc(l*sizeof(uint8_t));
+    int pos = FlatCodec::HEADER_SIZE;
+    for(int i = 0; i < FlatCodec::NUM_OF_SLOTS; i++){
+        if(!has_region[i]) continue;
 
-    // store the byte array into buffer.
-    env->GetByteArrayRegion(opInBytes, 0, l, (jbyte*)opInBytesBuffer);
+        uint8_t range_header[FlatCodec::RANGE_HEADER_SIZE];
+        flat_put(range_header, region_offset[i]);
+        flat_put(range_header + 4, region_len[i]);
 
-    // create a string to store this buffer.
-    string opsInString(opInBytesBuffer, opInBytesBuffer + l);
+        env->SetByteArrayRegion(new_op_in_bytes, pos, FlatCodec::RANGE_HEADER_SIZE, (jbyte*)range_header);
+        pos += FlatCodec::RANGE_HEADER_SIZE;
 
-    free(opInBytesBuffer);
+        if(region_len[i] > 0){
+            env->SetByteArrayRegion(new_op_in_bytes, pos, region_len[i], (const jbyte*)region_src[i]);
+        }
+        pos += region_len[i];
+    }
 
-    TeecOperation op;
-    op.ParseFromString(opsInString);
+    LOGD("[end  ]%s\n\r", __FUNCTION__);
+
+    return new_op_in_bytes;
+}
+
+/**
+ * transfer TEEC_Operation to protobuf. The message parsed from the request is updated and serialized
+ * straight into the returned array.
+ */
+jbyteArray transfer_TEEC_Operation_to_pb_op(JNIEnv* env, const TEEC_Operation* teec_operation, TeecOperation& op, const shared_ptr<SharedMemoryRecord>* memories){
+    LOGD("\n[start]%s", __FUNCTION__);
 
     op.set_mstarted(teec_operation->started);
 
@@ -598,20 +1243,38 @@ jbyteArray transfer_TEEC_Operation_to_op(JNIEnv* env, const TEEC_Operation* teec
         // for TEEC_SharedMemory with output flag.
         else if(type == TEEC_MEMREF_WHOLE ||
                 type == TEEC_MEMREF_PARTIAL_OUTPUT ||
-                type == TEEC_MEMREF_PARTIAL_INOUT){
+                type == TEEC_MEMREF_PARTIAL_INOUT ||
+                type == TEEC_MEMREF_PARTIAL_INPUT){
             TeecSharedMemory* sm = op.mutable_mparams(i)->mutable_teecsharedmemoryreference()->mutable_parent();
             const TEEC_SharedMemory* shared_memory = teec_operation->params[i].memref.parent;
 
             //test code
             print_sharedmemory(shared_memory);
 
-            if(shared_memory->flags >= TEEC_MEM_OUTPUT){
-                sm->set_mbuffer((char*)shared_memory->buffer, shared_memory->size);
-                sm->set_mreturnsize(teec_operation->params[i].memref.size);
+            // the input is already applied. No need to send it back.
+            sm->clear_mdirtyranges();
+            sm->set_mdirtyonly(false);
+
+            if(type != TEEC_MEMREF_PARTIAL_INPUT &&
+               (shared_memory->flags & TEEC_MEM_OUTPUT)){
+                // only the region written by the TA is sent back, which starts from the offset and
+                // stays within the window.
+                uint32_t offset = teec_operation->params[i].memref.offset;
+                uint32_t return_size = teec_operation->params[i].memref.size;
+                uint32_t available = memref_window_size(shared_memory,
+                                                        offset,
+                                                        op.mparams(i).teecsharedmemoryreference().msize());
+                if(memories[i] && memories[i]->allocated) available = 0;
+
+                sm->set_mbuffer((char*)shared_memory->buffer + offset,
+                                return_size < available ? return_size : available);
+                sm->set_mreturnsize(return_size);
 
                 LOGE("\tnew sm size:%d", sm->size());
             }
             else{
+                sm->set_mbuffer(string()); // required field, keep it empty instead of clearing it.
+
                 LOGI("\tshared memory is not for output, will not synced back.");
             }
 
@@ -621,49 +1284,55 @@ jbyteArray transfer_TEEC_Operation_to_op(JNIEnv* env, const TEEC_Operation* teec
         }
     }
 
-    string new_op;
-    op.SerializeToString(&new_op);
+    int size = op.ByteSize();
 
-    LOGD("\tnew_op len:%d", new_op.length());
+    LOGD("\tnew_op len:%d", size);
 
-    jbyteArray new_op_in_bytes = env->NewByteArray(new_op.length());
-    env->SetByteArrayRegion(new_op_in_bytes, 0, new_op.length(), (jbyte*)new_op.c_str());
+    jbyteArray new_op_in_bytes = env->NewByteArray(size);
+    if(new_op_in_bytes == NULL){
+        LOGE("\tunable to allocate the operation with size %d", size);
+        return NULL;
+    }
+
+    jbyte* out = (jbyte*)env->GetPrimitiveArrayCritical(new_op_in_bytes, NULL);
+    if(out == NULL) return NULL;
+
+    op.SerializeWithCachedSizesToArray((uint8_t*)out);
+    env->ReleasePrimitiveArrayCritical(new_op_in_bytes, out, 0);
 
     LOGD("[end  ]%s\n\r", __FUNCTION__);
 
     return new_op_in_bytes;
-} // end of transfer_TEEC_Operation_to_op
-
-/*
-    Open session.
-*/
-JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecOpenSession
-(JNIEnv* env, jclass jc, jint sid, jobject uuid, jint connMethod, jint connData, jbyteArray opInBytes, jobject returnOrigin, jobject returnCode, jint opHashCodeWithPid){
-    LOGI("[start] %s", __FUNCTION__);
+} // end of transfer_TEEC_Operation_to_pb_op
 
-    /* UUID uuid to TEEC_UUID */
-    jclass jcUuid = env->GetObjectClass(uuid);
-    jmethodID jmGetLeastSignificantBits = env->GetMethodID(jcUuid,
-                                                           "getLeastSignificantBits", // method name.
-                                                           "()J" // input void, return long.
-                                                            );
-    jmethodID jmGetMostSignificantBits = env->GetMethodID(jcUuid,
-                                                           "getMostSignificantBits", // method name.
-                                                           "()J" // input void, return long.
-    );
+/**
+ * transfer TEEC_Operation to jbyteArray in the encoding of the request.
+ */
+jbyteArray encode_op(JNIEnv* env, const TEEC_Operation* teec_operation, DecodedOp* decoded){
+    if(decoded->flat){
+        return transfer_TEEC_Operation_to_flat_op(env, teec_operation, decoded->header, decoded->memories);
+    }
 
-    if( jmGetLeastSignificantBits == 0 || jmGetMostSignificantBits == 0){
-        // set return origin TEEC_ORIGIN_API.
-        set_return_origin(env, returnOrigin, TEEC_ORIGIN_API);
+    return transfer_TEEC_Operation_to_pb_op(env, teec_operation, decoded->pb, decoded->memories);
+}
 
-        set_return_code(env, returnCode, TEEC_ERROR_BAD_PARAMETERS);
+/*
+    address of the operation in a direct buffer, or NULL if it is not a direct buffer holding op_len bytes.
+*/
+const uint8_t* direct_op_address(JNIEnv* env, jobject op, jint op_len){
+    uint8_t* data = (uint8_t*)env->GetDirectBufferAddress(op);
+    if(data == NULL || op_len < 0 || op_len > env->GetDirectBufferCapacity(op)){
+        LOGE("\tthe operation is not in a direct buffer of %d bytes", op_len);
+        return NULL;
     }
 
-    uint64_t lsBits, msBits;
-    lsBits = msBits = 0;
-    lsBits = env->CallLongMethod(uuid, jmGetLeastSignificantBits);
-    msBits = env->CallLongMethod(uuid, jmGetMostSignificantBits);
+    return data;
+}
 
+/*
+    convert the UUID given as its most and least significant bits into TEEC_UUID.
+*/
+TEEC_UUID uuid_from_bits(uint64_t msBits, uint64_t lsBits){
     LOGI("\tuuid:%llx %llx.", msBits, lsBits);
 
     TEEC_UUID teec_uuid = { .timeLow = (uint32_t)(msBits >> 32),
@@ -682,33 +1351,73 @@ JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibt
 
     print_clock_seq_and_node(teec_uuid.clockSeqAndNode);
 
+    return teec_uuid;
+}
+
+/*
+    Open session. The operation is read in place from op_data, or there is none if it is NULL.
+    The return code and origin are written into ret and ret_origin.
+*/
+jbyteArray open_session(JNIEnv* env, jint sid, const TEEC_UUID* teec_uuid, jint connMethod, jint connData, const uint8_t* op_data, int op_len, TEEC_Result* ret, uint32_t* ret_origin, jlong cancelId, jint callerId){
+    LOGI("[start] %s", __FUNCTION__);
+
     jbyteArray new_op_in_bytes = NULL;
     uint32_t teec_ret_ori = 0;
     TEEC_Result teec_ret = TEEC_SUCCESS;
-    static TEEC_Session teec_session = {0};
 
-    if( opInBytes != NULL ){
-        // Parsing TEEC_Operation from op in bytes.
-        TEEC_Operation teec_operation = {0};
-        transfer_op_to_TEEC_Operation(env, opInBytes, &teec_operation);
+    // the session is opened in the context of the caller.
+    shared_ptr<ContextRecord> context = find_context_of_caller(callerId);
+    if( !context ){
+        *ret_origin = TEEC_ORIGIN_API;
+        *ret = TEEC_ERROR_BAD_STATE;
 
-        print_TEEC_Operation(&teec_operation);
+        LOGI("[end  ] %s\n\r", __FUNCTION__);
+        return NULL;
+    }
+
+    // the session is in sessions_map while it is being opened, so the operation can be cancelled. It is
+    // not open yet, so the commands on it fail until then.
+    shared_ptr<SessionRecord> record = make_shared<SessionRecord>(context);
+    SessionLock sessionLock(record.get());
+    TEEC_Session* teec_session = &record->session;
+
+    {
+        RegistryLock lock;
+        sessions_map[(int)sid] = record;
+    }
+
+    if( op_data != NULL ){
+        // Parsing TEEC_Operation from op in bytes.
+        TEEC_Operation* teec_operation = &record->operation;
+        DecodedOp decoded;
+        TEEC_Result decode_ret = decode_op(op_data, op_len, &decoded, teec_operation, callerId);
+        if(decode_ret != TEEC_SUCCESS){
+            *ret_origin = TEEC_ORIGIN_API;
+            *ret = decode_ret;
+
+            RegistryLock lock;
+            sessions_map.erase((int)sid);
+
+            LOGI("[end  ] %s\n\r", __FUNCTION__);
+            return NULL;
+        }
 
-        // add operation into operations_map for future cancellation.
-        operations_map.emplace(opHashCodeWithPid, &teec_operation);
+        print_TEEC_Operation(teec_operation);
 
         /**
          * call TEEC_OpenSession with operation.
          */
+        begin_cancellable(record.get(), cancelId);
         teec_ret = TEEC_OpenSession(
-                &g_contextRecord,
-                &teec_session,
-                &teec_uuid,
+                &context->context,
+                teec_session,
+                teec_uuid,
                 (uint32_t)connMethod,
                 &connData,
-                &teec_operation,
+                teec_operation,
                 &teec_ret_ori
         );
+        end_cancellable(record.get());
 
 
         LOGD("\tconnMethod:%.8x, connData:%.8x, return code:%.8x, return origin:%.8x",
@@ -717,20 +1426,17 @@ JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibt
              teec_ret,
              teec_ret_ori
         );
-        // remove the operation once done using it.
-        operations_map.erase(opHashCodeWithPid);
-
         /**
         * sync shared memory and Value back.
         */
-        new_op_in_bytes = transfer_TEEC_Operation_to_op(env, &teec_operation, opInBytes);
+        new_op_in_bytes = encode_op(env, teec_operation, &decoded);
     }
     else{
         // open session without operation.
         teec_ret = TEEC_OpenSession(
-                        &g_contextRecord,
-                        &teec_session,
-                        &teec_uuid,
+                        &context->context,
+                        teec_session,
+                        teec_uuid,
                         (uint32_t)connMethod,
                         &connData,
                         NULL,
@@ -738,51 +1444,95 @@ JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibt
                 );
     }
 
-    //store the session upon success.
+    //keep the session only upon success.
     if( teec_ret == TEEC_SUCCESS ){
         LOGI("\tsucceed");
-        sessions_map.emplace((int)sid, &teec_session);
+
+        record->open = true;
+    }
+    else{
+        RegistryLock lock;
+        sessions_map.erase((int)sid);
     }
 
     // set return origin
-    set_return_origin(env, returnOrigin, teec_ret_ori);
+    *ret_origin = teec_ret_ori;
 
     // set return code
-    set_return_code(env, returnCode, teec_ret);
+    *ret = teec_ret;
 
     LOGI("[end  ] %s\n\r", __FUNCTION__);
 
     // return updated operation.
     return new_op_in_bytes;
-}// end of Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecOpenSession
+}// end of open_session
+
+/*
+    Open session with the UUID as its two halves and the operation in a direct buffer. The operation is
+    read where it is without any copy, and the return code and origin come back in the result holder.
+*/
+JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecOpenSessionDirect
+(JNIEnv* env, jclass jc, jint sid, jlong uuidMsb, jlong uuidLsb, jint connMethod, jint connData, jobject op, jint opLength, jintArray result, jlong cancelId, jint callerId){
+    TEEC_Result ret = TEEC_ERROR_BAD_PARAMETERS;
+    uint32_t ret_origin = TEEC_ORIGIN_API;
+    jbyteArray new_op_in_bytes = NULL;
+
+    const uint8_t* data = NULL;
+    if(op == NULL || (data = direct_op_address(env, op, opLength)) != NULL){
+        TEEC_UUID teec_uuid = uuid_from_bits(uuidMsb, uuidLsb);
+
+        new_op_in_bytes = open_session(env, sid, &teec_uuid, connMethod, connData, data, opLength,
+                                       &ret, &ret_origin, cancelId, callerId);
+    }
+
+    set_packed_results(env, result, ret, ret_origin);
+
+    return new_op_in_bytes;
+}
 
 /*
     Close session.
 */
 JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecCloseSession
         (JNIEnv* env, jclass jc, jint sidInJni){
-    auto sessionWithId = sessions_map.find(sidInJni);
+    shared_ptr<SessionRecord> record;
+    {
+        RegistryLock lock;
+
+        auto sessionWithId = sessions_map.find(sidInJni);
+        if( sessionWithId != sessions_map.end() ){
+            record = sessionWithId->second;
+            sessions_map.erase(sessionWithId);
+        }
+    }
 
-    if( sessionWithId == sessions_map.end() ){
+    if( !record ){
         LOGE("Unable to find session with id %d.", sidInJni);
         return;
     }
 
-    TEEC_CloseSession(sessionWithId->second);
+    // wait for the command running on the session. The record is freed with the last reference to it.
+    SessionLock sessionLock(record.get());
+    TEEC_CloseSession(&record->session);
+    record->open = false;
+
     LOGI("Session with id %d is closed.", sidInJni);
 }
 
 /*
     Find session by id.
+    If found, return the record of the session. Else, return an empty pointer.
 */
-TEEC_Session* find_session_by_id(int sid){
+shared_ptr<SessionRecord> find_session_by_id(int sid){
     LOGI("[start] %s", __FUNCTION__);
 
-    unordered_map<int,TEEC_Session*>::iterator session = sessions_map.find(sid);
+    RegistryLock lock;
+
+    unordered_map<int, shared_ptr<SessionRecord>>::iterator session = sessions_map.find(sid);
 
     if(session == sessions_map.end()){
         LOGE("\tcannot find session with id %d", sid);
-        return NULL;
+        return shared_ptr<SessionRecord>();
     }
 
     LOGI("[end  ] %s\n\r", __FUNCTION__);
@@ -791,54 +1541,63 @@ TEEC_Session* find_session_by_id(int sid){
 }
 
 /*
-    Invoke command.
+    Invoke command. The operation is read in place from op_data, or there is none if it is NULL.
+    The return code and origin are written into ret and ret_origin.
 */
-JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecInvokeCommand
-(JNIEnv* env, jclass jc, jint sid, jint commandId, jbyteArray opInBytes, jobject returnOrigin, jobject returnCode, jint opHashCodeWithPid){
+jbyteArray invoke_command(JNIEnv* env, jint sid, jint commandId, const uint8_t* op_data, int op_len, TEEC_Result* ret, uint32_t* ret_origin, jlong cancelId, jint callerId){
     LOGD("[start] %s", __FUNCTION__);
 
     LOGD("\tIssuing command with id = %d", commandId);
 
-    // test code
-    print_sharedmemory_map();
-
     jbyteArray new_op_in_bytes = NULL;
 
     uint32_t teec_ret_ori = TEEC_ORIGIN_API;
     TEEC_Result teec_ret = TEEC_ERROR_BAD_PARAMETERS;
 
-    TEEC_Session* teec_session = NULL;
-    teec_session = find_session_by_id(sid);
-    if(teec_session != NULL){
-            if(opInBytes != NULL){
-                //Parsing TEEC_Operation from op in bytes.
-                TEEC_Operation teec_operation = {0};
-                transfer_op_to_TEEC_Operation(env, opInBytes, &teec_operation);
+    shared_ptr<SessionRecord> record = find_session_by_id(sid);
+    if(record){
+        // the commands on one session run one at a time.
+        SessionLock sessionLock(record.get());
+        TEEC_Session* teec_session = &record->session;
 
-                print_TEEC_Operation(&teec_operation);
+        if(!record->open){
+            LOGE("\tsession with id %d is closed", sid);
+        }
+        else{
+            if(op_data != NULL){
+                //Parsing TEEC_Operation from op in bytes. The operation of the previous call is overwritten.
+                TEEC_Operation* teec_operation = &record->operation;
+                memset(teec_operation, 0, sizeof(TEEC_Operation));
+                DecodedOp decoded;
+                TEEC_Result decode_ret = decode_op(op_data, op_len, &decoded, teec_operation, callerId);
+                if(decode_ret != TEEC_SUCCESS){
+                    *ret_origin = TEEC_ORIGIN_API;
+                    *ret = decode_ret;
+
+                    LOGI("[end  ] %s\n\r", __FUNCTION__);
+                    return NULL;
+                }
 
-                // add the operation to operations_map for cancel if there is any.
-                operations_map.emplace(opHashCodeWithPid, &teec_operation);
+                print_TEEC_Operation(teec_operation);
 
                 /**
                  * call TEEC_InvokeCommand. It changed the size of shared memory.
                  */
                 LOGD("--------------- Issuing TEEC_InvokeComamnd with operation here.---------------------");
 
+                begin_cancellable(record.get(), cancelId);
                 teec_ret = TEEC_InvokeCommand(
                         teec_session,
                         commandId,
-                        &teec_operation,
+                        teec_operation,
                         &teec_ret_ori
                 );
+                end_cancellable(record.get());
 
                 LOGD("\t\tTEEC_InvokeCommand return code:%.8x", teec_ret);
 
-                // remove the operation from the operations_map after done using it.
-                operations_map.erase(opHashCodeWithPid);
-
                 // sync shared memory and Value back.
-                new_op_in_bytes = transfer_TEEC_Operation_to_op(env, &teec_operation, opInBytes);
+                new_op_in_bytes = encode_op(env, teec_operation, &decoded);
             }
             else{
                 LOGD("--------------- Issuing TEEC_InvokeComamnd without operation here.---------------------");
@@ -850,47 +1609,147 @@ JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibt
                                 &teec_ret_ori
                 );
             }
+        }
     }
 
     // set return origin
-    set_return_origin(env, returnOrigin, teec_ret_ori);
+    *ret_origin = teec_ret_ori;
 
     // set return code
-    set_return_code(env, returnCode, teec_ret);
-
-    // test code
-    print_sharedmemory_map();
+    *ret = teec_ret;
 
     LOGI("[end  ] %s\n\r", __FUNCTION__);
 
     //return updated operation in byte array;
     return new_op_in_bytes;
 
-}// end of Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecInvokeCommand
+}// end of invoke_command
 
 /*
-    Request cancellation.
+    Invoke command with the operation in a direct buffer. The operation is read where it is without any
+    copy, and the return code and origin come back in the result holder.
+*/
+JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecInvokeCommandDirect
+(JNIEnv* env, jclass jc, jint sid, jint commandId, jobject op, jint opLength, jintArray result, jlong cancelId, jint callerId){
+    TEEC_Result ret = TEEC_ERROR_BAD_PARAMETERS;
+    uint32_t ret_origin = TEEC_ORIGIN_API;
+    jbyteArray new_op_in_bytes = NULL;
+
+    const uint8_t* data = NULL;
+    if(op == NULL || (data = direct_op_address(env, op, opLength)) != NULL){
+        new_op_in_bytes = invoke_command(env, sid, commandId, data, opLength,
+                                         &ret, &ret_origin, cancelId, callerId);
+    }
+
+    set_packed_results(env, result, ret, ret_origin);
+
+    return new_op_in_bytes;
+}
+
+/*
+    Invoke command with an operation of values only. The values are put into the TEEC_Operation and
+    taken back from it directly, so nothing is parsed or encoded.
+*/
+void invoke_command_values(jint sid, jint commandId, jint* values, TEEC_Result* ret, uint32_t* ret_origin, jlong cancelId){
+    LOGD("[start] %s", __FUNCTION__);
+
+    *ret_origin = TEEC_ORIGIN_API;
+    *ret = TEEC_ERROR_BAD_PARAMETERS;
+
+    shared_ptr<SessionRecord> record = find_session_by_id(sid);
+    if(!record) return;
+
+    // the commands on one session run one at a time.
+    SessionLock sessionLock(record.get());
+
+    if(!record->open){
+        LOGE("	session with id %d is closed", sid);
+        return;
+    }
+
+    // the operation of the previous call is overwritten.
+    TEEC_Operation* teec_operation = &record->operation;
+    memset(teec_operation, 0, sizeof(TEEC_Operation));
+
+    uint32_t paramTypesArray[] = {TEEC_NONE, TEEC_NONE, TEEC_NONE, TEEC_NONE};
+    for(int i = 0; i < ValuesCodec::NUM_OF_SLOTS; i++){
+        const jint* slot = values + i * ValuesCodec::SLOT_SIZE;
+        if(slot[ValuesCodec::FLAG] == 0) continue;
+
+        paramTypesArray[i] = value_param_type(slot[ValuesCodec::FLAG]);
+        if(paramTypesArray[i] == TEEC_NONE) return;
+
+        teec_operation->params[i].value.a = slot[ValuesCodec::A];
+        teec_operation->params[i].value.b = slot[ValuesCodec::B];
+    }
+    teec_operation->paramTypes = TEEC_PARAM_TYPES(paramTypesArray[0],
+                                                  paramTypesArray[1],
+                                                  paramTypesArray[2],
+                                                  paramTypesArray[3]);
+
+    begin_cancellable(record.get(), cancelId);
+    *ret = TEEC_InvokeCommand(&record->session, commandId, teec_operation, ret_origin);
+    end_cancellable(record.get());
+
+    // the TA only writes to the output values, the others come back as they were.
+    for(int i = 0; i < ValuesCodec::NUM_OF_SLOTS; i++){
+        if(paramTypesArray[i] == TEEC_NONE) continue;
+
+        jint* slot = values + i * ValuesCodec::SLOT_SIZE;
+        slot[ValuesCodec::A] = teec_operation->params[i].value.a;
+        slot[ValuesCodec::B] = teec_operation->params[i].value.b;
+    }
+
+    LOGD("[end  ] %s\n\r", __FUNCTION__);
+}
+
+/*
+    Invoke command with an operation of values only. The values are copied in and out of the array of
+    the caller in one go each.
+*/
+JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecInvokeCommandValues
+(JNIEnv* env, jclass jc, jint sid, jint commandId, jintArray values, jintArray result, jlong cancelId){
+    TEEC_Result ret = TEEC_ERROR_BAD_PARAMETERS;
+    uint32_t ret_origin = TEEC_ORIGIN_API;
+
+    jint vals[ValuesCodec::SIZE];
+    if(values != NULL && env->GetArrayLength(values) >= ValuesCodec::SIZE){
+        env->GetIntArrayRegion(values, 0, ValuesCodec::SIZE, vals);
+
+        invoke_command_values(sid, commandId, vals, &ret, &ret_origin, cancelId);
+
+        env->SetIntArrayRegion(values, 0, ValuesCodec::SIZE, vals);
+    }
+
+    set_packed_results(env, result, ret, ret_origin);
+}
+
+/*
+    Request cancellation of the operation with cancelId if it is still running on the session.
 */
 JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecRequestCancellation
-(JNIEnv* env, jclass jc, jint opHashCodeWithPid){
+(JNIEnv* env, jclass jc, jint sid, jlong cancelId){
     LOGI("[start] %s", __FUNCTION__);
 
-    // find operation.
-    unordered_map<int, TEEC_Operation*>::iterator iOp = operations_map.find(opHashCodeWithPid);
-    if( iOp == operations_map.end() ){
-        LOGI("\tUnable to find the operation with hash code %d. Maybe it is already finished", opHashCodeWithPid);
+    shared_ptr<SessionRecord> record = find_session_by_id(sid);
+    if( !record || cancelId == NO_CANCEL_ID ){
         LOGI("[end  ] %s\n\r", __FUNCTION__);
         return;
     }
 
-    if(iOp->second != NULL){
-        LOGI("\t %d found and it is not null. Sending request cancellation to opentee", opHashCodeWithPid);
-        TEEC_RequestCancellation(iOp->second);
+    // announced before the id is compared, so the call does not reuse the operation meanwhile.
+    record->cancellers.fetch_add(1);
+
+    if(record->running_op.load() == cancelId){
+        LOGI("\t%lld found. Sending request cancellation to opentee", (long long)cancelId);
+        TEEC_RequestCancellation(&record->operation);
     }
     else{
-        LOGE("\t internal error, operation is null");
+        LOGI("\tUnable to find the operation with id %lld. Maybe it is already finished", (long long)cancelId);
     }
 
+    record->cancellers.fetch_sub(1);
+
     LOGI("[end  ] %s\n\r", __FUNCTION__);
 }
 
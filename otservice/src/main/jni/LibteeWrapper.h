@@ -10,26 +10,50 @@ extern "C" {
 /*
  * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
  * Method:    teecInitializeContext
- * Signature: (Ljava/lang/String;Ljava/lang/String;)I
+ * Signature: (Ljava/lang/String;Ljava/lang/String;I)I
  */
 JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecInitializeContext
-  (JNIEnv *, jclass, jstring, jstring);
+  (JNIEnv *, jclass, jstring, jstring, jint);
 
 /*
  * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
  * Method:    teecFinalizeContext
- * Signature: ()V
+ * Signature: (I)V
  */
 JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecFinalizeContext
-  (JNIEnv *, jclass);
+  (JNIEnv *, jclass, jint);
+
+/*
+ * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
+ * Method:    teecRegisterSharedMemoryDirect
+ * Signature: (Ljava/nio/ByteBuffer;IIII)I
+ */
+JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecRegisterSharedMemoryDirect
+  (JNIEnv *, jclass, jobject, jint, jint, jint, jint);
+
+/*
+ * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
+ * Method:    teecAllocateSharedMemory
+ * Signature: (IIII)I
+ */
+JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecAllocateSharedMemory
+  (JNIEnv *, jclass, jint, jint, jint, jint);
 
 /*
  * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
- * Method:    teecRegisterSharedMemory
- * Signature: ([BI)I
+ * Method:    otReadSharedMemory
+ * Signature: (II[BI)I
  */
-JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecRegisterSharedMemory
-  (JNIEnv *, jclass, jbyteArray, jint);
+JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_otReadSharedMemory
+  (JNIEnv *, jclass, jint, jint, jbyteArray, jint);
+
+/*
+ * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
+ * Method:    otWriteSharedMemory
+ * Signature: (II[BI)I
+ */
+JNIEXPORT jint JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_otWriteSharedMemory
+  (JNIEnv *, jclass, jint, jint, jbyteArray, jint);
 
 /*
  * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
@@ -41,11 +65,11 @@ JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_tee
 
 /*
  * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
- * Method:    teecOpenSession
- * Signature: (ILjava/util/UUID;II[BLfi/aalto/ssg/opentee/openteeandroid/IntWrapper;Lfi/aalto/ssg/opentee/openteeandroid/IntWrapper;I)[B
+ * Method:    teecOpenSessionDirect
+ * Signature: (IJJIILjava/nio/ByteBuffer;I[IJI)[B
  */
-JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecOpenSession
-  (JNIEnv *, jclass, jint, jobject, jint, jint, jbyteArray, jobject, jobject, jint);
+JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecOpenSessionDirect
+  (JNIEnv *, jclass, jint, jlong, jlong, jint, jint, jobject, jint, jintArray, jlong, jint);
 
 /*
  * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
@@ -57,19 +81,27 @@ JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_tee
 
 /*
  * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
- * Method:    teecInvokeCommand
- * Signature: (II[BLfi/aalto/ssg/opentee/openteeandroid/IntWrapper;Lfi/aalto/ssg/opentee/openteeandroid/IntWrapper;I)[B
+ * Method:    teecInvokeCommandDirect
+ * Signature: (IILjava/nio/ByteBuffer;I[IJI)[B
+ */
+JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecInvokeCommandDirect
+  (JNIEnv *, jclass, jint, jint, jobject, jint, jintArray, jlong, jint);
+
+/*
+ * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
+ * Method:    teecInvokeCommandValues
+ * Signature: (II[I[IJ)V
  */
-JNIEXPORT jbyteArray JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecInvokeCommand
-  (JNIEnv *, jclass, jint, jint, jbyteArray, jobject, jobject, jint);
+JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecInvokeCommandValues
+  (JNIEnv *, jclass, jint, jint, jintArray, jintArray, jlong);
 
 /*
  * Class:     fi_aalto_ssg_opentee_openteeandroid_NativeLibtee
  * Method:    teecRequestCancellation
- * Signature: (I)V
+ * Signature: (IJ)V
  */
 JNIEXPORT void JNICALL Java_fi_aalto_ssg_opentee_openteeandroid_NativeLibtee_teecRequestCancellation
-  (JNIEnv *, jclass, jint);
+  (JNIEnv *, jclass, jint, jlong);
 
 #ifdef __cplusplus
 }
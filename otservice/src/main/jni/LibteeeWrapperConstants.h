@@ -17,6 +17,8 @@
 #ifndef OPENTEE_ANDROID_LIBTEEEWRAPPERCONSTANTS_H
 #define OPENTEE_ANDROID_LIBTEEEWRAPPERCONSTANTS_H
 
+#include <stdint.h>
+
 namespace JavaConstants{
     const int VALUE_INPUT(0x0000001);
     const int VALUE_OUTPUT(0x00000002);
@@ -25,5 +27,51 @@ namespace JavaConstants{
     const int MEMREF_INPUT(0x000000D);
     const int MEMREF_OUTPUT(0x0000000E);
     const int MEMREF_INOUT(0x0000000F);
+
+    const int TMPREF_INPUT(0x00000005);
+    const int TMPREF_OUTPUT(0x00000006);
+    const int TMPREF_INOUT(0x00000007);
+}
+
+/* layout of the flat encoding of operations. It must match OTOperationCodec in Java. */
+namespace FlatCodec{
+    const int32_t MAGIC(0x4F540000);
+    const int32_t MAGIC_MASK(0xFFFF0000);
+    const int32_t VERSION_1(0x00000001);
+
+    const int NUM_OF_SLOTS(4);
+    const int SLOT_SIZE(6 * 4);
+    const int SLOT_START(2 * 4);
+    const int HEADER_SIZE(SLOT_START + NUM_OF_SLOTS * SLOT_SIZE);
+    const int RANGE_HEADER_SIZE(2 * 4);
+
+    // the temporary memory references of an operation come back in the reply of one binder transaction,
+    // which holds at most 1 MB, so together they can not be bigger than that.
+    const int32_t MAX_TMPREF_SIZE(1024 * 1024);
+
+    const int32_t TYPE_NONE(0);
+    const int32_t TYPE_VALUE(1);
+    const int32_t TYPE_MEMREF(2);
+    const int32_t TYPE_TMPREF(3);
+
+    // offsets of the fields in a slot.
+    const int TYPE(0);
+    const int FLAG(4);
+    const int A(8);
+    const int B(12);
+    const int C(16);
+    const int D(20);
+}
+
+/* layout of an operation of values only, as in OTOperationCodec in Java. A flag of 0 is an empty slot. */
+namespace ValuesCodec{
+    const int NUM_OF_SLOTS(4);
+    const int SLOT_SIZE(3);
+    const int SIZE(NUM_OF_SLOTS * SLOT_SIZE);
+
+    // offsets of the fields in a slot.
+    const int A(0);
+    const int B(1);
+    const int FLAG(2);
 }
 #endif //OPENTEE_ANDROID_LIBTEEEWRAPPERCONSTANTS_H
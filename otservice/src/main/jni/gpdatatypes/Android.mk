@@ -8,7 +8,6 @@ LOCAL_MODULE    := libgpdatatypes
 LOCAL_C_INCLUDES = $(LOCAL_PATH)
 LOCAL_CPP_EXTENSION := .cc
 LOCAL_SRC_FILES := GPDataTypes.pb.cc
-LOCAL_STATIC_LIBRARIES += libprotobuf
-LOCAL_LDLIBS := -lz
+LOCAL_STATIC_LIBRARIES += libprotobuf-lite
 
 include $(BUILD_SHARED_LIBRARY)
\ No newline at end of file
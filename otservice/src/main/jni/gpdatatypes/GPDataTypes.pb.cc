@@ -10,10 +10,7 @@
 #include <google/protobuf/stubs/once.h>
 #include <google/protobuf/io/coded_stream.h>
 #include <google/protobuf/wire_format_lite_inl.h>
-#include <google/protobuf/descriptor.h>
-#include <google/protobuf/generated_message_reflection.h>
-#include <google/protobuf/reflection_ops.h>
-#include <google/protobuf/wire_format.h>
+#include <google/protobuf/io/zero_copy_stream_impl_lite.h>
 // @@protoc_insertion_point(includes)
 
 namespace fi {
@@ -23,220 +20,56 @@ namespace opentee {
 namespace imps {
 namespace pbdatatypes {
 
-namespace {
-
-const ::google::protobuf::Descriptor* TeecOperation_descriptor_ = NULL;
-const ::google::protobuf::internal::GeneratedMessageReflection*
-  TeecOperation_reflection_ = NULL;
-const ::google::protobuf::Descriptor* TeecParameter_descriptor_ = NULL;
-const ::google::protobuf::internal::GeneratedMessageReflection*
-  TeecParameter_reflection_ = NULL;
-const ::google::protobuf::EnumDescriptor* TeecParameter_Type_descriptor_ = NULL;
-const ::google::protobuf::Descriptor* TeecSharedMemory_descriptor_ = NULL;
-const ::google::protobuf::internal::GeneratedMessageReflection*
-  TeecSharedMemory_reflection_ = NULL;
-const ::google::protobuf::Descriptor* TeecSharedMemoryReference_descriptor_ = NULL;
-const ::google::protobuf::internal::GeneratedMessageReflection*
-  TeecSharedMemoryReference_reflection_ = NULL;
-const ::google::protobuf::EnumDescriptor* TeecSharedMemoryReference_Flag_descriptor_ = NULL;
-const ::google::protobuf::Descriptor* TeecValue_descriptor_ = NULL;
-const ::google::protobuf::internal::GeneratedMessageReflection*
-  TeecValue_reflection_ = NULL;
-const ::google::protobuf::EnumDescriptor* TeecValue_Flag_descriptor_ = NULL;
-
-}  // namespace
-
-
-void protobuf_AssignDesc_GPDataTypes_2eproto() {
-  protobuf_AddDesc_GPDataTypes_2eproto();
-  const ::google::protobuf::FileDescriptor* file =
-    ::google::protobuf::DescriptorPool::generated_pool()->FindFileByName(
-      "GPDataTypes.proto");
-  GOOGLE_CHECK(file != NULL);
-  TeecOperation_descriptor_ = file->message_type(0);
-  static const int TeecOperation_offsets_[2] = {
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecOperation, mstarted_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecOperation, mparams_),
-  };
-  TeecOperation_reflection_ =
-    new ::google::protobuf::internal::GeneratedMessageReflection(
-      TeecOperation_descriptor_,
-      TeecOperation::default_instance_,
-      TeecOperation_offsets_,
-      GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecOperation, _has_bits_[0]),
-      GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecOperation, _unknown_fields_),
-      -1,
-      ::google::protobuf::DescriptorPool::generated_pool(),
-      ::google::protobuf::MessageFactory::generated_factory(),
-      sizeof(TeecOperation));
-  TeecParameter_descriptor_ = file->message_type(1);
-  static const int TeecParameter_offsets_[4] = {
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecParameter, type_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecParameter, teecsharedmemoryreference_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecParameter, teecvalue_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecParameter, placeholder_),
-  };
-  TeecParameter_reflection_ =
-    new ::google::protobuf::internal::GeneratedMessageReflection(
-      TeecParameter_descriptor_,
-      TeecParameter::default_instance_,
-      TeecParameter_offsets_,
-      GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecParameter, _has_bits_[0]),
-      GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecParameter, _unknown_fields_),
-      -1,
-      ::google::protobuf::DescriptorPool::generated_pool(),
-      ::google::protobuf::MessageFactory::generated_factory(),
-      sizeof(TeecParameter));
-  TeecParameter_Type_descriptor_ = TeecParameter_descriptor_->enum_type(0);
-  TeecSharedMemory_descriptor_ = file->message_type(2);
-  static const int TeecSharedMemory_offsets_[5] = {
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemory, mbuffer_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemory, mflag_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemory, size_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemory, mreturnsize_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemory, mid_),
-  };
-  TeecSharedMemory_reflection_ =
-    new ::google::protobuf::internal::GeneratedMessageReflection(
-      TeecSharedMemory_descriptor_,
-      TeecSharedMemory::default_instance_,
-      TeecSharedMemory_offsets_,
-      GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemory, _has_bits_[0]),
-      GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemory, _unknown_fields_),
-      -1,
-      ::google::protobuf::DescriptorPool::generated_pool(),
-      ::google::protobuf::MessageFactory::generated_factory(),
-      sizeof(TeecSharedMemory));
-  TeecSharedMemoryReference_descriptor_ = file->message_type(3);
-  static const int TeecSharedMemoryReference_offsets_[3] = {
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemoryReference, parent_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemoryReference, moffset_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemoryReference, mflag_),
-  };
-  TeecSharedMemoryReference_reflection_ =
-    new ::google::protobuf::internal::GeneratedMessageReflection(
-      TeecSharedMemoryReference_descriptor_,
-      TeecSharedMemoryReference::default_instance_,
-      TeecSharedMemoryReference_offsets_,
-      GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemoryReference, _has_bits_[0]),
-      GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecSharedMemoryReference, _unknown_fields_),
-      -1,
-      ::google::protobuf::DescriptorPool::generated_pool(),
-      ::google::protobuf::MessageFactory::generated_factory(),
-      sizeof(TeecSharedMemoryReference));
-  TeecSharedMemoryReference_Flag_descriptor_ = TeecSharedMemoryReference_descriptor_->enum_type(0);
-  TeecValue_descriptor_ = file->message_type(4);
-  static const int TeecValue_offsets_[3] = {
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecValue, a_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecValue, b_),
-    GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecValue, mflag_),
-  };
-  TeecValue_reflection_ =
-    new ::google::protobuf::internal::GeneratedMessageReflection(
-      TeecValue_descriptor_,
-      TeecValue::default_instance_,
-      TeecValue_offsets_,
-      GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecValue, _has_bits_[0]),
-      GOOGLE_PROTOBUF_GENERATED_MESSAGE_FIELD_OFFSET(TeecValue, _unknown_fields_),
-      -1,
-      ::google::protobuf::DescriptorPool::generated_pool(),
-      ::google::protobuf::MessageFactory::generated_factory(),
-      sizeof(TeecValue));
-  TeecValue_Flag_descriptor_ = TeecValue_descriptor_->enum_type(0);
-}
-
-namespace {
-
-GOOGLE_PROTOBUF_DECLARE_ONCE(protobuf_AssignDescriptors_once_);
-inline void protobuf_AssignDescriptorsOnce() {
-  ::google::protobuf::GoogleOnceInit(&protobuf_AssignDescriptors_once_,
-                 &protobuf_AssignDesc_GPDataTypes_2eproto);
-}
-
-void protobuf_RegisterTypes(const ::std::string&) {
-  protobuf_AssignDescriptorsOnce();
-  ::google::protobuf::MessageFactory::InternalRegisterGeneratedMessage(
-    TeecOperation_descriptor_, &TeecOperation::default_instance());
-  ::google::protobuf::MessageFactory::InternalRegisterGeneratedMessage(
-    TeecParameter_descriptor_, &TeecParameter::default_instance());
-  ::google::protobuf::MessageFactory::InternalRegisterGeneratedMessage(
-    TeecSharedMemory_descriptor_, &TeecSharedMemory::default_instance());
-  ::google::protobuf::MessageFactory::InternalRegisterGeneratedMessage(
-    TeecSharedMemoryReference_descriptor_, &TeecSharedMemoryReference::default_instance());
-  ::google::protobuf::MessageFactory::InternalRegisterGeneratedMessage(
-    TeecValue_descriptor_, &TeecValue::default_instance());
-}
-
-}  // namespace
-
 void protobuf_ShutdownFile_GPDataTypes_2eproto() {
   delete TeecOperation::default_instance_;
-  delete TeecOperation_reflection_;
   delete TeecParameter::default_instance_;
-  delete TeecParameter_reflection_;
   delete TeecSharedMemory::default_instance_;
-  delete TeecSharedMemory_reflection_;
+  delete TeecDirtyRange::default_instance_;
   delete TeecSharedMemoryReference::default_instance_;
-  delete TeecSharedMemoryReference_reflection_;
   delete TeecValue::default_instance_;
-  delete TeecValue_reflection_;
 }
 
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+void protobuf_AddDesc_GPDataTypes_2eproto_impl() {
+  GOOGLE_PROTOBUF_VERIFY_VERSION;
+
+#else
 void protobuf_AddDesc_GPDataTypes_2eproto() {
   static bool already_here = false;
   if (already_here) return;
   already_here = true;
   GOOGLE_PROTOBUF_VERIFY_VERSION;
 
-  ::google::protobuf::DescriptorPool::InternalAddGeneratedFile(
-    "\n\021GPDataTypes.proto\022%fi.aalto.ssg.opente"
-    "e.imps.pbdatatypes\"h\n\rTeecOperation\022\020\n\010m"
-    "Started\030\001 \002(\005\022E\n\007mParams\030\002 \003(\01324.fi.aalt"
-    "o.ssg.opentee.imps.pbdatatypes.TeecParam"
-    "eter\"\274\002\n\rTeecParameter\022G\n\004type\030\001 \002(\01629.f"
-    "i.aalto.ssg.opentee.imps.pbdatatypes.Tee"
-    "cParameter.Type\022c\n\031teecSharedMemoryRefer"
-    "ence\030\002 \001(\0132@.fi.aalto.ssg.opentee.imps.p"
-    "bdatatypes.TeecSharedMemoryReference\022C\n\t"
-    "teecValue\030\003 \001(\01320.fi.aalto.ssg.opentee.i"
-    "mps.pbdatatypes.TeecValue\022\023\n\013placeHolder"
-    "\030\004 \001(\005\"#\n\004Type\022\007\n\003smr\020\001\022\007\n\003val\020\002\022\t\n\005empt"
-    "y\020\003\"b\n\020TeecSharedMemory\022\017\n\007mBuffer\030\001 \002(\014"
-    "\022\r\n\005mFlag\030\002 \002(\005\022\014\n\004size\030\003 \002(\005\022\023\n\013mReturn"
-    "Size\030\004 \001(\005\022\013\n\003mID\030\005 \001(\005\"\231\002\n\031TeecSharedMe"
-    "moryReference\022G\n\006parent\030\001 \002(\01327.fi.aalto"
-    ".ssg.opentee.imps.pbdatatypes.TeecShared"
-    "Memory\022\017\n\007mOffset\030\002 \002(\005\022T\n\005mFlag\030\003 \002(\0162E"
-    ".fi.aalto.ssg.opentee.imps.pbdatatypes.T"
-    "eecSharedMemoryReference.Flag\"L\n\004Flag\022\025\n"
-    "\021TEEC_MEMREF_INPUT\020\r\022\026\n\022TEEC_MEMREF_OUTP"
-    "UT\020\016\022\025\n\021TEEC_MEMREF_INOUT\020\017\"\262\001\n\tTeecValu"
-    "e\022\t\n\001a\030\001 \002(\005\022\t\n\001b\030\002 \002(\005\022D\n\005mFlag\030\003 \002(\01625"
-    ".fi.aalto.ssg.opentee.imps.pbdatatypes.T"
-    "eecValue.Flag\"I\n\004Flag\022\024\n\020TEEC_VALUE_INPU"
-    "T\020\001\022\025\n\021TEEC_VALUE_OUTPUT\020\002\022\024\n\020TEEC_VALUE"
-    "_INOUT\020\003", 1048);
-  ::google::protobuf::MessageFactory::InternalRegisterGeneratedFile(
-    "GPDataTypes.proto", &protobuf_RegisterTypes);
+#endif
   TeecOperation::default_instance_ = new TeecOperation();
   TeecParameter::default_instance_ = new TeecParameter();
   TeecSharedMemory::default_instance_ = new TeecSharedMemory();
+  TeecDirtyRange::default_instance_ = new TeecDirtyRange();
   TeecSharedMemoryReference::default_instance_ = new TeecSharedMemoryReference();
   TeecValue::default_instance_ = new TeecValue();
   TeecOperation::default_instance_->InitAsDefaultInstance();
   TeecParameter::default_instance_->InitAsDefaultInstance();
   TeecSharedMemory::default_instance_->InitAsDefaultInstance();
+  TeecDirtyRange::default_instance_->InitAsDefaultInstance();
   TeecSharedMemoryReference::default_instance_->InitAsDefaultInstance();
   TeecValue::default_instance_->InitAsDefaultInstance();
   ::google::protobuf::internal::OnShutdown(&protobuf_ShutdownFile_GPDataTypes_2eproto);
 }
 
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+GOOGLE_PROTOBUF_DECLARE_ONCE(protobuf_AddDesc_GPDataTypes_2eproto_once_);
+void protobuf_AddDesc_GPDataTypes_2eproto() {
+  ::google::protobuf::GoogleOnceInit(&protobuf_AddDesc_GPDataTypes_2eproto_once_,
+                 &protobuf_AddDesc_GPDataTypes_2eproto_impl);
+}
+#else
 // Force AddDescriptors() to be called at static initialization time.
 struct StaticDescriptorInitializer_GPDataTypes_2eproto {
   StaticDescriptorInitializer_GPDataTypes_2eproto() {
     protobuf_AddDesc_GPDataTypes_2eproto();
   }
 } static_descriptor_initializer_GPDataTypes_2eproto_;
+#endif
 
 // ===================================================================
 
@@ -246,7 +79,7 @@ const int TeecOperation::kMParamsFieldNumber;
 #endif  // !_MSC_VER
 
 TeecOperation::TeecOperation()
-  : ::google::protobuf::Message() {
+  : ::google::protobuf::MessageLite() {
   SharedCtor();
   // @@protoc_insertion_point(constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation)
 }
@@ -255,7 +88,7 @@ void TeecOperation::InitAsDefaultInstance() {
 }
 
 TeecOperation::TeecOperation(const TeecOperation& from)
-  : ::google::protobuf::Message() {
+  : ::google::protobuf::MessageLite() {
   SharedCtor();
   MergeFrom(from);
   // @@protoc_insertion_point(copy_constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation)
@@ -273,7 +106,11 @@ TeecOperation::~TeecOperation() {
 }
 
 void TeecOperation::SharedDtor() {
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  if (this != &default_instance()) {
+  #else
   if (this != default_instance_) {
+  #endif
   }
 }
 
@@ -282,13 +119,12 @@ void TeecOperation::SetCachedSize(int size) const {
   _cached_size_ = size;
   GOOGLE_SAFE_CONCURRENT_WRITES_END();
 }
-const ::google::protobuf::Descriptor* TeecOperation::descriptor() {
-  protobuf_AssignDescriptorsOnce();
-  return TeecOperation_descriptor_;
-}
-
 const TeecOperation& TeecOperation::default_instance() {
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  protobuf_AddDesc_GPDataTypes_2eproto();
+#else
   if (default_instance_ == NULL) protobuf_AddDesc_GPDataTypes_2eproto();
+#endif
   return *default_instance_;
 }
 
@@ -302,13 +138,17 @@ void TeecOperation::Clear() {
   mstarted_ = 0;
   mparams_.Clear();
   ::memset(_has_bits_, 0, sizeof(_has_bits_));
-  mutable_unknown_fields()->Clear();
+  mutable_unknown_fields()->clear();
 }
 
 bool TeecOperation::MergePartialFromCodedStream(
     ::google::protobuf::io::CodedInputStream* input) {
 #define DO_(EXPRESSION) if (!(EXPRESSION)) goto failure
   ::google::protobuf::uint32 tag;
+  ::google::protobuf::io::StringOutputStream unknown_fields_string(
+      mutable_unknown_fields());
+  ::google::protobuf::io::CodedOutputStream unknown_fields_stream(
+      &unknown_fields_string);
   // @@protoc_insertion_point(parse_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation)
   for (;;) {
     ::std::pair< ::google::protobuf::uint32, bool> p = input->ReadTagWithCutoff(127);
@@ -350,8 +190,8 @@ bool TeecOperation::MergePartialFromCodedStream(
             ::google::protobuf::internal::WireFormatLite::WIRETYPE_END_GROUP) {
           goto success;
         }
-        DO_(::google::protobuf::internal::WireFormat::SkipField(
-              input, tag, mutable_unknown_fields()));
+        DO_(::google::protobuf::internal::WireFormatLite::SkipField(
+            input, tag, &unknown_fields_stream));
         break;
       }
     }
@@ -375,40 +215,15 @@ void TeecOperation::SerializeWithCachedSizes(
 
   // repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;
   for (int i = 0; i < this->mparams_size(); i++) {
-    ::google::protobuf::internal::WireFormatLite::WriteMessageMaybeToArray(
+    ::google::protobuf::internal::WireFormatLite::WriteMessage(
       2, this->mparams(i), output);
   }
 
-  if (!unknown_fields().empty()) {
-    ::google::protobuf::internal::WireFormat::SerializeUnknownFields(
-        unknown_fields(), output);
-  }
+  output->WriteRaw(unknown_fields().data(),
+                   unknown_fields().size());
   // @@protoc_insertion_point(serialize_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation)
 }
 
-::google::protobuf::uint8* TeecOperation::SerializeWithCachedSizesToArray(
-    ::google::protobuf::uint8* target) const {
-  // @@protoc_insertion_point(serialize_to_array_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation)
-  // required int32 mStarted = 1;
-  if (has_mstarted()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteInt32ToArray(1, this->mstarted(), target);
-  }
-
-  // repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter mParams = 2;
-  for (int i = 0; i < this->mparams_size(); i++) {
-    target = ::google::protobuf::internal::WireFormatLite::
-      WriteMessageNoVirtualToArray(
-        2, this->mparams(i), target);
-  }
-
-  if (!unknown_fields().empty()) {
-    target = ::google::protobuf::internal::WireFormat::SerializeUnknownFieldsToArray(
-        unknown_fields(), target);
-  }
-  // @@protoc_insertion_point(serialize_to_array_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation)
-  return target;
-}
-
 int TeecOperation::ByteSize() const {
   int total_size = 0;
 
@@ -429,27 +244,17 @@ int TeecOperation::ByteSize() const {
         this->mparams(i));
   }
 
-  if (!unknown_fields().empty()) {
-    total_size +=
-      ::google::protobuf::internal::WireFormat::ComputeUnknownFieldsSize(
-        unknown_fields());
-  }
+  total_size += unknown_fields().size();
+
   GOOGLE_SAFE_CONCURRENT_WRITES_BEGIN();
   _cached_size_ = total_size;
   GOOGLE_SAFE_CONCURRENT_WRITES_END();
   return total_size;
 }
 
-void TeecOperation::MergeFrom(const ::google::protobuf::Message& from) {
-  GOOGLE_CHECK_NE(&from, this);
-  const TeecOperation* source =
-    ::google::protobuf::internal::dynamic_cast_if_available<const TeecOperation*>(
-      &from);
-  if (source == NULL) {
-    ::google::protobuf::internal::ReflectionOps::Merge(from, this);
-  } else {
-    MergeFrom(*source);
-  }
+void TeecOperation::CheckTypeAndMergeFrom(
+    const ::google::protobuf::MessageLite& from) {
+  MergeFrom(*::google::protobuf::down_cast<const TeecOperation*>(&from));
 }
 
 void TeecOperation::MergeFrom(const TeecOperation& from) {
@@ -460,13 +265,7 @@ void TeecOperation::MergeFrom(const TeecOperation& from) {
       set_mstarted(from.mstarted());
     }
   }
-  mutable_unknown_fields()->MergeFrom(from.unknown_fields());
-}
-
-void TeecOperation::CopyFrom(const ::google::protobuf::Message& from) {
-  if (&from == this) return;
-  Clear();
-  MergeFrom(from);
+  mutable_unknown_fields()->append(from.unknown_fields());
 }
 
 void TeecOperation::CopyFrom(const TeecOperation& from) {
@@ -487,26 +286,18 @@ void TeecOperation::Swap(TeecOperation* other) {
     std::swap(mstarted_, other->mstarted_);
     mparams_.Swap(&other->mparams_);
     std::swap(_has_bits_[0], other->_has_bits_[0]);
-    _unknown_fields_.Swap(&other->_unknown_fields_);
+    _unknown_fields_.swap(other->_unknown_fields_);
     std::swap(_cached_size_, other->_cached_size_);
   }
 }
 
-::google::protobuf::Metadata TeecOperation::GetMetadata() const {
-  protobuf_AssignDescriptorsOnce();
-  ::google::protobuf::Metadata metadata;
-  metadata.descriptor = TeecOperation_descriptor_;
-  metadata.reflection = TeecOperation_reflection_;
-  return metadata;
+::std::string TeecOperation::GetTypeName() const {
+  return "fi.aalto.ssg.opentee.imps.pbdatatypes.TeecOperation";
 }
 
 
 // ===================================================================
 
-const ::google::protobuf::EnumDescriptor* TeecParameter_Type_descriptor() {
-  protobuf_AssignDescriptorsOnce();
-  return TeecParameter_Type_descriptor_;
-}
 bool TeecParameter_Type_IsValid(int value) {
   switch(value) {
     case 1:
@@ -534,18 +325,28 @@ const int TeecParameter::kPlaceHolderFieldNumber;
 #endif  // !_MSC_VER
 
 TeecParameter::TeecParameter()
-  : ::google::protobuf::Message() {
+  : ::google::protobuf::MessageLite() {
   SharedCtor();
   // @@protoc_insertion_point(constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter)
 }
 
 void TeecParameter::InitAsDefaultInstance() {
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  teecsharedmemoryreference_ = const_cast< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference*>(
+      ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference::internal_default_instance());
+#else
   teecsharedmemoryreference_ = const_cast< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference*>(&::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference::default_instance());
+#endif
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  teecvalue_ = const_cast< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue*>(
+      ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue::internal_default_instance());
+#else
   teecvalue_ = const_cast< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue*>(&::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue::default_instance());
+#endif
 }
 
 TeecParameter::TeecParameter(const TeecParameter& from)
-  : ::google::protobuf::Message() {
+  : ::google::protobuf::MessageLite() {
   SharedCtor();
   MergeFrom(from);
   // @@protoc_insertion_point(copy_constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter)
@@ -566,7 +367,11 @@ TeecParameter::~TeecParameter() {
 }
 
 void TeecParameter::SharedDtor() {
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  if (this != &default_instance()) {
+  #else
   if (this != default_instance_) {
+  #endif
     delete teecsharedmemoryreference_;
     delete teecvalue_;
   }
@@ -577,13 +382,12 @@ void TeecParameter::SetCachedSize(int size) const {
   _cached_size_ = size;
   GOOGLE_SAFE_CONCURRENT_WRITES_END();
 }
-const ::google::protobuf::Descriptor* TeecParameter::descriptor() {
-  protobuf_AssignDescriptorsOnce();
-  return TeecParameter_descriptor_;
-}
-
 const TeecParameter& TeecParameter::default_instance() {
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  protobuf_AddDesc_GPDataTypes_2eproto();
+#else
   if (default_instance_ == NULL) protobuf_AddDesc_GPDataTypes_2eproto();
+#endif
   return *default_instance_;
 }
 
@@ -605,13 +409,17 @@ void TeecParameter::Clear() {
     placeholder_ = 0;
   }
   ::memset(_has_bits_, 0, sizeof(_has_bits_));
-  mutable_unknown_fields()->Clear();
+  mutable_unknown_fields()->clear();
 }
 
 bool TeecParameter::MergePartialFromCodedStream(
     ::google::protobuf::io::CodedInputStream* input) {
 #define DO_(EXPRESSION) if (!(EXPRESSION)) goto failure
   ::google::protobuf::uint32 tag;
+  ::google::protobuf::io::StringOutputStream unknown_fields_string(
+      mutable_unknown_fields());
+  ::google::protobuf::io::CodedOutputStream unknown_fields_stream(
+      &unknown_fields_string);
   // @@protoc_insertion_point(parse_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter)
   for (;;) {
     ::std::pair< ::google::protobuf::uint32, bool> p = input->ReadTagWithCutoff(127);
@@ -628,7 +436,8 @@ bool TeecParameter::MergePartialFromCodedStream(
           if (::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecParameter_Type_IsValid(value)) {
             set_type(static_cast< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecParameter_Type >(value));
           } else {
-            mutable_unknown_fields()->AddVarint(1, value);
+            unknown_fields_stream.WriteVarint32(tag);
+            unknown_fields_stream.WriteVarint32(value);
           }
         } else {
           goto handle_unusual;
@@ -685,8 +494,8 @@ bool TeecParameter::MergePartialFromCodedStream(
             ::google::protobuf::internal::WireFormatLite::WIRETYPE_END_GROUP) {
           goto success;
         }
-        DO_(::google::protobuf::internal::WireFormat::SkipField(
-              input, tag, mutable_unknown_fields()));
+        DO_(::google::protobuf::internal::WireFormatLite::SkipField(
+            input, tag, &unknown_fields_stream));
         break;
       }
     }
@@ -711,13 +520,13 @@ void TeecParameter::SerializeWithCachedSizes(
 
   // optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;
   if (has_teecsharedmemoryreference()) {
-    ::google::protobuf::internal::WireFormatLite::WriteMessageMaybeToArray(
+    ::google::protobuf::internal::WireFormatLite::WriteMessage(
       2, this->teecsharedmemoryreference(), output);
   }
 
   // optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;
   if (has_teecvalue()) {
-    ::google::protobuf::internal::WireFormatLite::WriteMessageMaybeToArray(
+    ::google::protobuf::internal::WireFormatLite::WriteMessage(
       3, this->teecvalue(), output);
   }
 
@@ -726,49 +535,11 @@ void TeecParameter::SerializeWithCachedSizes(
     ::google::protobuf::internal::WireFormatLite::WriteInt32(4, this->placeholder(), output);
   }
 
-  if (!unknown_fields().empty()) {
-    ::google::protobuf::internal::WireFormat::SerializeUnknownFields(
-        unknown_fields(), output);
-  }
+  output->WriteRaw(unknown_fields().data(),
+                   unknown_fields().size());
   // @@protoc_insertion_point(serialize_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter)
 }
 
-::google::protobuf::uint8* TeecParameter::SerializeWithCachedSizesToArray(
-    ::google::protobuf::uint8* target) const {
-  // @@protoc_insertion_point(serialize_to_array_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter)
-  // required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.Type type = 1;
-  if (has_type()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteEnumToArray(
-      1, this->type(), target);
-  }
-
-  // optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference teecSharedMemoryReference = 2;
-  if (has_teecsharedmemoryreference()) {
-    target = ::google::protobuf::internal::WireFormatLite::
-      WriteMessageNoVirtualToArray(
-        2, this->teecsharedmemoryreference(), target);
-  }
-
-  // optional .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue teecValue = 3;
-  if (has_teecvalue()) {
-    target = ::google::protobuf::internal::WireFormatLite::
-      WriteMessageNoVirtualToArray(
-        3, this->teecvalue(), target);
-  }
-
-  // optional int32 placeHolder = 4;
-  if (has_placeholder()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteInt32ToArray(4, this->placeholder(), target);
-  }
-
-  if (!unknown_fields().empty()) {
-    target = ::google::protobuf::internal::WireFormat::SerializeUnknownFieldsToArray(
-        unknown_fields(), target);
-  }
-  // @@protoc_insertion_point(serialize_to_array_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter)
-  return target;
-}
-
 int TeecParameter::ByteSize() const {
   int total_size = 0;
 
@@ -801,27 +572,17 @@ int TeecParameter::ByteSize() const {
     }
 
   }
-  if (!unknown_fields().empty()) {
-    total_size +=
-      ::google::protobuf::internal::WireFormat::ComputeUnknownFieldsSize(
-        unknown_fields());
-  }
+  total_size += unknown_fields().size();
+
   GOOGLE_SAFE_CONCURRENT_WRITES_BEGIN();
   _cached_size_ = total_size;
   GOOGLE_SAFE_CONCURRENT_WRITES_END();
   return total_size;
 }
 
-void TeecParameter::MergeFrom(const ::google::protobuf::Message& from) {
-  GOOGLE_CHECK_NE(&from, this);
-  const TeecParameter* source =
-    ::google::protobuf::internal::dynamic_cast_if_available<const TeecParameter*>(
-      &from);
-  if (source == NULL) {
-    ::google::protobuf::internal::ReflectionOps::Merge(from, this);
-  } else {
-    MergeFrom(*source);
-  }
+void TeecParameter::CheckTypeAndMergeFrom(
+    const ::google::protobuf::MessageLite& from) {
+  MergeFrom(*::google::protobuf::down_cast<const TeecParameter*>(&from));
 }
 
 void TeecParameter::MergeFrom(const TeecParameter& from) {
@@ -840,13 +601,7 @@ void TeecParameter::MergeFrom(const TeecParameter& from) {
       set_placeholder(from.placeholder());
     }
   }
-  mutable_unknown_fields()->MergeFrom(from.unknown_fields());
-}
-
-void TeecParameter::CopyFrom(const ::google::protobuf::Message& from) {
-  if (&from == this) return;
-  Clear();
-  MergeFrom(from);
+  mutable_unknown_fields()->append(from.unknown_fields());
 }
 
 void TeecParameter::CopyFrom(const TeecParameter& from) {
@@ -874,17 +629,13 @@ void TeecParameter::Swap(TeecParameter* other) {
     std::swap(teecvalue_, other->teecvalue_);
     std::swap(placeholder_, other->placeholder_);
     std::swap(_has_bits_[0], other->_has_bits_[0]);
-    _unknown_fields_.Swap(&other->_unknown_fields_);
+    _unknown_fields_.swap(other->_unknown_fields_);
     std::swap(_cached_size_, other->_cached_size_);
   }
 }
 
-::google::protobuf::Metadata TeecParameter::GetMetadata() const {
-  protobuf_AssignDescriptorsOnce();
-  ::google::protobuf::Metadata metadata;
-  metadata.descriptor = TeecParameter_descriptor_;
-  metadata.reflection = TeecParameter_reflection_;
-  return metadata;
+::std::string TeecParameter::GetTypeName() const {
+  return "fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter";
 }
 
 
@@ -896,10 +647,12 @@ const int TeecSharedMemory::kMFlagFieldNumber;
 const int TeecSharedMemory::kSizeFieldNumber;
 const int TeecSharedMemory::kMReturnSizeFieldNumber;
 const int TeecSharedMemory::kMIDFieldNumber;
+const int TeecSharedMemory::kMDirtyOnlyFieldNumber;
+const int TeecSharedMemory::kMDirtyRangesFieldNumber;
 #endif  // !_MSC_VER
 
 TeecSharedMemory::TeecSharedMemory()
-  : ::google::protobuf::Message() {
+  : ::google::protobuf::MessageLite() {
   SharedCtor();
   // @@protoc_insertion_point(constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
 }
@@ -908,7 +661,7 @@ void TeecSharedMemory::InitAsDefaultInstance() {
 }
 
 TeecSharedMemory::TeecSharedMemory(const TeecSharedMemory& from)
-  : ::google::protobuf::Message() {
+  : ::google::protobuf::MessageLite() {
   SharedCtor();
   MergeFrom(from);
   // @@protoc_insertion_point(copy_constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
@@ -922,6 +675,7 @@ void TeecSharedMemory::SharedCtor() {
   size_ = 0;
   mreturnsize_ = 0;
   mid_ = 0;
+  mdirtyonly_ = false;
   ::memset(_has_bits_, 0, sizeof(_has_bits_));
 }
 
@@ -934,7 +688,11 @@ void TeecSharedMemory::SharedDtor() {
   if (mbuffer_ != &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
     delete mbuffer_;
   }
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  if (this != &default_instance()) {
+  #else
   if (this != default_instance_) {
+  #endif
   }
 }
 
@@ -943,13 +701,12 @@ void TeecSharedMemory::SetCachedSize(int size) const {
   _cached_size_ = size;
   GOOGLE_SAFE_CONCURRENT_WRITES_END();
 }
-const ::google::protobuf::Descriptor* TeecSharedMemory::descriptor() {
-  protobuf_AssignDescriptorsOnce();
-  return TeecSharedMemory_descriptor_;
-}
-
 const TeecSharedMemory& TeecSharedMemory::default_instance() {
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  protobuf_AddDesc_GPDataTypes_2eproto();
+#else
   if (default_instance_ == NULL) protobuf_AddDesc_GPDataTypes_2eproto();
+#endif
   return *default_instance_;
 }
 
@@ -970,26 +727,32 @@ void TeecSharedMemory::Clear() {
     ::memset(&first, 0, n);                                \
   } while (0)
 
-  if (_has_bits_[0 / 32] & 31) {
+  if (_has_bits_[0 / 32] & 63) {
     ZR_(mflag_, mid_);
     if (has_mbuffer()) {
       if (mbuffer_ != &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
         mbuffer_->clear();
       }
     }
+    mdirtyonly_ = false;
   }
 
 #undef OFFSET_OF_FIELD_
 #undef ZR_
 
+  mdirtyranges_.Clear();
   ::memset(_has_bits_, 0, sizeof(_has_bits_));
-  mutable_unknown_fields()->Clear();
+  mutable_unknown_fields()->clear();
 }
 
 bool TeecSharedMemory::MergePartialFromCodedStream(
     ::google::protobuf::io::CodedInputStream* input) {
 #define DO_(EXPRESSION) if (!(EXPRESSION)) goto failure
   ::google::protobuf::uint32 tag;
+  ::google::protobuf::io::StringOutputStream unknown_fields_string(
+      mutable_unknown_fields());
+  ::google::protobuf::io::CodedOutputStream unknown_fields_stream(
+      &unknown_fields_string);
   // @@protoc_insertion_point(parse_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
   for (;;) {
     ::std::pair< ::google::protobuf::uint32, bool> p = input->ReadTagWithCutoff(127);
@@ -1064,6 +827,35 @@ bool TeecSharedMemory::MergePartialFromCodedStream(
         } else {
           goto handle_unusual;
         }
+        if (input->ExpectTag(48)) goto parse_mDirtyOnly;
+        break;
+      }
+
+      // optional bool mDirtyOnly = 6;
+      case 6: {
+        if (tag == 48) {
+         parse_mDirtyOnly:
+          DO_((::google::protobuf::internal::WireFormatLite::ReadPrimitive<
+                   bool, ::google::protobuf::internal::WireFormatLite::TYPE_BOOL>(
+                 input, &mdirtyonly_)));
+          set_has_mdirtyonly();
+        } else {
+          goto handle_unusual;
+        }
+        if (input->ExpectTag(58)) goto parse_mDirtyRanges;
+        break;
+      }
+
+      // repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;
+      case 7: {
+        if (tag == 58) {
+         parse_mDirtyRanges:
+          DO_(::google::protobuf::internal::WireFormatLite::ReadMessageNoVirtual(
+                input, add_mdirtyranges()));
+        } else {
+          goto handle_unusual;
+        }
+        if (input->ExpectTag(58)) goto parse_mDirtyRanges;
         if (input->ExpectAtEnd()) goto success;
         break;
       }
@@ -1075,8 +867,8 @@ bool TeecSharedMemory::MergePartialFromCodedStream(
             ::google::protobuf::internal::WireFormatLite::WIRETYPE_END_GROUP) {
           goto success;
         }
-        DO_(::google::protobuf::internal::WireFormat::SkipField(
-              input, tag, mutable_unknown_fields()));
+        DO_(::google::protobuf::internal::WireFormatLite::SkipField(
+            input, tag, &unknown_fields_stream));
         break;
       }
     }
@@ -1119,49 +911,20 @@ void TeecSharedMemory::SerializeWithCachedSizes(
     ::google::protobuf::internal::WireFormatLite::WriteInt32(5, this->mid(), output);
   }
 
-  if (!unknown_fields().empty()) {
-    ::google::protobuf::internal::WireFormat::SerializeUnknownFields(
-        unknown_fields(), output);
-  }
-  // @@protoc_insertion_point(serialize_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
-}
-
-::google::protobuf::uint8* TeecSharedMemory::SerializeWithCachedSizesToArray(
-    ::google::protobuf::uint8* target) const {
-  // @@protoc_insertion_point(serialize_to_array_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
-  // required bytes mBuffer = 1;
-  if (has_mbuffer()) {
-    target =
-      ::google::protobuf::internal::WireFormatLite::WriteBytesToArray(
-        1, this->mbuffer(), target);
-  }
-
-  // required int32 mFlag = 2;
-  if (has_mflag()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteInt32ToArray(2, this->mflag(), target);
-  }
-
-  // required int32 size = 3;
-  if (has_size()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteInt32ToArray(3, this->size(), target);
-  }
-
-  // optional int32 mReturnSize = 4;
-  if (has_mreturnsize()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteInt32ToArray(4, this->mreturnsize(), target);
+  // optional bool mDirtyOnly = 6;
+  if (has_mdirtyonly()) {
+    ::google::protobuf::internal::WireFormatLite::WriteBool(6, this->mdirtyonly(), output);
   }
 
-  // optional int32 mID = 5;
-  if (has_mid()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteInt32ToArray(5, this->mid(), target);
+  // repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;
+  for (int i = 0; i < this->mdirtyranges_size(); i++) {
+    ::google::protobuf::internal::WireFormatLite::WriteMessage(
+      7, this->mdirtyranges(i), output);
   }
 
-  if (!unknown_fields().empty()) {
-    target = ::google::protobuf::internal::WireFormat::SerializeUnknownFieldsToArray(
-        unknown_fields(), target);
-  }
-  // @@protoc_insertion_point(serialize_to_array_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
-  return target;
+  output->WriteRaw(unknown_fields().data(),
+                   unknown_fields().size());
+  // @@protoc_insertion_point(serialize_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
 }
 
 int TeecSharedMemory::ByteSize() const {
@@ -1203,32 +966,36 @@ int TeecSharedMemory::ByteSize() const {
           this->mid());
     }
 
+    // optional bool mDirtyOnly = 6;
+    if (has_mdirtyonly()) {
+      total_size += 1 + 1;
+    }
+
   }
-  if (!unknown_fields().empty()) {
+  // repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;
+  total_size += 1 * this->mdirtyranges_size();
+  for (int i = 0; i < this->mdirtyranges_size(); i++) {
     total_size +=
-      ::google::protobuf::internal::WireFormat::ComputeUnknownFieldsSize(
-        unknown_fields());
+      ::google::protobuf::internal::WireFormatLite::MessageSizeNoVirtual(
+        this->mdirtyranges(i));
   }
+
+  total_size += unknown_fields().size();
+
   GOOGLE_SAFE_CONCURRENT_WRITES_BEGIN();
   _cached_size_ = total_size;
   GOOGLE_SAFE_CONCURRENT_WRITES_END();
   return total_size;
 }
 
-void TeecSharedMemory::MergeFrom(const ::google::protobuf::Message& from) {
-  GOOGLE_CHECK_NE(&from, this);
-  const TeecSharedMemory* source =
-    ::google::protobuf::internal::dynamic_cast_if_available<const TeecSharedMemory*>(
-      &from);
-  if (source == NULL) {
-    ::google::protobuf::internal::ReflectionOps::Merge(from, this);
-  } else {
-    MergeFrom(*source);
-  }
+void TeecSharedMemory::CheckTypeAndMergeFrom(
+    const ::google::protobuf::MessageLite& from) {
+  MergeFrom(*::google::protobuf::down_cast<const TeecSharedMemory*>(&from));
 }
 
 void TeecSharedMemory::MergeFrom(const TeecSharedMemory& from) {
   GOOGLE_CHECK_NE(&from, this);
+  mdirtyranges_.MergeFrom(from.mdirtyranges_);
   if (from._has_bits_[0 / 32] & (0xffu << (0 % 32))) {
     if (from.has_mbuffer()) {
       set_mbuffer(from.mbuffer());
@@ -1245,14 +1012,11 @@ void TeecSharedMemory::MergeFrom(const TeecSharedMemory& from) {
     if (from.has_mid()) {
       set_mid(from.mid());
     }
+    if (from.has_mdirtyonly()) {
+      set_mdirtyonly(from.mdirtyonly());
+    }
   }
-  mutable_unknown_fields()->MergeFrom(from.unknown_fields());
-}
-
-void TeecSharedMemory::CopyFrom(const ::google::protobuf::Message& from) {
-  if (&from == this) return;
-  Clear();
-  MergeFrom(from);
+  mutable_unknown_fields()->append(from.unknown_fields());
 }
 
 void TeecSharedMemory::CopyFrom(const TeecSharedMemory& from) {
@@ -1264,6 +1028,7 @@ void TeecSharedMemory::CopyFrom(const TeecSharedMemory& from) {
 bool TeecSharedMemory::IsInitialized() const {
   if ((_has_bits_[0] & 0x00000007) != 0x00000007) return false;
 
+  if (!::google::protobuf::internal::AllAreInitialized(this->mdirtyranges())) return false;
   return true;
 }
 
@@ -1274,27 +1039,256 @@ void TeecSharedMemory::Swap(TeecSharedMemory* other) {
     std::swap(size_, other->size_);
     std::swap(mreturnsize_, other->mreturnsize_);
     std::swap(mid_, other->mid_);
+    std::swap(mdirtyonly_, other->mdirtyonly_);
+    mdirtyranges_.Swap(&other->mdirtyranges_);
     std::swap(_has_bits_[0], other->_has_bits_[0]);
-    _unknown_fields_.Swap(&other->_unknown_fields_);
+    _unknown_fields_.swap(other->_unknown_fields_);
     std::swap(_cached_size_, other->_cached_size_);
   }
 }
 
-::google::protobuf::Metadata TeecSharedMemory::GetMetadata() const {
-  protobuf_AssignDescriptorsOnce();
-  ::google::protobuf::Metadata metadata;
-  metadata.descriptor = TeecSharedMemory_descriptor_;
-  metadata.reflection = TeecSharedMemory_reflection_;
-  return metadata;
+::std::string TeecSharedMemory::GetTypeName() const {
+  return "fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory";
 }
 
 
 // ===================================================================
 
-const ::google::protobuf::EnumDescriptor* TeecSharedMemoryReference_Flag_descriptor() {
-  protobuf_AssignDescriptorsOnce();
-  return TeecSharedMemoryReference_Flag_descriptor_;
+#ifndef _MSC_VER
+const int TeecDirtyRange::kMOffsetFieldNumber;
+const int TeecDirtyRange::kMDataFieldNumber;
+#endif  // !_MSC_VER
+
+TeecDirtyRange::TeecDirtyRange()
+  : ::google::protobuf::MessageLite() {
+  SharedCtor();
+  // @@protoc_insertion_point(constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+}
+
+void TeecDirtyRange::InitAsDefaultInstance() {
 }
+
+TeecDirtyRange::TeecDirtyRange(const TeecDirtyRange& from)
+  : ::google::protobuf::MessageLite() {
+  SharedCtor();
+  MergeFrom(from);
+  // @@protoc_insertion_point(copy_constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+}
+
+void TeecDirtyRange::SharedCtor() {
+  ::google::protobuf::internal::GetEmptyString();
+  _cached_size_ = 0;
+  moffset_ = 0;
+  mdata_ = const_cast< ::std::string*>(&::google::protobuf::internal::GetEmptyStringAlreadyInited());
+  ::memset(_has_bits_, 0, sizeof(_has_bits_));
+}
+
+TeecDirtyRange::~TeecDirtyRange() {
+  // @@protoc_insertion_point(destructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+  SharedDtor();
+}
+
+void TeecDirtyRange::SharedDtor() {
+  if (mdata_ != &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
+    delete mdata_;
+  }
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  if (this != &default_instance()) {
+  #else
+  if (this != default_instance_) {
+  #endif
+  }
+}
+
+void TeecDirtyRange::SetCachedSize(int size) const {
+  GOOGLE_SAFE_CONCURRENT_WRITES_BEGIN();
+  _cached_size_ = size;
+  GOOGLE_SAFE_CONCURRENT_WRITES_END();
+}
+const TeecDirtyRange& TeecDirtyRange::default_instance() {
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  protobuf_AddDesc_GPDataTypes_2eproto();
+#else
+  if (default_instance_ == NULL) protobuf_AddDesc_GPDataTypes_2eproto();
+#endif
+  return *default_instance_;
+}
+
+TeecDirtyRange* TeecDirtyRange::default_instance_ = NULL;
+
+TeecDirtyRange* TeecDirtyRange::New() const {
+  return new TeecDirtyRange;
+}
+
+void TeecDirtyRange::Clear() {
+  if (_has_bits_[0 / 32] & 3) {
+    moffset_ = 0;
+    if (has_mdata()) {
+      if (mdata_ != &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
+        mdata_->clear();
+      }
+    }
+  }
+  ::memset(_has_bits_, 0, sizeof(_has_bits_));
+  mutable_unknown_fields()->clear();
+}
+
+bool TeecDirtyRange::MergePartialFromCodedStream(
+    ::google::protobuf::io::CodedInputStream* input) {
+#define DO_(EXPRESSION) if (!(EXPRESSION)) goto failure
+  ::google::protobuf::uint32 tag;
+  ::google::protobuf::io::StringOutputStream unknown_fields_string(
+      mutable_unknown_fields());
+  ::google::protobuf::io::CodedOutputStream unknown_fields_stream(
+      &unknown_fields_string);
+  // @@protoc_insertion_point(parse_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+  for (;;) {
+    ::std::pair< ::google::protobuf::uint32, bool> p = input->ReadTagWithCutoff(127);
+    tag = p.first;
+    if (!p.second) goto handle_unusual;
+    switch (::google::protobuf::internal::WireFormatLite::GetTagFieldNumber(tag)) {
+      // required int32 mOffset = 1;
+      case 1: {
+        if (tag == 8) {
+          DO_((::google::protobuf::internal::WireFormatLite::ReadPrimitive<
+                   ::google::protobuf::int32, ::google::protobuf::internal::WireFormatLite::TYPE_INT32>(
+                 input, &moffset_)));
+          set_has_moffset();
+        } else {
+          goto handle_unusual;
+        }
+        if (input->ExpectTag(18)) goto parse_mData;
+        break;
+      }
+
+      // required bytes mData = 2;
+      case 2: {
+        if (tag == 18) {
+         parse_mData:
+          DO_(::google::protobuf::internal::WireFormatLite::ReadBytes(
+                input, this->mutable_mdata()));
+        } else {
+          goto handle_unusual;
+        }
+        if (input->ExpectAtEnd()) goto success;
+        break;
+      }
+
+      default: {
+      handle_unusual:
+        if (tag == 0 ||
+            ::google::protobuf::internal::WireFormatLite::GetTagWireType(tag) ==
+            ::google::protobuf::internal::WireFormatLite::WIRETYPE_END_GROUP) {
+          goto success;
+        }
+        DO_(::google::protobuf::internal::WireFormatLite::SkipField(
+            input, tag, &unknown_fields_stream));
+        break;
+      }
+    }
+  }
+success:
+  // @@protoc_insertion_point(parse_success:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+  return true;
+failure:
+  // @@protoc_insertion_point(parse_failure:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+  return false;
+#undef DO_
+}
+
+void TeecDirtyRange::SerializeWithCachedSizes(
+    ::google::protobuf::io::CodedOutputStream* output) const {
+  // @@protoc_insertion_point(serialize_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+  // required int32 mOffset = 1;
+  if (has_moffset()) {
+    ::google::protobuf::internal::WireFormatLite::WriteInt32(1, this->moffset(), output);
+  }
+
+  // required bytes mData = 2;
+  if (has_mdata()) {
+    ::google::protobuf::internal::WireFormatLite::WriteBytesMaybeAliased(
+      2, this->mdata(), output);
+  }
+
+  output->WriteRaw(unknown_fields().data(),
+                   unknown_fields().size());
+  // @@protoc_insertion_point(serialize_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+}
+
+int TeecDirtyRange::ByteSize() const {
+  int total_size = 0;
+
+  if (_has_bits_[0 / 32] & (0xffu << (0 % 32))) {
+    // required int32 mOffset = 1;
+    if (has_moffset()) {
+      total_size += 1 +
+        ::google::protobuf::internal::WireFormatLite::Int32Size(
+          this->moffset());
+    }
+
+    // required bytes mData = 2;
+    if (has_mdata()) {
+      total_size += 1 +
+        ::google::protobuf::internal::WireFormatLite::BytesSize(
+          this->mdata());
+    }
+
+  }
+  total_size += unknown_fields().size();
+
+  GOOGLE_SAFE_CONCURRENT_WRITES_BEGIN();
+  _cached_size_ = total_size;
+  GOOGLE_SAFE_CONCURRENT_WRITES_END();
+  return total_size;
+}
+
+void TeecDirtyRange::CheckTypeAndMergeFrom(
+    const ::google::protobuf::MessageLite& from) {
+  MergeFrom(*::google::protobuf::down_cast<const TeecDirtyRange*>(&from));
+}
+
+void TeecDirtyRange::MergeFrom(const TeecDirtyRange& from) {
+  GOOGLE_CHECK_NE(&from, this);
+  if (from._has_bits_[0 / 32] & (0xffu << (0 % 32))) {
+    if (from.has_moffset()) {
+      set_moffset(from.moffset());
+    }
+    if (from.has_mdata()) {
+      set_mdata(from.mdata());
+    }
+  }
+  mutable_unknown_fields()->append(from.unknown_fields());
+}
+
+void TeecDirtyRange::CopyFrom(const TeecDirtyRange& from) {
+  if (&from == this) return;
+  Clear();
+  MergeFrom(from);
+}
+
+bool TeecDirtyRange::IsInitialized() const {
+  if ((_has_bits_[0] & 0x00000003) != 0x00000003) return false;
+
+  return true;
+}
+
+void TeecDirtyRange::Swap(TeecDirtyRange* other) {
+  if (other != this) {
+    std::swap(moffset_, other->moffset_);
+    std::swap(mdata_, other->mdata_);
+    std::swap(_has_bits_[0], other->_has_bits_[0]);
+    _unknown_fields_.swap(other->_unknown_fields_);
+    std::swap(_cached_size_, other->_cached_size_);
+  }
+}
+
+::std::string TeecDirtyRange::GetTypeName() const {
+  return "fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange";
+}
+
+
+// ===================================================================
+
 bool TeecSharedMemoryReference_Flag_IsValid(int value) {
   switch(value) {
     case 13:
@@ -1318,20 +1312,26 @@ const int TeecSharedMemoryReference::Flag_ARRAYSIZE;
 const int TeecSharedMemoryReference::kParentFieldNumber;
 const int TeecSharedMemoryReference::kMOffsetFieldNumber;
 const int TeecSharedMemoryReference::kMFlagFieldNumber;
+const int TeecSharedMemoryReference::kMSizeFieldNumber;
 #endif  // !_MSC_VER
 
 TeecSharedMemoryReference::TeecSharedMemoryReference()
-  : ::google::protobuf::Message() {
+  : ::google::protobuf::MessageLite() {
   SharedCtor();
   // @@protoc_insertion_point(constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
 }
 
 void TeecSharedMemoryReference::InitAsDefaultInstance() {
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  parent_ = const_cast< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemory*>(
+      ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemory::internal_default_instance());
+#else
   parent_ = const_cast< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemory*>(&::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemory::default_instance());
+#endif
 }
 
 TeecSharedMemoryReference::TeecSharedMemoryReference(const TeecSharedMemoryReference& from)
-  : ::google::protobuf::Message() {
+  : ::google::protobuf::MessageLite() {
   SharedCtor();
   MergeFrom(from);
   // @@protoc_insertion_point(copy_constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
@@ -1342,6 +1342,7 @@ void TeecSharedMemoryReference::SharedCtor() {
   parent_ = NULL;
   moffset_ = 0;
   mflag_ = 13;
+  msize_ = 0;
   ::memset(_has_bits_, 0, sizeof(_has_bits_));
 }
 
@@ -1351,7 +1352,11 @@ TeecSharedMemoryReference::~TeecSharedMemoryReference() {
 }
 
 void TeecSharedMemoryReference::SharedDtor() {
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  if (this != &default_instance()) {
+  #else
   if (this != default_instance_) {
+  #endif
     delete parent_;
   }
 }
@@ -1361,13 +1366,12 @@ void TeecSharedMemoryReference::SetCachedSize(int size) const {
   _cached_size_ = size;
   GOOGLE_SAFE_CONCURRENT_WRITES_END();
 }
-const ::google::protobuf::Descriptor* TeecSharedMemoryReference::descriptor() {
-  protobuf_AssignDescriptorsOnce();
-  return TeecSharedMemoryReference_descriptor_;
-}
-
 const TeecSharedMemoryReference& TeecSharedMemoryReference::default_instance() {
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  protobuf_AddDesc_GPDataTypes_2eproto();
+#else
   if (default_instance_ == NULL) protobuf_AddDesc_GPDataTypes_2eproto();
+#endif
   return *default_instance_;
 }
 
@@ -1378,21 +1382,26 @@ TeecSharedMemoryReference* TeecSharedMemoryReference::New() const {
 }
 
 void TeecSharedMemoryReference::Clear() {
-  if (_has_bits_[0 / 32] & 7) {
+  if (_has_bits_[0 / 32] & 15) {
     if (has_parent()) {
       if (parent_ != NULL) parent_->::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemory::Clear();
     }
     moffset_ = 0;
     mflag_ = 13;
+    msize_ = 0;
   }
   ::memset(_has_bits_, 0, sizeof(_has_bits_));
-  mutable_unknown_fields()->Clear();
+  mutable_unknown_fields()->clear();
 }
 
 bool TeecSharedMemoryReference::MergePartialFromCodedStream(
     ::google::protobuf::io::CodedInputStream* input) {
 #define DO_(EXPRESSION) if (!(EXPRESSION)) goto failure
   ::google::protobuf::uint32 tag;
+  ::google::protobuf::io::StringOutputStream unknown_fields_string(
+      mutable_unknown_fields());
+  ::google::protobuf::io::CodedOutputStream unknown_fields_stream(
+      &unknown_fields_string);
   // @@protoc_insertion_point(parse_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
   for (;;) {
     ::std::pair< ::google::protobuf::uint32, bool> p = input->ReadTagWithCutoff(127);
@@ -1437,11 +1446,27 @@ bool TeecSharedMemoryReference::MergePartialFromCodedStream(
           if (::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference_Flag_IsValid(value)) {
             set_mflag(static_cast< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference_Flag >(value));
           } else {
-            mutable_unknown_fields()->AddVarint(3, value);
+            unknown_fields_stream.WriteVarint32(tag);
+            unknown_fields_stream.WriteVarint32(value);
           }
         } else {
           goto handle_unusual;
         }
+        if (input->ExpectTag(32)) goto parse_mSize;
+        break;
+      }
+
+      // optional int32 mSize = 4;
+      case 4: {
+        if (tag == 32) {
+         parse_mSize:
+          DO_((::google::protobuf::internal::WireFormatLite::ReadPrimitive<
+                   ::google::protobuf::int32, ::google::protobuf::internal::WireFormatLite::TYPE_INT32>(
+                 input, &msize_)));
+          set_has_msize();
+        } else {
+          goto handle_unusual;
+        }
         if (input->ExpectAtEnd()) goto success;
         break;
       }
@@ -1453,8 +1478,8 @@ bool TeecSharedMemoryReference::MergePartialFromCodedStream(
             ::google::protobuf::internal::WireFormatLite::WIRETYPE_END_GROUP) {
           goto success;
         }
-        DO_(::google::protobuf::internal::WireFormat::SkipField(
-              input, tag, mutable_unknown_fields()));
+        DO_(::google::protobuf::internal::WireFormatLite::SkipField(
+            input, tag, &unknown_fields_stream));
         break;
       }
     }
@@ -1473,7 +1498,7 @@ void TeecSharedMemoryReference::SerializeWithCachedSizes(
   // @@protoc_insertion_point(serialize_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
   // required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;
   if (has_parent()) {
-    ::google::protobuf::internal::WireFormatLite::WriteMessageMaybeToArray(
+    ::google::protobuf::internal::WireFormatLite::WriteMessage(
       1, this->parent(), output);
   }
 
@@ -1488,40 +1513,14 @@ void TeecSharedMemoryReference::SerializeWithCachedSizes(
       3, this->mflag(), output);
   }
 
-  if (!unknown_fields().empty()) {
-    ::google::protobuf::internal::WireFormat::SerializeUnknownFields(
-        unknown_fields(), output);
+  // optional int32 mSize = 4;
+  if (has_msize()) {
+    ::google::protobuf::internal::WireFormatLite::WriteInt32(4, this->msize(), output);
   }
-  // @@protoc_insertion_point(serialize_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
-}
 
-::google::protobuf::uint8* TeecSharedMemoryReference::SerializeWithCachedSizesToArray(
-    ::google::protobuf::uint8* target) const {
-  // @@protoc_insertion_point(serialize_to_array_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
-  // required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory parent = 1;
-  if (has_parent()) {
-    target = ::google::protobuf::internal::WireFormatLite::
-      WriteMessageNoVirtualToArray(
-        1, this->parent(), target);
-  }
-
-  // required int32 mOffset = 2;
-  if (has_moffset()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteInt32ToArray(2, this->moffset(), target);
-  }
-
-  // required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.Flag mFlag = 3;
-  if (has_mflag()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteEnumToArray(
-      3, this->mflag(), target);
-  }
-
-  if (!unknown_fields().empty()) {
-    target = ::google::protobuf::internal::WireFormat::SerializeUnknownFieldsToArray(
-        unknown_fields(), target);
-  }
-  // @@protoc_insertion_point(serialize_to_array_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
-  return target;
+  output->WriteRaw(unknown_fields().data(),
+                   unknown_fields().size());
+  // @@protoc_insertion_point(serialize_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
 }
 
 int TeecSharedMemoryReference::ByteSize() const {
@@ -1548,28 +1547,25 @@ int TeecSharedMemoryReference::ByteSize() const {
         ::google::protobuf::internal::WireFormatLite::EnumSize(this->mflag());
     }
 
+    // optional int32 mSize = 4;
+    if (has_msize()) {
+      total_size += 1 +
+        ::google::protobuf::internal::WireFormatLite::Int32Size(
+          this->msize());
+    }
+
   }
-  if (!unknown_fields().empty()) {
-    total_size +=
-      ::google::protobuf::internal::WireFormat::ComputeUnknownFieldsSize(
-        unknown_fields());
-  }
+  total_size += unknown_fields().size();
+
   GOOGLE_SAFE_CONCURRENT_WRITES_BEGIN();
   _cached_size_ = total_size;
   GOOGLE_SAFE_CONCURRENT_WRITES_END();
   return total_size;
 }
 
-void TeecSharedMemoryReference::MergeFrom(const ::google::protobuf::Message& from) {
-  GOOGLE_CHECK_NE(&from, this);
-  const TeecSharedMemoryReference* source =
-    ::google::protobuf::internal::dynamic_cast_if_available<const TeecSharedMemoryReference*>(
-      &from);
-  if (source == NULL) {
-    ::google::protobuf::internal::ReflectionOps::Merge(from, this);
-  } else {
-    MergeFrom(*source);
-  }
+void TeecSharedMemoryReference::CheckTypeAndMergeFrom(
+    const ::google::protobuf::MessageLite& from) {
+  MergeFrom(*::google::protobuf::down_cast<const TeecSharedMemoryReference*>(&from));
 }
 
 void TeecSharedMemoryReference::MergeFrom(const TeecSharedMemoryReference& from) {
@@ -1584,14 +1580,11 @@ void TeecSharedMemoryReference::MergeFrom(const TeecSharedMemoryReference& from)
     if (from.has_mflag()) {
       set_mflag(from.mflag());
     }
+    if (from.has_msize()) {
+      set_msize(from.msize());
+    }
   }
-  mutable_unknown_fields()->MergeFrom(from.unknown_fields());
-}
-
-void TeecSharedMemoryReference::CopyFrom(const ::google::protobuf::Message& from) {
-  if (&from == this) return;
-  Clear();
-  MergeFrom(from);
+  mutable_unknown_fields()->append(from.unknown_fields());
 }
 
 void TeecSharedMemoryReference::CopyFrom(const TeecSharedMemoryReference& from) {
@@ -1614,27 +1607,20 @@ void TeecSharedMemoryReference::Swap(TeecSharedMemoryReference* other) {
     std::swap(parent_, other->parent_);
     std::swap(moffset_, other->moffset_);
     std::swap(mflag_, other->mflag_);
+    std::swap(msize_, other->msize_);
     std::swap(_has_bits_[0], other->_has_bits_[0]);
-    _unknown_fields_.Swap(&other->_unknown_fields_);
+    _unknown_fields_.swap(other->_unknown_fields_);
     std::swap(_cached_size_, other->_cached_size_);
   }
 }
 
-::google::protobuf::Metadata TeecSharedMemoryReference::GetMetadata() const {
-  protobuf_AssignDescriptorsOnce();
-  ::google::protobuf::Metadata metadata;
-  metadata.descriptor = TeecSharedMemoryReference_descriptor_;
-  metadata.reflection = TeecSharedMemoryReference_reflection_;
-  return metadata;
+::std::string TeecSharedMemoryReference::GetTypeName() const {
+  return "fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference";
 }
 
 
 // ===================================================================
 
-const ::google::protobuf::EnumDescriptor* TeecValue_Flag_descriptor() {
-  protobuf_AssignDescriptorsOnce();
-  return TeecValue_Flag_descriptor_;
-}
 bool TeecValue_Flag_IsValid(int value) {
   switch(value) {
     case 1:
@@ -1661,7 +1647,7 @@ const int TeecValue::kMFlagFieldNumber;
 #endif  // !_MSC_VER
 
 TeecValue::TeecValue()
-  : ::google::protobuf::Message() {
+  : ::google::protobuf::MessageLite() {
   SharedCtor();
   // @@protoc_insertion_point(constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue)
 }
@@ -1670,7 +1656,7 @@ void TeecValue::InitAsDefaultInstance() {
 }
 
 TeecValue::TeecValue(const TeecValue& from)
-  : ::google::protobuf::Message() {
+  : ::google::protobuf::MessageLite() {
   SharedCtor();
   MergeFrom(from);
   // @@protoc_insertion_point(copy_constructor:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue)
@@ -1690,7 +1676,11 @@ TeecValue::~TeecValue() {
 }
 
 void TeecValue::SharedDtor() {
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  if (this != &default_instance()) {
+  #else
   if (this != default_instance_) {
+  #endif
   }
 }
 
@@ -1699,13 +1689,12 @@ void TeecValue::SetCachedSize(int size) const {
   _cached_size_ = size;
   GOOGLE_SAFE_CONCURRENT_WRITES_END();
 }
-const ::google::protobuf::Descriptor* TeecValue::descriptor() {
-  protobuf_AssignDescriptorsOnce();
-  return TeecValue_descriptor_;
-}
-
 const TeecValue& TeecValue::default_instance() {
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  protobuf_AddDesc_GPDataTypes_2eproto();
+#else
   if (default_instance_ == NULL) protobuf_AddDesc_GPDataTypes_2eproto();
+#endif
   return *default_instance_;
 }
 
@@ -1735,13 +1724,17 @@ void TeecValue::Clear() {
 #undef ZR_
 
   ::memset(_has_bits_, 0, sizeof(_has_bits_));
-  mutable_unknown_fields()->Clear();
+  mutable_unknown_fields()->clear();
 }
 
 bool TeecValue::MergePartialFromCodedStream(
     ::google::protobuf::io::CodedInputStream* input) {
 #define DO_(EXPRESSION) if (!(EXPRESSION)) goto failure
   ::google::protobuf::uint32 tag;
+  ::google::protobuf::io::StringOutputStream unknown_fields_string(
+      mutable_unknown_fields());
+  ::google::protobuf::io::CodedOutputStream unknown_fields_stream(
+      &unknown_fields_string);
   // @@protoc_insertion_point(parse_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue)
   for (;;) {
     ::std::pair< ::google::protobuf::uint32, bool> p = input->ReadTagWithCutoff(127);
@@ -1788,7 +1781,8 @@ bool TeecValue::MergePartialFromCodedStream(
           if (::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue_Flag_IsValid(value)) {
             set_mflag(static_cast< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue_Flag >(value));
           } else {
-            mutable_unknown_fields()->AddVarint(3, value);
+            unknown_fields_stream.WriteVarint32(tag);
+            unknown_fields_stream.WriteVarint32(value);
           }
         } else {
           goto handle_unusual;
@@ -1804,8 +1798,8 @@ bool TeecValue::MergePartialFromCodedStream(
             ::google::protobuf::internal::WireFormatLite::WIRETYPE_END_GROUP) {
           goto success;
         }
-        DO_(::google::protobuf::internal::WireFormat::SkipField(
-              input, tag, mutable_unknown_fields()));
+        DO_(::google::protobuf::internal::WireFormatLite::SkipField(
+            input, tag, &unknown_fields_stream));
         break;
       }
     }
@@ -1838,40 +1832,11 @@ void TeecValue::SerializeWithCachedSizes(
       3, this->mflag(), output);
   }
 
-  if (!unknown_fields().empty()) {
-    ::google::protobuf::internal::WireFormat::SerializeUnknownFields(
-        unknown_fields(), output);
-  }
+  output->WriteRaw(unknown_fields().data(),
+                   unknown_fields().size());
   // @@protoc_insertion_point(serialize_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue)
 }
 
-::google::protobuf::uint8* TeecValue::SerializeWithCachedSizesToArray(
-    ::google::protobuf::uint8* target) const {
-  // @@protoc_insertion_point(serialize_to_array_start:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue)
-  // required int32 a = 1;
-  if (has_a()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteInt32ToArray(1, this->a(), target);
-  }
-
-  // required int32 b = 2;
-  if (has_b()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteInt32ToArray(2, this->b(), target);
-  }
-
-  // required .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue.Flag mFlag = 3;
-  if (has_mflag()) {
-    target = ::google::protobuf::internal::WireFormatLite::WriteEnumToArray(
-      3, this->mflag(), target);
-  }
-
-  if (!unknown_fields().empty()) {
-    target = ::google::protobuf::internal::WireFormat::SerializeUnknownFieldsToArray(
-        unknown_fields(), target);
-  }
-  // @@protoc_insertion_point(serialize_to_array_end:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue)
-  return target;
-}
-
 int TeecValue::ByteSize() const {
   int total_size = 0;
 
@@ -1897,27 +1862,17 @@ int TeecValue::ByteSize() const {
     }
 
   }
-  if (!unknown_fields().empty()) {
-    total_size +=
-      ::google::protobuf::internal::WireFormat::ComputeUnknownFieldsSize(
-        unknown_fields());
-  }
+  total_size += unknown_fields().size();
+
   GOOGLE_SAFE_CONCURRENT_WRITES_BEGIN();
   _cached_size_ = total_size;
   GOOGLE_SAFE_CONCURRENT_WRITES_END();
   return total_size;
 }
 
-void TeecValue::MergeFrom(const ::google::protobuf::Message& from) {
-  GOOGLE_CHECK_NE(&from, this);
-  const TeecValue* source =
-    ::google::protobuf::internal::dynamic_cast_if_available<const TeecValue*>(
-      &from);
-  if (source == NULL) {
-    ::google::protobuf::internal::ReflectionOps::Merge(from, this);
-  } else {
-    MergeFrom(*source);
-  }
+void TeecValue::CheckTypeAndMergeFrom(
+    const ::google::protobuf::MessageLite& from) {
+  MergeFrom(*::google::protobuf::down_cast<const TeecValue*>(&from));
 }
 
 void TeecValue::MergeFrom(const TeecValue& from) {
@@ -1933,13 +1888,7 @@ void TeecValue::MergeFrom(const TeecValue& from) {
       set_mflag(from.mflag());
     }
   }
-  mutable_unknown_fields()->MergeFrom(from.unknown_fields());
-}
-
-void TeecValue::CopyFrom(const ::google::protobuf::Message& from) {
-  if (&from == this) return;
-  Clear();
-  MergeFrom(from);
+  mutable_unknown_fields()->append(from.unknown_fields());
 }
 
 void TeecValue::CopyFrom(const TeecValue& from) {
@@ -1960,17 +1909,13 @@ void TeecValue::Swap(TeecValue* other) {
     std::swap(b_, other->b_);
     std::swap(mflag_, other->mflag_);
     std::swap(_has_bits_[0], other->_has_bits_[0]);
-    _unknown_fields_.Swap(&other->_unknown_fields_);
+    _unknown_fields_.swap(other->_unknown_fields_);
     std::swap(_cached_size_, other->_cached_size_);
   }
 }
 
-::google::protobuf::Metadata TeecValue::GetMetadata() const {
-  protobuf_AssignDescriptorsOnce();
-  ::google::protobuf::Metadata metadata;
-  metadata.descriptor = TeecValue_descriptor_;
-  metadata.reflection = TeecValue_reflection_;
-  return metadata;
+::std::string TeecValue::GetTypeName() const {
+  return "fi.aalto.ssg.opentee.imps.pbdatatypes.TeecValue";
 }
 
 
@@ -20,11 +20,9 @@
 #endif
 
 #include <google/protobuf/generated_message_util.h>
-#include <google/protobuf/message.h>
+#include <google/protobuf/message_lite.h>
 #include <google/protobuf/repeated_field.h>
 #include <google/protobuf/extension_set.h>
-#include <google/protobuf/generated_enum_reflection.h>
-#include <google/protobuf/unknown_field_set.h>
 // @@protoc_insertion_point(includes)
 
 namespace fi {
@@ -42,6 +40,7 @@ void protobuf_ShutdownFile_GPDataTypes_2eproto();
 class TeecOperation;
 class TeecParameter;
 class TeecSharedMemory;
+class TeecDirtyRange;
 class TeecSharedMemoryReference;
 class TeecValue;
 
@@ -55,16 +54,6 @@ const TeecParameter_Type TeecParameter_Type_Type_MIN = TeecParameter_Type_smr;
 const TeecParameter_Type TeecParameter_Type_Type_MAX = TeecParameter_Type_empty;
 const int TeecParameter_Type_Type_ARRAYSIZE = TeecParameter_Type_Type_MAX + 1;
 
-const ::google::protobuf::EnumDescriptor* TeecParameter_Type_descriptor();
-inline const ::std::string& TeecParameter_Type_Name(TeecParameter_Type value) {
-  return ::google::protobuf::internal::NameOfEnum(
-    TeecParameter_Type_descriptor(), value);
-}
-inline bool TeecParameter_Type_Parse(
-    const ::std::string& name, TeecParameter_Type* value) {
-  return ::google::protobuf::internal::ParseNamedEnum<TeecParameter_Type>(
-    TeecParameter_Type_descriptor(), name, value);
-}
 enum TeecSharedMemoryReference_Flag {
   TeecSharedMemoryReference_Flag_TEEC_MEMREF_INPUT = 13,
   TeecSharedMemoryReference_Flag_TEEC_MEMREF_OUTPUT = 14,
@@ -75,16 +64,6 @@ const TeecSharedMemoryReference_Flag TeecSharedMemoryReference_Flag_Flag_MIN = T
 const TeecSharedMemoryReference_Flag TeecSharedMemoryReference_Flag_Flag_MAX = TeecSharedMemoryReference_Flag_TEEC_MEMREF_INOUT;
 const int TeecSharedMemoryReference_Flag_Flag_ARRAYSIZE = TeecSharedMemoryReference_Flag_Flag_MAX + 1;
 
-const ::google::protobuf::EnumDescriptor* TeecSharedMemoryReference_Flag_descriptor();
-inline const ::std::string& TeecSharedMemoryReference_Flag_Name(TeecSharedMemoryReference_Flag value) {
-  return ::google::protobuf::internal::NameOfEnum(
-    TeecSharedMemoryReference_Flag_descriptor(), value);
-}
-inline bool TeecSharedMemoryReference_Flag_Parse(
-    const ::std::string& name, TeecSharedMemoryReference_Flag* value) {
-  return ::google::protobuf::internal::ParseNamedEnum<TeecSharedMemoryReference_Flag>(
-    TeecSharedMemoryReference_Flag_descriptor(), name, value);
-}
 enum TeecValue_Flag {
   TeecValue_Flag_TEEC_VALUE_INPUT = 1,
   TeecValue_Flag_TEEC_VALUE_OUTPUT = 2,
@@ -95,19 +74,9 @@ const TeecValue_Flag TeecValue_Flag_Flag_MIN = TeecValue_Flag_TEEC_VALUE_INPUT;
 const TeecValue_Flag TeecValue_Flag_Flag_MAX = TeecValue_Flag_TEEC_VALUE_INOUT;
 const int TeecValue_Flag_Flag_ARRAYSIZE = TeecValue_Flag_Flag_MAX + 1;
 
-const ::google::protobuf::EnumDescriptor* TeecValue_Flag_descriptor();
-inline const ::std::string& TeecValue_Flag_Name(TeecValue_Flag value) {
-  return ::google::protobuf::internal::NameOfEnum(
-    TeecValue_Flag_descriptor(), value);
-}
-inline bool TeecValue_Flag_Parse(
-    const ::std::string& name, TeecValue_Flag* value) {
-  return ::google::protobuf::internal::ParseNamedEnum<TeecValue_Flag>(
-    TeecValue_Flag_descriptor(), name, value);
-}
 // ===================================================================
 
-class TeecOperation : public ::google::protobuf::Message {
+class TeecOperation : public ::google::protobuf::MessageLite {
  public:
   TeecOperation();
   virtual ~TeecOperation();
@@ -119,24 +88,32 @@ class TeecOperation : public ::google::protobuf::Message {
     return *this;
   }
 
-  inline const ::google::protobuf::UnknownFieldSet& unknown_fields() const {
+  inline const ::std::string& unknown_fields() const {
     return _unknown_fields_;
   }
 
-  inline ::google::protobuf::UnknownFieldSet* mutable_unknown_fields() {
+  inline ::std::string* mutable_unknown_fields() {
     return &_unknown_fields_;
   }
 
-  static const ::google::protobuf::Descriptor* descriptor();
   static const TeecOperation& default_instance();
 
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  // Returns the internal default instance pointer. This function can
+  // return NULL thus should not be used by the user. This is intended
+  // for Protobuf internal code. Please use default_instance() declared
+  // above instead.
+  static inline const TeecOperation* internal_default_instance() {
+    return default_instance_;
+  }
+  #endif
+
   void Swap(TeecOperation* other);
 
   // implements Message ----------------------------------------------
 
   TeecOperation* New() const;
-  void CopyFrom(const ::google::protobuf::Message& from);
-  void MergeFrom(const ::google::protobuf::Message& from);
+  void CheckTypeAndMergeFrom(const ::google::protobuf::MessageLite& from);
   void CopyFrom(const TeecOperation& from);
   void MergeFrom(const TeecOperation& from);
   void Clear();
@@ -147,14 +124,14 @@ class TeecOperation : public ::google::protobuf::Message {
       ::google::protobuf::io::CodedInputStream* input);
   void SerializeWithCachedSizes(
       ::google::protobuf::io::CodedOutputStream* output) const;
-  ::google::protobuf::uint8* SerializeWithCachedSizesToArray(::google::protobuf::uint8* output) const;
+  void DiscardUnknownFields();
   int GetCachedSize() const { return _cached_size_; }
   private:
   void SharedCtor();
   void SharedDtor();
   void SetCachedSize(int size) const;
   public:
-  ::google::protobuf::Metadata GetMetadata() const;
+  ::std::string GetTypeName() const;
 
   // nested types ----------------------------------------------------
 
@@ -184,13 +161,17 @@ class TeecOperation : public ::google::protobuf::Message {
   inline void set_has_mstarted();
   inline void clear_has_mstarted();
 
-  ::google::protobuf::UnknownFieldSet _unknown_fields_;
+  ::std::string _unknown_fields_;
 
   ::google::protobuf::uint32 _has_bits_[1];
   mutable int _cached_size_;
   ::google::protobuf::RepeatedPtrField< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecParameter > mparams_;
   ::google::protobuf::int32 mstarted_;
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  friend void  protobuf_AddDesc_GPDataTypes_2eproto_impl();
+  #else
   friend void  protobuf_AddDesc_GPDataTypes_2eproto();
+  #endif
   friend void protobuf_AssignDesc_GPDataTypes_2eproto();
   friend void protobuf_ShutdownFile_GPDataTypes_2eproto();
 
@@ -199,7 +180,7 @@ class TeecOperation : public ::google::protobuf::Message {
 };
 // -------------------------------------------------------------------
 
-class TeecParameter : public ::google::protobuf::Message {
+class TeecParameter : public ::google::protobuf::MessageLite {
  public:
   TeecParameter();
   virtual ~TeecParameter();
@@ -211,24 +192,32 @@ class TeecParameter : public ::google::protobuf::Message {
     return *this;
   }
 
-  inline const ::google::protobuf::UnknownFieldSet& unknown_fields() const {
+  inline const ::std::string& unknown_fields() const {
     return _unknown_fields_;
   }
 
-  inline ::google::protobuf::UnknownFieldSet* mutable_unknown_fields() {
+  inline ::std::string* mutable_unknown_fields() {
     return &_unknown_fields_;
   }
 
-  static const ::google::protobuf::Descriptor* descriptor();
   static const TeecParameter& default_instance();
 
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  // Returns the internal default instance pointer. This function can
+  // return NULL thus should not be used by the user. This is intended
+  // for Protobuf internal code. Please use default_instance() declared
+  // above instead.
+  static inline const TeecParameter* internal_default_instance() {
+    return default_instance_;
+  }
+  #endif
+
   void Swap(TeecParameter* other);
 
   // implements Message ----------------------------------------------
 
   TeecParameter* New() const;
-  void CopyFrom(const ::google::protobuf::Message& from);
-  void MergeFrom(const ::google::protobuf::Message& from);
+  void CheckTypeAndMergeFrom(const ::google::protobuf::MessageLite& from);
   void CopyFrom(const TeecParameter& from);
   void MergeFrom(const TeecParameter& from);
   void Clear();
@@ -239,14 +228,14 @@ class TeecParameter : public ::google::protobuf::Message {
       ::google::protobuf::io::CodedInputStream* input);
   void SerializeWithCachedSizes(
       ::google::protobuf::io::CodedOutputStream* output) const;
-  ::google::protobuf::uint8* SerializeWithCachedSizesToArray(::google::protobuf::uint8* output) const;
+  void DiscardUnknownFields();
   int GetCachedSize() const { return _cached_size_; }
   private:
   void SharedCtor();
   void SharedDtor();
   void SetCachedSize(int size) const;
   public:
-  ::google::protobuf::Metadata GetMetadata() const;
+  ::std::string GetTypeName() const;
 
   // nested types ----------------------------------------------------
 
@@ -263,17 +252,6 @@ class TeecParameter : public ::google::protobuf::Message {
     TeecParameter_Type_Type_MAX;
   static const int Type_ARRAYSIZE =
     TeecParameter_Type_Type_ARRAYSIZE;
-  static inline const ::google::protobuf::EnumDescriptor*
-  Type_descriptor() {
-    return TeecParameter_Type_descriptor();
-  }
-  static inline const ::std::string& Type_Name(Type value) {
-    return TeecParameter_Type_Name(value);
-  }
-  static inline bool Type_Parse(const ::std::string& name,
-      Type* value) {
-    return TeecParameter_Type_Parse(name, value);
-  }
 
   // accessors -------------------------------------------------------
 
@@ -320,7 +298,7 @@ class TeecParameter : public ::google::protobuf::Message {
   inline void set_has_placeholder();
   inline void clear_has_placeholder();
 
-  ::google::protobuf::UnknownFieldSet _unknown_fields_;
+  ::std::string _unknown_fields_;
 
   ::google::protobuf::uint32 _has_bits_[1];
   mutable int _cached_size_;
@@ -328,7 +306,11 @@ class TeecParameter : public ::google::protobuf::Message {
   int type_;
   ::google::protobuf::int32 placeholder_;
   ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue* teecvalue_;
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  friend void  protobuf_AddDesc_GPDataTypes_2eproto_impl();
+  #else
   friend void  protobuf_AddDesc_GPDataTypes_2eproto();
+  #endif
   friend void protobuf_AssignDesc_GPDataTypes_2eproto();
   friend void protobuf_ShutdownFile_GPDataTypes_2eproto();
 
@@ -337,7 +319,7 @@ class TeecParameter : public ::google::protobuf::Message {
 };
 // -------------------------------------------------------------------
 
-class TeecSharedMemory : public ::google::protobuf::Message {
+class TeecSharedMemory : public ::google::protobuf::MessageLite {
  public:
   TeecSharedMemory();
   virtual ~TeecSharedMemory();
@@ -349,24 +331,32 @@ class TeecSharedMemory : public ::google::protobuf::Message {
     return *this;
   }
 
-  inline const ::google::protobuf::UnknownFieldSet& unknown_fields() const {
+  inline const ::std::string& unknown_fields() const {
     return _unknown_fields_;
   }
 
-  inline ::google::protobuf::UnknownFieldSet* mutable_unknown_fields() {
+  inline ::std::string* mutable_unknown_fields() {
     return &_unknown_fields_;
   }
 
-  static const ::google::protobuf::Descriptor* descriptor();
   static const TeecSharedMemory& default_instance();
 
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  // Returns the internal default instance pointer. This function can
+  // return NULL thus should not be used by the user. This is intended
+  // for Protobuf internal code. Please use default_instance() declared
+  // above instead.
+  static inline const TeecSharedMemory* internal_default_instance() {
+    return default_instance_;
+  }
+  #endif
+
   void Swap(TeecSharedMemory* other);
 
   // implements Message ----------------------------------------------
 
   TeecSharedMemory* New() const;
-  void CopyFrom(const ::google::protobuf::Message& from);
-  void MergeFrom(const ::google::protobuf::Message& from);
+  void CheckTypeAndMergeFrom(const ::google::protobuf::MessageLite& from);
   void CopyFrom(const TeecSharedMemory& from);
   void MergeFrom(const TeecSharedMemory& from);
   void Clear();
@@ -377,14 +367,14 @@ class TeecSharedMemory : public ::google::protobuf::Message {
       ::google::protobuf::io::CodedInputStream* input);
   void SerializeWithCachedSizes(
       ::google::protobuf::io::CodedOutputStream* output) const;
-  ::google::protobuf::uint8* SerializeWithCachedSizesToArray(::google::protobuf::uint8* output) const;
+  void DiscardUnknownFields();
   int GetCachedSize() const { return _cached_size_; }
   private:
   void SharedCtor();
   void SharedDtor();
   void SetCachedSize(int size) const;
   public:
-  ::google::protobuf::Metadata GetMetadata() const;
+  ::std::string GetTypeName() const;
 
   // nested types ----------------------------------------------------
 
@@ -430,6 +420,25 @@ class TeecSharedMemory : public ::google::protobuf::Message {
   inline ::google::protobuf::int32 mid() const;
   inline void set_mid(::google::protobuf::int32 value);
 
+  // optional bool mDirtyOnly = 6;
+  inline bool has_mdirtyonly() const;
+  inline void clear_mdirtyonly();
+  static const int kMDirtyOnlyFieldNumber = 6;
+  inline bool mdirtyonly() const;
+  inline void set_mdirtyonly(bool value);
+
+  // repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;
+  inline int mdirtyranges_size() const;
+  inline void clear_mdirtyranges();
+  static const int kMDirtyRangesFieldNumber = 7;
+  inline const ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange& mdirtyranges(int index) const;
+  inline ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange* mutable_mdirtyranges(int index);
+  inline ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange* add_mdirtyranges();
+  inline const ::google::protobuf::RepeatedPtrField< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange >&
+      mdirtyranges() const;
+  inline ::google::protobuf::RepeatedPtrField< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange >*
+      mutable_mdirtyranges();
+
   // @@protoc_insertion_point(class_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory)
  private:
   inline void set_has_mbuffer();
@@ -442,8 +451,10 @@ class TeecSharedMemory : public ::google::protobuf::Message {
   inline void clear_has_mreturnsize();
   inline void set_has_mid();
   inline void clear_has_mid();
+  inline void set_has_mdirtyonly();
+  inline void clear_has_mdirtyonly();
 
-  ::google::protobuf::UnknownFieldSet _unknown_fields_;
+  ::std::string _unknown_fields_;
 
   ::google::protobuf::uint32 _has_bits_[1];
   mutable int _cached_size_;
@@ -452,7 +463,13 @@ class TeecSharedMemory : public ::google::protobuf::Message {
   ::google::protobuf::int32 size_;
   ::google::protobuf::int32 mreturnsize_;
   ::google::protobuf::int32 mid_;
+  ::google::protobuf::RepeatedPtrField< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange > mdirtyranges_;
+  bool mdirtyonly_;
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  friend void  protobuf_AddDesc_GPDataTypes_2eproto_impl();
+  #else
   friend void  protobuf_AddDesc_GPDataTypes_2eproto();
+  #endif
   friend void protobuf_AssignDesc_GPDataTypes_2eproto();
   friend void protobuf_ShutdownFile_GPDataTypes_2eproto();
 
@@ -461,7 +478,113 @@ class TeecSharedMemory : public ::google::protobuf::Message {
 };
 // -------------------------------------------------------------------
 
-class TeecSharedMemoryReference : public ::google::protobuf::Message {
+class TeecDirtyRange : public ::google::protobuf::MessageLite {
+ public:
+  TeecDirtyRange();
+  virtual ~TeecDirtyRange();
+
+  TeecDirtyRange(const TeecDirtyRange& from);
+
+  inline TeecDirtyRange& operator=(const TeecDirtyRange& from) {
+    CopyFrom(from);
+    return *this;
+  }
+
+  inline const ::std::string& unknown_fields() const {
+    return _unknown_fields_;
+  }
+
+  inline ::std::string* mutable_unknown_fields() {
+    return &_unknown_fields_;
+  }
+
+  static const TeecDirtyRange& default_instance();
+
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  // Returns the internal default instance pointer. This function can
+  // return NULL thus should not be used by the user. This is intended
+  // for Protobuf internal code. Please use default_instance() declared
+  // above instead.
+  static inline const TeecDirtyRange* internal_default_instance() {
+    return default_instance_;
+  }
+  #endif
+
+  void Swap(TeecDirtyRange* other);
+
+  // implements Message ----------------------------------------------
+
+  TeecDirtyRange* New() const;
+  void CheckTypeAndMergeFrom(const ::google::protobuf::MessageLite& from);
+  void CopyFrom(const TeecDirtyRange& from);
+  void MergeFrom(const TeecDirtyRange& from);
+  void Clear();
+  bool IsInitialized() const;
+
+  int ByteSize() const;
+  bool MergePartialFromCodedStream(
+      ::google::protobuf::io::CodedInputStream* input);
+  void SerializeWithCachedSizes(
+      ::google::protobuf::io::CodedOutputStream* output) const;
+  void DiscardUnknownFields();
+  int GetCachedSize() const { return _cached_size_; }
+  private:
+  void SharedCtor();
+  void SharedDtor();
+  void SetCachedSize(int size) const;
+  public:
+  ::std::string GetTypeName() const;
+
+  // nested types ----------------------------------------------------
+
+  // accessors -------------------------------------------------------
+
+  // required int32 mOffset = 1;
+  inline bool has_moffset() const;
+  inline void clear_moffset();
+  static const int kMOffsetFieldNumber = 1;
+  inline ::google::protobuf::int32 moffset() const;
+  inline void set_moffset(::google::protobuf::int32 value);
+
+  // required bytes mData = 2;
+  inline bool has_mdata() const;
+  inline void clear_mdata();
+  static const int kMDataFieldNumber = 2;
+  inline const ::std::string& mdata() const;
+  inline void set_mdata(const ::std::string& value);
+  inline void set_mdata(const char* value);
+  inline void set_mdata(const void* value, size_t size);
+  inline ::std::string* mutable_mdata();
+  inline ::std::string* release_mdata();
+  inline void set_allocated_mdata(::std::string* mdata);
+
+  // @@protoc_insertion_point(class_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange)
+ private:
+  inline void set_has_moffset();
+  inline void clear_has_moffset();
+  inline void set_has_mdata();
+  inline void clear_has_mdata();
+
+  ::std::string _unknown_fields_;
+
+  ::google::protobuf::uint32 _has_bits_[1];
+  mutable int _cached_size_;
+  ::std::string* mdata_;
+  ::google::protobuf::int32 moffset_;
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  friend void  protobuf_AddDesc_GPDataTypes_2eproto_impl();
+  #else
+  friend void  protobuf_AddDesc_GPDataTypes_2eproto();
+  #endif
+  friend void protobuf_AssignDesc_GPDataTypes_2eproto();
+  friend void protobuf_ShutdownFile_GPDataTypes_2eproto();
+
+  void InitAsDefaultInstance();
+  static TeecDirtyRange* default_instance_;
+};
+// -------------------------------------------------------------------
+
+class TeecSharedMemoryReference : public ::google::protobuf::MessageLite {
  public:
   TeecSharedMemoryReference();
   virtual ~TeecSharedMemoryReference();
@@ -473,24 +596,32 @@ class TeecSharedMemoryReference : public ::google::protobuf::Message {
     return *this;
   }
 
-  inline const ::google::protobuf::UnknownFieldSet& unknown_fields() const {
+  inline const ::std::string& unknown_fields() const {
     return _unknown_fields_;
   }
 
-  inline ::google::protobuf::UnknownFieldSet* mutable_unknown_fields() {
+  inline ::std::string* mutable_unknown_fields() {
     return &_unknown_fields_;
   }
 
-  static const ::google::protobuf::Descriptor* descriptor();
   static const TeecSharedMemoryReference& default_instance();
 
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  // Returns the internal default instance pointer. This function can
+  // return NULL thus should not be used by the user. This is intended
+  // for Protobuf internal code. Please use default_instance() declared
+  // above instead.
+  static inline const TeecSharedMemoryReference* internal_default_instance() {
+    return default_instance_;
+  }
+  #endif
+
   void Swap(TeecSharedMemoryReference* other);
 
   // implements Message ----------------------------------------------
 
   TeecSharedMemoryReference* New() const;
-  void CopyFrom(const ::google::protobuf::Message& from);
-  void MergeFrom(const ::google::protobuf::Message& from);
+  void CheckTypeAndMergeFrom(const ::google::protobuf::MessageLite& from);
   void CopyFrom(const TeecSharedMemoryReference& from);
   void MergeFrom(const TeecSharedMemoryReference& from);
   void Clear();
@@ -501,14 +632,14 @@ class TeecSharedMemoryReference : public ::google::protobuf::Message {
       ::google::protobuf::io::CodedInputStream* input);
   void SerializeWithCachedSizes(
       ::google::protobuf::io::CodedOutputStream* output) const;
-  ::google::protobuf::uint8* SerializeWithCachedSizesToArray(::google::protobuf::uint8* output) const;
+  void DiscardUnknownFields();
   int GetCachedSize() const { return _cached_size_; }
   private:
   void SharedCtor();
   void SharedDtor();
   void SetCachedSize(int size) const;
   public:
-  ::google::protobuf::Metadata GetMetadata() const;
+  ::std::string GetTypeName() const;
 
   // nested types ----------------------------------------------------
 
@@ -525,17 +656,6 @@ class TeecSharedMemoryReference : public ::google::protobuf::Message {
     TeecSharedMemoryReference_Flag_Flag_MAX;
   static const int Flag_ARRAYSIZE =
     TeecSharedMemoryReference_Flag_Flag_ARRAYSIZE;
-  static inline const ::google::protobuf::EnumDescriptor*
-  Flag_descriptor() {
-    return TeecSharedMemoryReference_Flag_descriptor();
-  }
-  static inline const ::std::string& Flag_Name(Flag value) {
-    return TeecSharedMemoryReference_Flag_Name(value);
-  }
-  static inline bool Flag_Parse(const ::std::string& name,
-      Flag* value) {
-    return TeecSharedMemoryReference_Flag_Parse(name, value);
-  }
 
   // accessors -------------------------------------------------------
 
@@ -562,6 +682,13 @@ class TeecSharedMemoryReference : public ::google::protobuf::Message {
   inline ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference_Flag mflag() const;
   inline void set_mflag(::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference_Flag value);
 
+  // optional int32 mSize = 4;
+  inline bool has_msize() const;
+  inline void clear_msize();
+  static const int kMSizeFieldNumber = 4;
+  inline ::google::protobuf::int32 msize() const;
+  inline void set_msize(::google::protobuf::int32 value);
+
   // @@protoc_insertion_point(class_scope:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference)
  private:
   inline void set_has_parent();
@@ -570,15 +697,22 @@ class TeecSharedMemoryReference : public ::google::protobuf::Message {
   inline void clear_has_moffset();
   inline void set_has_mflag();
   inline void clear_has_mflag();
+  inline void set_has_msize();
+  inline void clear_has_msize();
 
-  ::google::protobuf::UnknownFieldSet _unknown_fields_;
+  ::std::string _unknown_fields_;
 
   ::google::protobuf::uint32 _has_bits_[1];
   mutable int _cached_size_;
   ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemory* parent_;
   ::google::protobuf::int32 moffset_;
   int mflag_;
+  ::google::protobuf::int32 msize_;
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  friend void  protobuf_AddDesc_GPDataTypes_2eproto_impl();
+  #else
   friend void  protobuf_AddDesc_GPDataTypes_2eproto();
+  #endif
   friend void protobuf_AssignDesc_GPDataTypes_2eproto();
   friend void protobuf_ShutdownFile_GPDataTypes_2eproto();
 
@@ -587,7 +721,7 @@ class TeecSharedMemoryReference : public ::google::protobuf::Message {
 };
 // -------------------------------------------------------------------
 
-class TeecValue : public ::google::protobuf::Message {
+class TeecValue : public ::google::protobuf::MessageLite {
  public:
   TeecValue();
   virtual ~TeecValue();
@@ -599,24 +733,32 @@ class TeecValue : public ::google::protobuf::Message {
     return *this;
   }
 
-  inline const ::google::protobuf::UnknownFieldSet& unknown_fields() const {
+  inline const ::std::string& unknown_fields() const {
     return _unknown_fields_;
   }
 
-  inline ::google::protobuf::UnknownFieldSet* mutable_unknown_fields() {
+  inline ::std::string* mutable_unknown_fields() {
     return &_unknown_fields_;
   }
 
-  static const ::google::protobuf::Descriptor* descriptor();
   static const TeecValue& default_instance();
 
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  // Returns the internal default instance pointer. This function can
+  // return NULL thus should not be used by the user. This is intended
+  // for Protobuf internal code. Please use default_instance() declared
+  // above instead.
+  static inline const TeecValue* internal_default_instance() {
+    return default_instance_;
+  }
+  #endif
+
   void Swap(TeecValue* other);
 
   // implements Message ----------------------------------------------
 
   TeecValue* New() const;
-  void CopyFrom(const ::google::protobuf::Message& from);
-  void MergeFrom(const ::google::protobuf::Message& from);
+  void CheckTypeAndMergeFrom(const ::google::protobuf::MessageLite& from);
   void CopyFrom(const TeecValue& from);
   void MergeFrom(const TeecValue& from);
   void Clear();
@@ -627,14 +769,14 @@ class TeecValue : public ::google::protobuf::Message {
       ::google::protobuf::io::CodedInputStream* input);
   void SerializeWithCachedSizes(
       ::google::protobuf::io::CodedOutputStream* output) const;
-  ::google::protobuf::uint8* SerializeWithCachedSizesToArray(::google::protobuf::uint8* output) const;
+  void DiscardUnknownFields();
   int GetCachedSize() const { return _cached_size_; }
   private:
   void SharedCtor();
   void SharedDtor();
   void SetCachedSize(int size) const;
   public:
-  ::google::protobuf::Metadata GetMetadata() const;
+  ::std::string GetTypeName() const;
 
   // nested types ----------------------------------------------------
 
@@ -651,17 +793,6 @@ class TeecValue : public ::google::protobuf::Message {
     TeecValue_Flag_Flag_MAX;
   static const int Flag_ARRAYSIZE =
     TeecValue_Flag_Flag_ARRAYSIZE;
-  static inline const ::google::protobuf::EnumDescriptor*
-  Flag_descriptor() {
-    return TeecValue_Flag_descriptor();
-  }
-  static inline const ::std::string& Flag_Name(Flag value) {
-    return TeecValue_Flag_Name(value);
-  }
-  static inline bool Flag_Parse(const ::std::string& name,
-      Flag* value) {
-    return TeecValue_Flag_Parse(name, value);
-  }
 
   // accessors -------------------------------------------------------
 
@@ -695,14 +826,18 @@ class TeecValue : public ::google::protobuf::Message {
   inline void set_has_mflag();
   inline void clear_has_mflag();
 
-  ::google::protobuf::UnknownFieldSet _unknown_fields_;
+  ::std::string _unknown_fields_;
 
   ::google::protobuf::uint32 _has_bits_[1];
   mutable int _cached_size_;
   ::google::protobuf::int32 a_;
   ::google::protobuf::int32 b_;
   int mflag_;
+  #ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  friend void  protobuf_AddDesc_GPDataTypes_2eproto_impl();
+  #else
   friend void  protobuf_AddDesc_GPDataTypes_2eproto();
+  #endif
   friend void protobuf_AssignDesc_GPDataTypes_2eproto();
   friend void protobuf_ShutdownFile_GPDataTypes_2eproto();
 
@@ -815,7 +950,11 @@ inline void TeecParameter::clear_teecsharedmemoryreference() {
 }
 inline const ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference& TeecParameter::teecsharedmemoryreference() const {
   // @@protoc_insertion_point(field_get:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.teecSharedMemoryReference)
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  return teecsharedmemoryreference_ != NULL ? *teecsharedmemoryreference_ : *default_instance().teecsharedmemoryreference_;
+#else
   return teecsharedmemoryreference_ != NULL ? *teecsharedmemoryreference_ : *default_instance_->teecsharedmemoryreference_;
+#endif
 }
 inline ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference* TeecParameter::mutable_teecsharedmemoryreference() {
   set_has_teecsharedmemoryreference();
@@ -856,7 +995,11 @@ inline void TeecParameter::clear_teecvalue() {
 }
 inline const ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue& TeecParameter::teecvalue() const {
   // @@protoc_insertion_point(field_get:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecParameter.teecValue)
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  return teecvalue_ != NULL ? *teecvalue_ : *default_instance().teecvalue_;
+#else
   return teecvalue_ != NULL ? *teecvalue_ : *default_instance_->teecvalue_;
+#endif
 }
 inline ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue* TeecParameter::mutable_teecvalue() {
   set_has_teecvalue();
@@ -1081,6 +1224,164 @@ inline void TeecSharedMemory::set_mid(::google::protobuf::int32 value) {
   // @@protoc_insertion_point(field_set:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory.mID)
 }
 
+// optional bool mDirtyOnly = 6;
+inline bool TeecSharedMemory::has_mdirtyonly() const {
+  return (_has_bits_[0] & 0x00000020u) != 0;
+}
+inline void TeecSharedMemory::set_has_mdirtyonly() {
+  _has_bits_[0] |= 0x00000020u;
+}
+inline void TeecSharedMemory::clear_has_mdirtyonly() {
+  _has_bits_[0] &= ~0x00000020u;
+}
+inline void TeecSharedMemory::clear_mdirtyonly() {
+  mdirtyonly_ = false;
+  clear_has_mdirtyonly();
+}
+inline bool TeecSharedMemory::mdirtyonly() const {
+  // @@protoc_insertion_point(field_get:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory.mDirtyOnly)
+  return mdirtyonly_;
+}
+inline void TeecSharedMemory::set_mdirtyonly(bool value) {
+  set_has_mdirtyonly();
+  mdirtyonly_ = value;
+  // @@protoc_insertion_point(field_set:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory.mDirtyOnly)
+}
+
+// repeated .fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange mDirtyRanges = 7;
+inline int TeecSharedMemory::mdirtyranges_size() const {
+  return mdirtyranges_.size();
+}
+inline void TeecSharedMemory::clear_mdirtyranges() {
+  mdirtyranges_.Clear();
+}
+inline const ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange& TeecSharedMemory::mdirtyranges(int index) const {
+  // @@protoc_insertion_point(field_get:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory.mDirtyRanges)
+  return mdirtyranges_.Get(index);
+}
+inline ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange* TeecSharedMemory::mutable_mdirtyranges(int index) {
+  // @@protoc_insertion_point(field_mutable:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory.mDirtyRanges)
+  return mdirtyranges_.Mutable(index);
+}
+inline ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange* TeecSharedMemory::add_mdirtyranges() {
+  // @@protoc_insertion_point(field_add:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory.mDirtyRanges)
+  return mdirtyranges_.Add();
+}
+inline const ::google::protobuf::RepeatedPtrField< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange >&
+TeecSharedMemory::mdirtyranges() const {
+  // @@protoc_insertion_point(field_list:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory.mDirtyRanges)
+  return mdirtyranges_;
+}
+inline ::google::protobuf::RepeatedPtrField< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecDirtyRange >*
+TeecSharedMemory::mutable_mdirtyranges() {
+  // @@protoc_insertion_point(field_mutable_list:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemory.mDirtyRanges)
+  return &mdirtyranges_;
+}
+
+// -------------------------------------------------------------------
+
+// TeecDirtyRange
+
+// required int32 mOffset = 1;
+inline bool TeecDirtyRange::has_moffset() const {
+  return (_has_bits_[0] & 0x00000001u) != 0;
+}
+inline void TeecDirtyRange::set_has_moffset() {
+  _has_bits_[0] |= 0x00000001u;
+}
+inline void TeecDirtyRange::clear_has_moffset() {
+  _has_bits_[0] &= ~0x00000001u;
+}
+inline void TeecDirtyRange::clear_moffset() {
+  moffset_ = 0;
+  clear_has_moffset();
+}
+inline ::google::protobuf::int32 TeecDirtyRange::moffset() const {
+  // @@protoc_insertion_point(field_get:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange.mOffset)
+  return moffset_;
+}
+inline void TeecDirtyRange::set_moffset(::google::protobuf::int32 value) {
+  set_has_moffset();
+  moffset_ = value;
+  // @@protoc_insertion_point(field_set:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange.mOffset)
+}
+
+// required bytes mData = 2;
+inline bool TeecDirtyRange::has_mdata() const {
+  return (_has_bits_[0] & 0x00000002u) != 0;
+}
+inline void TeecDirtyRange::set_has_mdata() {
+  _has_bits_[0] |= 0x00000002u;
+}
+inline void TeecDirtyRange::clear_has_mdata() {
+  _has_bits_[0] &= ~0x00000002u;
+}
+inline void TeecDirtyRange::clear_mdata() {
+  if (mdata_ != &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
+    mdata_->clear();
+  }
+  clear_has_mdata();
+}
+inline const ::std::string& TeecDirtyRange::mdata() const {
+  // @@protoc_insertion_point(field_get:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange.mData)
+  return *mdata_;
+}
+inline void TeecDirtyRange::set_mdata(const ::std::string& value) {
+  set_has_mdata();
+  if (mdata_ == &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
+    mdata_ = new ::std::string;
+  }
+  mdata_->assign(value);
+  // @@protoc_insertion_point(field_set:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange.mData)
+}
+inline void TeecDirtyRange::set_mdata(const char* value) {
+  set_has_mdata();
+  if (mdata_ == &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
+    mdata_ = new ::std::string;
+  }
+  mdata_->assign(value);
+  // @@protoc_insertion_point(field_set_char:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange.mData)
+}
+inline void TeecDirtyRange::set_mdata(const void* value, size_t size) {
+  set_has_mdata();
+  if (mdata_ == &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
+    mdata_ = new ::std::string;
+  }
+  mdata_->assign(reinterpret_cast<const char*>(value), size);
+  // @@protoc_insertion_point(field_set_pointer:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange.mData)
+}
+inline ::std::string* TeecDirtyRange::mutable_mdata() {
+  set_has_mdata();
+  if (mdata_ == &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
+    mdata_ = new ::std::string;
+  }
+  // @@protoc_insertion_point(field_mutable:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange.mData)
+  return mdata_;
+}
+inline ::std::string* TeecDirtyRange::release_mdata() {
+  clear_has_mdata();
+  if (mdata_ == &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
+    return NULL;
+  } else {
+    ::std::string* temp = mdata_;
+    mdata_ = const_cast< ::std::string*>(&::google::protobuf::internal::GetEmptyStringAlreadyInited());
+    return temp;
+  }
+}
+inline void TeecDirtyRange::set_allocated_mdata(::std::string* mdata) {
+  if (mdata_ != &::google::protobuf::internal::GetEmptyStringAlreadyInited()) {
+    delete mdata_;
+  }
+  if (mdata) {
+    set_has_mdata();
+    mdata_ = mdata;
+  } else {
+    clear_has_mdata();
+    mdata_ = const_cast< ::std::string*>(&::google::protobuf::internal::GetEmptyStringAlreadyInited());
+  }
+  // @@protoc_insertion_point(field_set_allocated:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecDirtyRange.mData)
+}
+
 // -------------------------------------------------------------------
 
 // TeecSharedMemoryReference
@@ -1101,7 +1402,11 @@ inline void TeecSharedMemoryReference::clear_parent() {
 }
 inline const ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemory& TeecSharedMemoryReference::parent() const {
   // @@protoc_insertion_point(field_get:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.parent)
+#ifdef GOOGLE_PROTOBUF_NO_STATIC_INITIALIZER
+  return parent_ != NULL ? *parent_ : *default_instance().parent_;
+#else
   return parent_ != NULL ? *parent_ : *default_instance_->parent_;
+#endif
 }
 inline ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemory* TeecSharedMemoryReference::mutable_parent() {
   set_has_parent();
@@ -1175,6 +1480,30 @@ inline void TeecSharedMemoryReference::set_mflag(::fi::aalto::ssg::opentee::imps
   // @@protoc_insertion_point(field_set:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.mFlag)
 }
 
+// optional int32 mSize = 4;
+inline bool TeecSharedMemoryReference::has_msize() const {
+  return (_has_bits_[0] & 0x00000008u) != 0;
+}
+inline void TeecSharedMemoryReference::set_has_msize() {
+  _has_bits_[0] |= 0x00000008u;
+}
+inline void TeecSharedMemoryReference::clear_has_msize() {
+  _has_bits_[0] &= ~0x00000008u;
+}
+inline void TeecSharedMemoryReference::clear_msize() {
+  msize_ = 0;
+  clear_has_msize();
+}
+inline ::google::protobuf::int32 TeecSharedMemoryReference::msize() const {
+  // @@protoc_insertion_point(field_get:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.mSize)
+  return msize_;
+}
+inline void TeecSharedMemoryReference::set_msize(::google::protobuf::int32 value) {
+  set_has_msize();
+  msize_ = value;
+  // @@protoc_insertion_point(field_set:fi.aalto.ssg.opentee.imps.pbdatatypes.TeecSharedMemoryReference.mSize)
+}
+
 // -------------------------------------------------------------------
 
 // TeecValue
@@ -1262,30 +1591,6 @@ inline void TeecValue::set_mflag(::fi::aalto::ssg::opentee::imps::pbdatatypes::T
 }  // namespace aalto
 }  // namespace fi
 
-#ifndef SWIG
-namespace google {
-namespace protobuf {
-
-template <> struct is_proto_enum< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecParameter_Type> : ::google::protobuf::internal::true_type {};
-template <>
-inline const EnumDescriptor* GetEnumDescriptor< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecParameter_Type>() {
-  return ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecParameter_Type_descriptor();
-}
-template <> struct is_proto_enum< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference_Flag> : ::google::protobuf::internal::true_type {};
-template <>
-inline const EnumDescriptor* GetEnumDescriptor< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference_Flag>() {
-  return ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecSharedMemoryReference_Flag_descriptor();
-}
-template <> struct is_proto_enum< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue_Flag> : ::google::protobuf::internal::true_type {};
-template <>
-inline const EnumDescriptor* GetEnumDescriptor< ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue_Flag>() {
-  return ::fi::aalto::ssg::opentee::imps::pbdatatypes::TeecValue_Flag_descriptor();
-}
-
-}  // namespace google
-}  // namespace protobuf
-#endif  // SWIG
-
 // @@protoc_insertion_point(global_scope)
 
 #endif  // PROTOBUF_GPDataTypes_2eproto__INCLUDED
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2016 Aalto University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fi.aalto.ssg.opentee.openteeandroid;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks of the handle table and a microbenchmark with 10k registered objects per caller. It runs on the
+ * host JVM and prints the results to the standard output.
+ */
+public class OTHandleTableBenchmark {
+    static final int NUM_OF_CALLERS = 4;
+    static final int OBJECTS_PER_CALLER = 10000;
+    static final int LOOKUP_ROUNDS = 20;
+    static final int WARM_UP_ROUNDS = 10;
+
+    @Test
+    public void staleIdIsRejected() throws Exception {
+        OTHandleTable<String> table = new OTHandleTable<>();
+
+        int id = table.add(1, "first");
+        assertTrue(table.remove(id, 1));
+
+        // the slot is reused with a new generation.
+        int newId = table.add(1, "second");
+        assertTrue(newId != id);
+        assertNull(table.get(id));
+        assertEquals(OTHandleTable.NONE, table.ownerOf(id));
+        assertFalse(table.remove(id, 1));
+        assertEquals("second", table.get(newId));
+    }
+
+    @Test
+    public void onlyOwnerCanRemove() throws Exception {
+        OTHandleTable<String> table = new OTHandleTable<>();
+
+        int id = table.add(1, "sm");
+        assertFalse(table.isOwnedBy(id, 2));
+        assertFalse(table.remove(id, 2));
+        assertTrue(table.isOwnedBy(id, 1));
+        assertEquals(1, table.ownerOf(id));
+        assertNull(table.get(id, 2));
+        assertEquals("sm", table.get(id, 1));
+    }
+
+    @Test
+    public void idsOfOwnerFollowAddAndRemove() throws Exception {
+        OTHandleTable<String> table = new OTHandleTable<>(2);
+
+        int a = table.add(1, "a");
+        int b = table.add(2, "b");
+        int c = table.add(1, "c");
+        assertEquals(2, table.countOf(1));
+        assertEquals(c, table.firstIdOf(1));
+
+        assertTrue(table.remove(c, 1));
+        assertEquals(1, table.countOf(1));
+        assertEquals(a, table.firstIdOf(1));
+
+        assertTrue(table.remove(a, 1));
+        assertEquals(0, table.countOf(1));
+        assertEquals(OTHandleTable.NO_ID, table.firstIdOf(1));
+        assertEquals(b, table.firstIdOf(2));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void ownersComeAndGo() throws Exception {
+        OTHandleTable<String> table = new OTHandleTable<>();
+        int numOfOwners = 100;
+
+        // owners far apart and close to each other, so that some of them share their home entries.
+        for(int owner = 0; owner < numOfOwners; owner++){
+            for(int i = 0; i <= owner % 3; i++) table.add(owner * 1000 + owner % 7, "sm");
+        }
+
+        // remove every other owner, then check that the rest are still found.
+        for(int owner = 0; owner < numOfOwners; owner += 2){
+            int ownerId = owner * 1000 + owner % 7;
+            for(int id = table.firstIdOf(ownerId); id != OTHandleTable.NO_ID; id = table.firstIdOf(ownerId)){
+                assertTrue(table.remove(id, ownerId));
+            }
+        }
+
+        for(int owner = 0; owner < numOfOwners; owner++){
+            int ownerId = owner * 1000 + owner % 7;
+            assertEquals(owner % 2 == 0 ? 0 : owner % 3 + 1, table.countOf(ownerId));
+            if(owner % 2 != 0) assertTrue(table.isOwnedBy(table.firstIdOf(ownerId), ownerId));
+        }
+    }
+
+    @Test
+    public void tenThousandObjectsPerCaller() throws Exception {
+        OTHandleTable<Object> table = new OTHandleTable<>();
+        Object value = new Object();
+        int[][] ids = new int[NUM_OF_CALLERS][OBJECTS_PER_CALLER];
+
+        // fill the table and empty it a few times, so that the measured round runs compiled code.
+        for(int round = 0; round < WARM_UP_ROUNDS; round++){
+            fill(table, value, ids);
+            drain(table, ids);
+            fill(table, value, ids);
+            for(int caller = 0; caller < NUM_OF_CALLERS; caller++) removeAll(table, caller);
+        }
+
+        long start = System.nanoTime();
+        fill(table, value, ids);
+        long addNs = (System.nanoTime() - start) / (NUM_OF_CALLERS * OBJECTS_PER_CALLER);
+        assertEquals(NUM_OF_CALLERS * OBJECTS_PER_CALLER, table.size());
+
+        // warm up the lookups before they are measured.
+        int hits = lookUpAll(table, ids);
+        allocatedBytes();
+
+        long lookups = (long)LOOKUP_ROUNDS * NUM_OF_CALLERS * OBJECTS_PER_CALLER;
+        long allocatedBefore = allocatedBytes();
+        start = System.nanoTime();
+        for(int round = 0; round < LOOKUP_ROUNDS; round++){
+            hits += lookUpAll(table, ids);
+        }
+        long lookupNs = (System.nanoTime() - start) / lookups;
+        long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+        assertEquals((LOOKUP_ROUNDS + 1) * NUM_OF_CALLERS * OBJECTS_PER_CALLER, hits);
+
+        // remove half of the objects of each caller by their ids.
+        start = System.nanoTime();
+        for(int i = 0; i < OBJECTS_PER_CALLER / 2; i++){
+            for(int caller = 0; caller < NUM_OF_CALLERS; caller++){
+                assertTrue(table.remove(ids[caller][i], caller));
+            }
+        }
+        long removeNs = (System.nanoTime() - start) / (NUM_OF_CALLERS * OBJECTS_PER_CALLER / 2);
+
+        // and the rest the way a caller is finalized.
+        allocatedBefore = allocatedBytes();
+        start = System.nanoTime();
+        for(int caller = 0; caller < NUM_OF_CALLERS; caller++){
+            assertEquals(OBJECTS_PER_CALLER - OBJECTS_PER_CALLER / 2, removeAll(table, caller));
+        }
+        long finalizeNs = (System.nanoTime() - start) / NUM_OF_CALLERS;
+        long allocatedByFinalize = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+        assertEquals(0, table.size());
+
+        System.out.println("OTHandleTable with " + OBJECTS_PER_CALLER + " objects for each of " + NUM_OF_CALLERS
+                + " callers: add " + addNs + " ns, lookup " + lookupNs + " ns, remove " + removeNs
+                + " ns, removing the other " + (OBJECTS_PER_CALLER - OBJECTS_PER_CALLER / 2) + " of one caller "
+                + finalizeNs / 1000 + " us, " + (allocated < 0 ? "unknown" : String.valueOf(allocated))
+                + " bytes allocated by the lookups, "
+                + (allocatedByFinalize < 0 ? "unknown" : String.valueOf(allocatedByFinalize))
+                + " bytes allocated by removing all of the callers");
+
+        // the JVM may allocate a little on its own while the loop is compiled, but not per lookup.
+        if(allocated >= 0) assertEquals("bytes allocated per lookup", 0, allocated / lookups);
+        if(allocatedByFinalize >= 0) assertEquals("bytes allocated per removal", 0,
+                allocatedByFinalize / (NUM_OF_CALLERS * OBJECTS_PER_CALLER / 2));
+    }
+
+    @Test
+    public void thousandCallers() throws Exception {
+        OTHandleTable<Object> table = new OTHandleTable<>();
+        Object value = new Object();
+        int numOfCallers = 1000;
+        int objectsPerCaller = 40;
+
+        long addNs = 0;
+        long finalizeNs = 0;
+        for(int round = 0; round <= WARM_UP_ROUNDS; round++){
+            long start = System.nanoTime();
+            for(int i = 0; i < objectsPerCaller; i++){
+                for(int caller = 0; caller < numOfCallers; caller++) table.add(caller, value);
+            }
+            addNs = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for(int caller = 0; caller < numOfCallers; caller++){
+                assertEquals(objectsPerCaller, removeAll(table, caller));
+            }
+            finalizeNs = System.nanoTime() - start;
+            assertEquals(0, table.size());
+        }
+
+        System.out.println("OTHandleTable with " + objectsPerCaller + " objects for each of " + numOfCallers
+                + " callers: add " + addNs / (numOfCallers * objectsPerCaller) + " ns, removing all of them by caller "
+                + finalizeNs / (numOfCallers * objectsPerCaller) + " ns per object");
+    }
+
+    @Test
+    public void lookupsWhileAnotherCallerAddsAndRemoves() throws Exception {
+        final OTHandleTable<Object> table = new OTHandleTable<>();
+        final Object value = new Object();
+        final int[][] ids = new int[NUM_OF_CALLERS][OBJECTS_PER_CALLER];
+        fill(table, value, ids);
+        lookUpAll(table, ids);
+
+        // one more caller keeps adding and removing while the others look up their ids.
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        Thread writer = new Thread(){
+            @Override
+            public void run(){
+                while(!stop.get()){
+                    table.remove(table.add(NUM_OF_CALLERS, value), NUM_OF_CALLERS);
+                }
+            }
+        };
+
+        final AtomicInteger hits = new AtomicInteger(0);
+        Thread[] readers = new Thread[NUM_OF_CALLERS];
+        for(int r = 0; r < readers.length; r++){
+            readers[r] = new Thread(){
+                @Override
+                public void run(){
+                    for(int round = 0; round < LOOKUP_ROUNDS; round++){
+                        hits.addAndGet(lookUpAll(table, ids));
+                    }
+                }
+            };
+        }
+
+        writer.start();
+        long start = System.nanoTime();
+        for(Thread reader: readers) reader.start();
+        for(Thread reader: readers) reader.join();
+        long elapsedNs = System.nanoTime() - start;
+        stop.set(true);
+        writer.join();
+
+        long lookups = (long)readers.length * LOOKUP_ROUNDS * NUM_OF_CALLERS * OBJECTS_PER_CALLER;
+        System.out.println("OTHandleTable lookups from " + readers.length + " threads while another one adds and removes: "
+                + elapsedNs / lookups + " ns per lookup, " + Runtime.getRuntime().availableProcessors() + " cpus");
+        assertEquals(lookups, hits.get());
+        assertEquals(NUM_OF_CALLERS * OBJECTS_PER_CALLER, table.size());
+    }
+
+    /* add the objects of all callers in turns. */
+    private void fill(OTHandleTable<Object> table, Object value, int[][] ids){
+        for(int i = 0; i < OBJECTS_PER_CALLER; i++){
+            for(int caller = 0; caller < NUM_OF_CALLERS; caller++){
+                ids[caller][i] = table.add(caller, value);
+            }
+        }
+    }
+
+    private void drain(OTHandleTable<Object> table, int[][] ids){
+        for(int i = 0; i < OBJECTS_PER_CALLER; i++){
+            for(int caller = 0; caller < NUM_OF_CALLERS; caller++){
+                assertTrue(table.remove(ids[caller][i], caller));
+            }
+        }
+    }
+
+    /* remove the objects of the caller the way OTGuard does when it is finalized. */
+    private int removeAll(OTHandleTable<Object> table, int caller){
+        int count = table.countOf(caller);
+        for(int i = 0; i < count; i++){
+            assertTrue(table.remove(table.firstIdOf(caller), caller));
+        }
+        return count;
+    }
+
+    /* look up every id in both directions. */
+    private int lookUpAll(OTHandleTable<Object> table, int[][] ids){
+        int hits = 0;
+        for(int caller = 0; caller < NUM_OF_CALLERS; caller++){
+            int[] callerIds = ids[caller];
+            for(int i = 0; i < callerIds.length; i++){
+                if(table.ownerOf(callerIds[i]) == caller &&
+                   table.isOwnedBy(callerIds[i], caller) &&
+                   table.get(callerIds[i]) != null) hits++;
+            }
+        }
+        return hits;
+    }
+
+    /* bytes allocated by this thread so far, or -1 if the JVM does not tell. */
+    private static long allocatedBytes(){
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(bean instanceof com.sun.management.ThreadMXBean){
+            return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}